@@ -41,10 +41,12 @@ public enum KernelVersion
     // 4.3(some drop)+. Not a change to log entry format, but record storage engine log format change. Since record storage commands
     // has no command version of their own it relies on a bump of the parser set version to distinguish between versions unfortunately.
     // Also introduces token index and relationship property index features.
-    V4_3_D4( (byte) 3 );
+    V4_3_D4( (byte) 3 ),
+    V4_3_10( (byte) 4 ); // 4.3.10+. Introduces compressed command entries, which readers of older versions can not parse.
 
-    public static final KernelVersion LATEST = V4_3_D4;
+    public static final KernelVersion LATEST = V4_3_10;
     public static final KernelVersion VERSION_IN_WHICH_TOKEN_INDEXES_ARE_INTRODUCED = V4_3_D4;
+    public static final KernelVersion VERSION_IN_WHICH_COMPRESSED_COMMANDS_ARE_INTRODUCED = V4_3_10;
     private static final ImmutableByteObjectMap<KernelVersion> versionMap =
             ByteObjectMaps.immutable.from( List.of( values() ), KernelVersion::version, v -> v );
 
@@ -35,12 +35,20 @@ public enum Group
     PAGE_CACHE_EVICTION( "PageCacheEviction" ),
     /* Page cache background eviction. */
     PAGE_CACHE_PRE_FETCHER( "PageCachePreFetcher", ExecutorServiceFactory.cachedWithDiscard(), 4 ),
+    /* Page cache background flushing of dirty pages, ahead of checkpoints. */
+    PAGE_CACHE_BACKGROUND_FLUSH( "PageCacheBackgroundFlush" ),
+    /* Page cache flushing of files, and page ranges of files, in parallel, during checkpoints and shutdown. */
+    PAGE_CACHE_FLUSH( "PageCacheFlush", ExecutorServiceFactory.cached(), 8 ),
     /** Watch out for, and report, external manipulation of store files. */
     FILE_WATCHER( "FileWatcher", ExecutorServiceFactory.unschedulable() ),
     /** Monitor and report system-wide pauses, in case they lead to service interruption. */
     VM_PAUSE_MONITOR( "VmPauseMonitor" ),
     /** Rotates diagnostic text logs. */
     LOG_ROTATION( "LogRotation" ),
+    /** Forces transaction logs of databases that don't force them on commit. */
+    TRANSACTION_LOG_FORCE( "TransactionLogForce" ),
+    /** Dispatches after-commit events to asynchronous transaction event listeners. */
+    TRANSACTION_EVENTS( "TransactionEvents" ),
     /** Checkpoint and store flush. */
     CHECKPOINT( "CheckPoint" ),
     /** Various little periodic tasks that need to be done on a regular basis to keep the store in good shape. */
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.io.pagecache.IOController.DISABLED;
+
+/**
+ * Writes and reads the same pages, shaped like the leaves of a native index, through a plain and a compressing swapper on the real file system.
+ * The pages are generated from fixed seeds, so the sizes on disk are the same in every run.
+ */
+@TestDirectoryExtension
+class CompressingPageSwapperSizeTest
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final int PAGES = 2048;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory directory;
+
+    private final SwapperSet swappers = new SwapperSet();
+    private final ByteBuffer page = ByteBuffer.allocateDirect( PAGE_SIZE );
+    private final long pageAddress = UnsafeUtil.getDirectByteBufferAddress( page );
+
+    @Test
+    void compressedIndexPagesMustTakeLessSpaceAndReadBackTheSame() throws IOException
+    {
+        Path compressedDirectory = directory.directory( "compressed" );
+        Path plainDirectory = directory.directory( "plain" );
+        var factory = new CompressingPageSwapperFactory( fs, new SingleFilePageSwapperFactory( fs ), f -> f.startsWith( compressedDirectory ) );
+
+        long plainBytes = writeAndReadBack( factory, plainDirectory.resolve( "index" ) );
+        long compressedBytes = writeAndReadBack( factory, compressedDirectory.resolve( "index" ) );
+
+        assertEquals( (long) PAGES * PAGE_SIZE, plainBytes );
+        assertThat( compressedBytes ).isLessThan( plainBytes / 2 );
+    }
+
+    private long writeAndReadBack( CompressingPageSwapperFactory factory, Path file ) throws IOException
+    {
+        try ( PageSwapper swapper = factory.createPageSwapper( file, PAGE_SIZE, filePageId -> {}, true, false, false, DISABLED, swappers ) )
+        {
+            for ( int pageId = 0; pageId < PAGES; pageId++ )
+            {
+                fillLeaf( pageId );
+                assertEquals( PAGE_SIZE, swapper.write( pageId, pageAddress ) );
+            }
+            swapper.force();
+        }
+
+        try ( PageSwapper swapper = factory.createPageSwapper( file, PAGE_SIZE, filePageId -> {}, false, false, false, DISABLED, swappers ) )
+        {
+            long checksum = 0;
+            for ( int pageId = 0; pageId < PAGES; pageId++ )
+            {
+                assertEquals( PAGE_SIZE, swapper.read( pageId, pageAddress ) );
+                checksum += checksum();
+            }
+            assertEquals( expectedChecksum(), checksum );
+        }
+        return fs.getFileSize( file );
+    }
+
+    /**
+     * A leaf with sorted keys of a few random bytes of difference, each with a node id as value, filled to between half and full.
+     */
+    private void fillLeaf( int pageId )
+    {
+        SplittableRandom random = new SplittableRandom( pageId );
+        int entries = (PAGE_SIZE - Long.BYTES) / (2 * Long.BYTES);
+        int keyCount = entries / 2 + random.nextInt( entries / 2 );
+        page.clear();
+        page.putLong( keyCount );
+        long key = pageId * 1_000_000L;
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            key += 1 + random.nextInt( 256 );
+            page.putLong( key );
+            page.putLong( random.nextLong( 10_000_000L ) );
+        }
+        while ( page.hasRemaining() )
+        {
+            page.put( (byte) 0 );
+        }
+    }
+
+    private long checksum()
+    {
+        long checksum = 0;
+        page.clear();
+        while ( page.hasRemaining() )
+        {
+            checksum = 31 * checksum + page.getLong();
+        }
+        return checksum;
+    }
+
+    private long expectedChecksum()
+    {
+        long checksum = 0;
+        for ( int pageId = 0; pageId < PAGES; pageId++ )
+        {
+            fillLeaf( pageId );
+            checksum += checksum();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.io.pagecache.IOController.DISABLED;
+import static org.neo4j.io.pagecache.PageMapFiles.pageMapFile;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+class CompressingPageSwapperTest
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final Path COMPRESSED_DIRECTORY = Path.of( "compressed" ).toAbsolutePath();
+    private static final Path PLAIN_DIRECTORY = Path.of( "plain" ).toAbsolutePath();
+
+    private final SwapperSet swappers = new SwapperSet();
+    private final ByteBuffer page = ByteBuffer.allocateDirect( PAGE_SIZE );
+    private final long pageAddress = UnsafeUtil.getDirectByteBufferAddress( page );
+    private EphemeralFileSystemAbstraction fs;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        fs = new EphemeralFileSystemAbstraction();
+        fs.mkdirs( COMPRESSED_DIRECTORY );
+        fs.mkdirs( PLAIN_DIRECTORY );
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        fs.close();
+    }
+
+    @Test
+    void mustCompressSelectedFilesWhenTheyAreCreated() throws IOException
+    {
+        Path compressed = COMPRESSED_DIRECTORY.resolve( "file" );
+        Path plain = PLAIN_DIRECTORY.resolve( "file" );
+
+        try ( PageSwapper swapper = createSwapper( fs, compressed ) )
+        {
+            assertThat( swapper ).isInstanceOf( CompressingPageSwapper.class );
+        }
+        try ( PageSwapper swapper = createSwapper( fs, plain ) )
+        {
+            assertThat( swapper ).isInstanceOf( SingleFilePageSwapper.class );
+        }
+        assertThat( fs.fileExists( pageMapFile( compressed ) ) ).isTrue();
+        assertThat( fs.fileExists( pageMapFile( plain ) ) ).isFalse();
+    }
+
+    @Test
+    void mustKeepExistingFilesAsTheyWereCreated() throws IOException
+    {
+        Path compressed = PLAIN_DIRECTORY.resolve( "compressed" );
+        Path plain = COMPRESSED_DIRECTORY.resolve( "plain" );
+        new CompressingPageSwapper( compressed, fs, PAGE_SIZE, filePageId -> {}, DISABLED, swappers ).close();
+        new SingleFilePageSwapperFactory( fs ).createPageSwapper( plain, PAGE_SIZE, filePageId -> {}, true, false, false, DISABLED, swappers ).close();
+
+        try ( PageSwapper swapper = createSwapper( fs, compressed ) )
+        {
+            assertThat( swapper ).isInstanceOf( CompressingPageSwapper.class );
+        }
+        try ( PageSwapper swapper = createSwapper( fs, plain ) )
+        {
+            assertThat( swapper ).isInstanceOf( SingleFilePageSwapper.class );
+        }
+    }
+
+    @Test
+    void mustDeletePageMapOfFileDeletedOutsideOfThePageCache() throws IOException
+    {
+        Path file = PLAIN_DIRECTORY.resolve( "file" );
+        new CompressingPageSwapper( file, fs, PAGE_SIZE, filePageId -> {}, DISABLED, swappers ).close();
+        fs.deleteFile( file );
+
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            assertThat( swapper ).isInstanceOf( SingleFilePageSwapper.class );
+        }
+        assertThat( fs.fileExists( pageMapFile( file ) ) ).isFalse();
+    }
+
+    @Test
+    void mustReadBackCompressiblePagesAfterReopening() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        int pages = 100;
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            for ( int pageId = 0; pageId < pages; pageId++ )
+            {
+                fillCompressible( pageId );
+                assertEquals( PAGE_SIZE, swapper.write( pageId, pageAddress ) );
+            }
+            swapper.force();
+        }
+
+        // Much less than the size of the uncompressed file, which shows how much I/O the compression saves.
+        assertThat( fs.getFileSize( file ) ).isLessThan( (long) pages * PAGE_SIZE / 8 );
+
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            assertEquals( pages - 1, swapper.getLastPageId() );
+            for ( int pageId = 0; pageId < pages; pageId++ )
+            {
+                assertEquals( PAGE_SIZE, swapper.read( pageId, pageAddress ) );
+                assertCompressible( pageId );
+            }
+        }
+    }
+
+    @Test
+    void mustStoreIncompressiblePagesAsIs() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        byte[] data = new byte[PAGE_SIZE];
+        ThreadLocalRandom.current().nextBytes( data );
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            page.clear().put( data );
+            swapper.write( 0, pageAddress );
+            swapper.force();
+        }
+
+        assertEquals( PAGE_SIZE, fs.getFileSize( file ) );
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            page.clear().put( new byte[PAGE_SIZE] );
+            assertEquals( PAGE_SIZE, swapper.read( 0, pageAddress ) );
+            byte[] read = new byte[PAGE_SIZE];
+            page.clear().get( read );
+            assertThat( read ).isEqualTo( data );
+        }
+    }
+
+    @Test
+    void pagesThatWereNeverWrittenMustReadAsZeros() throws IOException
+    {
+        try ( PageSwapper swapper = createSwapper( fs, COMPRESSED_DIRECTORY.resolve( "file" ) ) )
+        {
+            fillCompressible( 3 );
+            swapper.write( 3, pageAddress );
+
+            fillCompressible( 1 );
+            assertEquals( 0, swapper.read( 1, pageAddress ) );
+            assertZeros();
+            fillCompressible( 1 );
+            assertEquals( 0, swapper.read( 10, pageAddress ) );
+            assertZeros();
+            assertEquals( 3, swapper.getLastPageId() );
+        }
+    }
+
+    @Test
+    void vectoredReadsAndWritesMustHandleEveryPage() throws IOException
+    {
+        ByteBuffer first = ByteBuffer.allocateDirect( PAGE_SIZE * 2 );
+        ByteBuffer second = ByteBuffer.allocateDirect( PAGE_SIZE );
+        long[] addresses = {UnsafeUtil.getDirectByteBufferAddress( first ), UnsafeUtil.getDirectByteBufferAddress( second )};
+        int[] lengths = {PAGE_SIZE * 2, PAGE_SIZE};
+        try ( PageSwapper swapper = createSwapper( fs, COMPRESSED_DIRECTORY.resolve( "file" ) ) )
+        {
+            for ( int i = 0; i < 3; i++ )
+            {
+                fillCompressible( 5 + i );
+                UnsafeUtil.copyMemory( pageAddress, i < 2 ? addresses[0] + (long) i * PAGE_SIZE : addresses[1], PAGE_SIZE );
+            }
+            assertEquals( 3L * PAGE_SIZE, swapper.write( 5, addresses, lengths, 2, 3 ) );
+
+            UnsafeUtil.setMemory( addresses[0], PAGE_SIZE * 2, (byte) 0 );
+            UnsafeUtil.setMemory( addresses[1], PAGE_SIZE, (byte) 0 );
+            assertEquals( 3L * PAGE_SIZE, swapper.read( 5, addresses, lengths, 2 ) );
+            for ( int i = 0; i < 3; i++ )
+            {
+                UnsafeUtil.copyMemory( i < 2 ? addresses[0] + (long) i * PAGE_SIZE : addresses[1], pageAddress, PAGE_SIZE );
+                assertCompressible( 5 + i );
+            }
+        }
+    }
+
+    @Test
+    void pagesWrittenAfterTheLastForceMustNotOverwriteThePagesOfThatForce() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        EphemeralFileSystemAbstraction crashed;
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            fillCompressible( 1 );
+            swapper.write( 0, pageAddress );
+            swapper.force();
+
+            fillCompressible( 2 );
+            swapper.write( 0, pageAddress );
+            fillCompressible( 3 );
+            swapper.write( 1, pageAddress );
+
+            // Every write has reached the file, but the page map still describes the pages as they were at the force.
+            crashed = fs.snapshot();
+        }
+
+        try ( crashed; PageSwapper swapper = createSwapper( crashed, file ) )
+        {
+            assertEquals( 0, swapper.getLastPageId() );
+            swapper.read( 0, pageAddress );
+            assertCompressible( 1 );
+        }
+    }
+
+    @Test
+    void closeMustPersistWritesThatWereNotForced() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            fillCompressible( 7 );
+            swapper.write( 0, pageAddress );
+        }
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            swapper.read( 0, pageAddress );
+            assertCompressible( 7 );
+        }
+    }
+
+    @Test
+    void rewrittenPagesMustReuseFreedSpaceAfterForce() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            fillCompressible( 1 );
+            swapper.write( 0, pageAddress );
+            swapper.force();
+
+            for ( int i = 0; i < 10; i++ )
+            {
+                swapper.write( 0, pageAddress );
+                swapper.force();
+            }
+            // The page alternates between two extents.
+            assertThat( fs.getFileSize( file ) ).isLessThanOrEqualTo( 2L * CompressingPageSwapper.SECTOR_SIZE );
+        }
+    }
+
+    @Test
+    void truncatedFilesMustBeEmpty() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            fillCompressible( 1 );
+            swapper.write( 0, pageAddress );
+            swapper.write( 1, pageAddress );
+            swapper.truncate();
+
+            assertEquals( PageCursor.UNBOUND_PAGE_ID, swapper.getLastPageId() );
+            assertEquals( 0, swapper.read( 0, pageAddress ) );
+            assertZeros();
+        }
+        try ( PageSwapper swapper = createSwapper( fs, file ) )
+        {
+            assertEquals( PageCursor.UNBOUND_PAGE_ID, swapper.getLastPageId() );
+        }
+    }
+
+    @Test
+    void closeAndDeleteMustDeleteThePageMap() throws IOException
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        createSwapper( fs, file ).closeAndDelete();
+
+        assertThat( fs.fileExists( file ) ).isFalse();
+        assertThat( fs.fileExists( pageMapFile( file ) ) ).isFalse();
+    }
+
+    @Test
+    void mustWorkAsSwapperOfThePageCache() throws Exception
+    {
+        Path file = COMPRESSED_DIRECTORY.resolve( "file" );
+        int pages = 200;
+        var swapperFactory = new CompressingPageSwapperFactory( fs, new SingleFilePageSwapperFactory( fs ), f -> f.startsWith( COMPRESSED_DIRECTORY ) );
+        try ( var jobScheduler = new ThreadPoolJobScheduler() )
+        {
+            try ( var pageCache = new MuninnPageCache( swapperFactory, jobScheduler, MuninnPageCache.config( 20 ) );
+                    PagedFile pagedFile = pageCache.map( file, PAGE_SIZE, DEFAULT_DATABASE_NAME, immutable.of( CREATE ) );
+                    PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int pageId = 0; pageId < pages; pageId++ )
+                {
+                    assertThat( cursor.next() ).isTrue();
+                    for ( int i = 0; i < PAGE_SIZE / Long.BYTES; i++ )
+                    {
+                        cursor.putLong( pageId * 1_000_000L + i / 16 );
+                    }
+                }
+            }
+            assertThat( fs.fileExists( pageMapFile( file ) ) ).isTrue();
+
+            try ( var pageCache = new MuninnPageCache( swapperFactory, jobScheduler, MuninnPageCache.config( 20 ) );
+                    PagedFile pagedFile = pageCache.map( file, PAGE_SIZE, DEFAULT_DATABASE_NAME );
+                    PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                assertEquals( pages - 1, pagedFile.getLastPageId() );
+                for ( int pageId = 0; pageId < pages; pageId++ )
+                {
+                    assertThat( cursor.next() ).isTrue();
+                    for ( int i = 0; i < PAGE_SIZE / Long.BYTES; i++ )
+                    {
+                        assertEquals( pageId * 1_000_000L + i / 16, cursor.getLong() );
+                    }
+                }
+            }
+        }
+    }
+
+    private PageSwapper createSwapper( FileSystemAbstraction fs, Path file ) throws IOException
+    {
+        var factory = new CompressingPageSwapperFactory( fs, new SingleFilePageSwapperFactory( fs ), f -> f.startsWith( COMPRESSED_DIRECTORY ) );
+        return factory.createPageSwapper( file, PAGE_SIZE, filePageId -> {}, true, false, false, DISABLED, swappers );
+    }
+
+    private void fillCompressible( int seed )
+    {
+        page.clear();
+        for ( int i = 0; i < PAGE_SIZE / Long.BYTES; i++ )
+        {
+            page.putLong( seed * 1_000_000L + i / 16 );
+        }
+    }
+
+    private void assertCompressible( int seed )
+    {
+        page.clear();
+        for ( int i = 0; i < PAGE_SIZE / Long.BYTES; i++ )
+        {
+            assertEquals( seed * 1_000_000L + i / 16, page.getLong() );
+        }
+    }
+
+    private void assertZeros()
+    {
+        page.clear();
+        while ( page.hasRemaining() )
+        {
+            assertEquals( 0, page.get() );
+        }
+    }
+}
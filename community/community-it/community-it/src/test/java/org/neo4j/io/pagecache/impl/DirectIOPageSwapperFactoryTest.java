@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import com.sun.nio.file.ExtendedOpenOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.neo4j.io.fs.DelegatingFileSystemAbstraction;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+
+import static org.apache.commons.lang3.SystemUtils.IS_OS_LINUX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.io.pagecache.IOController.DISABLED;
+
+class DirectIOPageSwapperFactoryTest
+{
+    private static final Path DIRECT_IO_DIRECTORY = Path.of( "direct" ).toAbsolutePath();
+    private static final Path BUFFERED_IO_DIRECTORY = Path.of( "buffered" ).toAbsolutePath();
+
+    private final List<Boolean> openedWithDirectIO = new CopyOnWriteArrayList<>();
+    private final List<Path> directIOUnavailable = new CopyOnWriteArrayList<>();
+    private final SwapperSet swappers = new SwapperSet();
+    private EphemeralFileSystemAbstraction ephemeralFileSystem;
+    private boolean directIOSupported;
+    private DirectIOPageSwapperFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        assumeTrue( IS_OS_LINUX );
+        ephemeralFileSystem = new EphemeralFileSystemAbstraction();
+        ephemeralFileSystem.mkdirs( DIRECT_IO_DIRECTORY );
+        ephemeralFileSystem.mkdirs( BUFFERED_IO_DIRECTORY );
+        directIOSupported = true;
+        var fs = new DelegatingFileSystemAbstraction( ephemeralFileSystem )
+        {
+            @Override
+            public StoreChannel open( Path fileName, Set<OpenOption> options ) throws IOException
+            {
+                boolean directIO = options.contains( ExtendedOpenOption.DIRECT );
+                if ( directIO && !directIOSupported )
+                {
+                    throw new IOException( "Invalid argument" );
+                }
+                openedWithDirectIO.add( directIO );
+                Set<OpenOption> bufferedOptions = new HashSet<>( options );
+                bufferedOptions.remove( ExtendedOpenOption.DIRECT );
+                return super.open( fileName, bufferedOptions );
+            }
+        };
+        factory = new DirectIOPageSwapperFactory( fs, file -> file.startsWith( DIRECT_IO_DIRECTORY ), ( file, reason ) -> directIOUnavailable.add( file ) );
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        if ( ephemeralFileSystem != null )
+        {
+            ephemeralFileSystem.close();
+        }
+    }
+
+    @Test
+    void mustUseDirectIOForSelectedFilesWithBlockAlignedPageSize() throws IOException
+    {
+        createSwapper( DIRECT_IO_DIRECTORY.resolve( "file" ), 8192 ).close();
+
+        assertThat( openedWithDirectIO ).containsExactly( true );
+        assertThat( directIOUnavailable ).isEmpty();
+    }
+
+    @Test
+    void mustUseBufferedIOForFilesThatAreNotSelected() throws IOException
+    {
+        createSwapper( BUFFERED_IO_DIRECTORY.resolve( "file" ), 8192 ).close();
+
+        assertThat( openedWithDirectIO ).containsExactly( false );
+    }
+
+    @Test
+    void mustUseBufferedIOForPageSizesThatAreNotMultiplesOfTheBlockSize() throws IOException
+    {
+        createSwapper( DIRECT_IO_DIRECTORY.resolve( "file" ), 8190 ).close();
+
+        assertThat( openedWithDirectIO ).containsExactly( false );
+    }
+
+    @Test
+    void mustFallBackToBufferedIOWhenFileSystemDoesNotSupportDirectIO() throws IOException
+    {
+        directIOSupported = false;
+
+        createSwapper( DIRECT_IO_DIRECTORY.resolve( "file" ), 8192 ).close();
+
+        assertThat( openedWithDirectIO ).containsExactly( false );
+        assertThat( directIOUnavailable ).containsExactly( DIRECT_IO_DIRECTORY.resolve( "file" ) );
+    }
+
+    @Test
+    void mustReportFallBackToBufferedIOOncePerFile() throws IOException
+    {
+        directIOSupported = false;
+
+        createSwapper( DIRECT_IO_DIRECTORY.resolve( "file" ), 8192 ).close();
+        createSwapper( DIRECT_IO_DIRECTORY.resolve( "file" ), 8192 ).close();
+        createSwapper( DIRECT_IO_DIRECTORY.resolve( "other" ), 8190 ).close();
+        createSwapper( BUFFERED_IO_DIRECTORY.resolve( "file" ), 8192 ).close();
+
+        assertThat( directIOUnavailable ).containsExactly( DIRECT_IO_DIRECTORY.resolve( "file" ), DIRECT_IO_DIRECTORY.resolve( "other" ) );
+    }
+
+    private PageSwapper createSwapper( Path file, int filePageSize ) throws IOException
+    {
+        return factory.createPageSwapper( file, filePageSize, filePageId -> {}, true, false, false, DISABLED, swappers );
+    }
+}
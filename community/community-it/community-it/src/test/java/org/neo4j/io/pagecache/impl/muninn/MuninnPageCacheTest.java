@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache.impl.muninn;
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.junit.jupiter.api.Test;
 
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.OpenOption;
@@ -32,6 +33,7 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntSupplier;
 
 import org.neo4j.configuration.Config;
@@ -44,10 +46,13 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.DelegatingPageSwapper;
+import org.neo4j.io.pagecache.EmptyIOController;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCacheQuota;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageReplacementPolicy;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
@@ -72,10 +77,14 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 import org.neo4j.memory.ScopedMemoryTracker;
 
 import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -83,13 +92,18 @@ import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_buffered_flush_enabled;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buffer_size_in_pages;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.PINNED;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.buffer.IOBufferFactory.DISABLED_BUFFER_FACTORY;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.test.assertion.Assert.assertEventually;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
 {
@@ -175,6 +189,297 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void hotPagesMustSurviveLowPriorityScans() throws IOException
+    {
+        int hotPages = 5;
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).replacementPolicy( PageReplacementPolicy.SCAN_RESISTANT_CLOCK );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            for ( int i = 0; i < 4; i++ )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    for ( int pageId = 0; pageId < hotPages; pageId++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( pageId );
+                    }
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( hotPages, PF_SHARED_WRITE_LOCK | PF_TRANSIENT, NULL ) )
+            {
+                for ( int pageId = hotPages; pageId < 200; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( pageId );
+                }
+            }
+            for ( int pageId = 0; pageId < hotPages; pageId++ )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+                {
+                    assertTrue( cursor.next() );
+                    assertEquals( pageId, cursor.getCurrentPageId() );
+                }
+            }
+        }
+    }
+
+    @Test
+    void pinnedPagesMustSurviveEvictionPressure() throws IOException
+    {
+        int pinnedPages = 5;
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL );
+                PagedFile pinned = map( pageCache, file( "a" ), 8, immutable.of( PINNED ) );
+                PagedFile other = map( pageCache, existingFile( "b" ), 8 ) )
+        {
+            writePages( pinned, 0, pinnedPages );
+            writePages( other, 0, 200 );
+            assertResident( pinned, 0, pinnedPages );
+        }
+    }
+
+    @Test
+    void pagesWithinQuotaReservationMustSurviveEvictionPressure() throws IOException
+    {
+        int reservedPages = 5;
+        PageCacheQuota quota = new PageCacheQuota( "a", reservedPages, 20 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL );
+                PagedFile reserved = map( pageCache, file( "a" ), 8, immutable.of( quota ) );
+                PagedFile other = map( pageCache, existingFile( "b" ), 8 ) )
+        {
+            writePages( reserved, 0, reservedPages );
+            writePages( other, 0, 200 );
+            assertResident( reserved, 0, reservedPages );
+        }
+    }
+
+    @Test
+    void quotaMustCountResidentPagesOfAllItsFiles() throws IOException
+    {
+        PageCacheQuota quota = new PageCacheQuota( "db", 0, 10 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL ) )
+        {
+            try ( PagedFile a = map( pageCache, file( "a" ), 8, immutable.of( quota ) );
+                    PagedFile b = map( pageCache, existingFile( "b" ), 8, immutable.of( quota ) ) )
+            {
+                writePages( a, 0, 3 );
+                writePages( b, 0, 4 );
+                assertEquals( 7, quota.residentPages() );
+                writePages( a, 3, 200 );
+                assertThat( quota.residentPages() ).isGreaterThan( 0 ).isLessThanOrEqualTo( 20 );
+            }
+            assertEquals( 0, quota.residentPages() );
+        }
+    }
+
+    @Test
+    void quotaMustOnlyDropPagesOfUnmappedFile() throws IOException
+    {
+        PageCacheQuota quota = new PageCacheQuota( "db", 0, 10 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL );
+                PagedFile b = map( pageCache, file( "b" ), 8, immutable.of( quota ) ) )
+        {
+            try ( PagedFile a = map( pageCache, file( "a" ), 8, immutable.of( quota ) ) )
+            {
+                writePages( b, 0, 4 );
+                writePages( a, 0, 100 );
+            }
+            assertEquals( residentPages( b ), quota.residentPages() );
+        }
+        assertEquals( 0, quota.residentPages() );
+    }
+
+    @Test
+    void readAheadMustOnlyStartOnceTheCursorHasPinnedARunOfPages() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            writePages( pagedFile, 0, 100 );
+            try ( MuninnPageCursor cursor = (MuninnPageCursor) pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, NULL ) )
+            {
+                for ( long pageId = 0; pageId < 100; pageId += 2 )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                }
+                assertNull( cursor.preFetcher );
+
+                for ( long pageId = 50; pageId > 10 && cursor.preFetcher == null; pageId-- )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                }
+                assertNotNull( cursor.preFetcher );
+            }
+        }
+    }
+
+    @Test
+    void readAheadMustNotStartForShortScans() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            writePages( pagedFile, 0, 10 );
+            try ( MuninnPageCursor cursor = (MuninnPageCursor) pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, NULL ) )
+            {
+                while ( cursor.next() )
+                {
+                    assertNull( cursor.preFetcher );
+                }
+            }
+        }
+    }
+
+    @Test
+    void backgroundFlushMustWriteOutDirtyPagesAheadOfCheckpoints() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).pageCacheTracer( tracer ).backgroundFlushThread( true );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            writePages( pagedFile, 0, 10 );
+            assertEventually( tracer::backgroundFlushes, flushes -> flushes == 10, 1, MINUTES );
+
+            long flushes = tracer.flushes();
+            pagedFile.flushAndForce();
+            assertEquals( flushes, tracer.flushes() );
+        }
+    }
+
+    @Test
+    void backgroundFlushMustBeLimitedByIOController() throws Exception
+    {
+        AtomicInteger limitedIOs = new AtomicInteger();
+        IOController ioController = new EmptyIOController()
+        {
+            @Override
+            public void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent )
+            {
+                limitedIOs.addAndGet( recentlyCompletedIOs );
+            }
+        };
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).pageCacheTracer( tracer ).backgroundFlushThread( true );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+                PagedFile pagedFile = pageCache.map( file( "a" ), 8, DEFAULT_DATABASE_NAME, immutable.empty(), ioController ) )
+        {
+            writePages( pagedFile, 0, 10 );
+            assertEventually( tracer::backgroundFlushes, flushes -> flushes == 10, 1, MINUTES );
+            assertThat( limitedIOs.get() ).isGreaterThan( 0 );
+        }
+    }
+
+    @Test
+    void backgroundFlushMustCountFailedWrites() throws Exception
+    {
+        MutableBoolean failWrites = new MutableBoolean( true );
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory( fs )
+        {
+            @Override
+            public PageSwapper createPageSwapper( Path file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist,
+                    boolean useDirectIO, boolean preallocateStoreFiles, IOController ioController, SwapperSet swappers ) throws IOException
+            {
+                PageSwapper swapper = super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, useDirectIO, preallocateStoreFiles,
+                        ioController, swappers );
+                return new DelegatingPageSwapper( swapper )
+                {
+                    @Override
+                    public long write( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages )
+                            throws IOException
+                    {
+                        if ( failWrites.booleanValue() )
+                        {
+                            throw new IOException( "uh-oh..." );
+                        }
+                        return super.write( startFilePageId, bufferAddresses, bufferLengths, length, totalAffectedPages );
+                    }
+                };
+            }
+        };
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).pageCacheTracer( tracer ).backgroundFlushThread( true );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, jobScheduler, configuration );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            writePages( pagedFile, 0, 10 );
+            assertEventually( tracer::backgroundFlushExceptions, failures -> failures > 0, 1, MINUTES );
+            assertEquals( 0, tracer.backgroundFlushes() );
+
+            failWrites.setFalse();
+            assertEventually( tracer::backgroundFlushes, flushes -> flushes == 10, 1, MINUTES );
+        }
+    }
+
+    @Test
+    void flushingListOfFilesMustFlushOnlyThoseFilesInParallel() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, tracer );
+                PagedFile pagedFileA = map( pageCache, file( "a" ), 8 );
+                PagedFile pagedFileB = map( pageCache, existingFile( "b" ), 8 );
+                PagedFile pagedFileC = map( pageCache, existingFile( "c" ), 8 ) )
+        {
+            writePages( pagedFileA, 0, 10 );
+            writePages( pagedFileB, 0, 10 );
+            writePages( pagedFileC, 0, 10 );
+
+            pageCache.flushAndForce( List.of( pagedFileA, pagedFileB ) );
+            long flushes = tracer.flushes();
+            assertThat( flushes ).isGreaterThan( 0 );
+
+            pagedFileA.flushAndForce();
+            pagedFileB.flushAndForce();
+            assertEquals( flushes, tracer.flushes() );
+
+            pagedFileC.flushAndForce();
+            assertThat( tracer.flushes() ).isGreaterThan( flushes );
+        }
+    }
+
+    private static void writePages( PagedFile pagedFile, long fromPageId, long toPageId ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( fromPageId, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( long pageId = fromPageId; pageId < toPageId; pageId++ )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( pageId );
+            }
+        }
+    }
+
+    private static long residentPages( PagedFile pagedFile ) throws IOException
+    {
+        long resident = 0;
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    resident++;
+                }
+            }
+        }
+        return resident;
+    }
+
+    private static void assertResident( PagedFile pagedFile, long fromPageId, long toPageId ) throws IOException
+    {
+        for ( long pageId = fromPageId; pageId < toPageId; pageId++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( pageId, cursor.getCurrentPageId() );
+            }
+        }
+    }
+
     @Test
     void mustEvictCleanPageWithoutFlushing() throws Exception
     {
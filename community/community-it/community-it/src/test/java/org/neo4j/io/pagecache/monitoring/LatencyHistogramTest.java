@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.test.Race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest
+{
+    @Test
+    void emptyHistogramMustReportZeros()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals( 0, histogram.count() );
+        assertEquals( 0, histogram.meanNanos() );
+        assertEquals( 0, histogram.maxNanos() );
+        assertEquals( 0, histogram.percentileNanos( 99 ) );
+    }
+
+    @Test
+    void bucketsMustCoverAllValuesInOrder()
+    {
+        int previous = LatencyHistogram.bucketOf( 0 );
+        for ( long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value += Math.max( 1, value / 7 ) )
+        {
+            int bucket = LatencyHistogram.bucketOf( value );
+            assertThat( bucket ).isGreaterThanOrEqualTo( previous );
+            assertThat( LatencyHistogram.highestValueOf( bucket ) ).isGreaterThanOrEqualTo( value );
+            previous = bucket;
+        }
+        assertThat( LatencyHistogram.bucketOf( Long.MAX_VALUE ) ).isGreaterThanOrEqualTo( previous );
+    }
+
+    @Test
+    void percentilesMustBeWithinTheRelativeErrorOfTheHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( int i = 1; i <= 1000; i++ )
+        {
+            histogram.record( i * 1000L );
+        }
+
+        assertEquals( 1000, histogram.count() );
+        assertEquals( 500_500, histogram.meanNanos() );
+        assertEquals( 1_000_000, histogram.maxNanos() );
+        assertThat( histogram.percentileNanos( 50 ) ).isBetween( 500_000L, 500_000L + 500_000L / 8 );
+        assertThat( histogram.percentileNanos( 99 ) ).isBetween( 990_000L, 1_000_000L );
+        assertEquals( 1_000_000, histogram.percentileNanos( 100 ) );
+    }
+
+    @Test
+    void negativeValuesMustBeRecordedAsZero()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record( -5 );
+
+        assertEquals( 1, histogram.count() );
+        assertEquals( 0, histogram.maxNanos() );
+        assertEquals( 0, histogram.totalNanos() );
+    }
+
+    @Test
+    void mustCountEveryValueRecordedConcurrently() throws Throwable
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Race race = new Race();
+        race.addContestants( 8, () -> histogram.record( 1000 ), 10_000 );
+        race.go();
+
+        assertEquals( 80_000, histogram.count() );
+        assertEquals( 80_000_000, histogram.totalNanos() );
+        assertEquals( 1000, histogram.maxNanos() );
+        assertThat( histogram.percentileNanos( 50 ) ).isBetween( 1000L, 1000L + 1000L / 8 );
+    }
+
+    @Test
+    void mustAddTheValuesOfAnotherHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record( 1000 );
+        other.record( 3000 );
+        other.record( 5000 );
+
+        histogram.add( other );
+
+        assertEquals( 3, histogram.count() );
+        assertEquals( 3000, histogram.meanNanos() );
+        assertEquals( 5000, histogram.maxNanos() );
+        assertEquals( 2, other.count() );
+    }
+}
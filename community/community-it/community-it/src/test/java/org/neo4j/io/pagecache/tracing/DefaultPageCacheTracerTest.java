@@ -29,10 +29,12 @@ import java.nio.file.Path;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 
 public class DefaultPageCacheTracerTest
@@ -128,6 +130,95 @@ public class DefaultPageCacheTracerTest
         assertCounts( 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1,  0d );
     }
 
+    @Test
+    void mustRecordLatenciesPerFileAndDatabase()
+    {
+        var pagedFile = Mockito.mock( PagedFile.class );
+        when( pagedFile.path() ).thenReturn( Path.of( "a" ) );
+        when( pagedFile.getDatabaseName() ).thenReturn( "db" );
+        tracer.mappedFile( swapper.swapperId(), pagedFile );
+
+        var cursorTracer = tracer.createPageCursorTracer( "latencies" );
+        PinEvent pinEvent = cursorTracer.beginPin( false, 1, swapper );
+        pinEvent.beginPageFault( 1, swapper.swapperId() ).done();
+        pinEvent.done();
+        try ( MajorFlushEvent fileFlush = tracer.beginFileFlush( swapper ) )
+        {
+            fileFlush.beginFlush( 0, swapper, pageReferenceTranslator ).done();
+        }
+
+        PageCacheLatencies latencies = tracer.latencies();
+        assertThat( latencies.files() ).hasSize( 1 );
+        PageCacheLatencies.Latencies file = latencies.files().get( 0 );
+        assertEquals( Path.of( "a" ), file.file() );
+        assertEquals( "db", file.databaseName() );
+        assertEquals( 1, file.faults().count() );
+        assertEquals( 1, file.flushes().count() );
+
+        assertThat( latencies.databases() ).hasSize( 1 );
+        PageCacheLatencies.Latencies database = latencies.databases().get( 0 );
+        assertEquals( "db", database.databaseName() );
+        assertEquals( 1, database.faults().count() );
+        assertEquals( 1, database.flushes().count() );
+
+        var otherPagedFile = Mockito.mock( PagedFile.class );
+        when( otherPagedFile.path() ).thenReturn( Path.of( "b" ) );
+        when( otherPagedFile.getDatabaseName() ).thenReturn( "db" );
+        int otherSwapperId = swapper.swapperId() + 1;
+        tracer.mappedFile( otherSwapperId, otherPagedFile );
+        latencies.recordFault( otherSwapperId, 1_000 );
+        assertEquals( 2, latencies.databases().get( 0 ).faults().count() );
+
+        tracer.unmappedFile( swapper.swapperId(), pagedFile );
+        assertThat( latencies.files() ).hasSize( 1 );
+        assertEquals( 2, latencies.databases().get( 0 ).faults().count() );
+
+        tracer.unmappedFile( otherSwapperId, otherPagedFile );
+        assertThat( latencies.files() ).isEmpty();
+        assertThat( latencies.databases() ).isEmpty();
+    }
+
+    @Test
+    void mustReuseEvictionAndFlushEventsOfTheSameEvictionRun()
+    {
+        var pagedFile = Mockito.mock( PagedFile.class );
+        when( pagedFile.path() ).thenReturn( Path.of( "a" ) );
+        when( pagedFile.getDatabaseName() ).thenReturn( "db" );
+        tracer.mappedFile( swapper.swapperId(), pagedFile );
+
+        EvictionEvent firstEviction;
+        EvictionEvent secondEviction;
+        FlushEvent firstFlush;
+        FlushEvent secondFlush;
+        try ( EvictionRunEvent evictionRunEvent = tracer.beginPageEvictions( 2 ) )
+        {
+            try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction( 0 ) )
+            {
+                firstEviction = evictionEvent;
+                evictionEvent.setSwapper( swapper );
+                firstFlush = evictionEvent.beginFlush( 0, swapper, pageReferenceTranslator );
+                firstFlush.addPagesFlushed( 1 );
+                firstFlush.done();
+            }
+            try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction( 1 ) )
+            {
+                secondEviction = evictionEvent;
+                evictionEvent.setSwapper( swapper );
+                secondFlush = evictionEvent.beginFlush( 1, swapper, pageReferenceTranslator );
+                secondFlush.addPagesFlushed( 1 );
+                secondFlush.done();
+            }
+        }
+
+        assertSame( firstEviction, secondEviction );
+        assertSame( firstFlush, secondFlush );
+        PageCacheLatencies.Latencies file = tracer.latencies().files().get( 0 );
+        assertEquals( 2, file.evictions().count() );
+        assertEquals( 2, file.flushes().count() );
+        assertEquals( 2, tracer.evictions() );
+        assertEquals( 2, tracer.flushes() );
+    }
+
     @Test
     void mustCountFlushes()
     {
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.tracing;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 /**
@@ -91,6 +92,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.beginCacheFlush();
     }
 
+    @Override
+    public BackgroundFlushEvent beginBackgroundFlush( double dirtyRatio, int pageCountToFlush )
+    {
+        return delegate.beginBackgroundFlush( dirtyRatio, pageCountToFlush );
+    }
+
     @Override
     public long bytesWritten()
     {
@@ -175,6 +182,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.faults( faults );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+        delegate.faultNanos( faultNanos );
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -241,6 +254,18 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.flushes();
     }
 
+    @Override
+    public long backgroundFlushes()
+    {
+        return delegate.backgroundFlushes();
+    }
+
+    @Override
+    public long backgroundFlushExceptions()
+    {
+        return delegate.backgroundFlushExceptions();
+    }
+
     @Override
     public long merges()
     {
@@ -253,6 +278,18 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.faults();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return delegate.faultNanos();
+    }
+
+    @Override
+    public PageCacheLatencies latencies()
+    {
+        return delegate.latencies();
+    }
+
     @Override
     public long evictions()
     {
@@ -30,6 +30,7 @@ import java.util.IdentityHashMap;
 import java.util.Map;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.BackgroundFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
@@ -144,6 +145,42 @@ class HEvents
         }
     }
 
+    public static class BackgroundFlushHEvent extends IntervalHEvent implements BackgroundFlushEvent
+    {
+        private final double dirtyRatio;
+        private final int pagesToFlush;
+        private IOException exception;
+
+        BackgroundFlushHEvent( LinearHistoryTracer tracer, double dirtyRatio, int pagesToFlush )
+        {
+            super( tracer );
+            this.dirtyRatio = dirtyRatio;
+            this.pagesToFlush = pagesToFlush;
+        }
+
+        @Override
+        public MajorFlushEvent beginFileFlush( PageSwapper swapper )
+        {
+            return tracer.add( new MajorFlushHEvent( tracer, swapper.path() ) );
+        }
+
+        @Override
+        public void threwException( IOException exception )
+        {
+            this.exception = exception;
+        }
+
+        @Override
+        void printBody( PrintStream out, String exceptionLinePrefix )
+        {
+            out.print( ", dirtyRatio:" );
+            out.print( dirtyRatio );
+            out.print( ", pagesToFlush:" );
+            out.print( pagesToFlush );
+            print( out, exception, exceptionLinePrefix );
+        }
+    }
+
     public static class FlushHEvent extends IntervalHEvent implements FlushEvent
     {
         private final long[] pageRefs;
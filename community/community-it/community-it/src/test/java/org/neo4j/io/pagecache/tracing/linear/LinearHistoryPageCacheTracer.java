@@ -21,11 +21,14 @@ package org.neo4j.io.pagecache.tracing.linear;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
+import org.neo4j.io.pagecache.tracing.BackgroundFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
+import static org.neo4j.io.pagecache.tracing.linear.HEvents.BackgroundFlushHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.EvictionRunHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.MajorFlushHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.MappedFileHEvent;
@@ -90,12 +93,30 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return tracer.add( new MajorFlushHEvent( tracer, null ) );
     }
 
+    @Override
+    public BackgroundFlushEvent beginBackgroundFlush( double dirtyRatio, int pageCountToFlush )
+    {
+        return tracer.add( new BackgroundFlushHEvent( tracer, dirtyRatio, pageCountToFlush ) );
+    }
+
     @Override
     public long faults()
     {
         return 0;
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
+    @Override
+    public PageCacheLatencies latencies()
+    {
+        return PageCacheLatencies.NULL;
+    }
+
     @Override
     public long evictions()
     {
@@ -126,6 +147,18 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long backgroundFlushes()
+    {
+        return 0;
+    }
+
+    @Override
+    public long backgroundFlushExceptions()
+    {
+        return 0;
+    }
+
     @Override
     public long merges()
     {
@@ -212,6 +245,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -24,6 +24,8 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
+import org.neo4j.io.pagecache.tracing.BackgroundFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
@@ -108,12 +110,30 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return MajorFlushEvent.NULL;
     }
 
+    @Override
+    public BackgroundFlushEvent beginBackgroundFlush( double dirtyRatio, int pageCountToFlush )
+    {
+        return BackgroundFlushEvent.NULL;
+    }
+
     @Override
     public long faults()
     {
         return faults.get();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
+    @Override
+    public PageCacheLatencies latencies()
+    {
+        return PageCacheLatencies.NULL;
+    }
+
     @Override
     public long pins()
     {
@@ -144,6 +164,18 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long backgroundFlushes()
+    {
+        return 0;
+    }
+
+    @Override
+    public long backgroundFlushExceptions()
+    {
+        return 0;
+    }
+
     @Override
     public long merges()
     {
@@ -232,6 +264,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         this.faults.getAndAdd( faults );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -92,6 +92,7 @@ import org.neo4j.test.rule.RandomRule;
 
 import static java.lang.String.format;
 import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
@@ -566,6 +567,86 @@ class DenseNodeConcurrencyIT
         assertRelationshipsAndDegrees( denseNodeId, relationships );
     }
 
+    @Test
+    void shouldNotBlockOnCreateWithNewDirectionOfOtherType() throws Throwable
+    {
+        // given
+        Set<Relationship> relationships = newKeySet();
+        long denseNodeId = createDenseNode( relationships );
+        try ( Transaction tx = database.beginTx() )
+        {
+            Node denseNode = tx.getNodeById( denseNodeId );
+            for ( int i = 0; i < NUM_INITIAL_RELATIONSHIPS_PER_DENSE_NODE; i++ )
+            {
+                relationships.add( denseNode.createRelationshipTo( tx.createNode(), TEST ) );
+            }
+            tx.commit();
+        }
+
+        // when
+        assertNotBlocking(
+                tx -> relationships.add( tx.createNode().createRelationshipTo( tx.getNodeById( denseNodeId ), INITIAL_DENSE_NODE_TYPE ) ),
+                tx -> relationships.add( tx.getNodeById( denseNodeId ).createRelationshipTo( tx.createNode(), TEST ) ) );
+
+        // then
+        assertRelationshipsAndDegrees( denseNodeId, relationships );
+    }
+
+    @Test
+    void shouldHandleConcurrentChangesToFirstInChainOfSameType() throws Throwable
+    {
+        // given
+        Set<Relationship> relationships = newKeySet();
+        long denseNodeId = createDenseNode( relationships );
+        try ( Transaction tx = database.beginTx() )
+        {
+            Node denseNode = tx.getNodeById( denseNodeId );
+            for ( int i = 0; i < NUM_INITIAL_RELATIONSHIPS_PER_SPARSE_NODE; i++ )
+            {
+                relationships.add( denseNode.createRelationshipTo( tx.createNode(), TEST ) );
+            }
+            tx.commit();
+        }
+
+        // when transactions keep creating and deleting the first in the incoming chain of the same, existing, group
+        Race race = new Race().withMaxDuration( 10, SECONDS );
+        race.addContestants( 2, throwing( () ->
+        {
+            try ( Transaction tx = database.beginTx() )
+            {
+                Relationship relationship = tx.createNode().createRelationshipTo( tx.getNodeById( denseNodeId ), TEST );
+                tx.commit();
+                relationships.add( relationship );
+            }
+            catch ( DeadlockDetectedException ignore )
+            {
+                // deadlock, retry
+            }
+        } ), 100 );
+        race.addContestant( throwing( () ->
+        {
+            try ( Transaction tx = database.beginTx() )
+            {
+                List<Relationship> deleted = new ArrayList<>();
+                tx.getNodeById( denseNodeId ).getRelationships( Direction.INCOMING, TEST ).forEach( relationship ->
+                {
+                    relationship.delete();
+                    deleted.add( relationship );
+                } );
+                tx.commit();
+                deleted.forEach( relationships::remove );
+            }
+            catch ( DeadlockDetectedException ignore )
+            {
+                // deadlock, retry
+            }
+        } ), 100 );
+        race.go();
+
+        // then
+        assertRelationshipsAndDegrees( denseNodeId, relationships );
+    }
+
     @Test
     void shouldNotBlockOnDeleteOnSameLongChain() throws Throwable
     {
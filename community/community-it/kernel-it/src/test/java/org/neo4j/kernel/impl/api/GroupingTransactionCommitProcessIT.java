@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.Race;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.ImpermanentDbmsExtension;
+import org.neo4j.test.extension.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.internal.helpers.collection.Iterators.count;
+
+@ImpermanentDbmsExtension( configurationCallback = "configure" )
+class GroupingTransactionCommitProcessIT
+{
+    private static final Label LABEL = Label.label( "Label" );
+    private static final String KEY = "key";
+    private static final int THREADS = 8;
+    private static final int TRANSACTIONS_PER_THREAD = 200;
+
+    @Inject
+    private GraphDatabaseAPI db;
+    @Inject
+    private TransactionIdStore transactionIdStore;
+
+    @ExtensionCallback
+    static void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( GraphDatabaseInternalSettings.tx_grouped_apply_max_transactions, 16 );
+    }
+
+    @Test
+    void shouldApplyConcurrentlyCommittingTransactionsCorrectly() throws Throwable
+    {
+        // given
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().indexFor( LABEL ).on( KEY ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+        }
+
+        // when
+        AtomicLong nextKey = new AtomicLong();
+        Race race = new Race().withEndCondition( () -> false );
+        race.addContestants( THREADS, () ->
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node node = tx.createNode( LABEL );
+                node.setProperty( KEY, nextKey.getAndIncrement() );
+                node.createRelationshipTo( tx.createNode(), RelationshipType.withName( "TYPE" ) );
+                tx.commit();
+            }
+        }, TRANSACTIONS_PER_THREAD );
+        race.go();
+
+        // then
+        long transactions = THREADS * TRANSACTIONS_PER_THREAD;
+        assertEquals( transactionIdStore.getLastCommittedTransactionId(), transactionIdStore.getLastClosedTransactionId() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( long key = 0; key < transactions; key++ )
+            {
+                Node node = tx.findNode( LABEL, KEY, key );
+                assertThat( node ).as( "node with key " + key ).isNotNull();
+                assertEquals( 1, node.getDegree() );
+            }
+            assertEquals( transactions, count( tx.findNodes( LABEL ) ) );
+            assertEquals( 2 * transactions, count( tx.getAllNodes().iterator() ) );
+            assertEquals( transactions, count( tx.getAllRelationships().iterator() ) );
+        }
+    }
+}
@@ -149,6 +149,10 @@ public interface ProcedureITBase
                         "Triggers an index resample and waits for it to complete, and after that clears query caches." +
                                 " After this procedure has finished queries will be planned using the latest database " + "statistics.",
                         stringArray( "admin" ), "READ" ),
+                proc( "db.listLockContention", "() :: (resourceType :: STRING?, resourceId :: INTEGER?, waits :: INTEGER?, " +
+                                "totalWaitMicros :: FLOAT?, maxWaitMicros :: FLOAT?, maxHolders :: INTEGER?, overestimateMicros :: FLOAT?)",
+                        "List the resources that transactions have had to wait the longest to lock, most contended first. " +
+                                "Only lock waits are recorded, and only for a bounded number of resources.", stringArray( "admin" ), "READ" ),
                 proc( "db.stats.retrieve", "(section :: STRING?, config = {} :: MAP?) :: (section :: STRING?, data :: MAP?)",
                         "Retrieve statistical data about the current database. Valid sections are 'GRAPH COUNTS', 'TOKENS', 'QUERIES', 'META'",
                         stringArray( "admin" ), "READ" ),
@@ -229,7 +233,11 @@ public interface ProcedureITBase
                         "List all accepted network connections at this instance that are visible to the user.",
                         stringArray( "reader", "editor", "publisher", "architect", "admin" ), "DBMS" ),
                 proc( "dbms.listCapabilities", "() :: (name :: STRING?, description :: STRING?, value :: ANY?)",
-                      "List capabilities", stringArray( "reader", "editor", "publisher", "architect", "admin" ), "DBMS" )
+                      "List capabilities", stringArray( "reader", "editor", "publisher", "architect", "admin" ), "DBMS" ),
+                proc( "dbms.listPageCacheLatencies", "() :: (database :: STRING?, file :: STRING?, operation :: STRING?, count :: INTEGER?, " +
+                                "meanMicros :: FLOAT?, p50Micros :: FLOAT?, p99Micros :: FLOAT?, p999Micros :: FLOAT?, maxMicros :: FLOAT?)",
+                        "List the latencies of page faults, evictions and flushes in the page cache, per database and per mapped file. " +
+                                "Rows with a null file summarize all the files of a database.", stringArray( "admin" ), "DBMS" )
         );
     }
 
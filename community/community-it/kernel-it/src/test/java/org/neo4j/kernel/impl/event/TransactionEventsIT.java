@@ -24,12 +24,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -53,6 +58,7 @@ import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.security.AnonymousContext;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.internal.event.AsyncTransactionEventListener;
 import org.neo4j.test.extension.ImpermanentDbmsExtension;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
@@ -171,6 +177,50 @@ class TransactionEventsIT
         assertTrue( secondTransactionCommitTime >= firstTransactionCommitTime, "Second commit time should be higher or equals then first one." );
     }
 
+    @Test
+    void shouldDispatchAfterCommitToAsyncListenerWithoutHoldingUpCommit() throws InterruptedException
+    {
+        BinaryLatch releaseListener = new BinaryLatch();
+        CountDownLatch allEventsSeen = new CountDownLatch( 3 );
+        List<Long> transactionIds = new CopyOnWriteArrayList<>();
+        List<Set<Long>> createdNodes = new CopyOnWriteArrayList<>();
+        Thread committer = Thread.currentThread();
+        AtomicReference<Thread> dispatcher = new AtomicReference<>();
+        dbms.registerTransactionEventListener( DEFAULT_DATABASE_NAME, new AsyncTransactionEventListener.Adapter<>()
+        {
+            @Override
+            public void afterCommit( TransactionData data, Object state, GraphDatabaseService databaseService )
+            {
+                releaseListener.await();
+                dispatcher.set( Thread.currentThread() );
+                transactionIds.add( data.getTransactionId() );
+                Set<Long> nodeIds = new HashSet<>();
+                data.createdNodes().forEach( node -> nodeIds.add( node.getId() ) );
+                createdNodes.add( nodeIds );
+                allEventsSeen.countDown();
+            }
+        } );
+
+        // when all three commits return while the listener is still blocked on the first event
+        List<Set<Long>> expectedNodes = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                expectedNodes.add( Set.of( tx.createNode().getId(), tx.createNode().getId() ) );
+                tx.commit();
+            }
+        }
+        assertEquals( 3, allEventsSeen.getCount() );
+        releaseListener.release();
+
+        // then the events are seen in commit order, on another thread, with data outliving the transactions
+        assertTrue( allEventsSeen.await( 1, TimeUnit.MINUTES ) );
+        assertThat( dispatcher.get() ).isNotSameAs( committer );
+        assertThat( transactionIds ).isSorted().doesNotHaveDuplicates();
+        assertEquals( expectedNodes, createdNodes );
+    }
+
     @Test
     void transactionIdNotAccessibleBeforeCommit()
     {
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.cdc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.common.EntityType;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.token.TokenHolders;
+import org.neo4j.values.storable.Value;
+
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DbmsExtension
+class TransactionChangeStreamIT
+{
+    private static final Label LABEL = Label.label( "Person" );
+    private static final RelationshipType KNOWS = RelationshipType.withName( "KNOWS" );
+
+    @Inject
+    private GraphDatabaseAPI db;
+    @Inject
+    private TransactionChangeStream changeStream;
+    @Inject
+    private TransactionIdStore transactionIdStore;
+    @Inject
+    private TokenHolders tokenHolders;
+
+    @Test
+    void shouldStreamChangesOfCommittedTransactions() throws Exception
+    {
+        // given
+        createTokens();
+        long position = transactionIdStore.getLastClosedTransactionId();
+        String longName = repeat( "long name ", 20 );
+        long nodeId;
+        long otherNodeId;
+        long relationshipId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.createNode( LABEL );
+            node.setProperty( "name", "Alice" );
+            Node other = tx.createNode();
+            Relationship relationship = node.createRelationshipTo( other, KNOWS );
+            relationship.setProperty( "since", 2010 );
+            nodeId = node.getId();
+            otherNodeId = other.getId();
+            relationshipId = relationship.getId();
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.getNodeById( nodeId );
+            node.setProperty( "name", longName );
+            node.removeLabel( LABEL );
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.getRelationshipById( relationshipId ).delete();
+            tx.getNodeById( nodeId ).delete();
+            tx.commit();
+        }
+        int label = tokenHolders.labelTokens().getIdByName( LABEL.name() );
+        int type = tokenHolders.relationshipTypeTokens().getIdByName( KNOWS.name() );
+        int name = tokenHolders.propertyKeyTokens().getIdByName( "name" );
+        int since = tokenHolders.propertyKeyTokens().getIdByName( "since" );
+
+        // when
+        RecordingListener listener = new RecordingListener();
+        long end = changeStream.stream( position, Integer.MAX_VALUE, listener );
+
+        // then
+        assertThat( end ).isEqualTo( position + 3 );
+        assertThat( listener.changes ).containsExactly(
+                "begin " + (position + 1),
+                "node created " + nodeId,
+                "node labels " + nodeId + " added [" + label + "] removed []",
+                "NODE property added " + nodeId + " " + name + " Alice",
+                "node created " + otherNodeId,
+                "relationship created " + relationshipId + " " + type + " " + nodeId + "->" + otherNodeId,
+                "RELATIONSHIP property added " + relationshipId + " " + since + " 2010",
+                "end " + (position + 1),
+                "begin " + (position + 2),
+                "node labels " + nodeId + " added [] removed [" + label + "]",
+                "NODE property changed " + nodeId + " " + name + " Alice -> " + longName,
+                "end " + (position + 2),
+                "begin " + (position + 3),
+                "NODE property removed " + nodeId + " " + name + " " + longName,
+                "node deleted " + nodeId,
+                "RELATIONSHIP property removed " + relationshipId + " " + since + " 2010",
+                "relationship deleted " + relationshipId + " " + type + " " + nodeId + "->" + otherNodeId,
+                "end " + (position + 3) );
+    }
+
+    @Test
+    void shouldDecodeValuesOfTransactionsFromTheirCommandsRegardlessOfLaterChanges() throws Exception
+    {
+        // given
+        createTokens();
+        Label[] labels = new Label[20];
+        for ( int i = 0; i < labels.length; i++ )
+        {
+            labels[i] = Label.label( "Label" + i );
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            // creates the tokens only
+            tx.createNode( labels ).setProperty( "name", "token" );
+        }
+        long position = transactionIdStore.getLastClosedTransactionId();
+        String firstName = repeat( "first name ", 20 );
+        String secondName = repeat( "second name ", 20 );
+        long nodeId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.createNode( labels );
+            node.setProperty( "name", firstName );
+            nodeId = node.getId();
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.getNodeById( nodeId ).setProperty( "name", secondName );
+            tx.commit();
+        }
+        long relationshipId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.getNodeById( nodeId );
+            node.setProperty( "name", "short" );
+            relationshipId = node.createRelationshipTo( node, KNOWS ).getId();
+            tx.commit();
+        }
+        long[] labelIds = new long[labels.length];
+        for ( int i = 0; i < labels.length; i++ )
+        {
+            labelIds[i] = tokenHolders.labelTokens().getIdByName( labels[i].name() );
+        }
+        Arrays.sort( labelIds );
+        int name = tokenHolders.propertyKeyTokens().getIdByName( "name" );
+        int type = tokenHolders.relationshipTypeTokens().getIdByName( KNOWS.name() );
+
+        // when
+        RecordingListener listener = new RecordingListener();
+        changeStream.stream( position, Integer.MAX_VALUE, listener );
+
+        // then the dynamic labels, which are not in the node command of the last transaction, are not reported as changed by it
+        assertThat( listener.changes ).containsExactly(
+                "begin " + (position + 1),
+                "node created " + nodeId,
+                "node labels " + nodeId + " added " + Arrays.toString( labelIds ) + " removed []",
+                "NODE property added " + nodeId + " " + name + " " + firstName,
+                "end " + (position + 1),
+                "begin " + (position + 2),
+                "NODE property changed " + nodeId + " " + name + " " + firstName + " -> " + secondName,
+                "end " + (position + 2),
+                "begin " + (position + 3),
+                "NODE property changed " + nodeId + " " + name + " " + secondName + " -> short",
+                "relationship created " + relationshipId + " " + type + " " + nodeId + "->" + nodeId,
+                "end " + (position + 3) );
+    }
+
+    @Test
+    void shouldResumeFromReturnedPosition() throws Exception
+    {
+        // given
+        long start = transactionIdStore.getLastClosedTransactionId();
+        for ( int i = 0; i < 5; i++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                tx.createNode();
+                tx.commit();
+            }
+        }
+
+        // when
+        List<Long> streamed = new ArrayList<>();
+        ChangeStreamListener listener = new RecordingListener()
+        {
+            @Override
+            public void endTransaction( long transactionId )
+            {
+                streamed.add( transactionId );
+            }
+        };
+        long position = start;
+        int calls = 0;
+        for ( long next; (next = changeStream.stream( position, 2, listener )) != position; position = next )
+        {
+            calls++;
+        }
+
+        // then
+        assertThat( calls ).isEqualTo( 3 );
+        assertThat( position ).isEqualTo( start + 5 );
+        assertThat( streamed ).containsExactly( start + 1, start + 2, start + 3, start + 4, start + 5 );
+    }
+
+    @Test
+    void shouldFailOnTransactionsNotInLog()
+    {
+        assertThatThrownBy( () -> changeStream.stream( -10, 1, new RecordingListener() ) ).isInstanceOf( NoSuchTransactionException.class );
+    }
+
+    private void createTokens()
+    {
+        // Tokens are created in transactions of their own, which would otherwise show up in the stream
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.createNode( LABEL );
+            node.setProperty( "name", "token" );
+            node.createRelationshipTo( node, KNOWS ).setProperty( "since", 0 );
+        }
+    }
+
+    private static class RecordingListener implements ChangeStreamListener
+    {
+        final List<String> changes = new ArrayList<>();
+
+        private static Object asObject( Value value )
+        {
+            return value == null ? "unavailable" : value.asObject();
+        }
+
+        @Override
+        public void beginTransaction( long transactionId, long timeCommitted )
+        {
+            changes.add( "begin " + transactionId );
+        }
+
+        @Override
+        public void endTransaction( long transactionId )
+        {
+            changes.add( "end " + transactionId );
+        }
+
+        @Override
+        public void visitNodeCreated( long nodeId )
+        {
+            changes.add( "node created " + nodeId );
+        }
+
+        @Override
+        public void visitNodeDeleted( long nodeId )
+        {
+            changes.add( "node deleted " + nodeId );
+        }
+
+        @Override
+        public void visitNodeLabelsChanged( long nodeId, long[] added, long[] removed )
+        {
+            changes.add( "node labels " + nodeId + " added " + Arrays.toString( added ) + " removed " + Arrays.toString( removed ) );
+        }
+
+        @Override
+        public void visitRelationshipCreated( long relationshipId, int type, long startNodeId, long endNodeId )
+        {
+            changes.add( "relationship created " + relationshipId + " " + type + " " + startNodeId + "->" + endNodeId );
+        }
+
+        @Override
+        public void visitRelationshipDeleted( long relationshipId, int type, long startNodeId, long endNodeId )
+        {
+            changes.add( "relationship deleted " + relationshipId + " " + type + " " + startNodeId + "->" + endNodeId );
+        }
+
+        @Override
+        public void visitPropertyAdded( EntityType entityType, long entityId, int propertyKeyId, Value value )
+        {
+            changes.add( entityType + " property added " + entityId + " " + propertyKeyId + " " + asObject( value ) );
+        }
+
+        @Override
+        public void visitPropertyChanged( EntityType entityType, long entityId, int propertyKeyId, Value before, Value after )
+        {
+            changes.add( entityType + " property changed " + entityId + " " + propertyKeyId + " " + asObject( before ) + " -> " + asObject( after ) );
+        }
+
+        @Override
+        public void visitPropertyRemoved( EntityType entityType, long entityId, int propertyKeyId, Value before )
+        {
+            changes.add( entityType + " property removed " + entityId + " " + propertyKeyId + " " + asObject( before ) );
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.UncloseableDelegatingFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_async_commit_databases;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_async_commit_interval;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_async_commit_max_unforced_size;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.configuration.GraphDatabaseSettings.SYSTEM_DATABASE_NAME;
+
+/**
+ * Crashes a database that commits asynchronously after the page cache has written its store files, but before the transaction log
+ * has been forced by the database itself, to verify that the store never gets ahead of the log.
+ */
+@EphemeralTestDirectoryExtension
+class AsyncCommitCrashIT
+{
+    private static final int NODES = 100;
+
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+    @Inject
+    private TestDirectory directory;
+
+    private DatabaseManagementService managementService;
+
+    @AfterEach
+    void tearDown()
+    {
+        if ( managementService != null )
+        {
+            managementService.shutdown();
+        }
+    }
+
+    @Test
+    void storeAndLogMustBeConsistentAfterCrashFollowingPageCacheFlush() throws IOException
+    {
+        // given transactions that the database itself won't force the log for, after everything else is durable
+        GraphDatabaseAPI db = startDatabase( fs );
+        checkPoint( (GraphDatabaseAPI) managementService.database( SYSTEM_DATABASE_NAME ) );
+        checkPoint( db );
+        long[] nodeIds = new long[NODES];
+        for ( int i = 0; i < NODES; i++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node node = tx.createNode();
+                node.setProperty( "id", i );
+                nodeIds[i] = node.getId();
+                tx.commit();
+            }
+        }
+        long lastCommittedTxId = lastCommittedTxId( db );
+
+        // when the page cache writes the store files and the machine crashes right after
+        db.getDependencyResolver().resolveDependency( PageCache.class ).flushAndForce();
+        EphemeralFileSystemAbstraction crashedFs;
+        synchronized ( fs )
+        {
+            fs.crash();
+            crashedFs = fs.snapshot();
+        }
+        managementService.shutdown();
+        managementService = null;
+
+        // then the log must contain every transaction whose changes the store contains
+        try ( crashedFs )
+        {
+            GraphDatabaseAPI recovered = startDatabase( crashedFs );
+            assertEquals( lastCommittedTxId, lastCommittedTxId( recovered ) );
+            LogicalTransactionStore transactionStore = recovered.getDependencyResolver().resolveDependency( LogicalTransactionStore.class );
+            try ( TransactionCursor transactions = transactionStore.getTransactions( lastCommittedTxId ) )
+            {
+                assertThat( transactions.next() ).isTrue();
+                CommittedTransactionRepresentation transaction = transactions.get();
+                assertEquals( lastCommittedTxId, transaction.getCommitEntry().getTxId() );
+            }
+            try ( Transaction tx = recovered.beginTx() )
+            {
+                for ( int i = 0; i < NODES; i++ )
+                {
+                    assertEquals( i, tx.getNodeById( nodeIds[i] ).getProperty( "id" ) );
+                }
+                tx.commit();
+            }
+            managementService.shutdown();
+            managementService = null;
+        }
+    }
+
+    private GraphDatabaseAPI startDatabase( FileSystemAbstraction fileSystem )
+    {
+        managementService = new TestDatabaseManagementServiceBuilder( directory.homePath() )
+                .setFileSystem( new UncloseableDelegatingFileSystemAbstraction( fileSystem ) )
+                .impermanent()
+                .setConfig( tx_log_async_commit_databases, Set.of( DEFAULT_DATABASE_NAME ) )
+                .setConfig( tx_log_async_commit_interval, Duration.ofHours( 1 ) )
+                .setConfig( tx_log_async_commit_max_unforced_size, Long.MAX_VALUE )
+                .build();
+        return (GraphDatabaseAPI) managementService.database( DEFAULT_DATABASE_NAME );
+    }
+
+    private static void checkPoint( GraphDatabaseAPI db ) throws IOException
+    {
+        db.getDependencyResolver().resolveDependency( CheckPointer.class ).forceCheckPoint( new SimpleTriggerInfo( "test" ) );
+    }
+
+    private static long lastCommittedTxId( GraphDatabaseAPI db )
+    {
+        return db.getDependencyResolver().resolveDependency( TransactionIdStore.class ).getLastCommittedTransactionId();
+    }
+}
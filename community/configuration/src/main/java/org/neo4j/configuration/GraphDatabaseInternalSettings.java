@@ -22,14 +22,17 @@ package org.neo4j.configuration;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.graphdb.config.Setting;
+import org.neo4j.io.pagecache.PageReplacementPolicy;
 
 import static java.time.Duration.ofDays;
 import static java.time.Duration.ofMillis;
 import static java.time.Duration.ofMinutes;
 import static java.time.Duration.ofSeconds;
+import static java.util.Collections.emptySet;
 import static org.neo4j.configuration.SettingConstraints.any;
 import static org.neo4j.configuration.SettingConstraints.is;
 import static org.neo4j.configuration.SettingConstraints.max;
@@ -38,6 +41,7 @@ import static org.neo4j.configuration.SettingConstraints.range;
 import static org.neo4j.configuration.SettingImpl.newBuilder;
 import static org.neo4j.configuration.SettingValueParsers.BOOL;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
+import static org.neo4j.configuration.SettingValueParsers.DATABASENAME;
 import static org.neo4j.configuration.SettingValueParsers.DOUBLE;
 import static org.neo4j.configuration.SettingValueParsers.DURATION;
 import static org.neo4j.configuration.SettingValueParsers.INT;
@@ -46,6 +50,7 @@ import static org.neo4j.configuration.SettingValueParsers.PATH;
 import static org.neo4j.configuration.SettingValueParsers.STRING;
 import static org.neo4j.configuration.SettingValueParsers.listOf;
 import static org.neo4j.configuration.SettingValueParsers.ofEnum;
+import static org.neo4j.configuration.SettingValueParsers.setOf;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.ByteUnit.mebiBytes;
 
@@ -366,6 +371,46 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> fail_on_corrupted_log_files =
             newBuilder("unsupported.dbms.tx_log.fail_on_corrupted_log_files", BOOL, true ).build();
 
+    @Internal
+    @Description( "If `true`, the commands of each transaction are written to the transaction log compressed with zstd, when that makes " +
+            "them smaller. Commands are only compressed once the database runs at a kernel version that introduces compressed commands, " +
+            "which is reached by upgrading the DBMS runtime, so that every reader of the transaction log knows how to read them." )
+    public static final Setting<Boolean> tx_log_command_compression =
+            newBuilder( "unsupported.dbms.tx_log.command_compression", BOOL, false ).build();
+
+    @Internal
+    @Description( "List of databases whose transactions are committed without waiting for the transaction log to be forced to disk. " +
+            "The log is instead forced in the background, see `unsupported.dbms.tx_log.async_commit_interval` and " +
+            "`unsupported.dbms.tx_log.async_commit_max_unforced_size`. A crash can lose the transactions committed since the last force. " +
+            "The store stays consistent with the log, since the log is forced before the page cache writes any pages of such a database." )
+    public static final Setting<Set<String>> tx_log_async_commit_databases =
+            newBuilder( "unsupported.dbms.tx_log.async_commit_databases", setOf( DATABASENAME ), emptySet() ).build();
+
+    @Internal
+    @Description( "How often the transaction log of a database listed in `unsupported.dbms.tx_log.async_commit_databases` is forced in the background." )
+    public static final Setting<Duration> tx_log_async_commit_interval =
+            newBuilder( "unsupported.dbms.tx_log.async_commit_interval", DURATION, ofMillis( 100 ) ).addConstraint( min( ofMillis( 1 ) ) ).build();
+
+    @Internal
+    @Description( "The amount of transaction log written without being forced after which a committing transaction of a database listed in " +
+            "`unsupported.dbms.tx_log.async_commit_databases` forces the log itself, rather than leaving it to the background." )
+    public static final Setting<Long> tx_log_async_commit_max_unforced_size =
+            newBuilder( "unsupported.dbms.tx_log.async_commit_max_unforced_size", BYTES, mebiBytes( 16 ) ).addConstraint( min( 1L ) ).build();
+
+    @Internal
+    @Description( "The maximum number of concurrently committing transactions that are appended to the transaction log and applied to the store " +
+            "together, as one batch, by whichever of them gets there first. This amortizes the per batch cost of applying, like index updates, " +
+            "counts and id updates, over many small transactions, at the expense of applying them on a single thread. " +
+            "A value of 1 applies every transaction on its own committing thread." )
+    public static final Setting<Integer> tx_grouped_apply_max_transactions =
+            newBuilder( "unsupported.dbms.tx.grouped_apply_max_transactions", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "The rate, per second, at which recovery is assumed to replay the transaction log when estimating the recovery time for the " +
+            "'recovery_time' check-point policy, until the database has recovered and the actual rate could be observed." )
+    public static final Setting<Long> check_point_recovery_throughput =
+            newBuilder( "unsupported.dbms.checkpoint.recovery_time.default_throughput", BYTES, mebiBytes( 32 ) ).addConstraint( min( 1L ) ).build();
+
     @Internal
     @Description( "Specifies if engine should run cypher query based on a snapshot of accessed data. " +
             "Query will be restarted in case if concurrent modification of data will be detected." )
@@ -574,6 +619,57 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     @Internal
     public static final Setting<Boolean> trace_cursors = newBuilder( "unsupported.dbms.debug.trace_cursors", BOOL, false ).build();
 
+    @Internal
+    @Description( "The policy the page cache uses for choosing which pages to evict. The scan resistant policy keeps frequently used pages in memory, " +
+            "even when large scans go through many more pages than fit in the page cache. It is experimental and has to be opted into." )
+    public static final Setting<PageReplacementPolicy> pagecache_replacement_policy =
+            newBuilder( "unsupported.dbms.memory.pagecache.replacement_policy", ofEnum( PageReplacementPolicy.class ),
+                    PageReplacementPolicy.CLOCK ).build();
+
+    @Internal
+    @Description( "The share of the page cache that the files of a single database may occupy, before their pages are evicted ahead of the pages of " +
+            "other databases. This is not a hard limit, and a database can exceed it if there is nothing else to evict. " +
+            "Applies to every database individually." )
+    public static final Setting<Double> pagecache_database_max_share =
+            newBuilder( "unsupported.dbms.memory.pagecache.database_max_share", DOUBLE, 1.0 ).addConstraint( range( 0.0, 1.0 ) ).build();
+
+    @Internal
+    @Description( "The share of the page cache that is reserved for the files of every single database. Pages of a database that is within its " +
+            "reservation are only evicted when the page cache cannot find any other pages to evict." )
+    public static final Setting<Double> pagecache_database_min_reserved_share =
+            newBuilder( "unsupported.dbms.memory.pagecache.database_min_reserved_share", DOUBLE, 0.0 ).addConstraint( range( 0.0, 1.0 ) ).build();
+
+    @Internal
+    @Description( "Pin the pages of small and frequently accessed store files, such as the token stores, the schema store and the metadata store, " +
+            "in the page cache." )
+    public static final Setting<Boolean> pagecache_pin_small_stores =
+            newBuilder( "unsupported.dbms.memory.pagecache.pin_small_stores", BOOL, true ).build();
+
+    @Internal
+    @Description( "Continuously write out dirty pages in the background, at a rate proportional to the ratio of dirty pages in the page cache, " +
+            "so that checkpoints only have to flush the remainder." )
+    public static final Setting<Boolean> pagecache_background_flush =
+            newBuilder( "unsupported.dbms.memory.pagecache.background_flush", BOOL, false ).build();
+
+    @Internal
+    @Description( "The maximum number of threads used to flush mapped files, and page ranges of large mapped files, in parallel during checkpoints. " +
+            "Higher values give fast storage devices a deeper queue of writes to work on." )
+    public static final Setting<Integer> pagecache_flush_parallelism =
+            newBuilder( "unsupported.dbms.memory.pagecache.flush.parallelism", INT, 8 ).addConstraint( range( 1, 255 ) ).build();
+
+    @Internal
+    @Description( "List of databases whose store files are read and written with direct I/O, bypassing the operating system page cache, " +
+            "so the same data is not cached twice. Only supported on Linux, and only used for store files with a page size that is a multiple " +
+            "of the file system block size. Other store files of the listed databases use buffered I/O." )
+    public static final Setting<Set<String>> pagecache_direct_io_databases =
+            newBuilder( "unsupported.dbms.memory.pagecache.direct_io_databases", setOf( DATABASENAME ), emptySet() ).build();
+
+    @Internal
+    @Description( "List of databases whose new schema index and token index files are stored compressed with zstd, to save disk space and " +
+            "read bandwidth at the cost of CPU time on page faults and flushes. Files stay compressed, or uncompressed, as they were created." )
+    public static final Setting<Set<String>> pagecache_compressed_index_databases =
+            newBuilder( "unsupported.dbms.memory.pagecache.compressed_index_databases", setOf( DATABASENAME ), emptySet() ).build();
+
     @Internal
     public static final Setting<Duration> page_cache_tracer_speed_reporting_threshold =
             newBuilder( "unsupported.dbms.debug.page_cache_tracer_speed_reporting_threshold", DURATION, ofSeconds( 10 ) ).build();
@@ -678,6 +774,18 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> io_controller_consider_external_io =
             newBuilder( "unsupported.dbms.io.controller.consider.external.enabled", BOOL, false ).dynamic().build();
 
+    @Internal
+    @Description( "Adapt the IO limit of background checkpoints to the page fault latency of queries. While the average page fault latency is above " +
+            "the target latency, the limit is lowered, down to a tenth of the configured 'dbms.checkpoint.iops.limit', and it is otherwise raised back " +
+            "towards the configured limit." )
+    public static final Setting<Boolean> io_controller_adaptive =
+            newBuilder( "unsupported.dbms.io.controller.adaptive.enabled", BOOL, false ).dynamic().build();
+
+    @Internal
+    @Description( "The average page fault latency that the adaptive IO limit of background checkpoints aims to stay below." )
+    public static final Setting<Duration> io_controller_adaptive_target_fault_latency =
+            newBuilder( "unsupported.dbms.io.controller.adaptive.target_fault_latency", DURATION, ofMillis( 5 ) ).dynamic().build();
+
     @Internal
     @Description( "Whether or not DBMS's byte buffer manager should be used for network stack buffers instead " +
             "of each network library managing its buffers on its own" )
@@ -438,7 +438,7 @@ public class GraphDatabaseSettings implements SettingsDeclaration
 
     public enum CheckpointPolicy
     {
-        PERIODIC, CONTINUOUS, VOLUMETRIC
+        PERIODIC, CONTINUOUS, VOLUMETRIC, RECOVERY_TIME
     }
     @Description( "Configures the general policy for when check-points should occur. The default policy is the " +
             "'periodic' check-point policy, as specified by the 'dbms.checkpoint.interval.tx' and " +
@@ -448,7 +448,9 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             "check-point process all the time. " +
             "The second is the 'volumetric' check-point policy, which makes a best-effort at check-pointing " +
             "often enough so that the database doesn't get too far behind on deleting old transaction logs in " +
-            "accordance with the 'dbms.tx_log.rotation.retention_policy' setting." )
+            "accordance with the 'dbms.tx_log.rotation.retention_policy' setting. " +
+            "The 'recovery_time' check-point policy check-points often enough to keep the estimated time it would take to " +
+            "recover the database after a crash below the 'dbms.checkpoint.recovery_time.target' setting." )
     public static final Setting<CheckpointPolicy> check_point_policy =
             newBuilder( "dbms.checkpoint", ofEnum( CheckpointPolicy.class ), CheckpointPolicy.PERIODIC ).build();
 
@@ -474,9 +476,14 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Duration> check_point_interval_time =
             newBuilder( "dbms.checkpoint.interval.time", DURATION, ofMinutes( 15 ) ).build();
 
+    @Description( "Configures the longest time recovery after a crash should take, when using the 'recovery_time' check-point policy. " +
+            "Recovery time is estimated from the amount of transaction log written since the last check-point, and the rate at which " +
+            "the database replayed its transaction log the last time it recovered." )
+    public static final Setting<Duration> check_point_recovery_time_target =
+            newBuilder( "dbms.checkpoint.recovery_time.target", DURATION, ofMinutes( 1 ) ).addConstraint( min( ofSeconds( 1 ) ) ).build();
+
     @Description( "Limit the number of IOs the background checkpoint process will consume per second. " +
-            "This setting is advisory, is ignored in Neo4j Community Edition, and is followed to " +
-            "best effort in Enterprise Edition. " +
+            "This setting is advisory, and is followed to best effort. " +
             "An IO is in this case a 8 KiB (mostly sequential) write. Limiting the write IO in " +
             "this way will leave more bandwidth in the IO subsystem to service random-read IOs, " +
             "which is important for the response time of queries when the database cannot fit " +
@@ -636,18 +643,21 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             newBuilder( "dbms.memory.pagecache.flush.buffer.size_in_pages", INT, 128 ).addConstraint( range( 1, 512 ) ).dynamic().build();
 
     @Description( "The profiling frequency for the page cache. " +
-            "Accurate profiles allow the page cache to do active warmup after a restart, reducing the mean time to performance.\n" +
-            "This feature is available in Neo4j Enterprise Edition." )
+            "Accurate profiles allow the page cache to do active warmup after a restart, reducing the mean time to performance." )
     public static final Setting<Duration> pagecache_warmup_profiling_interval =
             newBuilder( "dbms.memory.pagecache.warmup.profile.interval", DURATION, ofMinutes( 1 ) ).build();
 
     @Description( "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. " +
             "According to that profile pages can be reloaded on the restart, replication, etc. " +
-            "This setting allows disabling that behavior.\n" +
-            "This feature is available in Neo4j Enterprise Edition." )
+            "This setting allows disabling that behavior." )
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder( "dbms.memory.pagecache.warmup.enable", BOOL, true ).build();
 
+    @Description( "Make the database wait for the page cache warmup to complete before it becomes available. " +
+            "By default the warmup runs in the background, while the database is already serving requests." )
+    public static final Setting<Boolean> pagecache_warmup_blocking =
+            newBuilder( "dbms.memory.pagecache.warmup.blocking", BOOL, false ).build();
+
     @Description( "Page cache warmup can be configured to prefetch files, preferably when cache size is bigger than store size. " +
             "Files to be prefetched can be filtered by 'dbms.memory.pagecache.warmup.preload.allowlist'. " +
             "Enabling this disables warmup by profile " )
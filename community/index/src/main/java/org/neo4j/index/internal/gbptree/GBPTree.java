@@ -70,6 +70,7 @@ import static org.neo4j.index.internal.gbptree.SeekCursor.DEFAULT_MAX_READ_AHEAD
 import static org.neo4j.index.internal.gbptree.SeekCursor.LEAF_LEVEL;
 import static org.neo4j.internal.helpers.Exceptions.withMessage;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 
 /**
  * A generation-aware B+tree (GB+Tree) implementation directly atop a {@link PageCache} with no caching in between.
@@ -370,6 +371,12 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final Layout<KEY,VALUE> layout;
 
+    /**
+     * The lowest and highest possible keys of the {@link #layout}, used to recognize seeks over the whole tree.
+     */
+    private final KEY lowestKey;
+    private final KEY highestKey;
+
     /**
      * Instance of {@link TreeNode} which handles reading/writing physical bytes from pages representing tree nodes.
      */
@@ -590,6 +597,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         long rootId = IdSpace.MIN_TREE_NODE_ID;
         setRoot( rootId, Generation.unstableGeneration( generation ) );
         this.layout = layout;
+        this.lowestKey = layout.newKey();
+        this.highestKey = layout.newKey();
+        layout.initializeAsLowest( lowestKey );
+        layout.initializeAsHighest( highestKey );
 
         try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( INDEX_INTERNAL_TAG ) ) )
         {
@@ -1018,7 +1029,9 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         long stableGeneration = stableGeneration( generation );
         long unstableGeneration = unstableGeneration( generation );
 
-        PageCursor cursor = pagedFile.io( 0L /*ignored*/, PF_SHARED_READ_LOCK, cursorContext );
+        // Seeks over the whole tree are scans, and their pages are accessed with low priority so they don't push the working set out of the page cache.
+        int pfFlags = isFullRange( fromInclusive, toExclusive ) ? PF_SHARED_READ_LOCK | PF_TRANSIENT : PF_SHARED_READ_LOCK;
+        PageCursor cursor = pagedFile.io( 0L /*ignored*/, pfFlags, cursorContext );
         long rootGeneration = root.goTo( cursor );
 
         // Returns cursor which is now initiated with left-most leaf node for the specified range
@@ -1027,6 +1040,12 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                 exceptionDecorator, readAheadLength, searchLevel, monitor, cursorContext );
     }
 
+    private boolean isFullRange( KEY fromInclusive, KEY toExclusive )
+    {
+        return layout.compare( fromInclusive, lowestKey ) <= 0 && layout.compare( toExclusive, highestKey ) >= 0 ||
+               layout.compare( fromInclusive, highestKey ) >= 0 && layout.compare( toExclusive, lowestKey ) <= 0;
+    }
+
     /**
      * Partitions the provided key range into {@code numberOfPartitions} partitions and instantiates a {@link Seeker} for each.
      * Caller can seek through the partitions in parallel. Caller is responsible for closing the returned {@link Seeker seekers}.
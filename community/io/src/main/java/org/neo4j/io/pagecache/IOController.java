@@ -92,6 +92,18 @@ public interface IOController
      */
     void reportIO( int completedIOs );
 
+    /**
+     * Invoked before pages of a file mapped with this controller are written to it, whether they are evicted, flushed in the background
+     * or flushed by a check point. This allows the owner of the file to make whatever the written changes depend on durable first,
+     * like the part of a write-ahead log that describes them.
+     *
+     * @throws IOException if that couldn't be made durable, in which case the pages must not be written.
+     */
+    default void beforePagesWritten() throws IOException
+    {
+        // By default the pages don't depend on anything else being durable.
+    }
+
     /**
      * Re-enable the IOController, after having disabled it with {@link #disable()}.
      *
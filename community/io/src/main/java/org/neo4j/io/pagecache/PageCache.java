@@ -156,6 +156,22 @@ public interface PageCache extends AutoCloseable
      */
     void flushAndForce() throws IOException;
 
+    /**
+     * Flush all dirty pages of the given files, that must have been mapped by this page cache, and force them to the storage device.
+     * <p>
+     * Implementations may flush the files, and ranges of pages within large files, in parallel. The default implementation flushes the files one
+     * after another.
+     *
+     * @param files the mapped files to flush.
+     */
+    default void flushAndForce( List<PagedFile> files ) throws IOException
+    {
+        for ( PagedFile file : files )
+        {
+            file.flushAndForce();
+        }
+    }
+
     /**
      * Close the page cache to prevent any future mapping of files.
      *
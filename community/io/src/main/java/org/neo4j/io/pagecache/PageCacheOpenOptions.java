@@ -44,5 +44,24 @@ public enum PageCacheOpenOptions implements OpenOption
      * Please check that your platform is supported before providing this option.
      * @see ExtendedOpenOption for details.
      */
-    DIRECT
+    DIRECT,
+
+    /**
+     * Pin the pages of the file in memory, such that they are not evicted. This is meant for small files that are accessed often, and
+     * should never be given to large files: pinned pages are only evicted when the page cache has been swept entirely, without finding any other
+     * pages to evict.
+     */
+    PINNED,
+
+    /**
+     * Map the file with a high eviction priority. Pages of such files are aged slowly by the page cache, and thus stay in memory for longer than
+     * the pages of other files with the same access pattern.
+     */
+    PRIORITY_HIGH,
+
+    /**
+     * Map the file with a low eviction priority. Pages of such files never get any protection from eviction, regardless of how they are accessed,
+     * and thus leave memory earlier than the pages of other files.
+     */
+    PRIORITY_LOW
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import org.eclipse.collections.api.set.ImmutableSet;
+
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.neo4j.util.Preconditions.checkArgument;
+import static org.neo4j.util.Preconditions.requireNonNegative;
+
+/**
+ * An {@link OpenOption} for {@link PageCache#map(Path, int, String, ImmutableSet)}, that puts a memory quota on the mapped file.
+ * <p>
+ * The quota is expressed in a number of cache pages, and consists of a number of pages that are reserved for the quota, and a maximum number of pages
+ * that the quota may occupy. The page cache will avoid evicting pages of files whose quota is within its reservation, and will prefer evicting pages of
+ * files whose quota is above its maximum. The maximum is not a hard limit; a quota can grow beyond it when there is nothing else to evict.
+ * <p>
+ * The same quota instance can be given to any number of files, and the pages of all those files will then count towards the same quota. This way, a
+ * quota can be shared by, for instance, all files of a database.
+ */
+public final class PageCacheQuota implements OpenOption
+{
+    private final String name;
+    private final long minReservedPages;
+    private final long maxPages;
+    private final AtomicLong residentPages = new AtomicLong();
+
+    /**
+     * @param name the name of the quota, used for monitoring purposes.
+     * @param minReservedPages the number of pages that the files of this quota may keep in memory, before any of their pages are considered for eviction.
+     * @param maxPages the number of pages the files of this quota may keep in memory, before their pages are preferred for eviction.
+     */
+    public PageCacheQuota( String name, long minReservedPages, long maxPages )
+    {
+        requireNonNegative( minReservedPages );
+        checkArgument( maxPages >= minReservedPages, "Max pages %d must not be less than min reserved pages %d.", maxPages, minReservedPages );
+        this.name = name;
+        this.minReservedPages = minReservedPages;
+        this.maxPages = maxPages;
+    }
+
+    public String name()
+    {
+        return name;
+    }
+
+    public long minReservedPages()
+    {
+        return minReservedPages;
+    }
+
+    public long maxPages()
+    {
+        return maxPages;
+    }
+
+    /**
+     * @return the number of pages of the files of this quota, that are currently in memory.
+     */
+    public long residentPages()
+    {
+        return residentPages.get();
+    }
+
+    /**
+     * @return {@code true} if the files of this quota keep no more pages in memory than what is reserved for them.
+     */
+    public boolean isWithinReservation()
+    {
+        return residentPages.get() <= minReservedPages;
+    }
+
+    /**
+     * @return {@code true} if the files of this quota keep more pages in memory than they are allowed.
+     */
+    public boolean isExceeded()
+    {
+        return residentPages.get() > maxPages;
+    }
+
+    /**
+     * Called by the page cache when pages of a file with this quota are loaded into memory.
+     */
+    public void pagesLoaded( long pages )
+    {
+        residentPages.addAndGet( pages );
+    }
+
+    /**
+     * Called by the page cache when pages of a file with this quota are evicted from memory, or when the file is unmapped.
+     */
+    public void pagesEvicted( long pages )
+    {
+        residentPages.addAndGet( -pages );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageCacheQuota[" + name + ", minReservedPages=" + minReservedPages + ", maxPages=" + maxPages + ", residentPages=" + residentPages() + "]";
+    }
+}
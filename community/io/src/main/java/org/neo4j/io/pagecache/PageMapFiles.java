@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.nio.file.Path;
+
+/**
+ * Names the page maps of the files that the page cache stores compressed. A page map lives next to its file, and is part of it: a copy of a
+ * compressed file needs its page map to be readable.
+ */
+public final class PageMapFiles
+{
+    public static final String PAGE_MAP_SUFFIX = ".pagemap";
+
+    private PageMapFiles()
+    {
+    }
+
+    /**
+     * @return the file that holds the page map of the given file, if that file is compressed.
+     */
+    public static Path pageMapFile( Path file )
+    {
+        return file.resolveSibling( file.getFileName() + PAGE_MAP_SUFFIX );
+    }
+}
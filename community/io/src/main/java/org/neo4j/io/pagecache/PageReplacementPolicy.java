@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+/**
+ * The policy the page cache uses to pick pages to evict, when it needs to make room for page faults.
+ */
+public enum PageReplacementPolicy
+{
+    /**
+     * The classic CLOCK algorithm. Every pin of a page increments its usage counter, and the clock arm decrements the usage counter of every page it
+     * passes over, evicting the pages whose counter has reached zero. All pins are treated the same, so a large sequential scan will eventually push the
+     * entire working set out of the cache.
+     */
+    CLOCK,
+    /**
+     * A scan resistant variant of CLOCK, in the spirit of 2Q. Pages are admitted as <em>cold</em>, and only become <em>hot</em> when they are pinned again
+     * by a cursor that is not opened with {@link PagedFile#PF_TRANSIENT}. In other words, pages that are only touched by sequential scans never get
+     * promoted. The clock arm evicts cold pages as it finds them, but passes over hot pages, mostly without aging them, as long as there are cold pages to
+     * be found. Hot pages are still aged slowly, and fully once the clock arm has gone through all the pages without finding any cold ones, so that a
+     * working set that is no longer in use will eventually make room for a new one.
+     */
+    SCAN_RESISTANT_CLOCK
+}
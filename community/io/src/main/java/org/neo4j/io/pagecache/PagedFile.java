@@ -61,7 +61,8 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_GROW = 1 << 2;
     /**
-     * Read-ahead hint for sequential scanning.
+     * Read-ahead hint for sequential scanning. The page cache only starts reading ahead once the cursor has moved through a run of consecutive
+     * pages, so the hint costs nothing for cursors that end up reading only a few pages.
      */
     int PF_READ_AHEAD = 1 << 3;
     /**
@@ -75,9 +76,11 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_FAULT = 1 << 4;
     /**
-     * Do not update page access statistics.
+     * Access the pages with low priority, for instance because they are read by a sequential scan, and are unlikely to
+     * be accessed again any time soon. Pages accessed this way are not promoted by scan resistant page replacement
+     * policies, so that scans do not push the working set out of the page cache.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
     /**
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
@@ -168,6 +171,21 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Make sure that the given range of file pages are loaded into the page cache, without pinning any of them.
+     * <p>
+     * Pages that are already in memory are left alone. Runs of pages that are not in memory are read from the file
+     * with vectored reads where possible, which is much cheaper than faulting them in one by one through a cursor.
+     * Pages beyond the end of the file are ignored, and the file will not grow.
+     *
+     * @param pageId the id of the first file page to touch.
+     * @param count the number of consecutive file pages to touch.
+     * @param context underlying page cursor context.
+     * @return the number of pages in the given range that were either already in memory, or have now been loaded.
+     * @throws IOException if the pages could not be read.
+     */
+    int touch( long pageId, int count, CursorContext context ) throws IOException;
+
     /**
      * Release a handle to a paged file.
      * <p>
@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import com.github.luben.zstd.Zstd;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.util.FeatureToggles;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.io.pagecache.PageMapFiles.pageMapFile;
+
+/**
+ * A PageSwapper that stores every page of a file compressed with zstd, in an extent of whole sectors of the file.
+ * <p>
+ * The translation from file page ids to extents is kept in memory, and persisted to a page map file next to the swapped file, whenever the swapper
+ * is forced. Pages are never overwritten in place. A page that is written gets a new extent, and the extent it had before is only reused after the
+ * next force, so the page map on disk always describes the pages as they were at the last force, and a crash reverts the file to that state.
+ * Pages that do not compress to fewer sectors than they would use uncompressed are stored as is. Pages that have never been written read as zeros.
+ * <p>
+ * The sector I/O itself is done by a {@link SingleFilePageSwapper}, with the sector size as its page size.
+ */
+public class CompressingPageSwapper implements PageSwapper
+{
+    static final int SECTOR_SIZE = 512;
+
+    private static final int COMPRESSION_LEVEL = FeatureToggles.getInteger( CompressingPageSwapper.class, "compressionLevel", 1 );
+    private static final long PAGE_MAP_MAGIC = 0x6e656f34_706d6170L;
+    private static final int PAGE_MAP_HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int PAGE_MAP_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int NO_EXTENT = -1;
+    private static final ThreadLocal<ByteBuffer> SCRATCH_CACHE = new ThreadLocal<>();
+
+    private final FileSystemAbstraction fs;
+    private final Path path;
+    private final Path pageMapFile;
+    private final int filePageSize;
+    private final int pageSectors;
+    private final int scratchSize;
+    private final SingleFilePageSwapper sectors;
+    private final int swapperId;
+    private final Object forceLock = new Object();
+    private volatile PageEvictionCallback onEviction;
+
+    // The page map, and the free extents. Guarded by synchronized(this).
+    private long[] extentStarts = new long[0];
+    private int[] extentLengths = new int[0];
+    private long pageCount;
+    private long endSector;
+    private boolean dirty;
+    private final MutableLongList[] freeExtents;
+    // Extents that were released since the last force, as pairs of first sector and number of sectors.
+    private MutableLongList releasedExtents = new LongArrayList();
+
+    CompressingPageSwapper( Path path, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, IOController ioController,
+            SwapperSet swapperSet ) throws IOException
+    {
+        this.fs = fs;
+        this.path = path;
+        this.pageMapFile = pageMapFile( path );
+        this.filePageSize = filePageSize;
+        this.onEviction = onEviction;
+        this.pageSectors = sectorsFor( filePageSize );
+        this.scratchSize = Math.toIntExact( Zstd.compressBound( filePageSize ) );
+        this.freeExtents = new MutableLongList[pageSectors + 1];
+        for ( int i = 1; i <= pageSectors; i++ )
+        {
+            freeExtents[i] = new LongArrayList();
+        }
+        // The sector swapper gets its own swapper set, because it is never bound to pages in the page cache.
+        this.sectors = new SingleFilePageSwapper( path, fs, SECTOR_SIZE, null, false, false, ioController, new SwapperSet() );
+        try
+        {
+            if ( fs.fileExists( pageMapFile ) )
+            {
+                readPageMap();
+            }
+            else
+            {
+                writePageMap( extentStarts, extentLengths, 0 );
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            try
+            {
+                sectors.close();
+            }
+            catch ( IOException ioe )
+            {
+                e.addSuppressed( ioe );
+            }
+            throw e;
+        }
+        this.swapperId = swapperSet.allocate( this );
+    }
+
+    private static int sectorsFor( int bytes )
+    {
+        return (bytes + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    private ByteBuffer scratch()
+    {
+        ByteBuffer buffer = SCRATCH_CACHE.get();
+        if ( buffer == null || buffer.capacity() < scratchSize )
+        {
+            buffer = ByteBuffer.allocateDirect( scratchSize );
+            SCRATCH_CACHE.set( buffer );
+        }
+        return buffer;
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress ) throws IOException
+    {
+        return read( filePageId, bufferAddress, filePageSize );
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress, int bufferLength ) throws IOException
+    {
+        checkFilePageId( filePageId );
+        long bytes = 0;
+        for ( int offset = 0; offset < bufferLength; offset += filePageSize )
+        {
+            bytes += readPage( filePageId++, bufferAddress + offset );
+        }
+        return bytes;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        long bytes = 0;
+        long filePageId = startFilePageId;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes += read( filePageId, bufferAddresses[i], bufferLengths[i] );
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytes;
+    }
+
+    private int readPage( long filePageId, long pageAddress ) throws IOException
+    {
+        long extentStart;
+        int extentLength;
+        synchronized ( this )
+        {
+            if ( filePageId >= pageCount || extentStarts[(int) filePageId] == NO_EXTENT )
+            {
+                extentStart = NO_EXTENT;
+                extentLength = 0;
+            }
+            else
+            {
+                extentStart = extentStarts[(int) filePageId];
+                extentLength = extentLengths[(int) filePageId];
+            }
+        }
+
+        if ( extentStart == NO_EXTENT )
+        {
+            UnsafeUtil.setMemory( pageAddress, filePageSize, MuninnPageCache.ZERO_BYTE );
+            return 0;
+        }
+        if ( extentLength == filePageSize )
+        {
+            sectors.read( extentStart, pageAddress, filePageSize );
+            return filePageSize;
+        }
+
+        long scratchAddress = UnsafeUtil.getDirectByteBufferAddress( scratch() );
+        sectors.read( extentStart, scratchAddress, extentLength );
+        long decompressed = Zstd.decompressUnsafe( pageAddress, filePageSize, scratchAddress, extentLength );
+        if ( Zstd.isError( decompressed ) || decompressed != filePageSize )
+        {
+            throw new IOException( "Failed to decompress page " + filePageId + " of " + path + ", stored in " + extentLength + " bytes at sector " +
+                    extentStart + ": " + (Zstd.isError( decompressed ) ? Zstd.getErrorName( decompressed ) : decompressed + " bytes decompressed") );
+        }
+        return filePageSize;
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        return write( filePageId, bufferAddress, filePageSize );
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress, int bufferLength ) throws IOException
+    {
+        checkFilePageId( filePageId );
+        long bytes = 0;
+        for ( int offset = 0; offset < bufferLength; offset += filePageSize )
+        {
+            bytes += writePage( filePageId++, bufferAddress + offset );
+        }
+        return bytes;
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages ) throws IOException
+    {
+        long bytes = 0;
+        long filePageId = startFilePageId;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes += write( filePageId, bufferAddresses[i], bufferLengths[i] );
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytes;
+    }
+
+    private int writePage( long filePageId, long pageAddress ) throws IOException
+    {
+        long scratchAddress = UnsafeUtil.getDirectByteBufferAddress( scratch() );
+        long compressed = Zstd.compressUnsafe( scratchAddress, scratchSize, pageAddress, filePageSize, COMPRESSION_LEVEL );
+        if ( Zstd.isError( compressed ) )
+        {
+            throw new IOException( "Failed to compress page " + filePageId + " of " + path + ": " + Zstd.getErrorName( compressed ) );
+        }
+
+        long source = pageAddress;
+        int length = filePageSize;
+        if ( sectorsFor( (int) compressed ) < pageSectors )
+        {
+            source = scratchAddress;
+            length = (int) compressed;
+        }
+        int extentSectors = sectorsFor( length );
+        long extentStart;
+        synchronized ( this )
+        {
+            extentStart = allocateExtent( extentSectors );
+        }
+
+        sectors.write( extentStart, source, length );
+
+        synchronized ( this )
+        {
+            ensurePageMapCapacity( filePageId );
+            int index = (int) filePageId;
+            if ( extentStarts[index] != NO_EXTENT )
+            {
+                releasedExtents.add( extentStarts[index] );
+                releasedExtents.add( sectorsFor( extentLengths[index] ) );
+            }
+            extentStarts[index] = extentStart;
+            extentLengths[index] = length;
+            pageCount = Math.max( pageCount, filePageId + 1 );
+            dirty = true;
+        }
+        return filePageSize;
+    }
+
+    // Must be called while synchronized on this.
+    private long allocateExtent( int extentSectors )
+    {
+        for ( int size = extentSectors; size <= pageSectors; size++ )
+        {
+            MutableLongList free = freeExtents[size];
+            if ( !free.isEmpty() )
+            {
+                long start = free.removeAtIndex( free.size() - 1 );
+                if ( size > extentSectors )
+                {
+                    freeExtents[size - extentSectors].add( start + extentSectors );
+                }
+                return start;
+            }
+        }
+        long start = endSector;
+        endSector += extentSectors;
+        return start;
+    }
+
+    // Must be called while synchronized on this.
+    private void freeExtent( long start, long extentSectors )
+    {
+        while ( extentSectors > 0 )
+        {
+            int size = (int) Math.min( extentSectors, pageSectors );
+            freeExtents[size].add( start );
+            start += size;
+            extentSectors -= size;
+        }
+    }
+
+    // Must be called while synchronized on this.
+    private void ensurePageMapCapacity( long filePageId )
+    {
+        if ( filePageId >= Integer.MAX_VALUE )
+        {
+            throw new IllegalArgumentException( "File page id " + filePageId + " is too large for a compressed file." );
+        }
+        if ( filePageId >= extentStarts.length )
+        {
+            int capacity = (int) Math.min( Integer.MAX_VALUE, Math.max( filePageId + 1, extentStarts.length * 2L ) );
+            int oldCapacity = extentStarts.length;
+            extentStarts = Arrays.copyOf( extentStarts, capacity );
+            extentLengths = Arrays.copyOf( extentLengths, capacity );
+            Arrays.fill( extentStarts, oldCapacity, capacity, NO_EXTENT );
+        }
+    }
+
+    private static void checkFilePageId( long filePageId ) throws IOException
+    {
+        if ( filePageId < 0 )
+        {
+            throw new IOException( "Negative file page id: " + filePageId );
+        }
+    }
+
+    @Override
+    public void evicted( long filePageId )
+    {
+        PageEvictionCallback callback = this.onEviction;
+        if ( callback != null )
+        {
+            callback.onEvict( filePageId );
+        }
+    }
+
+    @Override
+    public Path path()
+    {
+        return path;
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        synchronized ( forceLock )
+        {
+            long[] starts;
+            int[] lengths;
+            long count;
+            MutableLongList released;
+            synchronized ( this )
+            {
+                count = pageCount;
+                starts = Arrays.copyOf( extentStarts, (int) count );
+                lengths = Arrays.copyOf( extentLengths, (int) count );
+                released = releasedExtents;
+                releasedExtents = new LongArrayList();
+                dirty = false;
+            }
+
+            // Every page in the snapshot has been written before it was taken, so forcing the sectors now makes the snapshot durable.
+            sectors.force();
+            try
+            {
+                writePageMap( starts, lengths, count );
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                synchronized ( this )
+                {
+                    released.addAll( releasedExtents );
+                    releasedExtents = released;
+                    dirty = true;
+                }
+                throw e;
+            }
+
+            synchronized ( this )
+            {
+                for ( int i = 0; i < released.size(); i += 2 )
+                {
+                    freeExtent( released.get( i ), released.get( i + 1 ) );
+                }
+            }
+        }
+    }
+
+    private void writePageMap( long[] starts, int[] lengths, long count ) throws IOException
+    {
+        Path tempFile = pageMapFile.resolveSibling( pageMapFile.getFileName() + ".tmp" );
+        ByteBuffer buffer = ByteBuffer.allocate( (int) Math.min( PAGE_MAP_HEADER_SIZE + count * PAGE_MAP_ENTRY_SIZE, 1 << 16 ) );
+        try ( StoreChannel channel = fs.write( tempFile ) )
+        {
+            channel.truncate( 0 );
+            buffer.putLong( PAGE_MAP_MAGIC ).putInt( filePageSize ).putInt( SECTOR_SIZE ).putLong( count );
+            for ( int i = 0; i < count; i++ )
+            {
+                if ( buffer.remaining() < PAGE_MAP_ENTRY_SIZE )
+                {
+                    channel.writeAll( buffer.flip() );
+                    buffer.clear();
+                }
+                buffer.putLong( starts[i] ).putInt( lengths[i] );
+            }
+            channel.writeAll( buffer.flip() );
+            channel.force( false );
+        }
+        fs.renameFile( tempFile, pageMapFile, ATOMIC_MOVE, REPLACE_EXISTING );
+    }
+
+    // Called from the constructor only.
+    private void readPageMap() throws IOException
+    {
+        try ( StoreChannel channel = fs.read( pageMapFile ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate( PAGE_MAP_HEADER_SIZE );
+            channel.readAll( header );
+            header.flip();
+            long magic = header.getLong();
+            int storedPageSize = header.getInt();
+            int storedSectorSize = header.getInt();
+            long count = header.getLong();
+            if ( magic != PAGE_MAP_MAGIC || storedPageSize != filePageSize || storedSectorSize != SECTOR_SIZE || count < 0 || count >= Integer.MAX_VALUE )
+            {
+                throw new IOException( "Page map " + pageMapFile + " does not describe a compressed file with page size " + filePageSize +
+                        ". Found page size " + storedPageSize + ", sector size " + storedSectorSize + " and " + count + " pages." );
+            }
+
+            int pages = (int) count;
+            long[] starts = new long[pages];
+            int[] lengths = new int[pages];
+            ByteBuffer buffer = ByteBuffer.allocate( (int) Math.min( (long) pages * PAGE_MAP_ENTRY_SIZE, 1 << 16 ) );
+            for ( int i = 0; i < pages; )
+            {
+                buffer.clear();
+                buffer.limit( (int) Math.min( buffer.capacity(), (long) (pages - i) * PAGE_MAP_ENTRY_SIZE ) );
+                channel.readAll( buffer );
+                buffer.flip();
+                while ( buffer.hasRemaining() )
+                {
+                    starts[i] = buffer.getLong();
+                    lengths[i] = buffer.getInt();
+                    i++;
+                }
+            }
+            extentStarts = starts;
+            extentLengths = lengths;
+            pageCount = count;
+        }
+        rebuildFreeExtents();
+    }
+
+    // Called from the constructor only.
+    private void rebuildFreeExtents()
+    {
+        long[] usedExtents = new long[(int) pageCount];
+        int used = 0;
+        for ( int i = 0; i < pageCount; i++ )
+        {
+            if ( extentStarts[i] != NO_EXTENT )
+            {
+                // Extents are at most a page long, so the number of sectors fits in the lower bits.
+                usedExtents[used++] = (extentStarts[i] << 32) | sectorsFor( extentLengths[i] );
+            }
+        }
+        Arrays.sort( usedExtents, 0, used );
+        long position = 0;
+        for ( int i = 0; i < used; i++ )
+        {
+            long start = usedExtents[i] >>> 32;
+            long extentSectors = usedExtents[i] & 0xFFFFFFFFL;
+            if ( start > position )
+            {
+                freeExtent( position, start - position );
+            }
+            position = Math.max( position, start + extentSectors );
+        }
+        endSector = position;
+    }
+
+    @Override
+    public long getLastPageId()
+    {
+        synchronized ( this )
+        {
+            return pageCount == 0 ? PageCursor.UNBOUND_PAGE_ID : pageCount - 1;
+        }
+    }
+
+    @Override
+    public void truncate() throws IOException
+    {
+        synchronized ( forceLock )
+        {
+            synchronized ( this )
+            {
+                extentStarts = new long[0];
+                extentLengths = new int[0];
+                pageCount = 0;
+                endSector = 0;
+                releasedExtents = new LongArrayList();
+                for ( int i = 1; i <= pageSectors; i++ )
+                {
+                    freeExtents[i].clear();
+                }
+                dirty = false;
+            }
+            writePageMap( extentStarts, extentLengths, 0 );
+            sectors.truncate();
+        }
+    }
+
+    @Override
+    public boolean canAllocate()
+    {
+        return false;
+    }
+
+    @Override
+    public void allocate( long newFileSize )
+    {
+        // Compressed files do not know their size up front, so there is nothing to preallocate.
+    }
+
+    @Override
+    public int swapperId()
+    {
+        return swapperId;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            boolean unforcedWrites;
+            synchronized ( this )
+            {
+                unforcedWrites = dirty;
+            }
+            if ( unforcedWrites )
+            {
+                // Writes are only visible through the page map, so it has to be persisted for them to survive the close.
+                force();
+            }
+        }
+        finally
+        {
+            sectors.close();
+            onEviction = null;
+        }
+    }
+
+    @Override
+    public void closeAndDelete() throws IOException
+    {
+        sectors.closeAndDelete();
+        onEviction = null;
+        fs.deleteFile( pageMapFile );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        CompressingPageSwapper that = (CompressingPageSwapper) o;
+        return path.equals( that.path );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CompressingPageSwapper{" +
+                "filePageSize=" + filePageSize +
+                ", file=" + path +
+                '}';
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+
+import static org.neo4j.io.pagecache.PageMapFiles.pageMapFile;
+
+/**
+ * A factory for CompressingPageSwapper instances, for the selected files that are created by the page cache, and for every existing file that
+ * has a page map. All other files are swapped by the swappers of the given delegate factory.
+ * <p>
+ * Whether a file is compressed is decided when it is created, so selecting files only affects the files created afterwards, and files stay
+ * compressed when they are no longer selected. Only the files that may be compressed are looked at for a page map, so that mapping any other file
+ * costs no more than it does with the delegate factory.
+ *
+ * @see org.neo4j.io.pagecache.impl.CompressingPageSwapper
+ */
+public class CompressingPageSwapperFactory implements PageSwapperFactory
+{
+    private final FileSystemAbstraction fs;
+    private final PageSwapperFactory delegate;
+    private final Predicate<Path> compressibleFiles;
+    private final Predicate<Path> compressedFiles;
+
+    /**
+     * A factory that doesn't compress new files, but still swaps the existing compressed files, so that they are never read as raw pages.
+     *
+     * @param fs the file system of the swapped files.
+     * @param delegate the factory of the swappers of the files that are not compressed.
+     */
+    public CompressingPageSwapperFactory( FileSystemAbstraction fs, PageSwapperFactory delegate )
+    {
+        this( fs, delegate, file -> true, file -> false );
+    }
+
+    /**
+     * @param fs the file system of the swapped files.
+     * @param delegate the factory of the swappers of the files that are not compressed.
+     * @param compressedFiles selects the files that should be compressed, when they are created.
+     */
+    public CompressingPageSwapperFactory( FileSystemAbstraction fs, PageSwapperFactory delegate, Predicate<Path> compressedFiles )
+    {
+        this( fs, delegate, file -> true, compressedFiles );
+    }
+
+    /**
+     * @param fs the file system of the swapped files.
+     * @param delegate the factory of the swappers of the files that are not compressed.
+     * @param compressibleFiles selects the files that may be compressed, which must include every file that is, or ever was, selected by
+     * {@code compressedFiles}. All other files are given to the delegate factory without looking for a page map.
+     * @param compressedFiles selects the files that should be compressed, when they are created.
+     */
+    public CompressingPageSwapperFactory( FileSystemAbstraction fs, PageSwapperFactory delegate, Predicate<Path> compressibleFiles,
+            Predicate<Path> compressedFiles )
+    {
+        this.fs = fs;
+        this.delegate = delegate;
+        this.compressibleFiles = compressibleFiles;
+        this.compressedFiles = compressedFiles;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper( Path file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist, boolean useDirectIO,
+            boolean preallocateStoreFiles, IOController ioController, SwapperSet swappers ) throws IOException
+    {
+        if ( !compressibleFiles.test( file ) )
+        {
+            return delegate.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, useDirectIO, preallocateStoreFiles, ioController,
+                    swappers );
+        }
+        Path pageMap = pageMapFile( file );
+        if ( fs.fileExists( file ) )
+        {
+            if ( fs.fileExists( pageMap ) )
+            {
+                return new CompressingPageSwapper( file, fs, filePageSize, onEviction, ioController, swappers );
+            }
+        }
+        else
+        {
+            if ( fs.fileExists( pageMap ) )
+            {
+                // The compressed file has been deleted without going through the page cache.
+                fs.deleteFile( pageMap );
+            }
+            if ( createIfNotExist && !useDirectIO && compressedFiles.test( file ) )
+            {
+                return new CompressingPageSwapper( file, fs, filePageSize, onEviction, ioController, swappers );
+            }
+        }
+        return delegate.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, useDirectIO, preallocateStoreFiles, ioController, swappers );
+    }
+}
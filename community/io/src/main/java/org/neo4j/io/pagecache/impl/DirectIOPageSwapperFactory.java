@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+
+import static org.apache.commons.lang3.SystemUtils.IS_OS_LINUX;
+
+/**
+ * A factory for SingleFilePageSwapper instances, that opens the selected files with direct I/O, so their contents are cached by the page cache
+ * only, and not also by the OS page cache.
+ * <p>
+ * Direct I/O requires the file page size to be a multiple of the block size of the file system, and a file system that supports it. Selected
+ * files that do not meet those requirements are opened with buffered I/O, just like the files that are not selected. The page buffers of the
+ * page cache are already aligned to the OS page size, so they can be used for direct I/O as is. Falling back to buffered I/O for a selected
+ * file is reported to the {@link Monitor}, once per file.
+ *
+ * @see org.neo4j.io.pagecache.impl.SingleFilePageSwapper
+ */
+public class DirectIOPageSwapperFactory extends SingleFilePageSwapperFactory
+{
+    /**
+     * Told about the selected files that are opened with buffered I/O after all.
+     */
+    public interface Monitor
+    {
+        Monitor NO_MONITOR = ( file, reason ) -> {};
+
+        /**
+         * @param file the selected file, that is opened with buffered I/O.
+         * @param reason why direct I/O could not be used for the file.
+         */
+        void directIOUnavailable( Path file, String reason );
+    }
+
+    private final FileSystemAbstraction fs;
+    private final Predicate<Path> directIOFiles;
+    private final Monitor monitor;
+    private final Set<Path> reportedFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param fs the file system of the swapped files.
+     * @param directIOFiles selects the files that should be opened with direct I/O when possible.
+     */
+    public DirectIOPageSwapperFactory( FileSystemAbstraction fs, Predicate<Path> directIOFiles )
+    {
+        this( fs, directIOFiles, Monitor.NO_MONITOR );
+    }
+
+    /**
+     * @param fs the file system of the swapped files.
+     * @param directIOFiles selects the files that should be opened with direct I/O when possible.
+     * @param monitor told about the selected files that are opened with buffered I/O.
+     */
+    public DirectIOPageSwapperFactory( FileSystemAbstraction fs, Predicate<Path> directIOFiles, Monitor monitor )
+    {
+        super( fs );
+        this.fs = fs;
+        this.directIOFiles = directIOFiles;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper( Path file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist, boolean useDirectIO,
+            boolean preallocateStoreFiles, IOController ioController, SwapperSet swappers ) throws IOException
+    {
+        if ( !useDirectIO && IS_OS_LINUX && directIOFiles.test( file ) )
+        {
+            String unavailable = directIOUnavailable( file, filePageSize );
+            if ( unavailable == null )
+            {
+                try
+                {
+                    return super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, true, preallocateStoreFiles, ioController,
+                            swappers );
+                }
+                catch ( IOException e )
+                {
+                    // Most likely the file system does not support direct I/O. Failures that are not about direct I/O, will fail again below.
+                    unavailable = "opening it with direct I/O failed: " + e;
+                }
+            }
+            if ( reportedFiles.add( file.toAbsolutePath().normalize() ) )
+            {
+                monitor.directIOUnavailable( file, unavailable );
+            }
+        }
+        return super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, useDirectIO, preallocateStoreFiles, ioController, swappers );
+    }
+
+    /**
+     * @return why the given file can't be opened with direct I/O, or {@code null} if it can, as far as can be told without trying.
+     */
+    private String directIOUnavailable( Path file, int filePageSize ) throws IOException
+    {
+        Path blockSizeSource = fs.fileExists( file ) ? file : file.getParent();
+        if ( blockSizeSource == null || !fs.fileExists( blockSizeSource ) )
+        {
+            return "neither the file nor its directory exist";
+        }
+        long blockSize = fs.getBlockSize( blockSizeSource );
+        if ( blockSize <= 0 || filePageSize % blockSize != 0 )
+        {
+            return "the page size " + filePageSize + " is not a multiple of the file system block size " + blockSize;
+        }
+        return null;
+    }
+}
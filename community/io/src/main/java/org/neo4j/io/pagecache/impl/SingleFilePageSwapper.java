@@ -439,6 +439,7 @@ public class SingleFilePageSwapper implements PageSwapper
     @Override
     public long write( long filePageId, long bufferAddress, int bufferLength ) throws IOException
     {
+        ioController.beforePagesWritten();
         return write( filePageId, bufferAddress, bufferLength, true );
     }
 
@@ -473,6 +474,7 @@ public class SingleFilePageSwapper implements PageSwapper
         {
             return 0;
         }
+        ioController.beforePagesWritten();
 
         try ( Retry retry = new Retry() )
         {
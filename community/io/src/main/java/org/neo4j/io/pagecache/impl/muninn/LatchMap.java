@@ -109,6 +109,23 @@ final class LatchMap
         return null;
     }
 
+    /**
+     * Like {@link #takeOrAwaitLatch(long)}, except this method never waits. If a latch is currently installed for the given (or any colliding)
+     * identifier, then {@code null} is returned immediately.
+     *
+     * This is useful for threads that already hold other latches, and therefore must not block on latches held by other threads.
+     */
+    Latch tryTakeLatch( long identifier )
+    {
+        int index = index( identifier );
+        if ( getLatch( index ) != null )
+        {
+            return null;
+        }
+        Latch latch = new Latch( this, index );
+        return tryInsertLatch( index, latch ) ? latch : null;
+    }
+
     private int index( long identifier )
     {
         return (int) (identifier & faultLockMask);
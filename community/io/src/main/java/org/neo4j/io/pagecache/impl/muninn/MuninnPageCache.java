@@ -43,9 +43,12 @@ import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageCacheQuota;
+import org.neo4j.io.pagecache.PageReplacementPolicy;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
+import org.neo4j.io.pagecache.tracing.BackgroundFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -62,10 +65,11 @@ import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.internal.helpers.Numbers.isPowerOfTwo;
 import static org.neo4j.io.pagecache.buffer.IOBufferFactory.DISABLED_BUFFER_FACTORY;
-import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
 import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getDouble;
 import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.Preconditions.requirePowerOfTwo;
 
 /**
  * The Muninn {@link org.neo4j.io.pagecache.PageCache page cache} implementation.
@@ -135,6 +139,26 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // Under the scan resistant replacement policy, the clock arm only ages every this many hot pages it passes over, as long as it keeps finding cold
+    // pages to evict. This MUST be a power of two.
+    private static final int hotPageAgingInterval = getInteger( MuninnPageCache.class, "hotPageAgingInterval", 16 );
+
+    // The background flush thread wakes up this often, to write out a share of the dirty pages ahead of the next checkpoint.
+    private static final long backgroundFlushIntervalNanos =
+            TimeUnit.MILLISECONDS.toNanos( getInteger( MuninnPageCache.class, "backgroundFlushIntervalMillis", 100 ) );
+
+    // The background flush thread does not write anything while less than this ratio of the pages in the cache are dirty.
+    private static final double backgroundFlushMinDirtyRatio = getDouble( MuninnPageCache.class, "backgroundFlushMinDirtyRatio", 0.02 );
+
+    // The number of pages the background flush thread writes in its first run, before it has observed any write throughput.
+    private static final int backgroundFlushInitialPages = getInteger( MuninnPageCache.class, "backgroundFlushInitialPages", 256 );
+
+    // The largest number of pages the background flush thread writes with a single vectored write.
+    private static final int backgroundFlushMaxVectorSize = getInteger( MuninnPageCache.class, "backgroundFlushMaxVectorSize", 128 );
+
+    // The number of pages the background flush thread looks at, to estimate the ratio of dirty pages in the cache.
+    private static final int dirtyRatioSampleSize = getInteger( MuninnPageCache.class, "dirtyRatioSampleSize", 4096 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -168,6 +192,14 @@ public class MuninnPageCache implements PageCache
     private final int faultLockStriping;
     private final boolean preallocateStoreFiles;
     private final boolean enableEvictionThread;
+    private final boolean enableBackgroundFlushThread;
+    final PageReplacementPolicy replacementPolicy;
+    private final boolean scanResistant;
+    private final int hotPageAgingMask;
+    // The number of protected pages the clock arms have passed over since a page was last evicted. Updates are intentionally racy.
+    private int hotPagesPassed;
+    // The files mapped with an eviction priority or a quota, indexed by their swapper id. Empty when there are no such files.
+    private volatile MuninnPagedFile[] evictionControlledFiles = new MuninnPagedFile[0];
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
@@ -198,6 +230,9 @@ public class MuninnPageCache implements PageCache
     private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
+    // The thread that continuously writes out dirty pages, so checkpoints only have to flush the remainder.
+    private volatile Thread backgroundFlushThread;
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -241,10 +276,13 @@ public class MuninnPageCache implements PageCache
         private final int faultLockStriping;
         private final boolean enableEvictionThread;
         private final boolean preallocateStoreFiles;
+        private final PageReplacementPolicy replacementPolicy;
+        private final boolean enableBackgroundFlushThread;
 
         private Configuration( MemoryAllocator memoryAllocator, SystemNanoClock clock, MemoryTracker memoryTracker, PageCacheTracer pageCacheTracer,
                 int pageSize, IOBufferFactory bufferFactory, int faultLockStriping,
-                boolean enableEvictionThread, boolean preallocateStoreFiles )
+                boolean enableEvictionThread, boolean preallocateStoreFiles, PageReplacementPolicy replacementPolicy,
+                boolean enableBackgroundFlushThread )
         {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
@@ -255,6 +293,8 @@ public class MuninnPageCache implements PageCache
             this.faultLockStriping = faultLockStriping;
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
+            this.replacementPolicy = replacementPolicy;
+            this.enableBackgroundFlushThread = enableBackgroundFlushThread;
         }
 
         /**
@@ -263,7 +303,7 @@ public class MuninnPageCache implements PageCache
         public Configuration memoryAllocator( MemoryAllocator memoryAllocator )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -272,7 +312,7 @@ public class MuninnPageCache implements PageCache
         public Configuration clock( SystemNanoClock clock )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -281,7 +321,7 @@ public class MuninnPageCache implements PageCache
         public Configuration memoryTracker( MemoryTracker memoryTracker )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -290,7 +330,7 @@ public class MuninnPageCache implements PageCache
         public Configuration pageCacheTracer( PageCacheTracer pageCacheTracer )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -299,7 +339,7 @@ public class MuninnPageCache implements PageCache
         public Configuration pageSize( int pageSize )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -308,7 +348,7 @@ public class MuninnPageCache implements PageCache
         public Configuration bufferFactory( IOBufferFactory bufferFactory )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -317,7 +357,7 @@ public class MuninnPageCache implements PageCache
         public Configuration faultLockStriping( int faultLockStriping )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -326,7 +366,7 @@ public class MuninnPageCache implements PageCache
         public Configuration disableEvictionThread()
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, false, preallocateStoreFiles );
+                    faultLockStriping, false, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
 
         /**
@@ -335,7 +375,25 @@ public class MuninnPageCache implements PageCache
         public Configuration preallocateStoreFiles( boolean preallocateStoreFiles )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
+        }
+
+        /**
+         * @param replacementPolicy the policy used for choosing which pages to evict.
+         */
+        public Configuration replacementPolicy( PageReplacementPolicy replacementPolicy )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
+        }
+
+        /**
+         * Configure the background flush thread, that continuously writes out dirty pages ahead of checkpoints.
+         */
+        public Configuration backgroundFlushThread( boolean enableBackgroundFlushThread )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, replacementPolicy, enableBackgroundFlushThread );
         }
     }
 
@@ -355,7 +413,7 @@ public class MuninnPageCache implements PageCache
     public static Configuration config( MemoryAllocator memoryAllocator )
     {
         return new Configuration( memoryAllocator, Clocks.nanoClock(), EmptyMemoryTracker.INSTANCE, PageCacheTracer.NULL,
-                PAGE_SIZE, DISABLED_BUFFER_FACTORY, LatchMap.faultLockStriping, true, true );
+                PAGE_SIZE, DISABLED_BUFFER_FACTORY, LatchMap.faultLockStriping, true, true, PageReplacementPolicy.CLOCK, false );
     }
 
     /**
@@ -384,7 +442,11 @@ public class MuninnPageCache implements PageCache
         this.clock = configuration.clock;
         this.faultLockStriping = configuration.faultLockStriping;
         this.enableEvictionThread = configuration.enableEvictionThread;
+        this.enableBackgroundFlushThread = configuration.enableBackgroundFlushThread;
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
+        this.replacementPolicy = requireNonNull( configuration.replacementPolicy );
+        this.scanResistant = replacementPolicy == PageReplacementPolicy.SCAN_RESISTANT_CLOCK;
+        this.hotPageAgingMask = (int) requirePowerOfTwo( hotPageAgingInterval ) - 1;
         setFreelistHead( new AtomicInteger() );
 
         // Expose the total number of pages
@@ -439,6 +501,8 @@ public class MuninnPageCache implements PageCache
         boolean deleteOnClose = false;
         boolean anyPageSize = false;
         boolean useDirectIO = false;
+        EvictionPriority evictionPriority = EvictionPriority.NORMAL;
+        PageCacheQuota quota = null;
         for ( OpenOption option : openOptions )
         {
             if ( option.equals( StandardOpenOption.CREATE ) )
@@ -461,6 +525,22 @@ public class MuninnPageCache implements PageCache
             {
                 useDirectIO = true;
             }
+            else if ( option.equals( PageCacheOpenOptions.PINNED ) )
+            {
+                evictionPriority = EvictionPriority.PINNED;
+            }
+            else if ( option.equals( PageCacheOpenOptions.PRIORITY_HIGH ) )
+            {
+                evictionPriority = EvictionPriority.HIGH;
+            }
+            else if ( option.equals( PageCacheOpenOptions.PRIORITY_LOW ) )
+            {
+                evictionPriority = EvictionPriority.LOW;
+            }
+            else if ( option instanceof PageCacheQuota )
+            {
+                quota = (PageCacheQuota) option;
+            }
             else if ( !ignoredOpenOptions.contains( option ) )
             {
                 throw new UnsupportedOperationException( "Unsupported OpenOption: " + option );
@@ -515,12 +595,18 @@ public class MuninnPageCache implements PageCache
                 preallocateStoreFiles,
                 databaseName,
                 faultLockStriping,
-                ioController );
+                ioController,
+                evictionPriority,
+                quota );
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose( deleteOnClose );
         current = new FileMapping( path, pagedFile );
         current.next = mappedFiles;
         mappedFiles = current;
+        if ( evictionPriority != EvictionPriority.NORMAL || quota != null )
+        {
+            setEvictionControlledFile( pagedFile.swapperId, pagedFile );
+        }
         pageCacheTracer.mappedFile( pagedFile.swapperId, pagedFile );
         return pagedFile;
     }
@@ -597,6 +683,11 @@ public class MuninnPageCache implements PageCache
                 var monitoringParams = systemJob( "Eviction of pages from the page cache" );
                 scheduler.schedule( Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask( this ) );
             }
+            if ( enableBackgroundFlushThread )
+            {
+                var monitoringParams = systemJob( "Background flushing of dirty pages in the page cache" );
+                scheduler.schedule( Group.PAGE_CACHE_BACKGROUND_FLUSH, monitoringParams, new BackgroundFlushTask( this ) );
+            }
         }
         catch ( Exception e )
         {
@@ -635,6 +726,10 @@ public class MuninnPageCache implements PageCache
                         prev.next = current.next;
                     }
                     pageCacheTracer.unmappedFile( file.swapperId, file );
+                    if ( file.evictionPriority != EvictionPriority.NORMAL || file.quota != null )
+                    {
+                        setEvictionControlledFile( file.swapperId, null );
+                    }
                     flushAndCloseWithoutFail( file );
                     break;
                 }
@@ -644,6 +739,34 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    /**
+     * Keep track of the files that are mapped with an eviction priority or a quota, by their swapper id, so the clock arms can find them without
+     * going through the swapper set. Guarded by the monitor lock on the page cache, but read by the clock arms without any locking.
+     */
+    private void setEvictionControlledFile( int swapperId, MuninnPagedFile file )
+    {
+        MuninnPagedFile[] files = evictionControlledFiles;
+        if ( swapperId >= files.length )
+        {
+            if ( file == null )
+            {
+                return;
+            }
+            files = Arrays.copyOf( files, swapperId + 1 );
+        }
+        else
+        {
+            files = files.clone();
+        }
+        files[swapperId] = file;
+        int length = files.length;
+        while ( length > 0 && files[length - 1] == null )
+        {
+            length--;
+        }
+        evictionControlledFiles = length == files.length ? files : Arrays.copyOf( files, length );
+    }
+
     private void flushAndCloseWithoutFail( MuninnPagedFile file )
     {
         boolean flushedAndClosed = false;
@@ -687,34 +810,103 @@ public class MuninnPageCache implements PageCache
         try ( MajorFlushEvent ignored = pageCacheTracer.beginCacheFlush() )
         {
             // When we flush whole page cache it can only happen on shutdown and we should be able to progress as fast as we can with disabled io controller
-            flushAllPagesParallel( files, IOController.DISABLED );
+            flushAllPagesParallel( files, false );
         }
         clearEvictorException();
     }
 
-    private void flushAllPagesParallel( List<PagedFile> files, IOController limiter ) throws IOException
+    @Override
+    public void flushAndForce( List<PagedFile> files ) throws IOException
     {
-        List<JobHandle<?>> flushes = new ArrayList<>( files.size() );
+        flushAllPagesParallel( files, true );
+        clearEvictorException();
+    }
 
-        // Submit all flushes to the background thread
-        for ( PagedFile file : files )
+    /**
+     * Flush the given files on the {@link Group#PAGE_CACHE_FLUSH} thread pool. Each file is split into page ranges that are written concurrently, and
+     * every file is forced once all of its ranges have been written. Each file gets its own {@link MajorFlushEvent}, that spans the whole flush of the
+     * file, and is begun on the thread that first starts flushing the file.
+     *
+     * @param ioLimited {@code true} if the flushes should be limited by the {@link IOController} of the file they belong to.
+     */
+    private void flushAllPagesParallel( List<PagedFile> files, boolean ioLimited ) throws IOException
+    {
+        List<FileFlush> fileFlushes = new ArrayList<>( files.size() );
+        List<JobHandle<?>> flushes = new ArrayList<>();
+        try
         {
-            flushes.add( scheduler.schedule( FILE_IO_HELPER,
-                    systemJob( file.getDatabaseName(), "Flushing changes to file '" + file.path().getFileName() + "'" ),
-                    () ->
+            // Submit all range flushes to the background threads
+            for ( PagedFile file : files )
+            {
+                if ( file instanceof MuninnPagedFile )
+                {
+                    MuninnPagedFile pagedFile = (MuninnPagedFile) file;
+                    int[][] translationTable = pagedFile.translationTable;
+                    FileFlush fileFlush = new FileFlush( pagedFile, translationTable );
+                    fileFlushes.add( fileFlush );
+                    IOController limiter = ioLimited ? pagedFile.ioController : IOController.DISABLED;
+                    int ranges = MuninnPagedFile.flushRangeCount( translationTable );
+                    for ( int range = 0; range < ranges; range++ )
                     {
-                        try
+                        int flushRange = range;
+                        flushes.add( scheduleFlushJob( file, "Flushing changes to file '" + file.path().getFileName() + "'", () ->
                         {
-                            flushFile( (MuninnPagedFile) file, limiter );
-                        }
-                        catch ( IOException e )
-                        {
-                            throw new UncheckedIOException( e );
-                        }
-                    } ) );
+                            try ( var buffer = bufferFactory.createBuffer() )
+                            {
+                                pagedFile.flushRange( translationTable, flushRange, fileFlush.flushEvent(), limiter, buffer );
+                            }
+                        } ) );
+                    }
+                }
+                else
+                {
+                    flushes.add( scheduleFlushJob( file, "Flushing changes to file '" + file.path().getFileName() + "'", file::flushAndForce ) );
+                }
+            }
+            awaitFlushJobs( flushes );
+
+            // Force all the files, now that their ranges have been written
+            flushes.clear();
+            for ( FileFlush fileFlush : fileFlushes )
+            {
+                MuninnPagedFile pagedFile = fileFlush.pagedFile;
+                flushes.add( scheduleFlushJob( pagedFile, "Forcing changes to file '" + pagedFile.path().getFileName() + "'", () ->
+                {
+                    fileFlush.flushEvent();
+                    pagedFile.forceAfterFlushRanges();
+                    fileFlush.close();
+                } ) );
+            }
+            awaitFlushJobs( flushes );
+        }
+        finally
+        {
+            for ( FileFlush fileFlush : fileFlushes )
+            {
+                fileFlush.close();
+            }
         }
+    }
+
+    private JobHandle<?> scheduleFlushJob( PagedFile file, String description, FlushJob job )
+    {
+        return scheduler.schedule( Group.PAGE_CACHE_FLUSH, systemJob( file.getDatabaseName(), description ), () ->
+        {
+            try
+            {
+                job.flush();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        } );
+    }
 
-        // Wait for all to complete
+    private static void awaitFlushJobs( List<JobHandle<?>> flushes ) throws IOException
+    {
+        // Wait for all to complete, even if some of them fail, so no flush is left running in the background
+        IOException failure = null;
         for ( JobHandle<?> flush : flushes )
         {
             try
@@ -723,17 +915,61 @@ public class MuninnPageCache implements PageCache
             }
             catch ( InterruptedException | ExecutionException e )
             {
-                throw new IOException( e );
+                if ( failure == null )
+                {
+                    failure = new IOException( e );
+                }
+                else
+                {
+                    failure.addSuppressed( e );
+                }
             }
         }
+        if ( failure != null )
+        {
+            throw failure;
+        }
     }
 
-    private void flushFile( MuninnPagedFile muninnPagedFile, IOController limiter ) throws IOException
+    @FunctionalInterface
+    private interface FlushJob
     {
-        try ( MajorFlushEvent flushEvent = pageCacheTracer.beginFileFlush( muninnPagedFile.swapper );
-              var buffer = bufferFactory.createBuffer() )
+        void flush() throws IOException;
+    }
+
+    /**
+     * The flush of a single file, whose {@link MajorFlushEvent} is begun by the first thread that starts flushing the file.
+     */
+    private final class FileFlush
+    {
+        private final MuninnPagedFile pagedFile;
+        private final int[][] translationTable;
+        private MajorFlushEvent flushEvent;
+        private boolean closed;
+
+        FileFlush( MuninnPagedFile pagedFile, int[][] translationTable )
+        {
+            this.pagedFile = pagedFile;
+            this.translationTable = translationTable;
+        }
+
+        synchronized MajorFlushEvent flushEvent()
         {
-            muninnPagedFile.flushAndForceInternal( flushEvent, false, limiter, buffer );
+            if ( flushEvent == null )
+            {
+                flushEvent = pageCacheTracer.beginFileFlush( pagedFile.swapper );
+                flushEvent.startFlush( translationTable );
+            }
+            return flushEvent;
+        }
+
+        synchronized void close()
+        {
+            if ( flushEvent != null && !closed )
+            {
+                closed = true;
+                flushEvent.close();
+            }
         }
     }
 
@@ -766,6 +1002,8 @@ public class MuninnPageCache implements PageCache
 
         interrupt( evictionThread );
         evictionThread = null;
+        interrupt( backgroundFlushThread );
+        backgroundFlushThread = null;
     }
 
     private static void interrupt( Thread thread )
@@ -928,16 +1166,99 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( PageList.isLoaded( pageRef ) && PageList.decrementUsage( pageRef ) )
+            if ( PageList.isLoaded( pageRef ) && isEvictionCandidate( pageRef ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
             clockArm++;
         }
         while ( !evicted );
+        hotPagesPassed = 0;
         return pageRef;
     }
 
+    /**
+     * Move the clock arm past the given loaded page, and decide if it should be evicted.
+     * <p>
+     * With the {@link PageReplacementPolicy#CLOCK CLOCK} policy, the usage counter of every page is decremented, and the page is an eviction candidate
+     * once the counter reaches zero. With the {@link PageReplacementPolicy#SCAN_RESISTANT_CLOCK SCAN_RESISTANT_CLOCK} policy, hot pages are mostly
+     * passed over without being aged, for as long as the clock arm keeps finding cold pages to evict. The count of passed hot pages is only reset
+     * when a page is actually evicted, so cold pages that are pinned cannot keep the hot pages protected forever.
+     * <p>
+     * Pages of files that are mapped with an {@link EvictionPriority eviction priority} or a {@link PageCacheQuota quota} are treated according to
+     * those, see {@link #isEvictionCandidate(long, MuninnPagedFile)}.
+     */
+    private boolean isEvictionCandidate( long pageRef )
+    {
+        MuninnPagedFile[] controlledFiles = evictionControlledFiles;
+        if ( controlledFiles.length != 0 )
+        {
+            int swapperId = PageList.getSwapperId( pageRef );
+            MuninnPagedFile file = swapperId < controlledFiles.length ? controlledFiles[swapperId] : null;
+            if ( file != null )
+            {
+                return isEvictionCandidate( pageRef, file );
+            }
+        }
+        if ( scanResistant && PageList.isHot( pageRef ) && passOverProtectedPage( true ) )
+        {
+            return false;
+        }
+        return PageList.decrementUsage( pageRef );
+    }
+
+    /**
+     * Decide if the given page, that is bound to a file with an eviction priority or a quota, should be evicted.
+     * <ul>
+     *     <li>Pages of files with a low priority, or with an exceeded quota, are evicted as soon as their usage counter reaches zero, without
+     *     getting any protection for being hot. Exceeded quotas are not aged gradually either, but evicted right away.</li>
+     *     <li>Pages of pinned files, or of files with a quota that is within its reservation, are not aged at all.</li>
+     *     <li>Pages of files with a high priority are protected like hot pages, as long as they have been used at all.</li>
+     * </ul>
+     * All of this protection is lifted once the clock arm has passed over the whole cache without evicting anything, so that the cache cannot
+     * live-lock when it fills up with protected pages.
+     */
+    private boolean isEvictionCandidate( long pageRef, MuninnPagedFile file )
+    {
+        PageCacheQuota quota = file.quota;
+        if ( quota != null && quota.isExceeded() )
+        {
+            PageList.decrementUsage( pageRef );
+            return true;
+        }
+        EvictionPriority priority = file.evictionPriority;
+        if ( priority == EvictionPriority.LOW )
+        {
+            return PageList.decrementUsage( pageRef );
+        }
+        if ( priority == EvictionPriority.PINNED || (quota != null && quota.isWithinReservation()) )
+        {
+            if ( passOverProtectedPage( false ) )
+            {
+                return false;
+            }
+        }
+        else if ( (priority == EvictionPriority.HIGH ? PageList.isUsed( pageRef ) : scanResistant && PageList.isHot( pageRef ))
+                && passOverProtectedPage( true ) )
+        {
+            return false;
+        }
+        return PageList.decrementUsage( pageRef );
+    }
+
+    /**
+     * Count a protected page that the clock arm is passing over, and decide if it should keep its protection.
+     *
+     * @param aging {@code true} if the page should still be aged every {@link #hotPageAgingInterval} protected pages.
+     * @return {@code true} if the clock arm should leave the page alone.
+     */
+    private boolean passOverProtectedPage( boolean aging )
+    {
+        int passed = hotPagesPassed + 1;
+        hotPagesPassed = passed;
+        return passed < pages.getPageCount() && (!aging || (passed & hotPageAgingMask) != 0);
+    }
+
     private static CacheLiveLockException cooperativeEvictionLiveLock()
     {
         return new CacheLiveLockException(
@@ -1011,6 +1332,96 @@ public class MuninnPageCache implements PageCache
         setFreelistHead( shutdownSignal );
     }
 
+    /**
+     * Periodically write out a share of the dirty pages, so that checkpoints only have to flush the pages that were dirtied since, instead of
+     * everything that was dirtied since the previous checkpoint. The number of pages written in each run is the number of pages that, at the
+     * recently observed write throughput, can be written in the time between runs, scaled by the ratio of dirty pages in the cache. The more
+     * pages are dirty, the larger share of its time the background flush thread spends writing. The written pages are not forced; that is still
+     * left to the checkpoints.
+     */
+    void continuouslyFlushPages()
+    {
+        backgroundFlushThread = Thread.currentThread();
+        long[] pageRefs = new long[backgroundFlushMaxVectorSize];
+        long[] flushStamps = new long[backgroundFlushMaxVectorSize];
+        long[] bufferAddresses = new long[backgroundFlushMaxVectorSize];
+        int[] bufferLengths = new int[backgroundFlushMaxVectorSize];
+        List<MuninnPagedFile> files = new ArrayList<>();
+        double pagesPerNano = 0;
+        int run = 0;
+
+        while ( !closed )
+        {
+            LockSupport.parkNanos( this, backgroundFlushIntervalNanos );
+            if ( Thread.interrupted() || closed )
+            {
+                break;
+            }
+
+            double dirtyRatio = sampleDirtyRatio( run );
+            if ( dirtyRatio < backgroundFlushMinDirtyRatio )
+            {
+                continue;
+            }
+            long pagesToFlush = pagesPerNano == 0 ? backgroundFlushInitialPages : (long) (dirtyRatio * pagesPerNano * backgroundFlushIntervalNanos);
+            int pageCountToFlush = (int) Math.max( 1, Math.min( pagesToFlush, pages.getPageCount() ) );
+
+            long startNanos = System.nanoTime();
+            int pagesFlushed = 0;
+            try ( BackgroundFlushEvent backgroundFlushEvent = pageCacheTracer.beginBackgroundFlush( dirtyRatio, pageCountToFlush ) )
+            {
+                files.clear();
+                for ( FileMapping current = mappedFiles; current != null; current = current.next )
+                {
+                    files.add( current.pagedFile );
+                }
+                // Start with a different file in every run, so a large file does not get to use up the whole budget of every run.
+                for ( int i = 0; i < files.size() && pagesFlushed < pageCountToFlush; i++ )
+                {
+                    MuninnPagedFile file = files.get( (run + i) % files.size() );
+                    try ( MajorFlushEvent flushEvent = backgroundFlushEvent.beginFileFlush( file.swapper ) )
+                    {
+                        pagesFlushed += file.backgroundFlush( pageCountToFlush - pagesFlushed, flushEvent, pageRefs, flushStamps, bufferAddresses,
+                                bufferLengths );
+                    }
+                    catch ( IOException e )
+                    {
+                        // The pages that failed to be written are still dirty, and the next checkpoint will report the failure if it persists.
+                        backgroundFlushEvent.threwException( e );
+                    }
+                }
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if ( pagesFlushed > 0 && elapsedNanos > 0 )
+            {
+                double observedPagesPerNano = (double) pagesFlushed / elapsedNanos;
+                pagesPerNano = pagesPerNano == 0 ? observedPagesPerNano : (pagesPerNano + observedPagesPerNano) / 2;
+            }
+            run++;
+        }
+    }
+
+    /**
+     * Estimate the ratio of dirty pages in the cache, by looking at an evenly spaced sample of the pages. The offset of the sample shifts with
+     * the given run number, so consecutive runs look at different pages.
+     */
+    private double sampleDirtyRatio( int run )
+    {
+        int pageCount = pages.getPageCount();
+        int stride = Math.max( 1, pageCount / dirtyRatioSampleSize );
+        int sampledPages = 0;
+        int dirtyPages = 0;
+        for ( int pageId = run % stride; pageId < pageCount; pageId += stride )
+        {
+            sampledPages++;
+            if ( PageList.isModified( pages.deref( pageId ) ) )
+            {
+                dirtyPages++;
+            }
+        }
+        return sampledPages == 0 ? 0 : (double) dirtyPages / sampledPages;
+    }
+
     private int parkUntilEvictionRequired( int keepFree )
     {
         // Park until we're either interrupted, or the number of free pages drops
@@ -1076,7 +1487,7 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( PageList.isLoaded( pageRef ) && PageList.decrementUsage( pageRef ) )
+            if ( PageList.isLoaded( pageRef ) && isEvictionCandidate( pageRef ) )
             {
                 try
                 {
@@ -1084,6 +1495,7 @@ public class MuninnPageCache implements PageCache
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
                         clearEvictorException();
+                        hotPagesPassed = 0;
                         addFreePageToFreelist( pageRef, evictionRunEvent );
                     }
                 }
@@ -1172,9 +1584,9 @@ public class MuninnPageCache implements PageCache
         } );
     }
 
-    void startPreFetching( MuninnPageCursor cursor, CursorFactory cursorFactory )
+    void startPreFetching( MuninnPageCursor cursor )
     {
-        PreFetcher preFetcher = new PreFetcher( cursor, cursorFactory, pageCacheTracer, clock );
+        PreFetcher preFetcher = new PreFetcher( cursor, pageCacheTracer, clock );
         var pagedFile = cursor.pagedFile;
         var fileName = pagedFile.swapper.path().getFileName();
         var monitoringParams = systemJob( pagedFile.databaseName, "Pre-fetching of file '" + fileName + "'" );
@@ -29,6 +29,7 @@ import java.util.Objects;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.CursorException;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageReplacementPolicy;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -43,9 +44,12 @@ import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 public abstract class MuninnPageCursor extends PageCursor
 {
@@ -54,6 +58,9 @@ public abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of pages a cursor opened with PF_READ_AHEAD must pin in a row, before it starts pre-fetching.
+    private static final int readAheadThreshold = getInteger( MuninnPageCursor.class, "readAheadThreshold", 32 );
+
     private static final int BYTE_ARRAY_BASE_OFFSET = UnsafeUtil.arrayBaseOffset( byte[].class );
     private static final int BYTE_ARRAY_INDEX_SCALE = UnsafeUtil.arrayIndexScale( byte[].class );
 
@@ -75,12 +82,16 @@ public abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    protected boolean lowPriority;
     @SuppressWarnings( "unused" ) // accessed via VarHandle.
     private long currentPageId;
     private static final VarHandle CURRENT_PAGE_ID;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
     protected JobHandle<?> preFetcher;
+    private boolean readAhead;
+    private long lastPinnedPageId;
+    private int sequentialPins;
     private long pointer;
     private int pageSize;
     private int filePageSize;
@@ -127,6 +138,42 @@ public abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault || isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.lowPriority = isFlagRaised( pf_flags, PF_TRANSIENT ) && pagedFile.pageCache.replacementPolicy == PageReplacementPolicy.SCAN_RESISTANT_CLOCK;
+        this.readAhead = isFlagRaised( pf_flags, PF_READ_AHEAD ) && !noFault;
+        this.lastPinnedPageId = UNBOUND_PAGE_ID;
+        this.sequentialPins = 0;
+    }
+
+    /**
+     * Starts pre-fetching for a cursor opened with {@link PagedFile#PF_READ_AHEAD}, once it has pinned {@link #readAheadThreshold} pages in a row,
+     * forwards or backwards. Cursors that only read a few pages, like those of small stores or of the batches of a parallel scan, never pay for
+     * scheduling a pre-fetcher that would have little left to load by the time it runs.
+     */
+    final void startReadAheadIfScanning( long filePageId )
+    {
+        if ( readAhead )
+        {
+            long distance = filePageId - lastPinnedPageId;
+            sequentialPins = distance == 1 || distance == -1 ? sequentialPins + 1 : 0;
+            lastPinnedPageId = filePageId;
+            if ( sequentialPins >= readAheadThreshold )
+            {
+                readAhead = false;
+                pagedFile.pageCache.startPreFetching( this );
+            }
+        }
+    }
+
+    final void incrementUsage( long pageRef )
+    {
+        if ( lowPriority )
+        {
+            PageList.incrementUsageLowPriority( pageRef );
+        }
+        else
+        {
+            PageList.incrementUsage( pageRef );
+        }
     }
 
     private static boolean isFlagRaised( int flagSet, int flag )
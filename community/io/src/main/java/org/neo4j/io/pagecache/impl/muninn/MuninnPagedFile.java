@@ -25,11 +25,14 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCacheQuota;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageReplacementPolicy;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
@@ -41,6 +44,8 @@ import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 import static java.util.Arrays.fill;
 import static java.util.Objects.requireNonNull;
@@ -51,10 +56,14 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
     static final int UNMAPPED_TTE = -1;
     private static final boolean mergePagesOnFlush = flag( MuninnPagedFile.class, "mergePagesOnFlush", true );
+    // The maximum number of pages that touch() will read with a single vectored read.
+    private static final int touchVectorSize = getInteger( MuninnPagedFile.class, "touchVectorSize", 64 );
     private static final int maxChunkGrowth = getInteger( MuninnPagedFile.class, "maxChunkGrowth", 16 ); // One chunk is 32 MiB, by default.
     private static final int translationTableChunkSizePower = getInteger( MuninnPagedFile.class, "translationTableChunkSizePower", 12 );
     private static final int translationTableChunkSize = 1 << translationTableChunkSizePower;
     private static final long translationTableChunkSizeMask = translationTableChunkSize - 1;
+    // When the page cache flushes files in parallel, large files are split into ranges of this many translation table chunks, that are written concurrently.
+    private static final int parallelFlushChunksPerRange = getInteger( MuninnPagedFile.class, "parallelFlushChunksPerRange", 8 );
 
     private static final int headerStateRefCountShift = 48;
     private static final int headerStateRefCountMax = 0x7FFF;
@@ -77,7 +86,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     final int swapperId;
     private final CursorFactory cursorFactory;
     final String databaseName;
-    private final IOController ioController;
+    final IOController ioController;
+    final EvictionPriority evictionPriority;
+    final PageCacheQuota quota;
+    // The number of pages of this file that count towards the quota. Only maintained when the file has a quota.
+    private final AtomicLong quotaPages = new AtomicLong();
+    // The file page id where the next background flush of this file continues. Only accessed by the background flush thread.
+    private long backgroundFlushFilePageId;
 
     private volatile boolean deleteOnClose;
 
@@ -136,11 +151,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
      * @param databaseName an optional name of the database this file belongs to. This option associates the mapped file with a database.
      * This information is currently used only for monitoring purposes.
      * @param ioController io controller to report page file io operations
+     * @param evictionPriority the eviction priority of the pages of this file
+     * @param quota the memory quota the pages of this file count towards, or {@code null} if the file has no quota
      * @throws IOException If the {@link PageSwapper} could not be created.
      */
     MuninnPagedFile( Path path, MuninnPageCache pageCache, int filePageSize, PageSwapperFactory swapperFactory, PageCacheTracer pageCacheTracer,
             boolean createIfNotExists, boolean truncateExisting, boolean useDirectIo, boolean preallocateStoreFiles, String databaseName,
-            int faultLockStriping, IOController ioController ) throws IOException
+            int faultLockStriping, IOController ioController, EvictionPriority evictionPriority, PageCacheQuota quota ) throws IOException
     {
         super( pageCache.pages );
         this.pageCache = pageCache;
@@ -151,6 +168,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         this.bufferFactory = pageCache.getBufferFactory();
         this.databaseName = requireNonNull( databaseName );
         this.ioController = requireNonNull( ioController );
+        this.evictionPriority = requireNonNull( evictionPriority );
+        this.quota = quota;
 
         // The translation table is an array of arrays of integers that are either UNMAPPED_TTE, or the id of a page in
         // the page list. The table only grows the outer array, and all the inner "chunks" all stay the same size. This
@@ -214,10 +233,6 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
 
         cursor.rewind();
-        if ( ( pf_flags & PF_READ_AHEAD ) == PF_READ_AHEAD && ( pf_flags & PF_NO_FAULT ) != PF_NO_FAULT )
-        {
-            pageCache.startPreFetching( cursor, cursorFactory );
-        }
         return cursor;
     }
 
@@ -284,6 +299,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             // We cannot reuse those swapper ids until there are no more pages using them.
             pageCache.vacuum( getSwappers() );
         }
+        if ( quota != null )
+        {
+            // Pages that are still in memory will not be reported as evicted once the swapper is freed.
+            quota.pagesEvicted( quotaPages.getAndSet( 0 ) );
+        }
         long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
         int[][] tt = this.translationTable;
         for ( int[] chunk : tt )
@@ -381,36 +401,87 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
         catch ( ClosedChannelException e )
         {
-            if ( getRefCount() > 0 )
-            {
-                // The file is not supposed to be closed, since we have a positive ref-count, yet we got a
-                // ClosedChannelException anyway? It's an odd situation, so let's tell the outside world about
-                // this failure.
-                e.addSuppressed( closeStackTrace );
-                throw e;
-            }
-            // Otherwise: The file was closed while we were trying to flush it. Since unmapping implies a flush
-            // anyway, we can safely assume that this is not a problem. The file was flushed, and it doesn't
-            // really matter how that happened. We'll ignore this exception.
+            ignoreIfUnmapped( e );
         }
     }
 
+    /**
+     * A flush of this file can be split into page ranges of the given snapshot of the translation table, so the ranges can be written out
+     * concurrently with {@link #flushRange(int[][], int, MajorFlushEvent, IOController, NativeIOBuffer)}. Once all ranges have been written, the file
+     * must be forced with {@link #forceAfterFlushRanges()}.
+     *
+     * @return the number of ranges to flush.
+     */
+    static int flushRangeCount( int[][] translationTable )
+    {
+        return (translationTable.length + parallelFlushChunksPerRange - 1) / parallelFlushChunksPerRange;
+    }
+
+    void flushRange( int[][] translationTable, int range, MajorFlushEvent flushEvent, IOController limiter, NativeIOBuffer ioBuffer ) throws IOException
+    {
+        int fromChunk = range * parallelFlushChunksPerRange;
+        int toChunk = Math.min( translationTable.length, fromChunk + parallelFlushChunksPerRange );
+        try
+        {
+            flushChunks( translationTable, fromChunk, toChunk, flushEvent, false, limiter, ioBuffer );
+        }
+        catch ( ClosedChannelException e )
+        {
+            ignoreIfUnmapped( e );
+        }
+    }
+
+    void forceAfterFlushRanges() throws IOException
+    {
+        try
+        {
+            swapper.force();
+        }
+        catch ( ClosedChannelException e )
+        {
+            ignoreIfUnmapped( e );
+        }
+    }
+
+    private void ignoreIfUnmapped( ClosedChannelException e ) throws ClosedChannelException
+    {
+        if ( getRefCount() > 0 )
+        {
+            // The file is not supposed to be closed, since we have a positive ref-count, yet we got a
+            // ClosedChannelException anyway? It's an odd situation, so let's tell the outside world about
+            // this failure.
+            e.addSuppressed( closeStackTrace );
+            throw e;
+        }
+        // Otherwise: The file was closed while we were trying to flush it. Since unmapping implies a flush
+        // anyway, we can safely assume that this is not a problem. The file was flushed, and it doesn't
+        // really matter how that happened. We'll ignore this exception.
+    }
+
     private void doFlushAndForceInternal( MajorFlushEvent flushes, boolean forClosing, IOController limiter, NativeIOBuffer ioBuffer )
             throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
+        int[][] tt = this.translationTable;
+        flushes.startFlush( tt );
+        flushChunks( tt, 0, tt.length, flushes, forClosing, limiter, ioBuffer );
+        swapper.force();
+    }
+
+    private void flushChunks( int[][] tt, int fromChunk, int toChunk, MajorFlushEvent flushes, boolean forClosing, IOController limiter,
+            NativeIOBuffer ioBuffer ) throws IOException
+    {
         long[] pages = new long[translationTableChunkSize];
         long[] flushStamps = forClosing ? null : new long[translationTableChunkSize];
         long[] bufferAddresses = new long[translationTableChunkSize];
         int[] bufferLengths = new int[translationTableChunkSize];
-        long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
-        int[][] tt = this.translationTable;
+        // Start one page before the range, because we increment at the *start* of the chunk-loop iteration.
+        long filePageId = ((long) fromChunk << translationTableChunkSizePower) - 1;
         boolean useTemporaryBuffer = ioBuffer.isEnabled();
 
-        flushes.startFlush( tt );
-
-        for ( int[] chunk : tt )
+        for ( int chunkId = fromChunk; chunkId < toChunk; chunkId++ )
         {
+            int[] chunk = tt[chunkId];
             var chunkEvent = flushes.startChunk( chunk );
             long notModifiedPages = 0;
             long flushPerChunk = 0;
@@ -554,8 +625,6 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             }
             chunkEvent.chunkFlushed( notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk );
         }
-
-        swapper.force();
     }
 
     private void vectoredFlush(
@@ -614,6 +683,109 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
     }
 
+    /**
+     * Write out some of the dirty pages of this file, without forcing them, continuing from where the previous background flush of this file
+     * left off. Runs of adjacent dirty pages are written with vectored writes of at most {@code pages.length} pages, limited by the IO controller
+     * of the file just like checkpoint writes. Pages that cannot be flush
+     * locked right away are skipped, since someone else is already flushing or evicting them, and anything we leave behind is picked up by the
+     * next checkpoint anyway.
+     *
+     * @return the number of pages written, which is at most {@code maxPagesToFlush}.
+     */
+    int backgroundFlush( int maxPagesToFlush, MajorFlushEvent flushes, long[] pages, long[] flushStamps, long[] bufferAddresses, int[] bufferLengths )
+            throws IOException
+    {
+        try
+        {
+            return doBackgroundFlush( maxPagesToFlush, flushes, pages, flushStamps, bufferAddresses, bufferLengths );
+        }
+        catch ( ClosedChannelException e )
+        {
+            ignoreIfUnmapped( e );
+            return 0;
+        }
+    }
+
+    private int doBackgroundFlush( int maxPagesToFlush, MajorFlushEvent flushes, long[] pages, long[] flushStamps, long[] bufferAddresses,
+            int[] bufferLengths ) throws IOException
+    {
+        int[][] tt = this.translationTable;
+        long tableSize = (long) tt.length * translationTableChunkSize;
+        long filePageId = backgroundFlushFilePageId < tableSize ? backgroundFlushFilePageId : 0;
+        int pagesFlushed = 0;
+        int pagesGrabbed = 0;
+        long nextSequentialAddress = -1;
+        int numberOfBuffers = 0;
+        int lastBufferIndex = -1;
+        int mergedPages = 0;
+
+        // Visit every entry of the translation table at most once, so we don't spin over pages that keep failing to flush lock.
+        for ( long visited = 0; visited < tableSize && pagesFlushed + pagesGrabbed < maxPagesToFlush; visited++ )
+        {
+            boolean grabbed = false;
+            int pageId = (int) TRANSLATION_TABLE_ARRAY.getVolatile( tt[computeChunkId( filePageId )], computeChunkIndex( filePageId ) );
+            if ( pageId != UNMAPPED_TTE )
+            {
+                long pageRef = deref( pageId );
+                long flushStamp;
+                if ( isModified( pageRef ) && (flushStamp = tryFlushLock( pageRef )) != 0 )
+                {
+                    if ( isBoundTo( pageRef, swapperId, filePageId ) && isModified( pageRef ) )
+                    {
+                        pages[pagesGrabbed] = pageRef;
+                        flushStamps[pagesGrabbed] = flushStamp;
+                        pagesGrabbed++;
+                        long address = getAddress( pageRef );
+                        if ( mergePagesOnFlush && nextSequentialAddress == address )
+                        {
+                            bufferLengths[lastBufferIndex] += filePageSize;
+                            mergedPages++;
+                        }
+                        else
+                        {
+                            bufferAddresses[numberOfBuffers] = address;
+                            lastBufferIndex = numberOfBuffers;
+                            bufferLengths[numberOfBuffers] = filePageSize;
+                            numberOfBuffers++;
+                        }
+                        nextSequentialAddress = address + filePageSize;
+                        grabbed = true;
+                    }
+                    else
+                    {
+                        unlockFlush( pageRef, flushStamp, false );
+                    }
+                }
+            }
+
+            filePageId++;
+            // A vectored write must cover consecutive file pages, so the vector ends at the first page we did not grab.
+            if ( pagesGrabbed > 0 && (!grabbed || pagesGrabbed == pages.length || filePageId == tableSize) )
+            {
+                vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, false );
+                ioController.maybeLimitIO( numberOfBuffers, this, flushes );
+                pagesFlushed += pagesGrabbed;
+                pagesGrabbed = 0;
+                nextSequentialAddress = -1;
+                numberOfBuffers = 0;
+                lastBufferIndex = -1;
+                mergedPages = 0;
+            }
+            if ( filePageId == tableSize )
+            {
+                filePageId = 0;
+            }
+        }
+        if ( pagesGrabbed > 0 )
+        {
+            vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, false );
+            ioController.maybeLimitIO( numberOfBuffers, this, flushes );
+            pagesFlushed += pagesGrabbed;
+        }
+        backgroundFlushFilePageId = filePageId;
+        return pagesFlushed;
+    }
+
     boolean flushLockedPage( long pageRef, long filePageId )
     {
         boolean success = false;
@@ -654,6 +826,215 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return state & headerStateLastPageIdMask;
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        return touch( pageId, count, context, false );
+    }
+
+    /**
+     * Like {@link #touch(long, int, CursorContext)}, but the touched pages can be marked as accessed with low priority, like the accesses of a
+     * {@link #PF_TRANSIENT} cursor, so that reading pages ahead of a scan does not make them look frequently used. Like for those cursors,
+     * that only makes a difference with the {@link PageReplacementPolicy#SCAN_RESISTANT_CLOCK SCAN_RESISTANT_CLOCK} policy.
+     */
+    int touch( long pageId, int count, CursorContext context, boolean lowPriority ) throws IOException
+    {
+        long lastPageId = getLastPageId();
+        if ( pageId < 0 || pageId > lastPageId || count <= 0 )
+        {
+            return 0;
+        }
+        long endPageId = Math.min( pageId + count, lastPageId + 1 );
+        int[][] tt = translationTable;
+        int maxChunkId = computeChunkId( endPageId - 1 );
+        if ( tt.length <= maxChunkId )
+        {
+            tt = expandCapacity( maxChunkId );
+        }
+
+        PageCursorTracer tracer = context.getCursorTracer();
+        // Like for transient cursors, only the scan resistant policy tells low priority accesses apart
+        boolean lowPriorityUsage = lowPriority && pageCache.replacementPolicy == PageReplacementPolicy.SCAN_RESISTANT_CLOCK;
+        TouchRun run = new TouchRun( (int) Math.min( touchVectorSize, endPageId - pageId ), tt, lowPriorityUsage );
+        int touched = 0;
+        try
+        {
+            long filePageId = pageId;
+            while ( filePageId < endPageId )
+            {
+                int[] chunk = tt[computeChunkId( filePageId )];
+                int chunkIndex = computeChunkIndex( filePageId );
+                if ( (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex ) != UNMAPPED_TTE )
+                {
+                    // Already in memory, which also ends the current run of pages to read.
+                    run.fault();
+                    touched++;
+                    filePageId++;
+                    continue;
+                }
+
+                // We never wait for latches here, since we might be holding other latches ourselves.
+                LatchMap.Latch latch = pageFaultLatches.tryTakeLatch( filePageId );
+                if ( latch == null )
+                {
+                    if ( !run.isEmpty() )
+                    {
+                        // The latch might collide with one of our own. Complete the run, and then retry this page.
+                        run.fault();
+                        continue;
+                    }
+                    // Someone else is faulting this page in.
+                    touched++;
+                    filePageId++;
+                    continue;
+                }
+                if ( (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex ) != UNMAPPED_TTE )
+                {
+                    // We raced with another page fault, and lost. Retry this page.
+                    latch.release();
+                    continue;
+                }
+
+                PinEvent pinEvent = tracer.beginPin( false, filePageId, swapper );
+                PageFaultEvent faultEvent = pinEvent.beginPageFault( filePageId, swapperId );
+                long pageRef;
+                try
+                {
+                    pageRef = grabFreeAndExclusivelyLockedPage( faultEvent );
+                    initBuffer( pageRef );
+                }
+                catch ( Throwable throwable )
+                {
+                    faultEvent.fail( throwable );
+                    pinEvent.done();
+                    latch.release();
+                    throw throwable;
+                }
+                run.add( filePageId, pageRef, latch, pinEvent, faultEvent );
+                touched++;
+                filePageId++;
+                if ( run.isFull() )
+                {
+                    run.fault();
+                }
+            }
+            run.fault();
+        }
+        catch ( Throwable throwable )
+        {
+            run.abort( throwable );
+            throw throwable;
+        }
+        return touched;
+    }
+
+    /**
+     * A run of consecutive file pages that have been latched, and given exclusively locked free pages to fault into,
+     * but that have not been read from the file yet.
+     */
+    private final class TouchRun
+    {
+        private final int[][] tt;
+        private final boolean lowPriority;
+        private final long[] pageRefs;
+        private final long[] bufferAddresses;
+        private final int[] bufferLengths;
+        private final LatchMap.Latch[] latches;
+        private final PinEvent[] pinEvents;
+        private final PageFaultEvent[] faultEvents;
+        private long startFilePageId;
+        private int size;
+
+        TouchRun( int capacity, int[][] tt, boolean lowPriority )
+        {
+            this.tt = tt;
+            this.lowPriority = lowPriority;
+            pageRefs = new long[capacity];
+            bufferAddresses = new long[capacity];
+            bufferLengths = new int[capacity];
+            latches = new LatchMap.Latch[capacity];
+            pinEvents = new PinEvent[capacity];
+            faultEvents = new PageFaultEvent[capacity];
+        }
+
+        boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        boolean isFull()
+        {
+            return size == pageRefs.length;
+        }
+
+        void add( long filePageId, long pageRef, LatchMap.Latch latch, PinEvent pinEvent, PageFaultEvent faultEvent )
+        {
+            if ( size == 0 )
+            {
+                startFilePageId = filePageId;
+            }
+            pageRefs[size] = pageRef;
+            latches[size] = latch;
+            pinEvents[size] = pinEvent;
+            faultEvents[size] = faultEvent;
+            size++;
+        }
+
+        /**
+         * Read all the pages in the run with a single vectored read, and publish them in the translation table.
+         */
+        void fault() throws IOException
+        {
+            if ( size == 0 )
+            {
+                return;
+            }
+            // Check if we're racing with unmapping, before the read would otherwise reopen the file channel.
+            getLastPageId();
+            long bytesRead = MuninnPagedFile.this.fault( pageRefs, bufferAddresses, bufferLengths, size, swapper, swapperId, startFilePageId,
+                    filePageSize );
+            long bytesPerPage = bytesRead / size;
+            for ( int i = 0; i < size; i++ )
+            {
+                long pageRef = pageRefs[i];
+                long filePageId = startFilePageId + i;
+                int pageId = toId( pageRef );
+                faultEvents[i].addBytesRead( bytesPerPage );
+                faultEvents[i].setCachePageId( pageId );
+                // Publish the page before we release the exclusive lock, since eviction expects to find it in the table.
+                TRANSLATION_TABLE_ARRAY.setVolatile( tt[computeChunkId( filePageId )], computeChunkIndex( filePageId ), pageId );
+                if ( lowPriority )
+                {
+                    incrementUsageLowPriority( pageRef );
+                }
+                else
+                {
+                    incrementUsage( pageRef );
+                }
+                unlockExclusive( pageRef );
+                faultEvents[i].done();
+                pinEvents[i].done();
+                latches[i].release();
+            }
+            size = 0;
+        }
+
+        /**
+         * Give back all the pages in the run without publishing them, so the eviction can pick them up again.
+         */
+        void abort( Throwable throwable )
+        {
+            for ( int i = 0; i < size; i++ )
+            {
+                unlockExclusive( pageRefs[i] );
+                faultEvents[i].fail( throwable );
+                pinEvents[i].done();
+                latches[i].release();
+            }
+            size = 0;
+        }
+    }
+
     private FileIsNotMappedException fileIsNotMappedException()
     {
         FileIsNotMappedException exception = new FileIsNotMappedException( path() );
@@ -802,6 +1183,36 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         long pageRef = deref( mappedPageId );
         setHighestEvictedTransactionId( getAndResetLastModifiedTransactionId( pageRef ) );
         TRANSLATION_TABLE_ARRAY.setVolatile( chunk, chunkIndex, UNMAPPED_TTE );
+        // An eviction racing with the closing of the swapper may already have been accounted for there
+        if ( quota != null && quotaPages.getAndUpdate( pages -> pages > 0 ? pages - 1 : pages ) > 0 )
+        {
+            quota.pagesEvicted( 1 );
+        }
+    }
+
+    @Override
+    void fault( long pageRef, PageSwapper swapper, int swapperId, long filePageId, PageFaultEvent event ) throws IOException
+    {
+        super.fault( pageRef, swapper, swapperId, filePageId, event );
+        pagesLoaded( 1 );
+    }
+
+    @Override
+    long fault( long[] pageRefs, long[] bufferAddresses, int[] bufferLengths, int length, PageSwapper swapper, int swapperId, long startFilePageId,
+            int filePageSize ) throws IOException
+    {
+        long bytesRead = super.fault( pageRefs, bufferAddresses, bufferLengths, length, swapper, swapperId, startFilePageId, filePageSize );
+        pagesLoaded( length );
+        return bytesRead;
+    }
+
+    private void pagesLoaded( int pages )
+    {
+        if ( quota != null )
+        {
+            quotaPages.addAndGet( pages );
+            quota.pagesLoaded( pages );
+        }
     }
 
     private void setHighestEvictedTransactionId( long modifiedTransactionId )
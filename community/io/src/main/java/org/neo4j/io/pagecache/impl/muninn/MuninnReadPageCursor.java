@@ -60,6 +60,7 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         pinEvent = tracer.beginPin( false, filePageId, swapper );
         pin( filePageId );
         verifyContext();
+        startReadAheadIfScanning( filePageId );
         return true;
     }
 
@@ -79,7 +80,7 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( long pageRef, long filePageId, PageSwapper swapper )
     {
         reset( pageRef );
-        PageList.incrementUsage( pageRef );
+        incrementUsage( pageRef );
     }
 
     @Override
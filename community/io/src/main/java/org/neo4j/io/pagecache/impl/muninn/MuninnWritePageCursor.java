@@ -97,6 +97,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         long filePageId = loadPlainCurrentPageId();
         pinEvent = tracer.beginPin( true, filePageId, swapper );
         pin( filePageId );
+        startReadAheadIfScanning( filePageId );
         return true;
     }
 
@@ -124,7 +125,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         // after the reset() call, which means that if we throw, the cursor will
         // be closed and the page lock will be released.
         assertPagedFileStillMappedAndGetIdOfLastPage();
-        PageList.incrementUsage( pageRef );
+        incrementUsage( pageRef );
         PageList.setLastModifiedTxId( pageRef, versionContext.committingTransactionId() );
     }
 
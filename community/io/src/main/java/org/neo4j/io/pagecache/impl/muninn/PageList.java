@@ -325,6 +325,38 @@ class PageList implements PageReferenceTranslator
         }
     }
 
+    /**
+     * Increment the usage stamp of a page that is accessed with low priority, such as by a sequential scan. Such accesses will mark a page as used,
+     * but will never make it {@link #isHot(long) hot}.
+     */
+    static void incrementUsageLowPriority( long pageRef )
+    {
+        // This is intentionally left benignly racy for performance.
+        long address = offPageBinding( pageRef );
+        long value = UnsafeUtil.getLongVolatile( address );
+        if ( (value & MASK_USAGE_COUNT) == 0 )
+        {
+            // See `incrementUsage` about why we use `compareAndSwapLong`.
+            UnsafeUtil.compareAndSwapLong( null, address, value, value + 1 );
+        }
+    }
+
+    /**
+     * A page is hot if it has been used more than once since it was last aged by the eviction clock arm.
+     */
+    static boolean isHot( long pageRef )
+    {
+        return (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT) > 1;
+    }
+
+    /**
+     * A page is used if it has been used at all since it was last aged by the eviction clock arm.
+     */
+    static boolean isUsed( long pageRef )
+    {
+        return (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT) > 0;
+    }
+
     /**
      * Decrement the usage stamp. Returns true if it reaches 0.
      **/
@@ -434,6 +466,46 @@ class PageList implements PageReferenceTranslator
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault a run of consecutive file pages, starting at the given {@code startFilePageId}, into the given pages with a single vectored read.
+     * The same rules apply to every page in the run, as for {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}.
+     *
+     * @param pageRefs the exclusively locked, unbound pages to fault into, in file page order.
+     * @param bufferAddresses scratch array, at least {@code length} long, used for the read vector.
+     * @param bufferLengths scratch array, at least {@code length} long, used for the read vector.
+     * @param length the number of pages to fault.
+     * @return the number of bytes read.
+     */
+    long fault( long[] pageRefs, long[] bufferAddresses, int[] bufferLengths, int length, PageSwapper swapper, int swapperId, long startFilePageId,
+            int filePageSize ) throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+            // See the single page fault method for why the file page id is assigned before the read.
+            setFilePageId( pageRef, filePageId );
+            bufferAddresses[i] = getAddress( pageRef );
+            bufferLengths[i] = filePageSize;
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, bufferLengths, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId );
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
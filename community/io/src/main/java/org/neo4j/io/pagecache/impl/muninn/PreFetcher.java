@@ -25,14 +25,13 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
-import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.scheduler.CancelListener;
 import org.neo4j.time.SystemNanoClock;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
-import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * An adaptive page pre-fetcher for sequential scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans.
@@ -47,13 +46,19 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  *
  * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
  * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
+ * The read-ahead window keeps growing while the scanner moves sequentially, and is reset when the scanner jumps elsewhere in the file. Runs of pages
+ * that are missing from the cache are loaded with large vectored reads.
  * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
  */
 class PreFetcher implements Runnable, CancelListener
 {
     private static final String TRACER_PRE_FETCHER_TAG = "Pre-fetcher";
+    // The number of pages the pre-fetcher initially loads ahead of the observed cursor.
+    private static final int initialWindow = getInteger( PreFetcher.class, "initialWindow", 8 );
+    // The largest number of pages the pre-fetcher will load ahead of the observed cursor. It is further limited to a quarter of the page cache.
+    private static final int maxReadAheadWindow = getInteger( PreFetcher.class, "maxWindow", 1024 );
     private final MuninnPageCursor observedCursor;
-    private final CursorFactory cursorFactory;
+    private final MuninnPagedFile pagedFile;
     private final PageCacheTracer tracer;
     private final SystemNanoClock clock;
     private volatile boolean cancelled;
@@ -62,10 +67,10 @@ class PreFetcher implements Runnable, CancelListener
     private long tripCount;
     private long pauseNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
 
-    PreFetcher( MuninnPageCursor observedCursor, CursorFactory cursorFactory, PageCacheTracer tracer, SystemNanoClock clock )
+    PreFetcher( MuninnPageCursor observedCursor, PageCacheTracer tracer, SystemNanoClock clock )
     {
         this.observedCursor = observedCursor;
-        this.cursorFactory = cursorFactory;
+        this.pagedFile = observedCursor.pagedFile;
         this.tracer = tracer;
         this.clock = clock;
     }
@@ -105,52 +110,58 @@ class PreFetcher implements Runnable, CancelListener
         // Just keep loading pages on the right side of the cursor until its closed.
         boolean forward = initialPageId < secondPageId;
         long currentPageId;
-        long cp;
         long nextPageId;
         long fromPage;
         long toPage;
 
-        // Offset is a fixed adjustment of the observed cursor position.
-        // This moves the start of the pre-fetch range forward for forward pre-fetching,
-        // or the end position backward for backward pre-fetching.
-        long offset = forward ? 1 : -1;
-
-        // Jump is the dynamically adjusted size of the prefetch range,
-        // with a sign component to indicate forwards or backwards pre-fetching.
-        // That is, jump is negative if we are pre-fetching backwards.
-        // This way, observed position + jump is the end or start of the pre-fetch range,
-        // for forwards or backwards pre-fetch respectively.
-        // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
-        long jump = offset;
-
-        try ( var tracer = this.tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG );
-                PageCursor prefetchCursor = cursorFactory.takeReadCursor( 0, PF_SHARED_READ_LOCK, new CursorContext( tracer ) ) )
+        // The window is the dynamically adjusted number of pages we try to keep loaded ahead of the observed cursor. It grows for as long as the
+        // cursor keeps moving sequentially, and shrinks back to its initial size when the cursor jumps somewhere else.
+        long maxWindow = Math.max( initialWindow, Math.min( maxReadAheadWindow, pagedFile.pageCache.maxCachedPages() / 4 ) );
+        long window = initialWindow;
+
+        // The frontier is the edge of the range of pages we have already loaded ahead of the observed cursor. That is, the first page after the
+        // range for forwards pre-fetching, or the first page of the range for backwards pre-fetching.
+        long frontier = secondPageId;
+
+        // Pre-fetched pages are touched with low priority, so that the subsequent pin by the observed cursor does not make them look frequently used.
+        // Touching loads runs of missing pages with vectored reads, and skips pages that are already loaded, or that someone else is loading.
+        try ( var tracer = this.tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG ) )
         {
+            CursorContext cursorContext = new CursorContext( tracer );
             currentPageId = getCurrentObservedPageId();
             while ( currentPageId != UNBOUND_PAGE_ID )
             {
-                cp = currentPageId + offset;
                 if ( forward )
                 {
-                    fromPage = cp;
-                    toPage = cp + jump;
+                    fromPage = Math.max( frontier, currentPageId + 1 );
+                    toPage = currentPageId + 1 + window;
+                    if ( fromPage > pagedFile.getLastPageId() )
+                    {
+                        return; // Reached the end of the file.
+                    }
+                    if ( fromPage < toPage )
+                    {
+                        pagedFile.touch( fromPage, (int) (toPage - fromPage), cursorContext, true );
+                        frontier = toPage;
+                    }
                 }
                 else
                 {
-                    fromPage = Math.max( 0, cp + jump );
-                    toPage = cp;
-                }
-                while ( fromPage < toPage )
-                {
-                    if ( !prefetchCursor.next( fromPage ) || cancelled )
+                    fromPage = Math.max( 0, currentPageId - window );
+                    toPage = Math.min( frontier, currentPageId );
+                    if ( fromPage < toPage )
                     {
-                        return; // Reached the end of the file. Or got cancelled.
+                        pagedFile.touch( fromPage, (int) (toPage - fromPage), cursorContext, true );
+                        frontier = fromPage;
                     }
-                    fromPage++;
+                }
+                if ( cancelled )
+                {
+                    return;
                 }
 
                 // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
-                // If it just stops somewhere for more than a second, then we quit.
+                // If it just stops somewhere for a long time, then we quit.
                 nextPageId = getCurrentObservedPageId();
                 if ( nextPageId == currentPageId )
                 {
@@ -160,7 +171,7 @@ class PreFetcher implements Runnable, CancelListener
                         pause();
                         if ( pastDeadline() )
                         {
-                            return; // The cursor hasn't made any progress for a whole second. Leave it alone.
+                            return; // The cursor hasn't made any progress for a long time. Leave it alone.
                         }
                         nextPageId = getCurrentObservedPageId();
                     }
@@ -168,7 +179,18 @@ class PreFetcher implements Runnable, CancelListener
                 }
                 if ( nextPageId != UNBOUND_PAGE_ID )
                 {
-                    jump = (nextPageId - currentPageId) * 2;
+                    long distance = forward ? nextPageId - currentPageId : currentPageId - nextPageId;
+                    if ( distance > 0 && distance <= maxWindow )
+                    {
+                        // Sequential access. Grow the window so the reads get larger, and stay ahead of the cursor even if it speeds up.
+                        window = Math.min( maxWindow, Math.max( window * 2, distance * 2 ) );
+                    }
+                    else
+                    {
+                        // The cursor jumped somewhere else, so what we loaded ahead of it might not be needed after all. Start over, small.
+                        window = initialWindow;
+                        frontier = nextPageId;
+                    }
                 }
                 currentPageId = nextPageId;
             }
@@ -23,6 +23,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.CompressingPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.memory.EmptyMemoryTracker;
@@ -46,14 +47,14 @@ public final class StandalonePageCacheFactory
 
     public static PageCache createPageCache( FileSystemAbstraction fileSystem, JobScheduler jobScheduler, PageCacheTracer cacheTracer )
     {
-        SingleFilePageSwapperFactory factory = new SingleFilePageSwapperFactory( fileSystem );
+        PageSwapperFactory factory = swapperFactory( fileSystem );
         int pageSize = PageCache.PAGE_SIZE;
         return createPageCache( factory, jobScheduler, cacheTracer, pageSize );
     }
 
     public static PageCache createPageCache( FileSystemAbstraction fileSystem, JobScheduler jobScheduler )
     {
-        SingleFilePageSwapperFactory factory = new SingleFilePageSwapperFactory( fileSystem );
+        PageSwapperFactory factory = swapperFactory( fileSystem );
         PageCacheTracer cacheTracer = PageCacheTracer.NULL;
         int pageSize = PageCache.PAGE_SIZE;
         return createPageCache( factory, jobScheduler, cacheTracer, pageSize );
@@ -61,11 +62,16 @@ public final class StandalonePageCacheFactory
 
     public static PageCache createPageCache( FileSystemAbstraction fileSystem, JobScheduler jobScheduler, int pageSize )
     {
-        SingleFilePageSwapperFactory factory = new SingleFilePageSwapperFactory( fileSystem );
+        PageSwapperFactory factory = swapperFactory( fileSystem );
         PageCacheTracer cacheTracer = PageCacheTracer.NULL;
         return createPageCache( factory, jobScheduler, cacheTracer, pageSize );
     }
 
+    private static PageSwapperFactory swapperFactory( FileSystemAbstraction fileSystem )
+    {
+        return new CompressingPageSwapperFactory( fileSystem, new SingleFilePageSwapperFactory( fileSystem ) );
+    }
+
     private static PageCache createPageCache( PageSwapperFactory factory, JobScheduler jobScheduler, PageCacheTracer cacheTracer, int pageSize )
     {
         long expectedMemory = Math.max( MebiByte.toBytes( 8 ), 10 * pageSize );
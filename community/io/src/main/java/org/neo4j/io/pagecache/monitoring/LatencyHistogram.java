@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of latencies, in nanoseconds, with a bounded relative error in the spirit of HdrHistogram.
+ * <p>
+ * Values are bucketed by their highest one-bit, and the range of every power of two is split into {@link #SUB_BUCKETS} linear sub-buckets. This
+ * keeps the relative error of every reported value below {@code 1 / SUB_BUCKETS}, with a fixed and small number of buckets. Recording a value is a
+ * single atomic update of its bucket, plus the updates of the sum and the max. Like {@link LongAdder}, the buckets are striped once threads contend
+ * on them, and the stripes are merged when the histogram is read.
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int MAX_STRIPES = Integer.highestOneBit( Math.min( 16, Runtime.getRuntime().availableProcessors() ) );
+
+    private volatile AtomicLongArray[] stripes = {new AtomicLongArray( BUCKETS )};
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator( Math::max, 0 );
+
+    public void record( long nanos )
+    {
+        if ( nanos < 0 )
+        {
+            nanos = 0;
+        }
+        int bucket = bucketOf( nanos );
+        AtomicLongArray[] stripes = this.stripes;
+        AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        long count = stripe.get( bucket );
+        if ( !stripe.compareAndSet( bucket, count, count + 1 ) )
+        {
+            // Another thread got in between, so spread the threads over more stripes
+            stripe.incrementAndGet( bucket );
+            expand( stripes );
+        }
+        totalNanos.add( nanos );
+        maxNanos.accumulate( nanos );
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long count()
+    {
+        long count = 0;
+        for ( long bucketCount : counts() )
+        {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of all recorded values.
+     */
+    public long totalNanos()
+    {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return the largest recorded value.
+     */
+    public long maxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, or {@code 0} if no values have been recorded.
+     */
+    public long meanNanos()
+    {
+        long count = count();
+        return count == 0 ? 0 : totalNanos() / count;
+    }
+
+    /**
+     * @param percentile the percentile, between {@code 0} and {@code 100}.
+     * @return the highest value that is equivalent, within the precision of the histogram, to the value at the given percentile of the recorded
+     * values, or {@code 0} if no values have been recorded.
+     */
+    public long percentileNanos( double percentile )
+    {
+        long[] counts = counts();
+        long count = 0;
+        for ( long bucketCount : counts )
+        {
+            count += bucketCount;
+        }
+        if ( count == 0 )
+        {
+            return 0;
+        }
+        long rank = Math.max( 1, (long) Math.ceil( Math.min( 100, percentile ) / 100 * count ) );
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += counts[i];
+            if ( seen >= rank )
+            {
+                return Math.min( highestValueOf( i ), maxNanos() );
+            }
+        }
+        return maxNanos();
+    }
+
+    /**
+     * Add all the values recorded in the given histogram to this one.
+     */
+    void add( LatencyHistogram other )
+    {
+        long[] counts = other.counts();
+        AtomicLongArray stripe = stripes[0];
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            if ( counts[i] != 0 )
+            {
+                stripe.addAndGet( i, counts[i] );
+            }
+        }
+        totalNanos.add( other.totalNanos() );
+        maxNanos.accumulate( other.maxNanos() );
+    }
+
+    private long[] counts()
+    {
+        long[] counts = new long[BUCKETS];
+        for ( AtomicLongArray stripe : stripes )
+        {
+            for ( int i = 0; i < BUCKETS; i++ )
+            {
+                counts[i] += stripe.get( i );
+            }
+        }
+        return counts;
+    }
+
+    private synchronized void expand( AtomicLongArray[] contended )
+    {
+        if ( stripes == contended && contended.length < MAX_STRIPES )
+        {
+            AtomicLongArray[] expanded = Arrays.copyOf( contended, contended.length * 2 );
+            for ( int i = contended.length; i < expanded.length; i++ )
+            {
+                expanded[i] = new AtomicLongArray( BUCKETS );
+            }
+            stripes = expanded;
+        }
+    }
+
+    static int bucketOf( long value )
+    {
+        if ( value < SUB_BUCKETS )
+        {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf( int bucket )
+    {
+        if ( bucket < SUB_BUCKETS )
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowestValue = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
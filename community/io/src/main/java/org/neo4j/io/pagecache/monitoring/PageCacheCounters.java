@@ -30,6 +30,16 @@ public interface PageCacheCounters
      */
     long faults();
 
+    /**
+     * @return The total time spent waiting for page faults thus far, in nanoseconds.
+     */
+    long faultNanos();
+
+    /**
+     * @return The latency histograms of page faults, evictions and flushes, per mapped file and per database.
+     */
+    PageCacheLatencies latencies();
+
     /**
      * @return The number of page evictions observed thus far.
      */
@@ -55,6 +65,16 @@ public interface PageCacheCounters
      */
     long flushes();
 
+    /**
+     * @return The number of page flushes done by the background flush thread, ahead of checkpoints, thus far.
+     */
+    long backgroundFlushes();
+
+    /**
+     * @return The number of times the background flush thread failed to write out the dirty pages of a file, thus far.
+     */
+    long backgroundFlushExceptions();
+
     /**
      * @return The number of page merges observed so far
      */
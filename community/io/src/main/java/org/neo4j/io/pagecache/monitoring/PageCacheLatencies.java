@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Latency histograms of the page faults, evictions and flushes of the page cache, broken down per mapped file and per database.
+ * <p>
+ * The histograms of a file are looked up by the id of the swapper of the file, which makes recording cheap. Every latency is only recorded for its
+ * file, and the histograms of a database are merged from those of its files when they are read. They also cover the files the database has unmapped,
+ * for as long as it has any file mapped. A database is forgotten once its last file is unmapped, which happens when it is stopped or dropped.
+ */
+public class PageCacheLatencies
+{
+    /**
+     * Latencies that never record anything, because no files are ever mapped into them.
+     */
+    public static final PageCacheLatencies NULL = new PageCacheLatencies()
+    {
+        @Override
+        public void fileMapped( int swapperId, Path file, String databaseName )
+        {
+        }
+    };
+
+    private final Map<String,Database> databases = new HashMap<>();
+    private volatile Latencies[] filesBySwapperId = new Latencies[0];
+
+    public synchronized void fileMapped( int swapperId, Path file, String databaseName )
+    {
+        String name = Objects.requireNonNullElse( databaseName, "" );
+        databases.computeIfAbsent( name, Database::new ).mappedFiles++;
+        Latencies[] files = Arrays.copyOf( filesBySwapperId, Math.max( filesBySwapperId.length, swapperId + 1 ) );
+        files[swapperId] = new Latencies( name, file );
+        filesBySwapperId = files;
+    }
+
+    public synchronized void fileUnmapped( int swapperId )
+    {
+        Latencies[] files = filesBySwapperId;
+        if ( swapperId < files.length && files[swapperId] != null )
+        {
+            Latencies file = files[swapperId];
+            files = files.clone();
+            files[swapperId] = null;
+            filesBySwapperId = files;
+
+            Database database = databases.get( file.databaseName );
+            if ( --database.mappedFiles == 0 )
+            {
+                databases.remove( file.databaseName );
+            }
+            else
+            {
+                database.unmappedFiles.add( file );
+            }
+        }
+    }
+
+    public void recordFault( int swapperId, long nanos )
+    {
+        Latencies file = file( swapperId );
+        if ( file != null )
+        {
+            file.faults.record( nanos );
+        }
+    }
+
+    public void recordEviction( int swapperId, long nanos )
+    {
+        Latencies file = file( swapperId );
+        if ( file != null )
+        {
+            file.evictions.record( nanos );
+        }
+    }
+
+    public void recordFlush( int swapperId, long nanos )
+    {
+        Latencies file = file( swapperId );
+        if ( file != null )
+        {
+            file.flushes.record( nanos );
+        }
+    }
+
+    /**
+     * @return the latencies of every currently mapped file.
+     */
+    public List<Latencies> files()
+    {
+        List<Latencies> files = new ArrayList<>();
+        for ( Latencies file : filesBySwapperId )
+        {
+            if ( file != null )
+            {
+                files.add( file );
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @return the latencies of every database that has mapped files.
+     */
+    public synchronized List<Latencies> databases()
+    {
+        Map<String,Latencies> merged = new HashMap<>();
+        for ( Database database : databases.values() )
+        {
+            Latencies latencies = new Latencies( database.name, null );
+            latencies.add( database.unmappedFiles );
+            merged.put( database.name, latencies );
+        }
+        for ( Latencies file : filesBySwapperId )
+        {
+            if ( file != null )
+            {
+                merged.get( file.databaseName ).add( file );
+            }
+        }
+        return new ArrayList<>( merged.values() );
+    }
+
+    private Latencies file( int swapperId )
+    {
+        Latencies[] files = filesBySwapperId;
+        return swapperId >= 0 && swapperId < files.length ? files[swapperId] : null;
+    }
+
+    private static final class Database
+    {
+        private final String name;
+        private final Latencies unmappedFiles;
+        private int mappedFiles;
+
+        Database( String name )
+        {
+            this.name = name;
+            this.unmappedFiles = new Latencies( name, null );
+        }
+    }
+
+    /**
+     * The latency histograms of a single file, or of all the files of a database.
+     */
+    public static final class Latencies
+    {
+        private final String databaseName;
+        private final Path file;
+        private final LatencyHistogram faults = new LatencyHistogram();
+        private final LatencyHistogram evictions = new LatencyHistogram();
+        private final LatencyHistogram flushes = new LatencyHistogram();
+
+        private Latencies( String databaseName, Path file )
+        {
+            this.databaseName = databaseName;
+            this.file = file;
+        }
+
+        private void add( Latencies other )
+        {
+            faults.add( other.faults );
+            evictions.add( other.evictions );
+            flushes.add( other.flushes );
+        }
+
+        public String databaseName()
+        {
+            return databaseName;
+        }
+
+        /**
+         * @return the file these latencies are for, or {@code null} if these are the latencies of a whole database.
+         */
+        public Path file()
+        {
+            return file;
+        }
+
+        public LatencyHistogram faults()
+        {
+            return faults;
+        }
+
+        public LatencyHistogram evictions()
+        {
+            return evictions;
+        }
+
+        public LatencyHistogram flushes()
+        {
+            return flushes;
+        }
+    }
+}
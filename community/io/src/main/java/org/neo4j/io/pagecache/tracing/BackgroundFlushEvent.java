@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageSwapper;
+
+/**
+ * A background flush run is started periodically by the background flush thread of the page cache, to write out some of the dirty pages
+ * ahead of the next checkpoint. The number of pages a run tries to write out is proportional to the ratio of dirty pages in the cache, and to
+ * the recently observed write throughput.
+ */
+public interface BackgroundFlushEvent extends AutoCloseablePageCacheTracerEvent
+{
+    /**
+     * A BackgroundFlushEvent that does nothing other than return the MajorFlushEvent.NULL.
+     */
+    BackgroundFlushEvent NULL = new BackgroundFlushEvent()
+    {
+        @Override
+        public MajorFlushEvent beginFileFlush( PageSwapper swapper )
+        {
+            return MajorFlushEvent.NULL;
+        }
+
+        @Override
+        public void threwException( IOException exception )
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    };
+
+    /**
+     * The background flush run is about to write out dirty pages of the file of the given swapper.
+     */
+    MajorFlushEvent beginFileFlush( PageSwapper swapper );
+
+    /**
+     * Writing out the dirty pages of a file failed with the given exception. The pages stay dirty, and the run carries on with the next file.
+     */
+    void threwException( IOException exception );
+}
@@ -26,20 +26,24 @@ import java.util.concurrent.atomic.LongAdder;
 import org.neo4j.internal.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 /**
- * The default PageCacheTracer implementation, that just increments counters.
+ * The default PageCacheTracer implementation, that increments counters, and records latency histograms per mapped file and per database.
  */
 public class DefaultPageCacheTracer implements PageCacheTracer
 {
     protected final LongAdder faults = new LongAdder();
+    protected final LongAdder faultNanos = new LongAdder();
     protected final LongAdder evictions = new LongAdder();
     protected final LongAdder pins = new LongAdder();
     protected final LongAdder unpins = new LongAdder();
     protected final LongAdder hits = new LongAdder();
     protected final LongAdder flushes = new LongAdder();
+    protected final LongAdder backgroundFlushes = new LongAdder();
+    protected final LongAdder backgroundFlushExceptions = new LongAdder();
     protected final LongAdder merges = new LongAdder();
     protected final LongAdder bytesRead = new LongAdder();
     protected final LongAdder bytesWritten = new LongAdder();
@@ -50,6 +54,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder ioLimitedTimes = new LongAdder();
     protected final LongAdder ioLimitedMillis = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    protected final PageCacheLatencies latencies = new PageCacheLatencies();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -83,96 +88,51 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
-    private final EvictionEvent evictionEvent = new EvictionEvent()
+    private final FlushEvent backgroundFlushEvent = new FlushEvent()
     {
         @Override
-        public void setFilePageId( long filePageId )
-        {
-        }
-
-        @Override
-        public void setSwapper( PageSwapper swapper )
-        {
-        }
-
-        @Override
-        public FlushEvent beginFlush( long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator )
-        {
-            return flushEvent;
-        }
-
-        @Override
-        public void threwException( IOException exception )
+        public void addBytesWritten( long bytes )
         {
-            evictionExceptions.increment();
+            flushEvent.addBytesWritten( bytes );
         }
 
         @Override
-        public void close()
+        public void done()
         {
-            evictions.increment();
         }
-    };
 
-    private final EvictionRunEvent evictionRunEvent = new EvictionRunEvent()
-    {
         @Override
-        public void freeListSize( int size )
+        public void done( IOException exception )
         {
-
+            done();
         }
 
         @Override
-        public EvictionEvent beginEviction( long cachePageId )
+        public void addPagesFlushed( int pageCount )
         {
-            return evictionEvent;
+            flushEvent.addPagesFlushed( pageCount );
+            backgroundFlushes.add( pageCount );
         }
 
         @Override
-        public void close()
+        public void addPagesMerged( int pagesMerged )
         {
+            flushEvent.addPagesMerged( pagesMerged );
         }
     };
 
-    private final MajorFlushEvent majorFlushEvent = new MajorFlushEvent()
+    private final BackgroundFlushEvent backgroundFlushRunEvent = new BackgroundFlushEvent()
     {
-
-        @Override
-        public FlushEvent beginFlush( long[] pageRefs, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator, int pagesToFlush,
-                int mergedPages )
-        {
-            return flushEvent;
-        }
-
-        @Override
-        public FlushEvent beginFlush( long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator )
-        {
-            return flushEvent;
-        }
-
-        @Override
-        public void startFlush( int[][] translationTable )
-        {
-
-        }
-
-        @Override
-        public ChunkEvent startChunk( int[] chunk )
-        {
-            return ChunkEvent.NULL;
-        }
-
         @Override
-        public void throttle( long millis )
+        public MajorFlushEvent beginFileFlush( PageSwapper swapper )
         {
-            ioLimitedTimes.increment();
-            ioLimitedMillis.add( millis );
+            return new CountingMajorFlushEvent( backgroundFlushEvent );
         }
 
         @Override
-        public void reportIO( int completedIOs )
+        public void threwException( IOException exception )
         {
-            iopqPerformed.add( completedIOs );
+            backgroundFlushExceptions.increment();
         }
 
         @Override
@@ -191,36 +151,44 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     public void mappedFile( int swapperId, PagedFile mappedFile )
     {
         filesMapped.increment();
+        latencies.fileMapped( swapperId, mappedFile.path(), mappedFile.getDatabaseName() );
     }
 
     @Override
     public void unmappedFile( int swapperId, PagedFile mappedFile )
     {
         filesUnmapped.increment();
+        latencies.fileUnmapped( swapperId );
     }
 
     @Override
     public EvictionRunEvent beginPageEvictions( int pageCountToEvict )
     {
-        return evictionRunEvent;
+        return new TimedEvictionRunEvent();
     }
 
     @Override
     public EvictionRunEvent beginEviction()
     {
-        return evictionRunEvent;
+        return new TimedEvictionRunEvent();
     }
 
     @Override
     public MajorFlushEvent beginFileFlush( PageSwapper swapper )
     {
-        return majorFlushEvent;
+        return new CountingMajorFlushEvent( flushEvent );
     }
 
     @Override
     public MajorFlushEvent beginCacheFlush()
     {
-        return majorFlushEvent;
+        return new CountingMajorFlushEvent( flushEvent );
+    }
+
+    @Override
+    public BackgroundFlushEvent beginBackgroundFlush( double dirtyRatio, int pageCountToFlush )
+    {
+        return backgroundFlushRunEvent;
     }
 
     @Override
@@ -229,6 +197,18 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return faults.sum();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return faultNanos.sum();
+    }
+
+    @Override
+    public PageCacheLatencies latencies()
+    {
+        return latencies;
+    }
+
     @Override
     public long evictions()
     {
@@ -259,6 +239,18 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return flushes.sum();
     }
 
+    @Override
+    public long backgroundFlushes()
+    {
+        return backgroundFlushes.sum();
+    }
+
+    @Override
+    public long backgroundFlushExceptions()
+    {
+        return backgroundFlushExceptions.sum();
+    }
+
     @Override
     public long merges()
     {
@@ -367,6 +359,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.faults.add( faults );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+        this.faultNanos.add( faultNanos );
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -408,4 +406,182 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         this.maxPages.set( maxPages );
     }
+
+    /**
+     * Counts the flushes of one file, or of the whole cache, and times each flush with an event that is reused for all of them,
+     * since a major flush is done by a single thread.
+     */
+    private class CountingMajorFlushEvent implements MajorFlushEvent
+    {
+        private final FlushEvent flushEvent;
+        private final TimedFlushEvent timedFlushEvent = new TimedFlushEvent();
+
+        CountingMajorFlushEvent( FlushEvent flushEvent )
+        {
+            this.flushEvent = flushEvent;
+        }
+
+        @Override
+        public FlushEvent beginFlush( long[] pageRefs, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator, int pagesToFlush,
+                int mergedPages )
+        {
+            return timedFlushEvent.start( flushEvent, swapper );
+        }
+
+        @Override
+        public FlushEvent beginFlush( long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator )
+        {
+            return timedFlushEvent.start( flushEvent, swapper );
+        }
+
+        @Override
+        public void startFlush( int[][] translationTable )
+        {
+        }
+
+        @Override
+        public ChunkEvent startChunk( int[] chunk )
+        {
+            return ChunkEvent.NULL;
+        }
+
+        @Override
+        public void throttle( long millis )
+        {
+            ioLimitedTimes.increment();
+            ioLimitedMillis.add( millis );
+        }
+
+        @Override
+        public void reportIO( int completedIOs )
+        {
+            iopqPerformed.add( completedIOs );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    /**
+     * Times the evictions of one eviction run, and the flushes they do, with events that are reused for all of them since a run is done by
+     * a single thread.
+     */
+    private class TimedEvictionRunEvent implements EvictionRunEvent
+    {
+        private final TimedEvictionEvent evictionEvent = new TimedEvictionEvent( new TimedFlushEvent() );
+
+        @Override
+        public void freeListSize( int size )
+        {
+        }
+
+        @Override
+        public EvictionEvent beginEviction( long cachePageId )
+        {
+            return evictionEvent.start();
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    private class TimedEvictionEvent implements EvictionEvent
+    {
+        private final TimedFlushEvent flushEvent;
+        private long startNanos;
+        private int swapperId;
+
+        TimedEvictionEvent( TimedFlushEvent flushEvent )
+        {
+            this.flushEvent = flushEvent;
+        }
+
+        TimedEvictionEvent start()
+        {
+            startNanos = System.nanoTime();
+            swapperId = -1;
+            return this;
+        }
+
+        @Override
+        public void setFilePageId( long filePageId )
+        {
+        }
+
+        @Override
+        public void setSwapper( PageSwapper swapper )
+        {
+            swapperId = swapper == null ? -1 : swapper.swapperId();
+        }
+
+        @Override
+        public FlushEvent beginFlush( long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator )
+        {
+            return flushEvent.start( DefaultPageCacheTracer.this.flushEvent, swapper );
+        }
+
+        @Override
+        public void threwException( IOException exception )
+        {
+            evictionExceptions.increment();
+        }
+
+        @Override
+        public void close()
+        {
+            evictions.increment();
+            latencies.recordEviction( swapperId, System.nanoTime() - startNanos );
+        }
+    }
+
+    private class TimedFlushEvent implements FlushEvent
+    {
+        private FlushEvent delegate;
+        private int swapperId;
+        private long startNanos;
+
+        TimedFlushEvent start( FlushEvent delegate, PageSwapper swapper )
+        {
+            this.delegate = delegate;
+            this.swapperId = swapper == null ? -1 : swapper.swapperId();
+            this.startNanos = System.nanoTime();
+            return this;
+        }
+
+        @Override
+        public void addBytesWritten( long bytes )
+        {
+            delegate.addBytesWritten( bytes );
+        }
+
+        @Override
+        public void done()
+        {
+            delegate.done();
+            latencies.recordFlush( swapperId, System.nanoTime() - startNanos );
+        }
+
+        @Override
+        public void done( IOException exception )
+        {
+            delegate.done( exception );
+            latencies.recordFlush( swapperId, System.nanoTime() - startNanos );
+        }
+
+        @Override
+        public void addPagesFlushed( int pageCount )
+        {
+            delegate.addPagesFlushed( pageCount );
+        }
+
+        @Override
+        public void addPagesMerged( int pagesMerged )
+        {
+            delegate.addPagesMerged( pagesMerged );
+        }
+    }
 }
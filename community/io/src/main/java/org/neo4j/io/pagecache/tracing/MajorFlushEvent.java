@@ -23,6 +23,9 @@ import org.neo4j.io.pagecache.PageSwapper;
 
 /**
  * Begin a mass-flushing of pages.
+ * <p>
+ * When a file is flushed in parallel, the page ranges of the file are flushed concurrently through the same event, so implementations must be
+ * thread-safe. The event is closed when the whole file has been flushed and forced.
  */
 public interface MajorFlushEvent extends AutoCloseablePageCacheTracerEvent
 {
@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache.tracing;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 /**
@@ -76,12 +77,30 @@ public interface PageCacheTracer extends PageCacheCounters
             return MajorFlushEvent.NULL;
         }
 
+        @Override
+        public BackgroundFlushEvent beginBackgroundFlush( double dirtyRatio, int pageCountToFlush )
+        {
+            return BackgroundFlushEvent.NULL;
+        }
+
         @Override
         public long faults()
         {
             return 0;
         }
 
+        @Override
+        public long faultNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public PageCacheLatencies latencies()
+        {
+            return PageCacheLatencies.NULL;
+        }
+
         @Override
         public long evictions()
         {
@@ -112,6 +131,18 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long backgroundFlushes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long backgroundFlushExceptions()
+        {
+            return 0;
+        }
+
         @Override
         public long merges()
         {
@@ -198,6 +229,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void faultNanos( long faultNanos )
+        {
+        }
+
         @Override
         public void bytesRead( long bytesRead )
         {
@@ -292,6 +328,14 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     MajorFlushEvent beginCacheFlush();
 
+    /**
+     * A background flush run has begun. Called from the background flush thread, with the ratio of dirty pages in the cache that was observed
+     * when the run was planned, and the number of dirty pages the run will try to write out.
+     *
+     * The method returns a BackgroundFlushEvent to represent the event of this background flush run.
+     */
+    BackgroundFlushEvent beginBackgroundFlush( double dirtyRatio, int pageCountToFlush );
+
     /**
      * Report number of observed pins
      * @param pins number of pins
@@ -316,6 +360,12 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void faults( long faults );
 
+    /**
+     * Report time spent waiting for observed faults
+     * @param faultNanos time spent in faults, in nanoseconds
+     */
+    void faultNanos( long faultNanos );
+
     /**
      * Report number of bytes read
      * @param bytesRead number of read bytes
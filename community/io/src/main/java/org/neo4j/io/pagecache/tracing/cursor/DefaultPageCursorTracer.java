@@ -23,6 +23,7 @@ import java.io.IOException;
 
 import org.neo4j.internal.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -36,6 +37,13 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private long unpins;
     private long hits;
     private long faults;
+    private long faultNanos;
+    private long faultStartNanos;
+    private int faultSwapperId;
+    private long evictionStartNanos;
+    private int evictionSwapperId;
+    private long flushStartNanos;
+    private int flushSwapperId;
     private long bytesRead;
     private long bytesWritten;
     private long evictions;
@@ -45,11 +53,13 @@ public class DefaultPageCursorTracer implements PageCursorTracer
 
     private final DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
     private final PageCacheTracer pageCacheTracer;
+    private final PageCacheLatencies latencies;
     private final String tag;
 
     public DefaultPageCursorTracer( PageCacheTracer pageCacheTracer, String tag )
     {
         this.pageCacheTracer = pageCacheTracer;
+        this.latencies = pageCacheTracer.latencies();
         this.tag = tag;
     }
 
@@ -77,6 +87,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         if ( faults > 0 )
         {
             pageCacheTracer.faults( faults );
+            pageCacheTracer.faultNanos( faultNanos );
         }
         if ( bytesRead > 0 )
         {
@@ -111,6 +122,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         unpins = 0;
         hits = 0;
         faults = 0;
+        faultNanos = 0;
         bytesRead = 0;
         bytesWritten = 0;
         evictions = 0;
@@ -203,11 +215,14 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            evictionSwapperId = swapper == null ? -1 : swapper.swapperId();
         }
 
         @Override
         public FlushEvent beginFlush( long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator )
         {
+            flushStartNanos = System.nanoTime();
+            flushSwapperId = swapper == null ? -1 : swapper.swapperId();
             return flushEvent;
         }
 
@@ -221,6 +236,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void close()
         {
             evictions++;
+            latencies.recordEviction( evictionSwapperId, System.nanoTime() - evictionStartNanos );
         }
     };
 
@@ -235,7 +251,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public void done()
         {
+            long nanos = System.nanoTime() - faultStartNanos;
             faults++;
+            faultNanos += nanos;
+            latencies.recordFault( faultSwapperId, nanos );
         }
 
         @Override
@@ -252,6 +271,8 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public EvictionEvent beginEviction( long cachePageId )
         {
+            evictionStartNanos = System.nanoTime();
+            evictionSwapperId = -1;
             return evictionEvent;
         }
 
@@ -272,6 +293,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public void done()
         {
+            latencies.recordFlush( flushSwapperId, System.nanoTime() - flushStartNanos );
         }
 
         @Override
@@ -306,6 +328,8 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public PageFaultEvent beginPageFault( long filePageId, int swapperId )
         {
             eventHits = 0;
+            faultStartNanos = System.nanoTime();
+            faultSwapperId = swapperId;
             return pageFaultEvent;
         }
 
@@ -70,5 +70,6 @@ public interface ComponentVersion
         public static final String VERSION_43D2 = "Neo4j 4.3.0-Drop02";
         public static final String VERSION_43D3 = "Neo4j 4.3.0-Drop03";
         public static final String VERSION_43D4 = "Neo4j 4.3.0-Drop04";
+        public static final String VERSION_4310 = "Neo4j 4.3.10";
     }
 }
@@ -32,6 +32,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheQuota;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
@@ -50,12 +51,22 @@ public class DatabasePageCache implements PageCache
     private final PageCache globalPageCache;
     private final CopyOnWriteArrayList<PagedFile> databasePagedFiles = new CopyOnWriteArrayList<>();
     private final IOController ioController;
+    private final PageCacheQuota quota;
     private boolean closed;
 
     public DatabasePageCache( PageCache globalPageCache, IOController ioController )
+    {
+        this( globalPageCache, ioController, null );
+    }
+
+    /**
+     * @param quota the quota that all files mapped by the database should count towards, or {@code null} if the database has no quota.
+     */
+    public DatabasePageCache( PageCache globalPageCache, IOController ioController, PageCacheQuota quota )
     {
         this.globalPageCache = requireNonNull( globalPageCache );
         this.ioController = requireNonNull( ioController );
+        this.quota = quota;
     }
 
     @Override
@@ -64,6 +75,10 @@ public class DatabasePageCache implements PageCache
     {
         // no one should call this version of map method with emptyDatabaseName != null,
         // since it is this class that is decorating map calls with the name of the database
+        if ( quota != null )
+        {
+            openOptions = openOptions.newWith( quota );
+        }
         PagedFile pagedFile = globalPageCache.map( path, pageSize, databaseName, openOptions, ioController );
         DatabasePageFile databasePageFile = new DatabasePageFile( pagedFile, databasePagedFiles );
         databasePagedFiles.add( databasePageFile );
@@ -86,10 +101,12 @@ public class DatabasePageCache implements PageCache
     @Override
     public void flushAndForce() throws IOException
     {
+        List<PagedFile> files = new ArrayList<>( databasePagedFiles.size() );
         for ( PagedFile pagedFile : databasePagedFiles )
         {
-            pagedFile.flushAndForce();
+            files.add( ((DatabasePageFile) pagedFile).delegate );
         }
+        globalPageCache.flushAndForce( files );
     }
 
     @Override
@@ -172,6 +189,12 @@ public class DatabasePageCache implements PageCache
             return delegate.getLastPageId();
         }
 
+        @Override
+        public int touch( long pageId, int count, CursorContext context ) throws IOException
+        {
+            return delegate.touch( pageId, count, context );
+        }
+
         @Override
         public void close()
         {
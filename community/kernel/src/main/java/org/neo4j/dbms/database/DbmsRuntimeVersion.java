@@ -38,9 +38,14 @@ public enum DbmsRuntimeVersion implements ComponentVersion
     /**
      * Dense node locking changes
      */
-    V4_3_D4( 4, DBMS_RUNTIME_COMPONENT, Neo4jVersions.VERSION_43D4, KernelVersion.V4_3_D4 );
+    V4_3_D4( 4, DBMS_RUNTIME_COMPONENT, Neo4jVersions.VERSION_43D4, KernelVersion.V4_3_D4 ),
 
-    public static final DbmsRuntimeVersion LATEST_DBMS_RUNTIME_COMPONENT_VERSION = V4_3_D4;
+    /**
+     * Compressed command entries in the transaction log
+     */
+    V4_3_10( 5, DBMS_RUNTIME_COMPONENT, Neo4jVersions.VERSION_4310, KernelVersion.V4_3_10 );
+
+    public static final DbmsRuntimeVersion LATEST_DBMS_RUNTIME_COMPONENT_VERSION = V4_3_10;
 
     DbmsRuntimeVersion( int version, String componentName, String description, KernelVersion kernelVersion )
     {
@@ -64,6 +64,7 @@ import org.neo4j.io.fs.watcher.DatabaseLayoutWatcher;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheQuota;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.VersionContextSupplier;
@@ -99,16 +100,21 @@ import org.neo4j.kernel.impl.factory.DbmsInfo;
 import org.neo4j.kernel.impl.factory.FacadeKernelTransactionFactory;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
 import org.neo4j.kernel.impl.factory.KernelTransactionFactory;
+import org.neo4j.kernel.impl.locking.LockContentionJmx;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.query.TransactionExecutionMonitor;
 import org.neo4j.kernel.impl.store.stats.DatabaseEntityCounters;
 import org.neo4j.kernel.impl.storemigration.DatabaseMigrator;
 import org.neo4j.kernel.impl.storemigration.DatabaseMigratorFactory;
+import org.neo4j.kernel.impl.transaction.cdc.TransactionChangeStream;
+import org.neo4j.kernel.impl.transaction.log.AsyncLogForcer;
 import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.LogForcingIOController;
 import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
@@ -119,6 +125,7 @@ import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckpointerLifecycle;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.RecoveryTimeEstimator;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
@@ -138,6 +145,7 @@ import org.neo4j.kernel.impl.transaction.state.storeview.FullScanStoreView;
 import org.neo4j.kernel.impl.transaction.state.storeview.IndexStoreViewFactory;
 import org.neo4j.kernel.impl.transaction.stats.DatabaseTransactionStats;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactorySupplier;
 import org.neo4j.kernel.internal.event.DatabaseTransactionEventListeners;
 import org.neo4j.kernel.internal.event.GlobalTransactionEventListeners;
@@ -255,6 +263,7 @@ public class Database extends LifecycleAdapter
     private DatabaseAvailability databaseAvailability;
     private DatabaseTransactionEventListeners databaseTransactionEventListeners;
     private IOController ioController;
+    private LogForcingIOController logForcingIOController;
 
     public Database( DatabaseCreationContext context )
     {
@@ -322,8 +331,13 @@ public class Database extends LifecycleAdapter
         try
         {
             databaseDependencies = new Dependencies( globalDependencies );
-            ioController = ioControllerService.createIOController( databaseConfig, clock );
-            databasePageCache = new DatabasePageCache( globalPageCache, ioController );
+            ioController = ioControllerService.createIOController( databaseConfig, clock, tracers.getPageCacheTracer() );
+            if ( isCommittingAsynchronously( databaseConfig ) )
+            {
+                // Pages must not be written before the log describing their changes is forced
+                ioController = logForcingIOController = new LogForcingIOController( ioController );
+            }
+            databasePageCache = new DatabasePageCache( globalPageCache, ioController, createPageCacheQuota() );
             databaseMonitors = new Monitors( parentMonitors, internalLogProvider );
 
             life = new LifeSupport();
@@ -364,6 +378,7 @@ public class Database extends LifecycleAdapter
             databaseDependencies.satisfyDependency( recoveryCleanupWorkCollector );
 
             life.add( new PageCacheLifecycle( databasePageCache ) );
+            life.add( new LockContentionJmx( namedDatabaseId.name(), locks ) );
             life.add( initializeExtensions( databaseDependencies ) );
 
             DatabaseLayoutWatcher watcherService = watcherServiceFactory.apply( databaseLayout );
@@ -414,6 +429,10 @@ public class Database extends LifecycleAdapter
             databaseMonitors.addMonitorListener(
                     new ReverseTransactionCursorLoggingMonitor( internalLogProvider.getLog( ReversedSingleFileTransactionCursor.class ) ) );
 
+            RecoveryTimeEstimator recoveryTimeEstimator = new RecoveryTimeEstimator( databaseConfig, fs, logFiles.logFilesDirectory(),
+                    internalLogProvider.getLog( RecoveryTimeEstimator.class ) );
+            databaseMonitors.addMonitorListener( recoveryTimeEstimator );
+
             var pageCacheTracer = tracers.getPageCacheTracer();
 
             boolean storageExists = storageEngineFactory.storageExists( fs, databaseLayout, databasePageCache );
@@ -461,9 +480,12 @@ public class Database extends LifecycleAdapter
                     new DefaultForceOperation( indexingService, storageEngine );
             DatabaseTransactionLogModule transactionLogModule =
                     buildTransactionLogs( logFiles, databaseConfig, internalLogProvider, scheduler, forceOperation,
-                            logEntryReader, metadataProvider, databaseMonitors, databaseDependencies );
+                            logEntryReader, metadataProvider, recoveryTimeEstimator, databaseMonitors, databaseDependencies );
+            databaseDependencies.satisfyDependency(
+                    new TransactionChangeStream( transactionLogModule.logicalTransactionStore(), metadataProvider, storageEngine, pageCacheTracer ) );
 
-            databaseTransactionEventListeners = new DatabaseTransactionEventListeners( databaseFacade, transactionEventListeners, namedDatabaseId );
+            databaseTransactionEventListeners = new DatabaseTransactionEventListeners( databaseFacade, transactionEventListeners, namedDatabaseId, scheduler,
+                    otherDatabasePool, internalLogProvider );
             life.add( databaseTransactionEventListeners );
             final DatabaseKernelModule kernelModule = buildKernel(
                     logFiles,
@@ -498,6 +520,9 @@ public class Database extends LifecycleAdapter
 
             this.checkpointerLifecycle = new CheckpointerLifecycle( transactionLogModule.checkPointer(), databaseHealth, ioController );
 
+            life.add( new PageCacheWarmer( databasePageCache, fs, scheduler, databaseLayout.databaseDirectory(), namedDatabaseId.name(), databaseConfig,
+                    readOnlyDatabaseChecker, pageCacheTracer, clock, databaseMonitors.newMonitor( PageCacheWarmer.Monitor.class ),
+                    internalLogProvider.getLog( PageCacheWarmer.class ) ) );
             life.add( databaseHealth );
             life.add( databaseAvailabilityGuard );
             life.add( databaseAvailability );
@@ -554,6 +579,18 @@ public class Database extends LifecycleAdapter
         tx.schemaWrite().indexCreate( prototype );
     }
 
+    private PageCacheQuota createPageCacheQuota()
+    {
+        double maxShare = databaseConfig.get( GraphDatabaseInternalSettings.pagecache_database_max_share );
+        double minReservedShare = Math.min( databaseConfig.get( GraphDatabaseInternalSettings.pagecache_database_min_reserved_share ), maxShare );
+        if ( maxShare >= 1.0 && minReservedShare <= 0.0 )
+        {
+            return null;
+        }
+        long cachePages = globalPageCache.maxCachedPages();
+        return new PageCacheQuota( namedDatabaseId.name(), (long) (cachePages * minReservedShare), (long) (cachePages * maxShare) );
+    }
+
     private LogFiles getLogFiles( LogEntryReader logEntryReader ) throws IOException
     {
         return LogFilesBuilder.builder( databaseLayout, fs ).withLogEntryReader( logEntryReader )
@@ -562,6 +599,7 @@ public class Database extends LifecycleAdapter
                 .withLogProvider( internalLogProvider )
                 .withDatabaseTracers( tracers )
                 .withMemoryTracker( otherDatabaseMemoryTracker )
+                .withJobScheduler( scheduler )
                 .withMonitors( databaseMonitors )
                 .withClock( clock )
                 .withCommandReaderFactory( storageEngineFactory.commandReaderFactory() )
@@ -713,9 +751,14 @@ public class Database extends LifecycleAdapter
         return namedDatabaseId.isSystemDatabase();
     }
 
+    private boolean isCommittingAsynchronously( Config config )
+    {
+        return config.get( GraphDatabaseInternalSettings.tx_log_async_commit_databases ).contains( namedDatabaseId.name() );
+    }
+
     private DatabaseTransactionLogModule buildTransactionLogs( LogFiles logFiles, Config config, LogProvider logProvider, JobScheduler scheduler,
-            CheckPointerImpl.ForceOperation forceOperation, LogEntryReader logEntryReader, MetadataProvider metadataProvider, Monitors monitors,
-            Dependencies databaseDependencies )
+            CheckPointerImpl.ForceOperation forceOperation, LogEntryReader logEntryReader, MetadataProvider metadataProvider,
+            RecoveryTimeEstimator recoveryTimeEstimator, Monitors monitors, Dependencies databaseDependencies )
     {
         TransactionMetadataCache transactionMetadataCache = new TransactionMetadataCache();
 
@@ -724,17 +767,38 @@ public class Database extends LifecycleAdapter
 
         final LogRotation logRotation = transactionLogRotation( logFiles, clock, databaseHealth, monitors.newMonitor( LogRotationMonitor.class ) );
 
+        AsyncLogForcer asyncLogForcer = null;
+        CheckPointerImpl.ForceOperation checkPointForceOperation = forceOperation;
+        if ( isCommittingAsynchronously( config ) )
+        {
+            AsyncLogForcer forcer = life.add( new AsyncLogForcer( logFiles.getLogFile(), scheduler,
+                    config.get( GraphDatabaseInternalSettings.tx_log_async_commit_interval ),
+                    config.get( GraphDatabaseInternalSettings.tx_log_async_commit_max_unforced_size ), clock, logProvider.getLog( AsyncLogForcer.class ) ) );
+            // A check point must not point to transactions that aren't durable in the log
+            checkPointForceOperation = cursorContext ->
+            {
+                forcer.force( LogAppendEvent.NULL );
+                forceOperation.flushAndForce( cursorContext );
+            };
+            logForcingIOController.setLogForcer( forcer );
+            databaseDependencies.satisfyDependency( forcer );
+            asyncLogForcer = forcer;
+        }
+
         final BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender(
-                logFiles, logRotation, transactionMetadataCache, metadataProvider, databaseHealth ) );
+                logFiles, logRotation, transactionMetadataCache, metadataProvider, databaseHealth, asyncLogForcer ) );
 
         final LogicalTransactionStore logicalTransactionStore =
                 new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader, monitors, true );
 
-        CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider );
+        recoveryTimeEstimator.start( metadataProvider );
+        // The estimator goes first, so that it gets to see every check, regardless of the policy
+        CheckPointThreshold threshold = CheckPointThreshold.or( recoveryTimeEstimator,
+                CheckPointThreshold.createThreshold( config, clock, logPruning, recoveryTimeEstimator, logProvider ) );
 
         var checkpointAppender = logFiles.getCheckpointFile().getCheckpointAppender();
         final CheckPointerImpl checkPointer =
-                new CheckPointerImpl( metadataProvider, threshold, forceOperation, logPruning, checkpointAppender, databaseHealth, logProvider,
+                new CheckPointerImpl( metadataProvider, threshold, checkPointForceOperation, logPruning, checkpointAppender, databaseHealth, logProvider,
                         tracers, ioController, storeCopyCheckPointMutex, versionContextSupplier, clock );
 
         long recurringPeriod = threshold.checkFrequencyMillis();
@@ -744,9 +808,9 @@ public class Database extends LifecycleAdapter
         life.add( checkPointer );
         life.add( checkPointScheduler );
 
-        databaseDependencies.satisfyDependencies( checkPointer, logFiles, logicalTransactionStore, logRotation, appender );
+        databaseDependencies.satisfyDependencies( checkPointer, recoveryTimeEstimator, logFiles, logicalTransactionStore, logRotation, appender );
 
-        return new DatabaseTransactionLogModule( checkPointer, appender );
+        return new DatabaseTransactionLogModule( checkPointer, appender, logicalTransactionStore );
     }
 
     private DatabaseKernelModule buildKernel( LogFiles logFiles, TransactionAppender appender,
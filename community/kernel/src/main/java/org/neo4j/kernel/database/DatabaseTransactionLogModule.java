@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.database;
 
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
 
@@ -26,11 +27,13 @@ class DatabaseTransactionLogModule
 {
     private final CheckPointer checkPointer;
     private final TransactionAppender appender;
+    private final LogicalTransactionStore logicalTransactionStore;
 
-    DatabaseTransactionLogModule( CheckPointer checkPointer, TransactionAppender appender )
+    DatabaseTransactionLogModule( CheckPointer checkPointer, TransactionAppender appender, LogicalTransactionStore logicalTransactionStore )
     {
         this.checkPointer = checkPointer;
         this.appender = appender;
+        this.logicalTransactionStore = logicalTransactionStore;
     }
 
     CheckPointer checkPointer()
@@ -42,4 +45,9 @@ class DatabaseTransactionLogModule
     {
         return appender;
     }
+
+    LogicalTransactionStore logicalTransactionStore()
+    {
+        return logicalTransactionStore;
+    }
 }
@@ -81,7 +81,7 @@ public class ExecutingQueryFactory
                 statement.namedDatabaseId(),
                 statement::getHits,
                 statement::getFaults,
-                () -> statement.locks().activeLockCount(),
+                statement::activeLockCount,
                 statement.getTransaction().getUserTransactionId()
         ) );
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+/**
+ * An {@link InternalTransactionCommitProcess} which lets concurrently committing transactions share one append and one store apply.
+ * <p>
+ * Every committing thread queues up its batch and then waits for its turn to commit. The thread whose turn it is takes the batches
+ * queued at that point, up to a maximum number of transactions, links them together into one chain of {@link TransactionToApply}
+ * and commits that chain, so that the work the storage engine does once per batch, like index updates, counts and id updates,
+ * is shared by all of them. Threads whose batches got committed by someone else only pick up the outcome. The group is traced
+ * through the {@link CommitEvent} of the thread committing it.
+ * <p>
+ * Only {@link TransactionApplicationMode#INTERNAL} commits are grouped, other modes come in batches of their own already.
+ */
+public class GroupingTransactionCommitProcess extends InternalTransactionCommitProcess
+{
+    private final int maxGroupSize;
+    private final Queue<PendingBatch> queue = new ConcurrentLinkedQueue<>();
+    // Fair, so that threads whose batches have already been committed are let through before a new group is started
+    private final Lock commitLock = new ReentrantLock( true );
+
+    public GroupingTransactionCommitProcess( TransactionAppender appender, StorageEngine storageEngine, int maxGroupSize )
+    {
+        super( appender, storageEngine );
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    @Override
+    public long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode ) throws TransactionFailureException
+    {
+        if ( mode != TransactionApplicationMode.INTERNAL )
+        {
+            return super.commit( batch, commitEvent, mode );
+        }
+
+        PendingBatch pending = new PendingBatch( batch );
+        queue.add( pending );
+        commitLock.lock();
+        try
+        {
+            while ( !pending.done )
+            {
+                commitGroup( commitEvent, mode );
+            }
+        }
+        finally
+        {
+            commitLock.unlock();
+        }
+        return pending.result();
+    }
+
+    private void commitGroup( CommitEvent commitEvent, TransactionApplicationMode mode )
+    {
+        List<PendingBatch> group = new ArrayList<>();
+        PendingBatch first = queue.poll();
+        group.add( first );
+        PendingBatch last = first;
+        int transactions = first.transactions;
+        PendingBatch next;
+        while ( (next = queue.peek()) != null && transactions + next.transactions <= maxGroupSize )
+        {
+            queue.poll();
+            last.tail.next( next.head );
+            group.add( next );
+            transactions += next.transactions;
+            last = next;
+        }
+
+        Throwable failure = null;
+        try
+        {
+            super.commit( first.head, commitEvent, mode );
+        }
+        catch ( Throwable t )
+        {
+            failure = t;
+        }
+        finally
+        {
+            // Give the batches back to their owners in the shape they came in
+            for ( PendingBatch pending : group )
+            {
+                pending.tail.next( null );
+                pending.complete( pending == first ? failure : forFollower( failure ) );
+            }
+        }
+    }
+
+    private static Throwable forFollower( Throwable failure )
+    {
+        // Every thread gets its own instance, since the caller may decorate it with suppressed exceptions
+        if ( failure instanceof TransactionFailureException )
+        {
+            TransactionFailureException cause = (TransactionFailureException) failure;
+            return new TransactionFailureException( cause.status(), cause, "%s", cause.getMessage() );
+        }
+        return failure;
+    }
+
+    private static class PendingBatch
+    {
+        private final TransactionToApply head;
+        private final TransactionToApply tail;
+        private final int transactions;
+        // Guarded by the commit lock
+        private boolean done;
+        private Throwable failure;
+
+        PendingBatch( TransactionToApply head )
+        {
+            TransactionToApply tail = head;
+            int transactions = 1;
+            while ( tail.next() != null )
+            {
+                tail = tail.next();
+                transactions++;
+            }
+            this.head = head;
+            this.tail = tail;
+            this.transactions = transactions;
+        }
+
+        void complete( Throwable failure )
+        {
+            this.failure = failure;
+            this.done = true;
+        }
+
+        long result() throws TransactionFailureException
+        {
+            if ( failure instanceof TransactionFailureException )
+            {
+                throw (TransactionFailureException) failure;
+            }
+            if ( failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) failure;
+            }
+            if ( failure instanceof Error )
+            {
+                throw (Error) failure;
+            }
+            return tail.transactionId();
+        }
+    }
+}
@@ -181,6 +181,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private AccessCapability accessCapability;
     private final KernelStatement currentStatement;
     private SecurityContext securityContext;
+    private Locks locks;
     private volatile Locks.Client lockClient;
     private volatile long userTransactionId;
     private LeaseClient leaseClient;
@@ -289,7 +290,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     /**
      * Reset this transaction to a vanilla state, turning it into a logically new transaction.
      */
-    public KernelTransactionImplementation initialize( long lastCommittedTx, long lastTimeStamp, Locks.Client lockClient, Type type,
+    public KernelTransactionImplementation initialize( long lastCommittedTx, long lastTimeStamp, Locks locks, Type type,
             SecurityContext frozenSecurityContext, long transactionTimeout, long userTransactionId, ClientConnectionInfo clientInfo )
     {
         this.cursorContext =
@@ -297,10 +298,9 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.accessCapability = accessCapabilityFactory.newAccessCapability( readOnlyDatabaseChecker );
         this.kernelTransactionMonitor = KernelTransaction.NO_MONITOR;
         this.type = type;
-        this.lockClient = lockClient;
+        this.locks = locks;
         this.userTransactionId = userTransactionId;
         this.leaseClient = leaseService.newClient();
-        this.lockClient.initialize( leaseClient, userTransactionId, memoryTracker, config );
         this.terminationReason = null;
         this.closing = false;
         this.closed = false;
@@ -319,7 +319,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.clientInfo = clientInfo;
         this.statistics.init( currentThread().getId(), cursorContext );
         this.commandCreationContext.initialize( cursorContext );
-        this.currentStatement.initialize( lockClient, cursorContext, startTimeMillis );
+        this.currentStatement.initialize( cursorContext, startTimeMillis );
         this.operations.initialize( cursorContext );
         this.initializationTrace = traceProvider.getTraceInfo();
         this.memoryTracker.setLimit( transactionHeapBytesLimit );
@@ -753,6 +753,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             if ( hasChanges() )
             {
                 forceThawLocks();
+                Locks.Client lockClient = checkedOutLockClient();
                 lockClient.prepareForCommit();
 
                 // Gather up commands from the various sources
@@ -789,7 +790,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
 
                     // Commit the transaction
                     success = true;
-                    TransactionToApply batch = new TransactionToApply( transactionRepresentation, cursorContext );
+                    TransactionToApply batch = new TransactionToApply( transactionRepresentation, cursorContext, memoryTracker );
                     kernelTransactionMonitor.beforeApply();
                     txId = commitProcess.commit( batch, commitEvent, INTERNAL );
                     commitTime = timeCommitted;
@@ -898,7 +899,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     @Override
     public void freezeLocks()
     {
-        Locks.Client locks = lockClient;
+        Locks.Client locks = checkedOutLockClient();
         if ( !(locks instanceof FrozenLockClient) )
         {
             this.lockClient = new FrozenLockClient( locks );
@@ -939,7 +940,28 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     public Locks.Client lockClient()
     {
         assertOpen();
-        return lockClient;
+        return checkedOutLockClient();
+    }
+
+    /**
+     * The lock client is only checked out from the lock manager once this transaction needs to lock something,
+     * which many read transactions never do.
+     */
+    private Locks.Client checkedOutLockClient()
+    {
+        Locks.Client client = lockClient;
+        if ( client == null )
+        {
+            client = locks.newClient();
+            client.initialize( leaseClient, userTransactionId, memoryTracker, config );
+            lockClient = client;
+            // Termination sets the reason before looking for a lock client to stop, so either it stops this client or we see the reason here
+            if ( terminationReason != null )
+            {
+                client.stop();
+            }
+        }
+        return client;
     }
 
     @Override
@@ -1019,8 +1041,13 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         try
         {
             forceThawLocks();
-            lockClient.close();
-            lockClient = null;
+            Locks.Client client = lockClient;
+            if ( client != null )
+            {
+                client.close();
+                lockClient = null;
+            }
+            locks = null;
             terminationReason = null;
             type = null;
             securityContext = null;
@@ -1129,6 +1156,17 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         return locks == null ? Stream.empty() : locks.activeLocks();
     }
 
+    /**
+     * Like {@link #activeLocks()} this may be invoked by concurrent threads.
+     *
+     * @return the number of locks held by this transaction.
+     */
+    public long activeLockCount()
+    {
+        Locks.Client locks = this.lockClient;
+        return locks == null ? 0 : locks.activeLockCount();
+    }
+
     @Override
     public long getUserTransactionId()
     {
@@ -214,9 +214,8 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<IdC
                 assertRunning();
                 TransactionId lastCommittedTransaction = transactionIdStore.getLastCommittedTransaction();
                 KernelTransactionImplementation tx = localTxPool.acquire();
-                Locks.Client lockClient = locks.newClient();
                 tx.initialize( lastCommittedTransaction.transactionId(), lastCommittedTransaction.commitTimestamp(),
-                        lockClient, type, securityContext, timeout, userTransactionIdCounter.incrementAndGet(), clientInfo );
+                        locks, type, securityContext, timeout, userTransactionIdCounter.incrementAndGet(), clientInfo );
                 return tx;
             }
             finally
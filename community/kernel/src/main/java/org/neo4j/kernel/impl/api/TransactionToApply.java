@@ -32,6 +32,8 @@ import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.Commitment;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
@@ -69,6 +71,7 @@ public class TransactionToApply implements CommandsToApply, AutoCloseable
     private final TransactionRepresentation transactionRepresentation;
     private long transactionId;
     private final CursorContext cursorContext;
+    private final MemoryTracker memoryTracker;
     private TransactionToApply nextTransactionInBatch;
 
     // These fields are provided by commit process, storage engine, or recovery process
@@ -84,11 +87,27 @@ public class TransactionToApply implements CommandsToApply, AutoCloseable
         this( transactionRepresentation, TRANSACTION_ID_NOT_SPECIFIED, cursorContext );
     }
 
+    /**
+     * Used when committing a transaction that hasn't already gotten a transaction id assigned, charging memory needed to commit it
+     * to the given memory tracker.
+     */
+    public TransactionToApply( TransactionRepresentation transactionRepresentation, CursorContext cursorContext, MemoryTracker memoryTracker )
+    {
+        this( transactionRepresentation, TRANSACTION_ID_NOT_SPECIFIED, cursorContext, memoryTracker );
+    }
+
     public TransactionToApply( TransactionRepresentation transactionRepresentation, long transactionId, CursorContext cursorContext )
+    {
+        this( transactionRepresentation, transactionId, cursorContext, EmptyMemoryTracker.INSTANCE );
+    }
+
+    public TransactionToApply( TransactionRepresentation transactionRepresentation, long transactionId, CursorContext cursorContext,
+            MemoryTracker memoryTracker )
     {
         this.transactionRepresentation = transactionRepresentation;
         this.transactionId = transactionId;
         this.cursorContext = cursorContext;
+        this.memoryTracker = memoryTracker;
     }
 
     // These methods are called by the user when building a batch
@@ -138,6 +157,11 @@ public class TransactionToApply implements CommandsToApply, AutoCloseable
         return cursorContext;
     }
 
+    public MemoryTracker memoryTracker()
+    {
+        return memoryTracker;
+    }
+
     @Override
     public boolean accept( Visitor<StorageCommand,IOException> visitor ) throws IOException
     {
@@ -19,10 +19,13 @@
  */
 package org.neo4j.kernel.impl.factory;
 
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
 import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
 import org.neo4j.kernel.impl.api.DatabaseTransactionCommitProcess;
+import org.neo4j.kernel.impl.api.GroupingTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.InternalTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
@@ -30,10 +33,25 @@ import org.neo4j.storageengine.api.StorageEngine;
 
 public class CommunityCommitProcessFactory implements CommitProcessFactory
 {
+    private final int groupedApplyMaxTransactions;
+
+    public CommunityCommitProcessFactory()
+    {
+        this( Config.defaults() );
+    }
+
+    public CommunityCommitProcessFactory( Config config )
+    {
+        this.groupedApplyMaxTransactions = config.get( GraphDatabaseInternalSettings.tx_grouped_apply_max_transactions );
+    }
+
     @Override
     public TransactionCommitProcess create( TransactionAppender appender, StorageEngine storageEngine, NamedDatabaseId databaseId,
             DatabaseReadOnlyChecker readOnlyChecker )
     {
-        return new DatabaseTransactionCommitProcess( new InternalTransactionCommitProcess( appender, storageEngine ), readOnlyChecker );
+        InternalTransactionCommitProcess commitProcess = groupedApplyMaxTransactions > 1
+                                                         ? new GroupingTransactionCommitProcess( appender, storageEngine, groupedApplyMaxTransactions )
+                                                         : new InternalTransactionCommitProcess( appender, storageEngine );
+        return new DatabaseTransactionCommitProcess( commitProcess, readOnlyChecker );
     }
 }
@@ -25,6 +25,7 @@ import java.nio.file.Path;
 
 import org.neo4j.io.compress.ZipUtils;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageMapFiles;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 
 /**
@@ -38,12 +39,23 @@ public abstract class IndexFiles
 
     public abstract Path getBase();
 
+    /**
+     * @return the files that a copy of the index needs, which are the store file and, if the page cache compresses it, its page map.
+     */
+    public abstract Path[] getSnapshotFiles();
+
     public abstract void clear();
 
     public abstract void archiveIndex() throws IOException;
 
     public abstract void ensureDirectoryExist();
 
+    static Path[] snapshotFiles( FileSystemAbstraction fs, Path storeFile )
+    {
+        Path pageMap = PageMapFiles.pageMapFile( storeFile );
+        return fs.fileExists( pageMap ) ? new Path[]{storeFile, pageMap} : new Path[]{storeFile};
+    }
+
     @Override
     public String toString()
     {
@@ -75,6 +87,12 @@ public abstract class IndexFiles
             return directory;
         }
 
+        @Override
+        public Path[] getSnapshotFiles()
+        {
+            return snapshotFiles( fs, storeFile );
+        }
+
         @Override
         public void clear()
         {
@@ -142,6 +160,12 @@ public abstract class IndexFiles
             return singleFile;
         }
 
+        @Override
+        public Path[] getSnapshotFiles()
+        {
+            return snapshotFiles( fs, singleFile );
+        }
+
         @Override
         public void clear()
         {
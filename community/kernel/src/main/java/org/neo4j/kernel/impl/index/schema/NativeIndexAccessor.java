@@ -103,7 +103,7 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
     @Override
     public ResourceIterator<Path> snapshotFiles()
     {
-        return asResourceIterator( iterator( indexFiles.getStoreFile() ) );
+        return asResourceIterator( iterator( indexFiles.getSnapshotFiles() ) );
     }
 
     @Override
@@ -148,7 +148,7 @@ public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
     @Override
     public ResourceIterator<Path> snapshotFiles()
     {
-        return asResourceIterator( iterator( indexFiles.getStoreFile() ) );
+        return asResourceIterator( iterator( indexFiles.getSnapshotFiles() ) );
     }
 
     @Override
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+/**
+ * A resource tracked by a {@link LockContentionProfile}.
+ * <p>
+ * The getters make this usable as an open type through JMX.
+ */
+public class ContendedResource
+{
+    private final String resourceType;
+    private final long resourceId;
+    private final long waits;
+    private final double totalWaitMicros;
+    private final double maxWaitMicros;
+    private final int maxHolders;
+    private final double overestimateMicros;
+
+    public ContendedResource( String resourceType, long resourceId, long waits, long totalWaitNanos, long maxWaitNanos, int maxHolders,
+            long overestimateNanos )
+    {
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.waits = waits;
+        this.totalWaitMicros = micros( totalWaitNanos );
+        this.maxWaitMicros = micros( maxWaitNanos );
+        this.maxHolders = maxHolders;
+        this.overestimateMicros = micros( overestimateNanos );
+    }
+
+    private static double micros( long nanos )
+    {
+        return nanos / 1000.0;
+    }
+
+    public String getResourceType()
+    {
+        return resourceType;
+    }
+
+    public long getResourceId()
+    {
+        return resourceId;
+    }
+
+    /**
+     * @return the number of times a client had to wait for the lock on this resource, since it was last started being tracked.
+     */
+    public long getWaits()
+    {
+        return waits;
+    }
+
+    public double getTotalWaitMicros()
+    {
+        return totalWaitMicros;
+    }
+
+    public double getMaxWaitMicros()
+    {
+        return maxWaitMicros;
+    }
+
+    /**
+     * @return the highest number of clients holding the lock when a client started waiting for it.
+     */
+    public int getMaxHolders()
+    {
+        return maxHolders;
+    }
+
+    /**
+     * @return how much {@link #getTotalWaitMicros()} may be overestimated, because of wait time inherited from a resource this one
+     * replaced in the profile.
+     */
+    public double getOverestimateMicros()
+    {
+        return overestimateMicros;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ContendedResource{" + "resourceType='" + resourceType + '\'' + ", resourceId=" + resourceId + ", waits=" + waits +
+               ", totalWaitMicros=" + totalWaitMicros + ", maxWaitMicros=" + maxWaitMicros + ", maxHolders=" + maxHolders +
+               ", overestimateMicros=" + overestimateMicros + '}';
+    }
+}
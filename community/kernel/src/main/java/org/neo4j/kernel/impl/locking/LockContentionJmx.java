@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+/**
+ * Registers a {@link LockContentionMXBean} for a database in the platform MBean server, for as long as the database is running.
+ */
+public class LockContentionJmx extends LifecycleAdapter implements LockContentionMXBean
+{
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final String databaseName;
+    private final Locks locks;
+    private final MBeanServer mBeanServer;
+    private ObjectName name;
+
+    public LockContentionJmx( String databaseName, Locks locks )
+    {
+        this( databaseName, locks, ManagementFactory.getPlatformMBeanServer() );
+    }
+
+    LockContentionJmx( String databaseName, Locks locks, MBeanServer mBeanServer )
+    {
+        this.databaseName = databaseName;
+        this.locks = locks;
+        this.mBeanServer = mBeanServer;
+    }
+
+    @Override
+    public void start() throws JMException
+    {
+        name = new ObjectName( "org.neo4j:instance=db#" + INSTANCES.getAndIncrement() + ",database=" + ObjectName.quote( databaseName ) +
+                ",name=Lock contention" );
+        mBeanServer.registerMBean( this, name );
+    }
+
+    @Override
+    public void stop() throws JMException
+    {
+        if ( name != null )
+        {
+            mBeanServer.unregisterMBean( name );
+            name = null;
+        }
+    }
+
+    ObjectName name()
+    {
+        return name;
+    }
+
+    @Override
+    public List<ContendedResource> getContendedResources()
+    {
+        return locks.contentionProfile().contendedResources();
+    }
+
+    @Override
+    public long getWaits()
+    {
+        return locks.contentionProfile().waits();
+    }
+
+    @Override
+    public double getTotalWaitMicros()
+    {
+        return locks.contentionProfile().waitNanos() / 1000.0;
+    }
+
+    @Override
+    public void clear()
+    {
+        locks.contentionProfile().clear();
+    }
+}
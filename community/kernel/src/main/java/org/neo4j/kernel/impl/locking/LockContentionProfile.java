@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.lock.ResourceType;
+
+/**
+ * Keeps track of the resources that lock clients have had to wait the longest for, to find hot spots such as lock convoys on
+ * dense nodes. It is only told about waits, so it costs nothing as long as locks are acquired without waiting.
+ * <p>
+ * At most {@code capacity} resources are tracked, using the weighted Space-Saving algorithm: when a resource that isn't tracked has to
+ * be waited for and the profile is full, it replaces the tracked resource with the least total wait time, and inherits that wait time.
+ * The total wait time of a tracked resource is thus an overestimate, by at most {@link ContendedResource#getOverestimateMicros()},
+ * but any resource waited for longer than the total wait time divided by the capacity is guaranteed to be tracked.
+ */
+public class LockContentionProfile
+{
+    public static final LockContentionProfile NONE = new LockContentionProfile( 0 );
+
+    private final int capacity;
+    private final Map<Resource,Entry> entries = new HashMap<>();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public LockContentionProfile( int capacity )
+    {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Record that a client waited for a lock.
+     *
+     * @param resourceType type of the resource waited for.
+     * @param resourceId id of the resource waited for.
+     * @param waitNanos how long the client waited, whether or not it got the lock in the end.
+     * @param holders the number of clients holding the lock when the client started waiting.
+     */
+    public void record( ResourceType resourceType, long resourceId, long waitNanos, int holders )
+    {
+        if ( capacity == 0 )
+        {
+            return;
+        }
+        waits.increment();
+        this.waitNanos.add( waitNanos );
+
+        Resource resource = new Resource( resourceType, resourceId );
+        synchronized ( entries )
+        {
+            Entry entry = entries.get( resource );
+            if ( entry == null )
+            {
+                long inherited = 0;
+                if ( entries.size() == capacity )
+                {
+                    Entry least = leastWaitedFor();
+                    entries.remove( least.resource );
+                    inherited = least.totalWaitNanos;
+                }
+                entry = new Entry( resource, inherited );
+                entries.put( resource, entry );
+            }
+            entry.waits++;
+            entry.totalWaitNanos += waitNanos;
+            entry.maxWaitNanos = Math.max( entry.maxWaitNanos, waitNanos );
+            entry.maxHolders = Math.max( entry.maxHolders, holders );
+        }
+    }
+
+    private Entry leastWaitedFor()
+    {
+        Entry least = null;
+        for ( Entry entry : entries.values() )
+        {
+            if ( least == null || entry.totalWaitNanos < least.totalWaitNanos )
+            {
+                least = entry;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * @return the tracked resources, the one with the most total wait time first.
+     */
+    public List<ContendedResource> contendedResources()
+    {
+        List<ContendedResource> resources;
+        synchronized ( entries )
+        {
+            resources = new ArrayList<>( entries.size() );
+            for ( Entry entry : entries.values() )
+            {
+                resources.add( new ContendedResource( entry.resource.type.name(), entry.resource.id, entry.waits, entry.totalWaitNanos,
+                        entry.maxWaitNanos, entry.maxHolders, entry.overestimateNanos ) );
+            }
+        }
+        resources.sort( Comparator.comparingDouble( ContendedResource::getTotalWaitMicros ).reversed() );
+        return resources;
+    }
+
+    /**
+     * @return the number of lock waits recorded, for all resources.
+     */
+    public long waits()
+    {
+        return waits.sum();
+    }
+
+    /**
+     * @return the total time waited for locks, for all resources.
+     */
+    public long waitNanos()
+    {
+        return waitNanos.sum();
+    }
+
+    public void clear()
+    {
+        synchronized ( entries )
+        {
+            entries.clear();
+            waits.reset();
+            waitNanos.reset();
+        }
+    }
+
+    private static final class Resource
+    {
+        private final ResourceType type;
+        private final long id;
+
+        Resource( ResourceType type, long id )
+        {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Resource resource = (Resource) o;
+            return id == resource.id && type.typeId() == resource.type.typeId();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( type.typeId(), id );
+        }
+    }
+
+    private static final class Entry
+    {
+        private final Resource resource;
+        private final long overestimateNanos;
+        private long waits;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+        private int maxHolders;
+
+        Entry( Resource resource, long overestimateNanos )
+        {
+            this.resource = resource;
+            this.overestimateNanos = overestimateNanos;
+            this.totalWaitNanos = overestimateNanos;
+        }
+    }
+}
@@ -119,6 +119,12 @@ public interface Locks
     /** Visit all held locks. */
     void accept( Visitor visitor );
 
+    /** The resources that clients have had to wait the longest for. */
+    default LockContentionProfile contentionProfile()
+    {
+        return LockContentionProfile.NONE;
+    }
+
     void close();
 
     /** An implementation that doesn't do any locking **/
@@ -88,6 +88,12 @@ class ExclusiveLock implements ForsetiLockManager.Lock
         return closed;
     }
 
+    @Override
+    public int numberOfHolders()
+    {
+        return closed ? 0 : 1;
+    }
+
     @Override
     public String toString()
     {
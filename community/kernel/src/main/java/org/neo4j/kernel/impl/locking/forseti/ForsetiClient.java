@@ -27,7 +27,6 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.IntFunction;
@@ -44,6 +43,7 @@ import org.neo4j.kernel.impl.api.LeaseClient;
 import org.neo4j.kernel.impl.locking.LockAcquisitionTimeoutException;
 import org.neo4j.kernel.impl.locking.LockClientStateHolder;
 import org.neo4j.kernel.impl.locking.LockClientStoppedException;
+import org.neo4j.kernel.impl.locking.LockContentionProfile;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.forseti.ForsetiLockManager.DeadlockResolutionStrategy;
 import org.neo4j.kernel.impl.util.collection.SimpleBitSet;
@@ -55,7 +55,6 @@ import org.neo4j.lock.LockWaitEvent;
 import org.neo4j.lock.ResourceType;
 import org.neo4j.lock.ResourceTypes;
 import org.neo4j.lock.WaitStrategy;
-import org.neo4j.memory.HeapEstimator;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.time.SystemNanoClock;
 
@@ -79,11 +78,12 @@ import static org.neo4j.lock.LockType.SHARED;
 public class ForsetiClient implements Locks.Client
 {
     static final int NO_CLIENT_ID = -1;
+    private static final long NOT_WAITING = -1;
     /** Id for this client */
     private final int clientId;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
+    private final LockTable[] lockMaps;
 
     /** resourceType -> wait strategy */
     private final WaitStrategy[] waitStrategies;
@@ -150,14 +150,32 @@ public class ForsetiClient implements Locks.Client
      * secondary deadlock verification process, where we traverse the waiter/lock-owner dependency graph.
      */
     private volatile ForsetiLockManager.Lock waitingForLock;
+
+    /**
+     * Finds deadlocks in the background, instead of this client looking for them while waiting, or {@code null} if not enabled.
+     * It aborts our wait for a lock by assigning that lock to {@link #abortedWaitFor}, along with a description of the deadlock.
+     */
+    private final ForsetiDeadlockDetector deadlockDetector;
+    private volatile ForsetiLockManager.Lock abortedWaitFor;
+    private volatile String abortedWaitReason;
+
+    /**
+     * Lock waits are recorded in the contention profile when they end, successfully or not. The wait in progress, if any, is described
+     * by these fields, where {@link #waitStartNanos} is {@link #NOT_WAITING} if this client isn't waiting for a lock.
+     */
+    private final LockContentionProfile contentionProfile;
+    private long waitStartNanos = NOT_WAITING;
+    private ResourceType waitResourceType;
+    private long waitResourceId;
+    private int waitHolders;
     private volatile long userTransactionId;
     private volatile MemoryTracker memoryTracker;
-    private static final long CONCURRENT_NODE_SIZE = HeapEstimator.LONG_SIZE + HeapEstimator.HASH_MAP_NODE_SHALLOW_SIZE;
 
-    public ForsetiClient( int id, ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps,
+    ForsetiClient( int id, LockTable[] lockMaps,
                           WaitStrategy[] waitStrategies, Pool<ForsetiClient> clientPool,
                           DeadlockResolutionStrategy deadlockResolutionStrategy, IntFunction<ForsetiClient> clientById,
-                          SystemNanoClock clock, boolean verboseDeadlocks )
+                          SystemNanoClock clock, boolean verboseDeadlocks, ForsetiDeadlockDetector deadlockDetector,
+                          LockContentionProfile contentionProfile )
     {
         this.clientId = id;
         this.lockMaps = lockMaps;
@@ -169,6 +187,8 @@ public class ForsetiClient implements Locks.Client
         this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
         this.clock = clock;
         this.verboseDeadlocks = verboseDeadlocks;
+        this.deadlockDetector = deadlockDetector;
+        this.contentionProfile = contentionProfile;
     }
 
     /**
@@ -187,6 +207,8 @@ public class ForsetiClient implements Locks.Client
         this.memoryTracker = requireNonNull( memoryTracker );
         this.lockAcquisitionTimeoutNano = config.get( GraphDatabaseSettings.lock_acquisition_timeout ).toNanos();
         this.myExclusiveLock = new ExclusiveLock( this );
+        this.abortedWaitFor = null;
+        this.abortedWaitReason = null;
     }
 
     @Override
@@ -200,7 +222,7 @@ public class ForsetiClient implements Locks.Client
         try
         {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
 
             // And grab our local lock maps
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount( resourceType );
@@ -288,9 +310,11 @@ public class ForsetiClient implements Locks.Client
                     waitFor( existingLock, resourceType, resourceId, tries++ );
                 }
 
+                endWait();
+
                 // Make a local note about the fact that we now hold this lock
                 heldShareLocks.put( resourceId, 1 );
-                memoryTracker.allocateHeap( CONCURRENT_NODE_SIZE );
+                memoryTracker.allocateHeap( LockTable.ENTRY_SIZE );
             }
         }
         finally
@@ -299,6 +323,7 @@ public class ForsetiClient implements Locks.Client
             {
                 waitEvent.close();
             }
+            endWait();
             clearWaitList();
             waitingForLock = null;
             stateHolder.decrementActiveClients();
@@ -337,7 +362,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount( resourceType );
 
             for ( long resourceId : resourceIds )
@@ -382,10 +407,12 @@ public class ForsetiClient implements Locks.Client
                     waitFor( existingLock, resourceType, resourceId, tries++ );
                 }
 
+                endWait();
+
                 heldLocks.put( resourceId, 1 );
                 if ( !upgraded )
                 {
-                    memoryTracker.allocateHeap( CONCURRENT_NODE_SIZE );
+                    memoryTracker.allocateHeap( LockTable.ENTRY_SIZE );
                 }
             }
         }
@@ -395,6 +422,7 @@ public class ForsetiClient implements Locks.Client
             {
                 waitEvent.close();
             }
+            endWait();
             clearWaitList();
             waitingForLock = null;
             stateHolder.decrementActiveClients();
@@ -409,7 +437,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount( resourceType );
 
             int heldCount = heldLocks.getIfAbsent( resourceId, NO_CLIENT_ID );
@@ -437,6 +465,7 @@ public class ForsetiClient implements Locks.Client
                         else
                         {
                             sharedLock.releaseUpdateLock();
+                            lockReleased( sharedLock );
                             return false;
                         }
                     }
@@ -445,7 +474,7 @@ public class ForsetiClient implements Locks.Client
             }
 
             heldLocks.put( resourceId, 1 );
-            memoryTracker.allocateHeap( CONCURRENT_NODE_SIZE );
+            memoryTracker.allocateHeap( LockTable.ENTRY_SIZE );
             return true;
         }
         finally
@@ -462,7 +491,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount( resourceType );
             HeapTrackingLongIntHashMap heldExclusiveLocks = getExclusiveLockCount( resourceType );
 
@@ -522,7 +551,7 @@ public class ForsetiClient implements Locks.Client
                 }
             }
             heldShareLocks.put( resourceId, 1 );
-            memoryTracker.allocateHeap( CONCURRENT_NODE_SIZE );
+            memoryTracker.allocateHeap( LockTable.ENTRY_SIZE );
             return true;
         }
         finally
@@ -540,7 +569,7 @@ public class ForsetiClient implements Locks.Client
         {
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount( resourceType );
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount( resourceType );
-            ConcurrentMap<Long,ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockMaps[resourceType.typeId()];
             for ( long resourceId : resourceIds )
             {
                 if ( releaseLocalLock( resourceType, resourceId, sharedLocks ) )
@@ -567,7 +596,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount( resourceType );
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount( resourceType );
             for ( long resourceId : resourceIds )
@@ -587,6 +616,7 @@ public class ForsetiClient implements Locks.Client
                         if ( sharedLock.isUpdateLock() )
                         {
                             sharedLock.releaseUpdateLock();
+                            lockReleased( sharedLock );
                         }
                         else
                         {
@@ -599,6 +629,7 @@ public class ForsetiClient implements Locks.Client
                         // in case if current lock is exclusive we swap it to new shared lock
                         SharedLock sharedLock = new SharedLock( this );
                         resourceTypeLocks.put( resourceId, sharedLock );
+                        lockReleased( lock );
                     }
                 }
                 else
@@ -717,7 +748,7 @@ public class ForsetiClient implements Locks.Client
     @Override
     public boolean holdsLock( long id, ResourceType resource, LockType lockType )
     {
-        ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resource.typeId()];
+        LockTable lockMap = lockMaps[resource.typeId()];
         ForsetiLockManager.Lock lock = lockMap.get( id );
         if ( lock == null )
         {
@@ -809,21 +840,38 @@ public class ForsetiClient implements Locks.Client
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock( ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap, long resourceId )
+    private void releaseGlobalLock( LockTable lockMap, long resourceId )
     {
         ForsetiLockManager.Lock lock = lockMap.get( resourceId );
         if ( lock instanceof ExclusiveLock )
         {
             lockMap.remove( resourceId );
-            memoryTracker.releaseHeap( CONCURRENT_NODE_SIZE );
+            memoryTracker.releaseHeap( LockTable.ENTRY_SIZE );
+            lockReleased( lock );
         }
-        else if ( lock instanceof SharedLock && ((SharedLock) lock).release( this ) )
+        else if ( lock instanceof SharedLock )
         {
-            // We were the last to hold this lock, it is now dead and we should remove it.
-            // Also cleaning updater reference that can hold lock in memory
-            ((SharedLock) lock).cleanUpdateHolder();
-            lockMap.remove( resourceId );
-            memoryTracker.releaseHeap( CONCURRENT_NODE_SIZE );
+            if ( ((SharedLock) lock).release( this ) )
+            {
+                // We were the last to hold this lock, it is now dead and we should remove it.
+                // Also cleaning updater reference that can hold lock in memory
+                ((SharedLock) lock).cleanUpdateHolder();
+                lockMap.remove( resourceId );
+                memoryTracker.releaseHeap( LockTable.ENTRY_SIZE );
+            }
+            // Upgrading clients wait for the other holders to leave, not only for the last one
+            lockReleased( lock );
+        }
+    }
+
+    /**
+     * Wake up the clients parked waiting for the given lock, if deadlocks are detected in the background.
+     */
+    private void lockReleased( ForsetiLockManager.Lock lock )
+    {
+        if ( deadlockDetector != null )
+        {
+            deadlockDetector.lockReleased( lock );
         }
     }
 
@@ -852,7 +900,7 @@ public class ForsetiClient implements Locks.Client
             LockTracer tracer,
             LockWaitEvent waitEvent,
             ResourceType resourceType,
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap,
+            LockTable lockMap,
             long resourceId,
             SharedLock sharedLock,
             long waitStartNano )
@@ -867,7 +915,7 @@ public class ForsetiClient implements Locks.Client
             {
                 return false;
             }
-            memoryTracker.allocateHeap( CONCURRENT_NODE_SIZE );
+            memoryTracker.allocateHeap( LockTable.ENTRY_SIZE );
 
             try
             {
@@ -922,6 +970,7 @@ public class ForsetiClient implements Locks.Client
             catch ( Throwable e )
             {
                 sharedLock.releaseUpdateLock();
+                lockReleased( sharedLock );
                 if ( e instanceof DeadlockDetectedException || e instanceof LockClientStoppedException )
                 {
                     throw (RuntimeException) e;
@@ -949,6 +998,29 @@ public class ForsetiClient implements Locks.Client
     private void waitFor( ForsetiLockManager.Lock lock, ResourceType type, long resourceId, int tries )
     {
         waitingForLock = lock;
+        if ( waitStartNanos == NOT_WAITING )
+        {
+            waitStartNanos = clock.nanos();
+            waitResourceType = type;
+            waitResourceId = resourceId;
+            waitHolders = lock.numberOfHolders();
+        }
+        if ( deadlockDetector != null )
+        {
+            if ( tries == 0 )
+            {
+                abortedWaitFor = null;
+                deadlockDetector.clientWaiting();
+            }
+            deadlockDetector.parkWaiter( lock );
+            if ( abortedWaitFor == lock )
+            {
+                abortedWaitFor = null;
+                throw new DeadlockDetectedException( deadlockMessage( lock, type, resourceId, "because " + abortedWaitReason ) );
+            }
+            return;
+        }
+
         clearAndCopyWaitList( lock );
         waitStrategies[type.typeId()].apply( tries );
 
@@ -963,28 +1035,58 @@ public class ForsetiClient implements Locks.Client
             // reduces the probably of a false positive, but does not eliminate them.
             if ( tries > 100 && isDeadlockReal( lock ) )
             {
-                String message = this + " can't acquire " + lock + " on " + type + "(" + resourceId +
-                        "), because holders of that lock " +
-                        "are waiting for " + this + ".\n Wait list:" + lock.describeWaitList();
-                if ( verboseDeadlocks )
-                {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append( " All locks:[" );
-                    for ( int i = 0; i < lockMaps.length; i++ )
-                    {
-                        sb.append( ResourceTypes.fromId( i ) ).append( "[" );
-                        sb.append( lockMaps[i] ).append( "]" );
-                    }
-                    sb.append( "]" );
-                    message += sb.toString();
-                }
                 // After checking several times, this really does look like a real deadlock.
-                throw new DeadlockDetectedException( message );
+                throw new DeadlockDetectedException( deadlockMessage( lock, type, resourceId, "because holders of that lock " +
+                        "are waiting for " + this + ".\n Wait list:" + lock.describeWaitList() ) );
             }
             Thread.yield();
         }
     }
 
+    private String deadlockMessage( ForsetiLockManager.Lock lock, ResourceType type, long resourceId, String reason )
+    {
+        String message = this + " can't acquire " + lock + " on " + type + "(" + resourceId + "), " + reason;
+        if ( verboseDeadlocks )
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append( " All locks:[" );
+            for ( int i = 0; i < lockMaps.length; i++ )
+            {
+                sb.append( ResourceTypes.fromId( i ) ).append( "[" );
+                sb.append( lockMaps[i] ).append( "]" );
+            }
+            sb.append( "]" );
+            message += sb.toString();
+        }
+        return message;
+    }
+
+    /**
+     * The lock this client is currently waiting for, or {@code null} if not waiting.
+     */
+    ForsetiLockManager.Lock waitingForLock()
+    {
+        return waitingForLock;
+    }
+
+    /**
+     * Used by the {@link ForsetiDeadlockDetector} to make this client give up waiting for the given lock.
+     */
+    void abortWait( ForsetiLockManager.Lock lock, String reason )
+    {
+        abortedWaitReason = reason;
+        abortedWaitFor = lock;
+    }
+
+    private void endWait()
+    {
+        if ( waitStartNanos != NOT_WAITING )
+        {
+            contentionProfile.record( waitResourceType, waitResourceId, clock.nanos() - waitStartNanos, waitHolders );
+            waitStartNanos = NOT_WAITING;
+        }
+    }
+
     private void clearAndCopyWaitList( ForsetiLockManager.Lock lock )
     {
         clearWaitList();
@@ -1108,9 +1210,9 @@ public class ForsetiClient implements Locks.Client
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements LongProcedure
     {
-        private ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize( ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap )
+        private LongProcedure initialize( LockTable lockMap )
         {
             this.lockMap = lockMap;
             return this;
@@ -1130,9 +1232,9 @@ public class ForsetiClient implements Locks.Client
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements LongProcedure
     {
         private HeapTrackingLongIntHashMap sharedLockCounts;
-        private ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize( HeapTrackingLongIntHashMap sharedLockCounts, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap )
+        private LongProcedure initialize( HeapTrackingLongIntHashMap sharedLockCounts, LockTable lockMap )
         {
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
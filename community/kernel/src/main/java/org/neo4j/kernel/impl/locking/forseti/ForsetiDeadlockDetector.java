@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.kernel.DeadlockDetectedException;
+
+/**
+ * Finds deadlocks among the clients of a {@link ForsetiLockManager} in the background, used when
+ * {@link LockingInternalSettings#forseti_background_deadlock_detection_interval} is set.
+ * <p>
+ * A waiting client publishes the lock it waits for, and it waits for the owners of that lock, so together the waiting clients
+ * form a wait-for graph. The detector periodically walks that graph looking for cycles. Of the clients in a cycle it picks a victim
+ * using the {@link ForsetiLockManager.DeadlockResolutionStrategy}, by default the one holding the fewest locks, i.e. the one cheapest
+ * to roll back, and makes its wait fail with a {@link DeadlockDetectedException}. The graph changes while it is being walked, so like
+ * the deadlock verification done by the clients themselves, a cycle is only acted upon if it is still there a little while later.
+ * <p>
+ * Since waiting clients don't look for deadlocks themselves, they {@link #parkWaiter(ForsetiLockManager.Lock) park} until the lock they wait
+ * for is {@link #lockReleased(ForsetiLockManager.Lock) released}, or until the detector picks them as the victim of a deadlock.
+ * <p>
+ * The detector thread only runs while there are clients waiting, and is started again by the next client having to wait.
+ */
+final class ForsetiDeadlockDetector
+{
+    private static final long CONFIRMATION_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos( 10 );
+
+    private final Collection<ForsetiClient> clients;
+    private final ForsetiLockManager.DeadlockResolutionStrategy deadlockResolutionStrategy;
+    private final long intervalNanos;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LockWaiters waiters = new LockWaiters();
+    private volatile boolean closed;
+
+    ForsetiDeadlockDetector( Collection<ForsetiClient> clients, ForsetiLockManager.DeadlockResolutionStrategy deadlockResolutionStrategy,
+            long intervalNanos )
+    {
+        this.clients = clients;
+        this.deadlockResolutionStrategy = deadlockResolutionStrategy;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Called by a client when it starts waiting for a lock, after having published the lock it waits for.
+     */
+    void clientWaiting()
+    {
+        if ( !running.get() && !closed && running.compareAndSet( false, true ) )
+        {
+            Thread thread = new Thread( this::run, "ForsetiDeadlockDetector" );
+            thread.setDaemon( true );
+            thread.start();
+        }
+    }
+
+    /**
+     * Called by a waiting client to wait for the lock it waits for to be released, instead of checking on it over and over.
+     */
+    void parkWaiter( ForsetiLockManager.Lock lock )
+    {
+        waiters.park( lock );
+    }
+
+    /**
+     * Called by a client after releasing the given lock, or a reference to it, to wake up the clients waiting for it.
+     */
+    void lockReleased( ForsetiLockManager.Lock lock )
+    {
+        waiters.unparkWaitersOf( lock );
+    }
+
+    void close()
+    {
+        closed = true;
+    }
+
+    private void run()
+    {
+        while ( !closed )
+        {
+            LockSupport.parkNanos( this, intervalNanos );
+            if ( !detectDeadlocks() )
+            {
+                running.set( false );
+                // A client may have started waiting after we looked, and seen us still running
+                if ( !anyClientWaiting() || !running.compareAndSet( false, true ) )
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks for deadlocks among the currently waiting clients and resolves them.
+     *
+     * @return whether or not any client was waiting.
+     */
+    boolean detectDeadlocks()
+    {
+        Map<ForsetiClient,ForsetiLockManager.Lock> waits = new HashMap<>();
+        for ( ForsetiClient client : clients )
+        {
+            ForsetiLockManager.Lock lock = client.waitingForLock();
+            if ( lock != null )
+            {
+                waits.put( client, lock );
+            }
+        }
+        if ( waits.isEmpty() )
+        {
+            return false;
+        }
+
+        Set<ForsetiClient> visited = new HashSet<>();
+        for ( ForsetiClient client : waits.keySet() )
+        {
+            List<ForsetiClient> cycle = findCycle( client, waits, visited );
+            if ( cycle != null )
+            {
+                resolve( cycle, waits );
+            }
+        }
+        return true;
+    }
+
+    private boolean anyClientWaiting()
+    {
+        for ( ForsetiClient client : clients )
+        {
+            if ( client.waitingForLock() != null )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Depth first search from the given client for a cycle in the wait-for graph. Clients already visited from an earlier search
+     * are not searched again, they are either not part of any cycle, or part of one already found.
+     */
+    private static List<ForsetiClient> findCycle( ForsetiClient start, Map<ForsetiClient,ForsetiLockManager.Lock> waits,
+            Set<ForsetiClient> visited )
+    {
+        if ( !visited.add( start ) )
+        {
+            return null;
+        }
+        List<ForsetiClient> path = new ArrayList<>();
+        List<Iterator<ForsetiClient>> edges = new ArrayList<>();
+        path.add( start );
+        edges.add( waitsFor( start, waits ).iterator() );
+        while ( !path.isEmpty() )
+        {
+            Iterator<ForsetiClient> next = edges.get( edges.size() - 1 );
+            if ( !next.hasNext() )
+            {
+                path.remove( path.size() - 1 );
+                edges.remove( edges.size() - 1 );
+                continue;
+            }
+            ForsetiClient client = next.next();
+            int index = path.indexOf( client );
+            if ( index != -1 )
+            {
+                return new ArrayList<>( path.subList( index, path.size() ) );
+            }
+            if ( visited.add( client ) )
+            {
+                path.add( client );
+                edges.add( waitsFor( client, waits ).iterator() );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The waiting clients owning the lock the given client waits for. Owners that aren't waiting themselves can't be part of a cycle.
+     */
+    private static Set<ForsetiClient> waitsFor( ForsetiClient client, Map<ForsetiClient,ForsetiLockManager.Lock> waits )
+    {
+        Set<ForsetiClient> owners = new HashSet<>();
+        waits.get( client ).collectOwners( owners );
+        // When upgrading a shared lock a client owns the lock it waits for
+        owners.remove( client );
+        owners.retainAll( waits.keySet() );
+        return owners;
+    }
+
+    private void resolve( List<ForsetiClient> cycle, Map<ForsetiClient,ForsetiLockManager.Lock> waits )
+    {
+        LockSupport.parkNanos( this, CONFIRMATION_DELAY_NANOS );
+        if ( !isStillDeadlocked( cycle, waits ) )
+        {
+            return;
+        }
+
+        ForsetiClient victim = cycle.get( 0 );
+        for ( int i = 1; i < cycle.size(); i++ )
+        {
+            ForsetiClient candidate = cycle.get( i );
+            if ( deadlockResolutionStrategy.shouldAbort( candidate, victim ) )
+            {
+                victim = candidate;
+            }
+        }
+        ForsetiLockManager.Lock victimLock = waits.get( victim );
+        victim.abortWait( victimLock, describe( cycle ) );
+        waiters.unparkWaitersOf( victimLock );
+    }
+
+    private static boolean isStillDeadlocked( List<ForsetiClient> cycle, Map<ForsetiClient,ForsetiLockManager.Lock> waits )
+    {
+        for ( int i = 0; i < cycle.size(); i++ )
+        {
+            ForsetiClient client = cycle.get( i );
+            ForsetiLockManager.Lock lock = waits.get( client );
+            if ( client.waitingForLock() != lock || lock.isClosed() || !lock.isOwnedBy( cycle.get( (i + 1) % cycle.size() ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String describe( List<ForsetiClient> cycle )
+    {
+        StringBuilder description = new StringBuilder();
+        for ( ForsetiClient client : cycle )
+        {
+            description.append( client ).append( " waits for " );
+        }
+        return description.append( cycle.get( 0 ) ).toString();
+    }
+}
@@ -21,7 +21,7 @@ package org.neo4j.kernel.impl.locking.forseti;
 
 import org.eclipse.collections.api.set.primitive.LongSet;
 
-import java.util.Map;
+import java.time.Duration;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,9 +30,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.collection.pool.LinkedQueuePool;
-import org.neo4j.collection.pool.Pool;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.kernel.impl.locking.LockContentionProfile;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.util.collection.SimpleBitSet;
 import org.neo4j.lock.LockType;
@@ -40,7 +40,9 @@ import org.neo4j.lock.ResourceType;
 import org.neo4j.lock.WaitStrategy;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.kernel.impl.locking.forseti.LockingInternalSettings.forseti_background_deadlock_detection_interval;
 import static org.neo4j.kernel.impl.locking.forseti.LockingInternalSettings.forseti_deadlock_resolution_strategy;
+import static org.neo4j.kernel.impl.locking.forseti.LockingInternalSettings.lock_contention_profile_size;
 
 /**
  * <h1>Forseti, the Nordic god of justice</h1>
@@ -152,6 +154,11 @@ public class ForsetiLockManager implements Locks
 
         boolean isOwnedBy( ForsetiClient client );
 
+        /**
+         * @return the number of clients currently holding this lock.
+         */
+        int numberOfHolders();
+
         LockType type();
 
         LongSet transactionIds();
@@ -200,22 +207,24 @@ public class ForsetiLockManager implements Locks
         boolean shouldAbort( ForsetiClient clientThatsAsking, ForsetiClient clientWereDeadlockedWith );
     }
 
-    /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
+    /** Pointers to lock tables, one per resource type. */
+    private final LockTable[] lockMaps;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
 
+    /** The resources clients have had to wait the longest for. */
+    private final LockContentionProfile contentionProfile;
+
     /** Pool forseti clients. */
-    private final Pool<ForsetiClient> clientPool;
+    private final ForsetiClientFlyweightPool clientPool;
 
     private volatile boolean closed;
 
-    @SuppressWarnings( "unchecked" )
     public ForsetiLockManager( Config config, SystemNanoClock clock, ResourceType... resourceTypes )
     {
         int maxResourceId = findMaxResourceId( resourceTypes );
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockMaps = new LockTable[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
 
         /* Wait strategies per resource type */
@@ -223,7 +232,7 @@ public class ForsetiLockManager implements Locks
 
         for ( ResourceType type : resourceTypes )
         {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>( 16, 0.6f, 512 );
+            this.lockMaps[type.typeId()] = new LockTable();
             waitStrategies[type.typeId()] = type.waitStrategy();
             this.resourceTypes[type.typeId()] = type;
         }
@@ -232,7 +241,8 @@ public class ForsetiLockManager implements Locks
         // TODO be good enough. In fact, we could add the required fields for such a stack
         // TODO to the ForsetiClient objects themselves, making the stack garbage-free in
         // TODO the (presumably) common case of client re-use.
-        clientPool = new ForsetiClientFlyweightPool( config, clock, lockMaps, waitStrategies );
+        contentionProfile = new LockContentionProfile( config.get( lock_contention_profile_size ) );
+        clientPool = new ForsetiClientFlyweightPool( config, clock, lockMaps, waitStrategies, contentionProfile );
     }
 
     /**
@@ -262,18 +272,23 @@ public class ForsetiLockManager implements Locks
             if ( lockMaps[i] != null )
             {
                 var resourceType = resourceTypes[i];
-                for ( Map.Entry<Long,Lock> entry : lockMaps[i].entrySet() )
+                lockMaps[i].forEach( ( resourceId, lock ) ->
                 {
-                    var lock = entry.getValue();
                     var description = lock.describeWaitList();
                     var transactionIds = lock.transactionIds();
                     int lockIdentityHashCode = System.identityHashCode( lock );
-                    transactionIds.forEach( txId -> out.visit( lock.type(), resourceType, txId, entry.getKey(), description, 0, lockIdentityHashCode ) );
-                }
+                    transactionIds.forEach( txId -> out.visit( lock.type(), resourceType, txId, resourceId, description, 0, lockIdentityHashCode ) );
+                } );
             }
         }
     }
 
+    @Override
+    public LockContentionProfile contentionProfile()
+    {
+        return contentionProfile;
+    }
+
     private static int findMaxResourceId( ResourceType[] resourceTypes )
     {
         int max = 0;
@@ -288,6 +303,7 @@ public class ForsetiLockManager implements Locks
     public void close()
     {
         this.closed = true;
+        clientPool.stopDeadlockDetection();
     }
 
     private static class ForsetiClientFlyweightPool extends LinkedQueuePool<ForsetiClient>
@@ -300,21 +316,27 @@ public class ForsetiLockManager implements Locks
         private final ConcurrentMap<Integer,ForsetiClient> clientsById = new ConcurrentHashMap<>();
         private final Config config;
         private final SystemNanoClock clock;
-        private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
+        private final LockTable[] lockMaps;
         private final WaitStrategy[] waitStrategies;
         private final DeadlockResolutionStrategy deadlockResolutionStrategy;
         private final boolean verboseDeadlocks;
+        private final ForsetiDeadlockDetector deadlockDetector;
+        private final LockContentionProfile contentionProfile;
 
-        ForsetiClientFlyweightPool( Config config, SystemNanoClock clock, ConcurrentMap<Long,Lock>[] lockMaps,
-                WaitStrategy[] waitStrategies )
+        ForsetiClientFlyweightPool( Config config, SystemNanoClock clock, LockTable[] lockMaps,
+                WaitStrategy[] waitStrategies, LockContentionProfile contentionProfile )
         {
             super( 128, null );
             this.config = config;
             this.clock = clock;
             this.lockMaps = lockMaps;
             this.waitStrategies = waitStrategies;
+            this.contentionProfile = contentionProfile;
             this.deadlockResolutionStrategy = config.get( forseti_deadlock_resolution_strategy );
             this.verboseDeadlocks = config.get( GraphDatabaseInternalSettings.lock_manager_verbose_deadlocks );
+            Duration detectionInterval = config.get( forseti_background_deadlock_detection_interval );
+            this.deadlockDetector = detectionInterval.isZero() ? null
+                    : new ForsetiDeadlockDetector( clientsById.values(), deadlockResolutionStrategy, detectionInterval.toNanos() );
         }
 
         @Override
@@ -326,7 +348,8 @@ public class ForsetiLockManager implements Locks
                 id = clientIds.getAndIncrement();
             }
             ForsetiClient client = new ForsetiClient( id, lockMaps, waitStrategies, this,
-                    deadlockResolutionStrategy, clientsById::get, clock, verboseDeadlocks );
+                    deadlockResolutionStrategy, clientsById::get, clock, verboseDeadlocks, deadlockDetector,
+                    contentionProfile );
             clientsById.put( id, client );
             return client;
         }
@@ -342,5 +365,13 @@ public class ForsetiLockManager implements Locks
                 unusedIds.offer( resource.id() );
             }
         }
+
+        void stopDeadlockDetection()
+        {
+            if ( deadlockDetector != null )
+            {
+                deadlockDetector.close();
+            }
+        }
     }
 }
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import org.neo4j.memory.HeapEstimator;
+
+/**
+ * The global locks of one resource type, keyed by resource id.
+ * <p>
+ * This is what {@link ForsetiClient} looks up and installs locks in on every acquire and release, so it is kept free of boxing and
+ * of per entry allocations. Resource ids are spread over a fixed number of stripes, each being a linear probing open addressing
+ * hash table of primitive keys and lock values, which grows and shrinks with the number of locks in it. Writers lock their stripe
+ * exclusively. Readers use optimistic reads and only fall back to locking the stripe if a writer got in the way.
+ */
+final class LockTable
+{
+    /** Upper bound on the heap used per lock in the table, with tables being between a quarter and half full. */
+    static final long ENTRY_SIZE = 4L * (Long.BYTES + HeapEstimator.OBJECT_REFERENCE_BYTES);
+
+    private static final int DEFAULT_STRIPES = 128;
+    private static final int MIN_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    LockTable()
+    {
+        this( DEFAULT_STRIPES );
+    }
+
+    LockTable( int stripes )
+    {
+        if ( Integer.bitCount( stripes ) != 1 )
+        {
+            throw new IllegalArgumentException( "Number of stripes must be a power of two, was " + stripes );
+        }
+        this.stripes = new Stripe[stripes];
+        for ( int i = 0; i < stripes; i++ )
+        {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * @return the lock for the given resource id, or {@code null} if there is none.
+     */
+    ForsetiLockManager.Lock get( long resourceId )
+    {
+        long hash = hash( resourceId );
+        Stripe stripe = stripe( hash );
+        long stamp = stripe.tryOptimisticRead();
+        if ( stamp != 0 )
+        {
+            ForsetiLockManager.Lock lock = stripe.find( resourceId, hash );
+            if ( stripe.validate( stamp ) )
+            {
+                return lock;
+            }
+        }
+        stamp = stripe.readLock();
+        try
+        {
+            return stripe.find( resourceId, hash );
+        }
+        finally
+        {
+            stripe.unlockRead( stamp );
+        }
+    }
+
+    /**
+     * Installs the given lock for the given resource id, unless there already is one.
+     *
+     * @return the lock already installed for the resource id, or {@code null} if the given lock got installed.
+     */
+    ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        long hash = hash( resourceId );
+        Stripe stripe = stripe( hash );
+        long stamp = stripe.writeLock();
+        try
+        {
+            return stripe.put( resourceId, hash, lock, true );
+        }
+        finally
+        {
+            stripe.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Installs the given lock for the given resource id, replacing any existing lock.
+     */
+    void put( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        long hash = hash( resourceId );
+        Stripe stripe = stripe( hash );
+        long stamp = stripe.writeLock();
+        try
+        {
+            stripe.put( resourceId, hash, lock, false );
+        }
+        finally
+        {
+            stripe.unlockWrite( stamp );
+        }
+    }
+
+    void remove( long resourceId )
+    {
+        long hash = hash( resourceId );
+        Stripe stripe = stripe( hash );
+        long stamp = stripe.writeLock();
+        try
+        {
+            stripe.remove( resourceId, hash );
+        }
+        finally
+        {
+            stripe.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Visits the locks in the table. Each stripe is visited as it was at some point during the call, but stripes
+     * are not visited at the same point in time, so this isn't a snapshot of the whole table.
+     */
+    void forEach( LockVisitor visitor )
+    {
+        List<ForsetiLockManager.Lock> locks = new ArrayList<>();
+        long[] resourceIds = new long[0];
+        for ( Stripe stripe : stripes )
+        {
+            int count;
+            long stamp = stripe.readLock();
+            try
+            {
+                if ( stripe.size == 0 )
+                {
+                    continue;
+                }
+                if ( resourceIds.length < stripe.size )
+                {
+                    resourceIds = new long[stripe.size];
+                }
+                locks.clear();
+                count = 0;
+                for ( int i = 0; i < stripe.locks.length; i++ )
+                {
+                    if ( stripe.locks[i] != null )
+                    {
+                        resourceIds[count++] = stripe.resourceIds[i];
+                        locks.add( stripe.locks[i] );
+                    }
+                }
+            }
+            finally
+            {
+                stripe.unlockRead( stamp );
+            }
+            for ( int i = 0; i < count; i++ )
+            {
+                visitor.visit( resourceIds[i], locks.get( i ) );
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( "{" );
+        forEach( ( resourceId, lock ) ->
+        {
+            if ( builder.length() > 1 )
+            {
+                builder.append( ", " );
+            }
+            builder.append( resourceId ).append( '=' ).append( lock );
+        } );
+        return builder.append( '}' ).toString();
+    }
+
+    private Stripe stripe( long hash )
+    {
+        // The low bits pick the slot within the stripe
+        return stripes[(int) (hash >>> 32) & stripeMask];
+    }
+
+    private static long hash( long resourceId )
+    {
+        // The finalizer of MurmurHash3, resource ids are often sequential, this spreads them over both stripes and slots
+        long hash = resourceId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @FunctionalInterface
+    interface LockVisitor
+    {
+        void visit( long resourceId, ForsetiLockManager.Lock lock );
+    }
+
+    /**
+     * One open addressing table, a slot being free when it has no lock. Lookups may run concurrently with writers
+     * under an optimistic read, so they read each array once and stay within its bounds whatever they find in it.
+     */
+    private static final class Stripe extends StampedLock
+    {
+        private long[] resourceIds = new long[MIN_CAPACITY];
+        private ForsetiLockManager.Lock[] locks = new ForsetiLockManager.Lock[MIN_CAPACITY];
+        private int size;
+
+        ForsetiLockManager.Lock find( long resourceId, long hash )
+        {
+            long[] resourceIds = this.resourceIds;
+            ForsetiLockManager.Lock[] locks = this.locks;
+            int capacity = Math.min( resourceIds.length, locks.length );
+            int mask = capacity - 1;
+            int slot = (int) hash & mask;
+            for ( int probes = 0; probes < capacity; probes++ )
+            {
+                ForsetiLockManager.Lock lock = locks[slot];
+                if ( lock == null )
+                {
+                    return null;
+                }
+                if ( resourceIds[slot] == resourceId )
+                {
+                    return lock;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        ForsetiLockManager.Lock put( long resourceId, long hash, ForsetiLockManager.Lock lock, boolean onlyIfAbsent )
+        {
+            int mask = locks.length - 1;
+            int slot = (int) hash & mask;
+            while ( locks[slot] != null )
+            {
+                if ( resourceIds[slot] == resourceId )
+                {
+                    ForsetiLockManager.Lock existing = locks[slot];
+                    if ( !onlyIfAbsent )
+                    {
+                        locks[slot] = lock;
+                    }
+                    return existing;
+                }
+                slot = (slot + 1) & mask;
+            }
+            resourceIds[slot] = resourceId;
+            locks[slot] = lock;
+            if ( ++size > locks.length / 2 )
+            {
+                resize( locks.length * 2 );
+            }
+            return null;
+        }
+
+        void remove( long resourceId, long hash )
+        {
+            int mask = locks.length - 1;
+            int slot = (int) hash & mask;
+            while ( locks[slot] != null )
+            {
+                if ( resourceIds[slot] == resourceId )
+                {
+                    deleteSlot( slot, mask );
+                    if ( --size < locks.length / 8 && locks.length > MIN_CAPACITY )
+                    {
+                        resize( locks.length / 2 );
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Empties the slot and moves later entries of the same probe sequence back, so that lookups never need tombstones.
+         */
+        private void deleteSlot( int slot, int mask )
+        {
+            int free = slot;
+            int next = (free + 1) & mask;
+            while ( locks[next] != null )
+            {
+                int home = (int) hash( resourceIds[next] ) & mask;
+                // Move the entry back if the free slot lies on its probe sequence, i.e. cyclically in [home, next)
+                if ( ((next - home) & mask) >= ((next - free) & mask) )
+                {
+                    resourceIds[free] = resourceIds[next];
+                    locks[free] = locks[next];
+                    free = next;
+                }
+                next = (next + 1) & mask;
+            }
+            locks[free] = null;
+        }
+
+        private void resize( int capacity )
+        {
+            long[] oldResourceIds = resourceIds;
+            ForsetiLockManager.Lock[] oldLocks = locks;
+            long[] newResourceIds = new long[capacity];
+            ForsetiLockManager.Lock[] newLocks = new ForsetiLockManager.Lock[capacity];
+            int mask = capacity - 1;
+            for ( int i = 0; i < oldLocks.length; i++ )
+            {
+                if ( oldLocks[i] != null )
+                {
+                    int slot = (int) hash( oldResourceIds[i] ) & mask;
+                    while ( newLocks[slot] != null )
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    newResourceIds[slot] = oldResourceIds[i];
+                    newLocks[slot] = oldLocks[i];
+                }
+            }
+            resourceIds = newResourceIds;
+            locks = newLocks;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The threads of the clients that are parked waiting for a lock, used when deadlocks are detected in the background by the
+ * {@link ForsetiDeadlockDetector}, so that waiting clients don't need to keep checking on the lock they wait for.
+ * <p>
+ * Clients releasing a lock {@link #unparkWaitersOf(ForsetiLockManager.Lock) unpark} the threads waiting for it, which then retry
+ * to acquire it. Whether a lock is free is only known to the acquire attempt that precedes parking, so a lock released right between
+ * that attempt and the thread being registered here goes unnoticed. Parking is therefore bounded, which also covers the rare
+ * release that doesn't go through {@link ForsetiClient}.
+ */
+final class LockWaiters
+{
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 1 );
+    private static final int STRIPES = 64;
+
+    private final AtomicInteger parked = new AtomicInteger();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    LockWaiters()
+    {
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Park the current thread until the given lock is released, the thread is unparked otherwise, or a short while has passed.
+     */
+    void park( ForsetiLockManager.Lock lock )
+    {
+        Stripe stripe = stripe( lock );
+        Waiter waiter = new Waiter( lock, Thread.currentThread() );
+        parked.incrementAndGet();
+        synchronized ( stripe )
+        {
+            stripe.waiters.add( waiter );
+        }
+        try
+        {
+            if ( !lock.isClosed() )
+            {
+                LockSupport.parkNanos( lock, MAX_PARK_NANOS );
+            }
+        }
+        finally
+        {
+            synchronized ( stripe )
+            {
+                stripe.waiters.remove( waiter );
+            }
+            parked.decrementAndGet();
+        }
+    }
+
+    /**
+     * Unpark the threads waiting for the given lock, after it, or one of its references, has been released.
+     */
+    void unparkWaitersOf( ForsetiLockManager.Lock lock )
+    {
+        if ( parked.get() == 0 )
+        {
+            return;
+        }
+        Stripe stripe = stripe( lock );
+        synchronized ( stripe )
+        {
+            for ( Waiter waiter : stripe.waiters )
+            {
+                if ( waiter.lock == lock )
+                {
+                    LockSupport.unpark( waiter.thread );
+                }
+            }
+        }
+    }
+
+    private Stripe stripe( ForsetiLockManager.Lock lock )
+    {
+        return stripes[System.identityHashCode( lock ) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe
+    {
+        private final List<Waiter> waiters = new ArrayList<>();
+    }
+
+    private static final class Waiter
+    {
+        private final ForsetiLockManager.Lock lock;
+        private final Thread thread;
+
+        Waiter( ForsetiLockManager.Lock lock, Thread thread )
+        {
+            this.lock = lock;
+            this.thread = thread;
+        }
+    }
+}
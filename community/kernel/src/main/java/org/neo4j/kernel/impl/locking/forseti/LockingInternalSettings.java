@@ -19,12 +19,18 @@
  */
 package org.neo4j.kernel.impl.locking.forseti;
 
+import java.time.Duration;
+
 import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.configuration.Description;
 import org.neo4j.configuration.Internal;
 import org.neo4j.configuration.SettingsDeclaration;
 import org.neo4j.graphdb.config.Setting;
 
 import static org.neo4j.configuration.SettingImpl.newBuilder;
+import static org.neo4j.configuration.SettingConstraints.min;
+import static org.neo4j.configuration.SettingValueParsers.DURATION;
+import static org.neo4j.configuration.SettingValueParsers.INT;
 import static org.neo4j.configuration.SettingValueParsers.ofEnum;
 
 @ServiceProvider
@@ -34,4 +40,19 @@ public class LockingInternalSettings implements SettingsDeclaration
     public static final Setting<DeadlockStrategies> forseti_deadlock_resolution_strategy =
             newBuilder( "unsupported.dbms.locks.forseti_deadlock_resolution_strategy", ofEnum( DeadlockStrategies.class ),
                     DeadlockStrategies.ABORT_YOUNG ).build();
+
+    @Internal
+    @Description( "How often to look for deadlocks among transactions waiting for locks, in the background. Waiting transactions then only " +
+            "park instead of looking for deadlocks themselves while they wait, and the transaction to abort is picked among all transactions " +
+            "in a deadlock using `unsupported.dbms.locks.forseti_deadlock_resolution_strategy`. " +
+            "Zero means that waiting transactions look for deadlocks themselves." )
+    public static final Setting<Duration> forseti_background_deadlock_detection_interval =
+            newBuilder( "unsupported.dbms.locks.forseti_background_deadlock_detection_interval", DURATION, Duration.ZERO )
+                    .addConstraint( min( Duration.ZERO ) ).build();
+
+    @Internal
+    @Description( "The number of most contended resources to keep track of, by the total time transactions have waited to lock them. " +
+            "They can be listed with the `db.listLockContention` procedure. Zero disables tracking of lock waits." )
+    public static final Setting<Integer> lock_contention_profile_size =
+            newBuilder( "unsupported.dbms.locks.contention_profile_size", INT, 64 ).addConstraint( min( 0 ) ).build();
 }
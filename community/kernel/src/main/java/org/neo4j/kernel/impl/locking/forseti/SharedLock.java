@@ -191,6 +191,7 @@ class SharedLock implements ForsetiLockManager.Lock
         updateHolder = null;
     }
 
+    @Override
     public int numberOfHolders()
     {
         return refCount.get() & ~UPDATE_LOCK_FLAG;
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An {@link IOController} that limits the rate of IO of background checkpoints with a token bucket.
+ * <p>
+ * The bucket is refilled at the rate of {@link GraphDatabaseSettings#check_point_iops_limit} IOs per second, and holds at most one second worth of
+ * IOs. A flush that completes more IOs than are available in the bucket is parked until the bucket has been refilled. All threads that flush the
+ * files of a database share the bucket, so the limit applies to all of them together.
+ * <p>
+ * In adaptive mode, the controller samples the average page fault latency from the {@link PageCacheCounters}. While that latency is above
+ * {@link GraphDatabaseInternalSettings#io_controller_adaptive_target_fault_latency}, the rate is halved, down to a tenth of the configured limit.
+ * Otherwise the rate is raised back towards the configured limit, in steps of a tenth of it.
+ * <p>
+ * The limit, the adaptive mode and the target latency are all dynamic settings, and take effect at runtime.
+ */
+public class CommunityIOController implements IOController
+{
+    private static final double MIN_RATE_FACTOR = 0.1;
+    private static final double RATE_FACTOR_STEP = 0.1;
+    private static final long ADAPT_INTERVAL_NANOS = MILLISECONDS.toNanos( 100 );
+
+    private final SystemNanoClock clock;
+    private final PageCacheCounters pageCacheCounters;
+    private final AtomicInteger disableCounter = new AtomicInteger();
+    private volatile int iopsLimit;
+    private volatile boolean considerExternalIO;
+    private volatile boolean adaptive;
+    private volatile long targetFaultLatencyNanos;
+
+    // The state of the token bucket and the adaptive rate, guarded by this.
+    private double availableIOs;
+    private long lastRefillNanos;
+    private double rateFactor = 1.0;
+    private long lastAdaptNanos;
+    private long lastFaults;
+    private long lastFaultNanos;
+
+    public CommunityIOController( Config config, SystemNanoClock clock, PageCacheCounters pageCacheCounters )
+    {
+        this.clock = clock;
+        this.pageCacheCounters = pageCacheCounters;
+        this.iopsLimit = config.get( GraphDatabaseSettings.check_point_iops_limit );
+        this.considerExternalIO = config.get( GraphDatabaseInternalSettings.io_controller_consider_external_io );
+        this.adaptive = config.get( GraphDatabaseInternalSettings.io_controller_adaptive );
+        this.targetFaultLatencyNanos = config.get( GraphDatabaseInternalSettings.io_controller_adaptive_target_fault_latency ).toNanos();
+        this.lastRefillNanos = clock.nanos();
+        this.lastAdaptNanos = lastRefillNanos;
+        this.lastFaults = pageCacheCounters.faults();
+        this.lastFaultNanos = pageCacheCounters.faultNanos();
+        this.availableIOs = Math.max( 0, iopsLimit );
+
+        config.addListener( GraphDatabaseSettings.check_point_iops_limit, ( before, after ) -> iopsLimit = after );
+        config.addListener( GraphDatabaseInternalSettings.io_controller_consider_external_io, ( before, after ) -> considerExternalIO = after );
+        config.addListener( GraphDatabaseInternalSettings.io_controller_adaptive, ( before, after ) -> adaptive = after );
+        config.addListener( GraphDatabaseInternalSettings.io_controller_adaptive_target_fault_latency,
+                ( Duration before, Duration after ) -> targetFaultLatencyNanos = after.toNanos() );
+    }
+
+    @Override
+    public void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        flushEvent.reportIO( recentlyCompletedIOs );
+        if ( !isEnabled() )
+        {
+            return;
+        }
+        long waitNanos = takeIOs( recentlyCompletedIOs );
+        if ( waitNanos > 0 )
+        {
+            flushEvent.throttle( NANOSECONDS.toMillis( waitNanos ) );
+            LockSupport.parkNanos( waitNanos );
+        }
+    }
+
+    @Override
+    public void reportIO( int completedIOs )
+    {
+        if ( considerExternalIO && isEnabled() )
+        {
+            // External IO uses up the budget of the checkpoint, but is never held back itself.
+            takeIOs( completedIOs );
+        }
+    }
+
+    @Override
+    public void disable()
+    {
+        disableCounter.getAndIncrement();
+    }
+
+    @Override
+    public void enable()
+    {
+        disableCounter.getAndDecrement();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return iopsLimit > 0 && disableCounter.get() == 0;
+    }
+
+    /**
+     * @return the current rate of IOs per second that the flushes are limited to.
+     */
+    public synchronized double currentRate()
+    {
+        return Math.max( 1, iopsLimit * rateFactor );
+    }
+
+    /**
+     * Take the given number of IOs out of the bucket.
+     *
+     * @return the number of nanoseconds the caller should wait for the bucket to refill, before doing any more IO.
+     */
+    private synchronized long takeIOs( int ios )
+    {
+        long now = clock.nanos();
+        adaptRate( now );
+        double rate = currentRate();
+        availableIOs = Math.min( rate, availableIOs + (now - lastRefillNanos) * rate / SECONDS.toNanos( 1 ) );
+        lastRefillNanos = now;
+        availableIOs -= ios;
+        return availableIOs >= 0 ? 0 : (long) (-availableIOs / rate * SECONDS.toNanos( 1 ));
+    }
+
+    private void adaptRate( long now )
+    {
+        if ( !adaptive )
+        {
+            rateFactor = 1.0;
+            return;
+        }
+        if ( now - lastAdaptNanos < ADAPT_INTERVAL_NANOS )
+        {
+            return;
+        }
+        lastAdaptNanos = now;
+        long faults = pageCacheCounters.faults();
+        long faultNanos = pageCacheCounters.faultNanos();
+        long recentFaults = faults - lastFaults;
+        long recentFaultNanos = faultNanos - lastFaultNanos;
+        lastFaults = faults;
+        lastFaultNanos = faultNanos;
+        if ( recentFaults > 0 && recentFaultNanos / recentFaults > targetFaultLatencyNanos )
+        {
+            rateFactor = Math.max( MIN_RATE_FACTOR, rateFactor / 2 );
+        }
+        else
+        {
+            rateFactor = Math.min( 1.0, rateFactor + RATE_FACTOR_STEP );
+        }
+    }
+}
@@ -22,6 +22,8 @@ package org.neo4j.kernel.impl.pagecache;
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.time.SystemNanoClock;
 
 @ServiceProvider
@@ -30,7 +32,13 @@ public class CommunityIOControllerService implements IOControllerService
     @Override
     public IOController createIOController( Config config, SystemNanoClock clock )
     {
-        return IOController.DISABLED;
+        return createIOController( config, clock, PageCacheTracer.NULL );
+    }
+
+    @Override
+    public IOController createIOController( Config config, SystemNanoClock clock, PageCacheCounters pageCacheCounters )
+    {
+        return new CommunityIOController( config, clock, pageCacheCounters );
     }
 
     @Override
@@ -19,15 +19,24 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseFile;
+import org.neo4j.io.layout.Neo4jLayout;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.CompressingPageSwapperFactory;
+import org.neo4j.io.pagecache.impl.DirectIOPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -38,14 +47,21 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_background_flush;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_compressed_index_databases;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_direct_io_databases;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_replacement_policy;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
 import static org.neo4j.io.mem.MemoryAllocator.createAllocator;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.baseSchemaIndexFolder;
 import static org.neo4j.memory.MemoryGroup.PAGE_CACHE;
 
 public class ConfiguringPageCacheFactory
 {
+    private static final Path SCHEMA_INDEX_FOLDER = baseSchemaIndexFolder( Path.of( "" ) );
+
     private PageSwapperFactory swapperFactory;
     private final FileSystemAbstraction fs;
     private final Config config;
@@ -82,7 +98,7 @@ public class ConfiguringPageCacheFactory
     {
         if ( pageCache == null )
         {
-            this.swapperFactory = createAndConfigureSwapperFactory( fs );
+            this.swapperFactory = createAndConfigureSwapperFactory( fs, config, log );
             this.pageCache = createPageCache();
         }
         return pageCache;
@@ -99,6 +115,8 @@ public class ConfiguringPageCacheFactory
                 .memoryTracker( memoryTracker )
                 .bufferFactory( bufferFactory )
                 .preallocateStoreFiles( config.get( preallocate_store_files ) )
+                .replacementPolicy( config.get( pagecache_replacement_policy ) )
+                .backgroundFlushThread( config.get( pagecache_background_flush ) )
                 .clock( clock )
                 .pageCacheTracer( pageCacheTracer );
         return new MuninnPageCache( swapperFactory, scheduler, configuration );
@@ -184,8 +202,59 @@ public class ConfiguringPageCacheFactory
         log.info( msg );
     }
 
-    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs )
+    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, Config config, Log log )
     {
-        return new SingleFilePageSwapperFactory( fs );
+        PageSwapperFactory swapperFactory = createFileSwapperFactory( fs, config, log );
+        Set<String> compressedIndexDatabases = config.get( pagecache_compressed_index_databases );
+        // Files that were compressed while their database was selected stay compressed, so the index files of every database may be compressed.
+        return new CompressingPageSwapperFactory( fs, swapperFactory,
+                file -> databaseOfIndexFile( file ) != null,
+                file ->
+                {
+                    String databaseName = databaseOfIndexFile( file );
+                    return databaseName != null && compressedIndexDatabases.contains( databaseName );
+                } );
+    }
+
+    /**
+     * @return the name of the database whose schema index or token index the given file belongs to, or {@code null} if it is no such file. This
+     * only looks at the names in the path, since it is asked for every file that is mapped, and the path may or may not have its links resolved.
+     */
+    private static String databaseOfIndexFile( Path file )
+    {
+        Path normalized = file.toAbsolutePath().normalize();
+        Path fileName = normalized.getFileName();
+        if ( fileName == null || normalized.getNameCount() < 2 )
+        {
+            return null;
+        }
+        if ( fileName.toString().equals( DatabaseFile.LABEL_SCAN_STORE.getName() ) ||
+                fileName.toString().equals( DatabaseFile.RELATIONSHIP_TYPE_SCAN_STORE.getName() ) )
+        {
+            return normalized.getName( normalized.getNameCount() - 2 ).toString();
+        }
+        for ( int i = 1; i + SCHEMA_INDEX_FOLDER.getNameCount() < normalized.getNameCount(); i++ )
+        {
+            if ( normalized.subpath( i, i + SCHEMA_INDEX_FOLDER.getNameCount() ).equals( SCHEMA_INDEX_FOLDER ) )
+            {
+                return normalized.getName( i - 1 ).toString();
+            }
+        }
+        return null;
+    }
+
+    private static PageSwapperFactory createFileSwapperFactory( FileSystemAbstraction fs, Config config, Log log )
+    {
+        Set<String> directIODatabases = config.get( pagecache_direct_io_databases );
+        if ( directIODatabases.isEmpty() )
+        {
+            return new SingleFilePageSwapperFactory( fs );
+        }
+        Neo4jLayout layout = Neo4jLayout.of( config );
+        List<Path> directIODirectories = directIODatabases.stream()
+                .map( databaseName -> layout.databaseLayout( databaseName ).databaseDirectory().toAbsolutePath().normalize() )
+                .collect( Collectors.toList() );
+        return new DirectIOPageSwapperFactory( fs, file -> directIODirectories.stream().anyMatch( file.toAbsolutePath()::startsWith ),
+                ( file, reason ) -> log.warn( "Using buffered I/O instead of direct I/O for %s, because %s.", file, reason ) );
     }
 }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.pagecache;
 import org.neo4j.annotations.service.Service;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
 import org.neo4j.service.PrioritizedService;
 import org.neo4j.time.SystemNanoClock;
 
@@ -29,4 +30,12 @@ import org.neo4j.time.SystemNanoClock;
 public interface IOControllerService extends PrioritizedService
 {
     IOController createIOController( Config config, SystemNanoClock clock );
+
+    /**
+     * Create an {@link IOController} that may also take the page cache activity, such as the latency of page faults, into account.
+     */
+    default IOController createIOController( Config config, SystemNanoClock clock, PageCacheCounters pageCacheCounters )
+    {
+        return createIOController( config, clock );
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+/**
+ * Registers a {@link PageCacheLatenciesMXBean} in the platform MBean server, for as long as the DBMS is running. The bean is named after the home
+ * directory of the DBMS, so that monitoring tools find it under the same name across restarts.
+ */
+public class PageCacheLatenciesJmx extends LifecycleAdapter implements PageCacheLatenciesMXBean
+{
+    private final PageCacheCounters pageCacheCounters;
+    private final Path neo4jHome;
+    private final MBeanServer mBeanServer;
+    private ObjectName name;
+
+    public PageCacheLatenciesJmx( PageCacheCounters pageCacheCounters, Path neo4jHome )
+    {
+        this( pageCacheCounters, neo4jHome, ManagementFactory.getPlatformMBeanServer() );
+    }
+
+    PageCacheLatenciesJmx( PageCacheCounters pageCacheCounters, Path neo4jHome, MBeanServer mBeanServer )
+    {
+        this.pageCacheCounters = pageCacheCounters;
+        this.neo4jHome = neo4jHome;
+        this.mBeanServer = mBeanServer;
+    }
+
+    @Override
+    public void start() throws JMException
+    {
+        var name = new ObjectName( "org.neo4j:instance=dbms,home=" + ObjectName.quote( neo4jHome.toString() ) + ",name=Page cache latencies" );
+        try
+        {
+            mBeanServer.registerMBean( this, name );
+            this.name = name;
+        }
+        catch ( InstanceAlreadyExistsException e )
+        {
+            // Another DBMS in this JVM runs from the same home directory, and already exposes the latencies of the page cache
+        }
+    }
+
+    @Override
+    public void stop() throws JMException
+    {
+        if ( name != null )
+        {
+            mBeanServer.unregisterMBean( name );
+            name = null;
+        }
+    }
+
+    ObjectName name()
+    {
+        return name;
+    }
+
+    @Override
+    public List<PageCacheLatencySummary> getFileLatencies()
+    {
+        return PageCacheLatencySummary.summarize( pageCacheCounters.latencies().files() );
+    }
+
+    @Override
+    public List<PageCacheLatencySummary> getDatabaseLatencies()
+    {
+        return PageCacheLatencySummary.summarize( pageCacheCounters.latencies().databases() );
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.monitoring.LatencyHistogram;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
+
+/**
+ * A summary of the latency histogram of one kind of page cache operation, on a single file or on all the files of a database.
+ * <p>
+ * The getters make this usable as an open type through JMX.
+ */
+public class PageCacheLatencySummary
+{
+    public static final String FAULT = "fault";
+    public static final String EVICTION = "eviction";
+    public static final String FLUSH = "flush";
+
+    private final String database;
+    private final String file;
+    private final String operation;
+    private final long count;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+    private final double maxMicros;
+
+    public PageCacheLatencySummary( String database, Path file, String operation, LatencyHistogram histogram )
+    {
+        this.database = database;
+        this.file = file == null ? null : file.toString();
+        this.operation = operation;
+        this.count = histogram.count();
+        this.meanMicros = micros( histogram.meanNanos() );
+        this.p50Micros = micros( histogram.percentileNanos( 50 ) );
+        this.p99Micros = micros( histogram.percentileNanos( 99 ) );
+        this.p999Micros = micros( histogram.percentileNanos( 99.9 ) );
+        this.maxMicros = micros( histogram.maxNanos() );
+    }
+
+    /**
+     * @return summaries of the faults, evictions and flushes of each of the given latencies.
+     */
+    public static List<PageCacheLatencySummary> summarize( List<PageCacheLatencies.Latencies> latencies )
+    {
+        List<PageCacheLatencySummary> summaries = new ArrayList<>( latencies.size() * 3 );
+        for ( PageCacheLatencies.Latencies latency : latencies )
+        {
+            summaries.add( new PageCacheLatencySummary( latency.databaseName(), latency.file(), FAULT, latency.faults() ) );
+            summaries.add( new PageCacheLatencySummary( latency.databaseName(), latency.file(), EVICTION, latency.evictions() ) );
+            summaries.add( new PageCacheLatencySummary( latency.databaseName(), latency.file(), FLUSH, latency.flushes() ) );
+        }
+        return summaries;
+    }
+
+    private static double micros( long nanos )
+    {
+        return nanos / 1000.0;
+    }
+
+    public String getDatabase()
+    {
+        return database;
+    }
+
+    /**
+     * @return the file of this summary, or {@code null} if this is the summary of a whole database.
+     */
+    public String getFile()
+    {
+        return file;
+    }
+
+    public String getOperation()
+    {
+        return operation;
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+
+    public double getMeanMicros()
+    {
+        return meanMicros;
+    }
+
+    public double getP50Micros()
+    {
+        return p50Micros;
+    }
+
+    public double getP99Micros()
+    {
+        return p99Micros;
+    }
+
+    public double getP999Micros()
+    {
+        return p999Micros;
+    }
+
+    public double getMaxMicros()
+    {
+        return maxMicros;
+    }
+}
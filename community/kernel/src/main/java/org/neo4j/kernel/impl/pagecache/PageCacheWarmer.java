@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * The page cache warmer periodically records which pages of the database files are in memory, and uses those profiles to
+ * load the same pages back into the page cache when the database is started again. This shortens the time it takes for a
+ * restarted database to get back to its normal performance.
+ * <p>
+ * A profile is a compressed bitmap of the resident file page ids of a mapped file. The profiles are stored in the
+ * {@value #PROFILES_DIRECTORY} directory of the database, mirroring the layout of the profiled files. On start, all files
+ * that have a profile are reheated in parallel, and runs of consecutive pages are loaded with vectored reads through
+ * {@link PagedFile#touch(long, int, CursorContext)}.
+ * <p>
+ * If {@link GraphDatabaseSettings#pagecache_warmup_prefetch} is enabled, then the profiles are ignored, and the files matching
+ * {@link GraphDatabaseSettings#pagecache_warmup_prefetch_allowlist} are instead loaded into memory in their entirety.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String PROFILES_DIRECTORY = "profiles";
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String TRACER_TAG = "pageCacheWarmer";
+    // Upper bound for the number of pages we touch in one go, so that we notice being stopped in reasonable time.
+    private static final int MAX_TOUCH_PAGES = 4096;
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Path databaseDirectory;
+    private final Path profilesDirectory;
+    private final String databaseName;
+    private final Config config;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final PageCacheTracer pageCacheTracer;
+    private final SystemNanoClock clock;
+    private final Monitor monitor;
+    private final Log log;
+
+    private volatile boolean stopped;
+    // Profiling is not allowed to overwrite the existing profiles, until those profiles have been used to warm up the cache.
+    private volatile boolean warmupCompleted;
+    private JobHandle<?> warmupJob;
+    private JobHandle<?> profilingJob;
+
+    public PageCacheWarmer( PageCache pageCache, FileSystemAbstraction fs, JobScheduler scheduler, Path databaseDirectory, String databaseName,
+            Config config, DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, SystemNanoClock clock, Monitor monitor, Log log )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = databaseDirectory.resolve( PROFILES_DIRECTORY );
+        this.databaseName = databaseName;
+        this.config = config;
+        this.readOnlyChecker = readOnlyChecker;
+        this.pageCacheTracer = pageCacheTracer;
+        this.clock = clock;
+        this.monitor = monitor;
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void start() throws Exception
+    {
+        if ( !config.get( GraphDatabaseSettings.pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        stopped = false;
+        warmupCompleted = false;
+        if ( config.get( GraphDatabaseSettings.pagecache_warmup_blocking ) )
+        {
+            // A damaged or stale profile must not prevent the database from starting, only from being warm
+            tryReheat();
+        }
+        else
+        {
+            warmupJob = scheduler.schedule( Group.FILE_IO_HELPER, systemJob( databaseName, "Page cache warmup" ), this::tryReheat );
+        }
+        long intervalMillis = config.get( GraphDatabaseSettings.pagecache_warmup_profiling_interval ).toMillis();
+        profilingJob = scheduler.scheduleRecurring( Group.FILE_IO_HELPER, systemJob( databaseName, "Profiling of page cache" ), this::profileInBackground,
+                intervalMillis, intervalMillis, MILLISECONDS );
+    }
+
+    @Override
+    public synchronized void stop() throws Exception
+    {
+        if ( !config.get( GraphDatabaseSettings.pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        stopped = true;
+        cancelAndAwait( profilingJob );
+        cancelAndAwait( warmupJob );
+        profilingJob = null;
+        warmupJob = null;
+        // Leave a final profile behind for the next start, unless we never got to use the previous one.
+        if ( warmupCompleted )
+        {
+            profile();
+        }
+    }
+
+    /**
+     * Load the pages recorded in the profiles of the currently mapped files into the page cache.
+     *
+     * @return the number of pages that were loaded, or were already in memory.
+     */
+    long reheat() throws IOException
+    {
+        long startNanos = clock.nanos();
+        monitor.warmupStarted( databaseName );
+        boolean prefetch = config.get( GraphDatabaseSettings.pagecache_warmup_prefetch );
+        Pattern allowlist = Pattern.compile( config.get( GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist ) );
+
+        List<JobHandle<Long>> loads = new ArrayList<>();
+        for ( PagedFile file : pageCache.listExistingMappings() )
+        {
+            Path profile = profileOf( file );
+            if ( prefetch && allowlist.matcher( file.path().getFileName().toString() ).matches() )
+            {
+                loads.add( scheduler.schedule( Group.FILE_IO_HELPER, systemJob( databaseName, "Pre-loading of file '" + file.path().getFileName() + "'" ),
+                        () -> preload( file ) ) );
+            }
+            else if ( !prefetch && profile != null && fs.fileExists( profile ) )
+            {
+                loads.add( scheduler.schedule( Group.FILE_IO_HELPER, systemJob( databaseName, "Warmup of file '" + file.path().getFileName() + "'" ),
+                        () -> reheat( file, profile ) ) );
+            }
+        }
+
+        long pagesLoaded = 0;
+        IOException failure = null;
+        for ( JobHandle<Long> load : loads )
+        {
+            try
+            {
+                pagesLoaded += load.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = withSuppressed( failure, new IOException( e ) );
+            }
+            catch ( ExecutionException e )
+            {
+                // The loads wrap their IOExceptions, and a file that was unmapped while it was loaded is simply skipped.
+                Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                failure = withSuppressed( failure, cause instanceof FileIsNotMappedException ? null : new IOException( cause ) );
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+        // A warmup cut short by stopping has not loaded everything in the profiles, which must then be kept for the next start
+        warmupCompleted = !stopped;
+
+        long elapsedMillis = Math.max( 1, NANOSECONDS.toMillis( clock.nanos() - startNanos ) );
+        log.info( "Page cache warmup completed. %d pages loaded in %d ms (%d pages/second).",
+                pagesLoaded, elapsedMillis, pagesLoaded * 1000 / elapsedMillis );
+        monitor.warmupCompleted( databaseName, pagesLoaded, elapsedMillis );
+        return pagesLoaded;
+    }
+
+    /**
+     * Write a profile of the pages that are currently in memory, for every mapped file of the database.
+     *
+     * @return the number of profiled pages that were in memory.
+     */
+    synchronized long profile() throws IOException
+    {
+        if ( readOnlyChecker.isReadOnly() )
+        {
+            return 0;
+        }
+        long startNanos = clock.nanos();
+        long pagesInMemory = 0;
+        for ( PagedFile file : pageCache.listExistingMappings() )
+        {
+            Path profile = profileOf( file );
+            if ( profile != null )
+            {
+                try
+                {
+                    pagesInMemory += profile( file, profile );
+                }
+                catch ( FileIsNotMappedException e )
+                {
+                    // The file was unmapped while we were profiling it. Just move on to the next file.
+                }
+            }
+        }
+        monitor.profileCompleted( databaseName, pagesInMemory, NANOSECONDS.toMillis( clock.nanos() - startNanos ) );
+        return pagesInMemory;
+    }
+
+    private long profile( PagedFile file, Path profile ) throws IOException
+    {
+        fs.mkdirs( profile.getParent() );
+        Path temporaryProfile = profile.resolveSibling( profile.getFileName() + TEMPORARY_SUFFIX );
+        long pagesInMemory = 0;
+        try ( var cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_TAG );
+              PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, new CursorContext( cursorTracer ) );
+              OutputStream out = new GZIPOutputStream( new BufferedOutputStream( fs.openAsOutputStream( temporaryProfile, false ) ) ) )
+        {
+            int bits = 0;
+            int bitIndex = 0;
+            while ( cursor.next() )
+            {
+                // With PF_NO_FAULT, the cursor is unbound when the page is not in memory.
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    bits |= 1 << bitIndex;
+                    pagesInMemory++;
+                }
+                if ( ++bitIndex == Byte.SIZE )
+                {
+                    out.write( bits );
+                    bits = 0;
+                    bitIndex = 0;
+                }
+            }
+            if ( bitIndex > 0 )
+            {
+                out.write( bits );
+            }
+        }
+        fs.renameFile( temporaryProfile, profile, ATOMIC_MOVE, REPLACE_EXISTING );
+        return pagesInMemory;
+    }
+
+    private long reheat( PagedFile file, Path profile )
+    {
+        try ( var cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_TAG );
+              InputStream in = new GZIPInputStream( new BufferedInputStream( fs.openAsInputStream( profile ) ) ) )
+        {
+            var context = new CursorContext( cursorTracer );
+            long pagesLoaded = 0;
+            long pageId = 0;
+            long runStart = -1;
+            int bits;
+            while ( (bits = in.read()) != -1 && !stopped )
+            {
+                for ( int bitIndex = 0; bitIndex < Byte.SIZE; bitIndex++, pageId++ )
+                {
+                    boolean inProfile = (bits & (1 << bitIndex)) != 0;
+                    if ( inProfile && runStart == -1 )
+                    {
+                        runStart = pageId;
+                    }
+                    else if ( !inProfile && runStart != -1 )
+                    {
+                        pagesLoaded += touch( file, runStart, pageId - runStart, context );
+                        runStart = -1;
+                    }
+                }
+            }
+            if ( runStart != -1 )
+            {
+                pagesLoaded += touch( file, runStart, pageId - runStart, context );
+            }
+            return pagesLoaded;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private long preload( PagedFile file )
+    {
+        try ( var cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_TAG ) )
+        {
+            return touch( file, 0, file.getLastPageId() + 1, new CursorContext( cursorTracer ) );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private long touch( PagedFile file, long fromPageId, long count, CursorContext context ) throws IOException
+    {
+        long touched = 0;
+        long pageId = fromPageId;
+        long endPageId = fromPageId + count;
+        while ( pageId < endPageId && !stopped )
+        {
+            int batch = (int) Math.min( MAX_TOUCH_PAGES, endPageId - pageId );
+            touched += file.touch( pageId, batch, context );
+            pageId += batch;
+        }
+        return touched;
+    }
+
+    /**
+     * @return the profile file of the given mapped file, or {@code null} if the mapped file does not belong in the database directory.
+     */
+    private Path profileOf( PagedFile file )
+    {
+        Path path = file.path().toAbsolutePath().normalize();
+        Path directory = databaseDirectory.toAbsolutePath().normalize();
+        if ( !path.startsWith( directory ) || path.startsWith( directory.resolve( PROFILES_DIRECTORY ) ) )
+        {
+            return null;
+        }
+        Path relativePath = directory.relativize( path );
+        return profilesDirectory.resolve( relativePath ).resolveSibling( relativePath.getFileName() + PROFILE_SUFFIX );
+    }
+
+    private void tryReheat()
+    {
+        try
+        {
+            reheat();
+        }
+        catch ( Throwable t )
+        {
+            log.warn( "Page cache warmup failed.", t );
+        }
+    }
+
+    private void profileInBackground()
+    {
+        if ( stopped || !warmupCompleted )
+        {
+            return;
+        }
+        try
+        {
+            profile();
+        }
+        catch ( Throwable t )
+        {
+            log.warn( "Page cache profiling failed.", t );
+        }
+    }
+
+    private static void cancelAndAwait( JobHandle<?> job )
+    {
+        if ( job == null )
+        {
+            return;
+        }
+        job.cancel();
+        try
+        {
+            job.waitTermination();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException | CancellationException e )
+        {
+            // Failures have already been logged by the job itself.
+        }
+    }
+
+    private static IOException withSuppressed( IOException failure, IOException exception )
+    {
+        if ( exception == null )
+        {
+            return failure;
+        }
+        if ( failure == null )
+        {
+            return exception;
+        }
+        failure.addSuppressed( exception );
+        return failure;
+    }
+
+    /**
+     * Monitor for the progress of page cache warmup and profiling.
+     */
+    public interface Monitor
+    {
+        Monitor NO_MONITOR = new Monitor()
+        {
+        };
+
+        default void warmupStarted( String databaseName )
+        {
+        }
+
+        default void warmupCompleted( String databaseName, long pagesLoaded, long elapsedMillis )
+        {
+        }
+
+        default void profileCompleted( String databaseName, long pagesInMemory, long elapsedMillis )
+        {
+        }
+    }
+}
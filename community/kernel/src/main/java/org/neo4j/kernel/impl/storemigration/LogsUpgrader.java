@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.log.files.LogTailInformation;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogInitializer;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -190,6 +191,8 @@ public class LogsUpgrader
                     for ( Path legacyFile : legacyFiles )
                     {
                         fs.deleteFile( legacyFile );
+                        // the transaction index is not moved along, it is rebuilt next to the moved log file when needed
+                        fs.deleteFile( TransactionLogFilesHelper.indexFileFor( legacyFile ) );
                     }
                 }
             }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.cdc;
+
+import org.neo4j.storageengine.api.LogicalChangeVisitor;
+
+/**
+ * Receives the logical changes streamed by a {@link TransactionChangeStream}, one committed transaction at a time and in commit order.
+ * The changes of a transaction are visited in between {@link #beginTransaction(long, long)} and {@link #endTransaction(long)}.
+ */
+public interface ChangeStreamListener extends LogicalChangeVisitor
+{
+    /**
+     * @param transactionId id of the transaction whose changes follow.
+     * @param timeCommitted time the transaction was committed, in milliseconds.
+     */
+    void beginTransaction( long transactionId, long timeCommitted );
+
+    /**
+     * All changes of the transaction have been visited. The stream can be resumed after this transaction by streaming from this transaction id.
+     *
+     * @param transactionId id of the transaction whose changes have been visited.
+     */
+    void endTransaction( long transactionId );
+}
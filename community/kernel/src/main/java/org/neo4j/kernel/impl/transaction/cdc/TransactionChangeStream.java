@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.cdc;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+/**
+ * Change data capture by tailing the transaction log. Committed transactions are read back from the {@link LogicalTransactionStore}
+ * and their commands decoded into logical changes by the {@link StorageEngine}, so no work is added to the commit path.
+ * <p>
+ * The position of the stream is simply a transaction id. A consumer remembers the id of the last transaction it has
+ * {@link ChangeStreamListener#endTransaction(long) seen} and passes it into the next {@link #stream(long, int, ChangeStreamListener)},
+ * which makes it possible to resume, also after a restart, for as long as the transaction log hasn't been pruned past that point.
+ * <p>
+ * Only transactions that have been closed, i.e. fully applied, are streamed. Property values and labels are decoded from the
+ * commands alone, never from the store, so they don't reflect later changes however far behind the stream is. Those not
+ * contained in the commands are reported as unavailable.
+ */
+public class TransactionChangeStream
+{
+    private static final String CHANGE_STREAM_TAG = "transactionChangeStream";
+
+    private final LogicalTransactionStore transactionStore;
+    private final TransactionIdStore transactionIdStore;
+    private final StorageEngine storageEngine;
+    private final PageCacheTracer pageCacheTracer;
+
+    public TransactionChangeStream( LogicalTransactionStore transactionStore, TransactionIdStore transactionIdStore, StorageEngine storageEngine,
+            PageCacheTracer pageCacheTracer )
+    {
+        this.transactionStore = transactionStore;
+        this.transactionIdStore = transactionIdStore;
+        this.storageEngine = storageEngine;
+        this.pageCacheTracer = pageCacheTracer;
+    }
+
+    /**
+     * Streams the changes of transactions committed after {@code afterTransactionId}.
+     *
+     * @param afterTransactionId id of the last transaction already seen by the consumer.
+     * @param maxTransactions maximum number of transactions to stream in this call.
+     * @param listener receiving the changes.
+     * @return id of the last transaction streamed, or {@code afterTransactionId} if there were no newer transactions.
+     * This is the position to continue streaming from.
+     * @throws NoSuchTransactionException if the transaction log no longer contains the transactions after {@code afterTransactionId}.
+     * @throws IOException on error reading the transaction log or the store.
+     */
+    public long stream( long afterTransactionId, int maxTransactions, ChangeStreamListener listener ) throws IOException
+    {
+        long lastClosedTransactionId = transactionIdStore.getLastClosedTransactionId();
+        long position = afterTransactionId;
+        if ( position >= lastClosedTransactionId || maxTransactions <= 0 )
+        {
+            return position;
+        }
+
+        try ( CursorContext cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( CHANGE_STREAM_TAG ) );
+              TransactionCursor transactions = transactionStore.getTransactions( afterTransactionId + 1 ) )
+        {
+            int streamed = 0;
+            while ( streamed < maxTransactions && transactions.next() )
+            {
+                CommittedTransactionRepresentation transaction = transactions.get();
+                long transactionId = transaction.getCommitEntry().getTxId();
+                if ( transactionId > lastClosedTransactionId )
+                {
+                    break;
+                }
+                TransactionRepresentation representation = transaction.getTransactionRepresentation();
+                listener.beginTransaction( transactionId, representation.getTimeCommitted() );
+                storageEngine.decodeChanges( representation, listener, cursorContext );
+                listener.endTransaction( transactionId );
+                position = transactionId;
+                streamed++;
+            }
+        }
+        return position;
+    }
+}
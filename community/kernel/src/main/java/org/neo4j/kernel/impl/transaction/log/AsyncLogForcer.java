@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.kernel.impl.transaction.log.files.LogFile;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvents;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * Forces the transaction log in the background for databases whose transactions don't wait for the log to be forced when committing.
+ * Forcing goes through {@link LogFile#forceAfterAppend(LogForceEvents)}, so a background force also completes any transactions
+ * that wait for a force of their own, and vice versa.
+ * <p>
+ * The log is forced every {@code interval}, and by a committing transaction itself once more than {@code maxUnforcedBytes} of log
+ * has been appended since the last force. How much of the log that isn't forced yet, and for how long, can be monitored with
+ * {@link #unforcedBytes()} and {@link #unforcedMillis()}.
+ * <p>
+ * Transactions are applied to the store before the log is forced, so the log must also be forced before any page of the store is
+ * written, see {@link #forceBeforePagesWritten()}. Otherwise a crash could leave changes of transactions that never made it to the
+ * log on disk, which recovery can't undo.
+ */
+public class AsyncLogForcer extends LifecycleAdapter
+{
+    private static final long NOTHING_UNFORCED = -1;
+
+    private final LogFile logFile;
+    private final JobScheduler scheduler;
+    private final Duration interval;
+    private final long maxUnforcedBytes;
+    private final SystemNanoClock clock;
+    private final Log log;
+    // Bytes appended since start, and how many of them are known to be forced
+    private final AtomicLong appendedBytes = new AtomicLong();
+    private final AtomicLong forcedBytes = new AtomicLong();
+    private final AtomicLong oldestUnforcedNanos = new AtomicLong( NOTHING_UNFORCED );
+    private JobHandle<?> job;
+
+    public AsyncLogForcer( LogFile logFile, JobScheduler scheduler, Duration interval, long maxUnforcedBytes, SystemNanoClock clock, Log log )
+    {
+        this.logFile = logFile;
+        this.scheduler = scheduler;
+        this.interval = interval;
+        this.maxUnforcedBytes = maxUnforcedBytes;
+        this.clock = clock;
+        this.log = log;
+    }
+
+    @Override
+    public void start()
+    {
+        long intervalNanos = interval.toNanos();
+        job = scheduler.scheduleRecurring( Group.TRANSACTION_LOG_FORCE, this::forceInBackground, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS );
+    }
+
+    @Override
+    public void stop() throws IOException
+    {
+        if ( job != null )
+        {
+            job.cancel();
+            job = null;
+        }
+        force( LogAppendEvent.NULL );
+    }
+
+    /**
+     * Called by committing transactions after having appended to the log and written what they appended to the log channel,
+     * instead of forcing it.
+     *
+     * @param bytes the number of bytes appended.
+     * @param logForceEvents trace event for a force, if this transaction ends up forcing the log itself.
+     * @return {@code true} if this transaction forced the log.
+     */
+    public boolean appended( long bytes, LogForceEvents logForceEvents ) throws IOException
+    {
+        oldestUnforcedNanos.compareAndSet( NOTHING_UNFORCED, clock.nanos() );
+        if ( appendedBytes.addAndGet( bytes ) - forcedBytes.get() > maxUnforcedBytes )
+        {
+            return force( logForceEvents );
+        }
+        return false;
+    }
+
+    /**
+     * Force everything appended so far, e.g. ahead of a checkpoint which must only point to transactions that are durable.
+     */
+    public boolean force( LogForceEvents logForceEvents ) throws IOException
+    {
+        long appended = appendedBytes.get();
+        oldestUnforcedNanos.set( NOTHING_UNFORCED );
+        boolean forced = logFile.forceAfterAppend( logForceEvents );
+        forcedBytes.accumulateAndGet( appended, Math::max );
+        return forced;
+    }
+
+    /**
+     * Called before pages of the store are written, to force everything appended so far unless it's already forced. Transactions are
+     * counted as {@link #appended(long, LogForceEvents) appended} before they are applied and after they are written to the log channel,
+     * so forcing the channel covers every transaction whose changes can be on the pages being written.
+     * <p>
+     * Pages can be written by a thread that waits for a page while holding the monitor of the log file, like one rotating it,
+     * which is why this only forces the channel instead of batching with, or waiting for, concurrent forces.
+     */
+    public void forceBeforePagesWritten() throws IOException
+    {
+        long appended = appendedBytes.get();
+        if ( forcedBytes.get() < appended )
+        {
+            oldestUnforcedNanos.set( NOTHING_UNFORCED );
+            logFile.forceChannel();
+            forcedBytes.accumulateAndGet( appended, Math::max );
+        }
+    }
+
+    /**
+     * @return the number of bytes appended to the transaction log since it was last forced.
+     */
+    public long unforcedBytes()
+    {
+        return Math.max( 0, appendedBytes.get() - forcedBytes.get() );
+    }
+
+    /**
+     * @return milliseconds since the oldest transaction that isn't forced yet was appended, or {@code 0} if everything is forced.
+     */
+    public long unforcedMillis()
+    {
+        long oldest = oldestUnforcedNanos.get();
+        return oldest == NOTHING_UNFORCED ? 0 : TimeUnit.NANOSECONDS.toMillis( clock.nanos() - oldest );
+    }
+
+    private void forceInBackground()
+    {
+        if ( unforcedBytes() == 0 )
+        {
+            return;
+        }
+        try
+        {
+            force( LogAppendEvent.NULL );
+        }
+        catch ( Throwable e )
+        {
+            // Forcing the log panics the database on failure, which fails subsequent commits
+            log.error( "Failed to force the transaction log in the background", e );
+        }
+    }
+}
@@ -20,9 +20,13 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.neo4j.collection.pool.LinkedQueuePool;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.SerializedCommands;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
@@ -46,18 +50,32 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogRotation logRotation;
     private final TransactionIdStore transactionIdStore;
     private final Health databaseHealth;
+    private final AsyncLogForcer asyncLogForcer;
+    // Buffers that commands are serialized into ahead of appending, kept around for as many as the peak number of concurrent committers
+    private final LinkedQueuePool<SerializedCommands> serializedCommandsPool = new LinkedQueuePool<>( 4, SerializedCommands::new );
 
     private TransactionLogWriter transactionLogWriter;
     private int previousChecksum;
 
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, Health databaseHealth )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth, (AsyncLogForcer) null );
+    }
+
+    /**
+     * @param asyncLogForcer if not {@code null}, transactions are considered committed without waiting for the log to be forced,
+     * leaving that to the {@link AsyncLogForcer}.
+     */
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, Health databaseHealth, AsyncLogForcer asyncLogForcer )
     {
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
+        this.asyncLogForcer = asyncLogForcer;
         this.previousChecksum = transactionIdStore.getLastCommittedTransaction().checksum();
     }
 
@@ -70,6 +88,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.transactionIdStore = transactionIdStore;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
+        this.asyncLogForcer = null;
         this.previousChecksum = previousChecksum;
     }
 
@@ -79,48 +98,81 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.transactionLogWriter = logFile.getTransactionLogWriter();
     }
 
+    @Override
+    public void shutdown()
+    {
+        serializedCommandsPool.close();
+    }
+
     @Override
     public long append( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
     {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        long appendedBytes = 0;
+        // Encode the commands of the batch before entering the critical section below, so that concurrently committing
+        // threads encode their commands in parallel and only copy the finished bytes into the log under the logFile monitor
+        List<SerializedCommands> batchCommands = serializeCommands( batch );
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
-            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+            // Synchronized with logFile to get absolute control over concurrent rotations happening
+            synchronized ( logFile )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
-                    previousChecksum = commitment.getTransactionChecksum();
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    LogPosition batchStartPosition = null;
+                    TransactionToApply tx = batch;
+                    int index = 0;
+                    while ( tx != null )
+                    {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                        if ( batchStartPosition == null )
+                        {
+                            batchStartPosition = transactionLogWriter.getCurrentPosition();
+                        }
+                        TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), batchCommands.get( index++ ), transactionId,
+                                logAppendEvent, previousChecksum );
+                        previousChecksum = commitment.getTransactionChecksum();
+                        tx.commitment( commitment, transactionId );
+                        tx.logPosition( commitment.logPosition() );
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                    }
+                    appendedBytes = transactionLogWriter.getCurrentPosition().getByteOffset() - batchStartPosition.getByteOffset();
+                }
+                if ( asyncLogForcer != null )
+                {
+                    // Write the batch through to the log channel, where store page writes can force it without this monitor
+                    transactionLogWriter.getChannel().prepareForFlush();
                 }
             }
         }
+        finally
+        {
+            release( batchCommands );
+        }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
         // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
-        // in this batch exist durably on disk.
-        if ( logFile.forceAfterAppend( logAppendEvent ) )
+        // in this batch exist durably on disk. Unless this database commits asynchronously, in which case the log
+        // is forced in the background and it's only a matter of letting the async forcer know how much we appended.
+        // That must happen before the transactions are applied, for store pages to not be written before they are forced.
+        boolean forced = asyncLogForcer == null ? logFile.forceAfterAppend( logAppendEvent ) : asyncLogForcer.appended( appendedBytes, logAppendEvent );
+        if ( forced || asyncLogForcer != null )
         {
             // We got lucky and were the one forcing the log. It's enough if ones of all doing concurrent committers
-            // checks the need for log rotation.
+            // checks the need for log rotation. Asynchronously committing transactions all check, since there may be no forcing one.
             boolean logRotated = logRotation.rotateLogIfNeeded( logAppendEvent );
             logAppendEvent.setLogRotated( logRotated );
         }
@@ -131,6 +183,47 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         return lastTransactionId;
     }
 
+    /**
+     * Serialize the commands of the transactions in the batch that don't already have a transaction id. Transactions that do are
+     * replicated, come from a single applier that doesn't gain anything from serializing outside of the lock, and need their id
+     * verified before anything else is done with them. Their commands, as well as commands that are too large to buffer,
+     * are streamed through the same buffers into the log channel instead, so that they're compressed all the same.
+     *
+     * @return the serialized commands of each transaction in the batch, empty for the ones that weren't serialized ahead of time.
+     */
+    private List<SerializedCommands> serializeCommands( TransactionToApply batch ) throws IOException
+    {
+        List<SerializedCommands> batchCommands = new ArrayList<>();
+        try
+        {
+            for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+            {
+                SerializedCommands commands = serializedCommandsPool.acquire();
+                batchCommands.add( commands );
+                commands.reset( tx.memoryTracker() );
+                if ( tx.transactionId() == TRANSACTION_ID_NOT_SPECIFIED )
+                {
+                    transactionLogWriter.serializeCommands( tx.transactionRepresentation(), commands );
+                }
+            }
+            return batchCommands;
+        }
+        catch ( Throwable t )
+        {
+            release( batchCommands );
+            throw t;
+        }
+    }
+
+    private void release( List<SerializedCommands> batchCommands )
+    {
+        for ( SerializedCommands commands : batchCommands )
+        {
+            commands.release();
+            serializedCommandsPool.release( commands );
+        }
+    }
+
     private void matchAgainstExpectedTransactionIdIfAny( long transactionId, TransactionToApply tx )
     {
         long expectedTransactionId = tx.transactionId();
@@ -161,8 +254,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
      * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not
      * this transaction contains any explicit index changes.
      */
-    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId, LogAppendEvent logAppendEvent, int previousChecksum )
-            throws IOException
+    private TransactionCommitment appendToLog( TransactionRepresentation transaction, SerializedCommands commands, long transactionId,
+            LogAppendEvent logAppendEvent, int previousChecksum ) throws IOException
     {
         // The outcome of this try block is either of:
         // a) transaction successfully appended, at which point we return a Commitment to be used after force
@@ -173,7 +266,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         try
         {
             var logPositionBeforeCommit = transactionLogWriter.getCurrentPosition();
-            int checksum = transactionLogWriter.append( transaction, transactionId, previousChecksum );
+            int checksum = transactionLogWriter.append( transaction, commands, transactionId, previousChecksum );
             var logPositionAfterCommit = transactionLogWriter.getCurrentPosition();
             logAppendEvent.appendToLogFile( logPositionBeforeCommit, logPositionAfterCommit );
 
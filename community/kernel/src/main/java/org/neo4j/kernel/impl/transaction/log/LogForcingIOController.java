@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+
+/**
+ * Controls IO of a database that commits asynchronously like the controller it wraps, and also forces the transaction log
+ * through the {@link AsyncLogForcer} of the database before any of its pages are written. Its transactions are applied to
+ * the store before the log is forced, so without this a crash could leave changes in the store that recovery can't find in the log.
+ */
+public class LogForcingIOController implements IOController
+{
+    private final IOController delegate;
+    private volatile AsyncLogForcer logForcer;
+
+    public LogForcingIOController( IOController delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param logForcer the forcer of the log of the started database, or {@code null} while there is none.
+     */
+    public void setLogForcer( AsyncLogForcer logForcer )
+    {
+        this.logForcer = logForcer;
+    }
+
+    @Override
+    public void beforePagesWritten() throws IOException
+    {
+        AsyncLogForcer forcer = logForcer;
+        if ( forcer != null )
+        {
+            forcer.forceBeforePagesWritten();
+        }
+        delegate.beforePagesWritten();
+    }
+
+    @Override
+    public void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        delegate.maybeLimitIO( recentlyCompletedIOs, flushable, flushEvent );
+    }
+
+    @Override
+    public void reportIO( int completedIOs )
+    {
+        delegate.reportIO( completedIOs );
+    }
+
+    @Override
+    public void disable()
+    {
+        delegate.disable();
+    }
+
+    @Override
+    public void enable()
+    {
+        delegate.enable();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return delegate.isEnabled();
+    }
+}
@@ -89,9 +89,13 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             LogVersionLocator headerVisitor = new LogVersionLocator( transactionIdToStartFrom );
             logFile.accept( headerVisitor );
 
+            // skip ahead to the closest indexed transaction in that version, rather than scanning it from the start
+            LogPosition scanPosition = logFile.getTransactionIndex().closestPosition( transactionIdToStartFrom, headerVisitor.getLogPosition(),
+                    logEntryReader );
+
             // ask LogFile
             TransactionPositionLocator transactionPositionLocator = new TransactionPositionLocator( transactionIdToStartFrom, logEntryReader );
-            logFile.accept( transactionPositionLocator, headerVisitor.getLogPosition() );
+            logFile.accept( transactionPositionLocator, scanPosition );
             LogPosition position = transactionPositionLocator.getLogPosition();
             transactionMetadataCache.cacheTransactionMetadata( transactionIdToStartFrom, position );
             return new PhysicalTransactionCursor( logFile.getReader( position ), logEntryReader );
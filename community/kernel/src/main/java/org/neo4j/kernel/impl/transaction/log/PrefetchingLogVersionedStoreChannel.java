@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.neo4j.io.fs.DelegatingStoreChannel;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.NativeScopedBuffer;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.util.FeatureToggles;
+
+import static java.lang.Math.min;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * A {@link LogVersionedStoreChannel} for reading a log file sequentially, which reads ahead of the reader in a background thread.
+ * <p>
+ * Reading starts out as plain reads from the underlying channel, so that reading just a few transactions costs nothing extra. Once more than
+ * {@link #PREFETCH_AFTER} bytes have been read without repositioning, the channel switches to reading large chunks into two buffers:
+ * one that the reader consumes, while the other is being filled in the background by the given executor. This turns a sequential scan of a large log,
+ * e.g. by recovery, from being bound by many small reads into being bound by parsing the log.
+ * <p>
+ * The underlying channel must only be read through this channel, which is not thread safe, just like the channels it wraps.
+ */
+public class PrefetchingLogVersionedStoreChannel extends DelegatingStoreChannel<LogVersionedStoreChannel> implements LogVersionedStoreChannel
+{
+    static final boolean ENABLED = FeatureToggles.flag( PrefetchingLogVersionedStoreChannel.class, "enabled", true );
+    static final int BUFFER_SIZE = FeatureToggles.getInteger( PrefetchingLogVersionedStoreChannel.class, "bufferSize", (int) mebiBytes( 1 ) );
+    static final long PREFETCH_AFTER = FeatureToggles.getLong( PrefetchingLogVersionedStoreChannel.class, "prefetchAfter", mebiBytes( 1 ) );
+
+    private final MemoryTracker memoryTracker;
+    private final CallableExecutor prefetcher;
+    private long position;
+    private long sequentiallyRead;
+    private NativeScopedBuffer readBuffer;
+    private NativeScopedBuffer fillBuffer;
+    private Future<Integer> fill;
+
+    PrefetchingLogVersionedStoreChannel( LogVersionedStoreChannel delegate, MemoryTracker memoryTracker, CallableExecutor prefetcher ) throws IOException
+    {
+        super( delegate );
+        this.memoryTracker = memoryTracker;
+        this.prefetcher = prefetcher;
+        this.position = delegate.position();
+    }
+
+    @Override
+    public int read( ByteBuffer dst ) throws IOException
+    {
+        if ( readBuffer == null )
+        {
+            int read = delegate.read( dst );
+            if ( read > 0 )
+            {
+                position += read;
+                sequentiallyRead += read;
+                if ( sequentiallyRead > PREFETCH_AFTER )
+                {
+                    startPrefetching();
+                }
+            }
+            return read;
+        }
+
+        ByteBuffer buffer = readBuffer.getBuffer();
+        if ( !buffer.hasRemaining() )
+        {
+            // Having reached the end before, read synchronously to see if the log has grown since
+            int filled = fill != null ? awaitFill() : fillBuffer();
+            if ( filled == -1 )
+            {
+                return -1;
+            }
+            swapBuffers();
+            buffer = readBuffer.getBuffer();
+        }
+
+        int read = min( buffer.remaining(), dst.remaining() );
+        ByteBuffer slice = buffer.slice();
+        slice.limit( read );
+        dst.put( slice );
+        buffer.position( buffer.position() + read );
+        position += read;
+        return read;
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts, int offset, int length ) throws IOException
+    {
+        long read = 0;
+        for ( int i = offset; i < offset + length; i++ )
+        {
+            int readIntoBuffer = read( dsts[i] );
+            if ( readIntoBuffer == -1 )
+            {
+                return read == 0 ? -1 : read;
+            }
+            read += readIntoBuffer;
+            if ( dsts[i].hasRemaining() )
+            {
+                break;
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts ) throws IOException
+    {
+        return read( dsts, 0, dsts.length );
+    }
+
+    @Override
+    public void readAll( ByteBuffer dst ) throws IOException
+    {
+        while ( dst.hasRemaining() )
+        {
+            if ( read( dst ) == -1 )
+            {
+                throw new IllegalStateException( "Channel has reached end-of-stream." );
+            }
+        }
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public StoreChannel position( long newPosition ) throws IOException
+    {
+        stopPrefetching();
+        delegate.position( newPosition );
+        position = newPosition;
+        sequentiallyRead = 0;
+        return this;
+    }
+
+    @Override
+    public long getVersion()
+    {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public byte getLogFormatVersion()
+    {
+        return delegate.getLogFormatVersion();
+    }
+
+    /**
+     * @return the channel this channel reads from, which isn't read from in the background after this call.
+     */
+    LogVersionedStoreChannel detach() throws IOException
+    {
+        stopPrefetching();
+        return delegate;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        stopPrefetching();
+        delegate.close();
+    }
+
+    private void startPrefetching()
+    {
+        readBuffer = new NativeScopedBuffer( BUFFER_SIZE, memoryTracker );
+        fillBuffer = new NativeScopedBuffer( BUFFER_SIZE, memoryTracker );
+        readBuffer.getBuffer().limit( 0 );
+        fill = prefetcher.submit( this::fillBuffer );
+    }
+
+    private void stopPrefetching() throws IOException
+    {
+        if ( readBuffer != null )
+        {
+            try
+            {
+                awaitFill();
+            }
+            finally
+            {
+                readBuffer.close();
+                fillBuffer.close();
+                readBuffer = null;
+                fillBuffer = null;
+            }
+        }
+    }
+
+    private int fillBuffer() throws IOException
+    {
+        ByteBuffer buffer = fillBuffer.getBuffer();
+        buffer.clear();
+        int filled = 0;
+        while ( buffer.hasRemaining() )
+        {
+            int read = delegate.read( buffer );
+            if ( read == -1 )
+            {
+                break;
+            }
+            filled += read;
+        }
+        buffer.flip();
+        return filled == 0 ? -1 : filled;
+    }
+
+    private int awaitFill() throws IOException
+    {
+        Future<Integer> pending = fill;
+        fill = null;
+        if ( pending == null )
+        {
+            return -1;
+        }
+        // The fill must have completed before returning, since the buffers can be released right after, so an interrupt is only passed on
+        boolean interrupted = false;
+        try
+        {
+            while ( true )
+            {
+                try
+                {
+                    return pending.get();
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted = true;
+                }
+                catch ( ExecutionException e )
+                {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof IOException )
+                    {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException( cause );
+                }
+            }
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void swapBuffers()
+    {
+        NativeScopedBuffer filled = fillBuffer;
+        fillBuffer = readBuffer;
+        readBuffer = filled;
+        fill = prefetcher.submit( this::fillBuffer );
+    }
+}
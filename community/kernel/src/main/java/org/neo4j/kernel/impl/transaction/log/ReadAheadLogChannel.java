@@ -26,6 +26,7 @@ import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.memory.NativeScopedBuffer;
 import org.neo4j.io.memory.ScopedBuffer;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.CallableExecutor;
 
 /**
  * Basically a sequence of {@link StoreChannel channels} seamlessly seen as one.
@@ -34,6 +35,8 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
 {
     private final LogVersionBridge bridge;
     private final boolean raw;
+    private final MemoryTracker prefetchMemoryTracker;
+    private final CallableExecutor prefetcher;
 
     public ReadAheadLogChannel( LogVersionedStoreChannel startingChannel, MemoryTracker memoryTracker )
     {
@@ -54,10 +57,33 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
      * This constructor is private to ensure that the given buffer always comes form one of our own constructors.
      */
     private ReadAheadLogChannel( LogVersionedStoreChannel startingChannel, LogVersionBridge bridge, ScopedBuffer scopedBuffer, boolean raw )
+    {
+        this( startingChannel, bridge, scopedBuffer, raw, null, null );
+    }
+
+    private ReadAheadLogChannel( LogVersionedStoreChannel startingChannel, LogVersionBridge bridge, ScopedBuffer scopedBuffer, boolean raw,
+            MemoryTracker prefetchMemoryTracker, CallableExecutor prefetcher )
     {
         super( startingChannel, scopedBuffer );
         this.bridge = bridge;
         this.raw = raw;
+        this.prefetchMemoryTracker = prefetchMemoryTracker;
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * Create a channel for reading the log sequentially, e.g. when recovering or scanning it, which reads ahead in the background
+     * once it has read more than a little, see {@link PrefetchingLogVersionedStoreChannel}.
+     */
+    public static ReadAheadLogChannel prefetching( LogVersionedStoreChannel startingChannel, LogVersionBridge bridge, MemoryTracker memoryTracker,
+            boolean raw, CallableExecutor prefetcher ) throws IOException
+    {
+        if ( !PrefetchingLogVersionedStoreChannel.ENABLED || prefetcher == null )
+        {
+            return new ReadAheadLogChannel( startingChannel, bridge, memoryTracker, raw );
+        }
+        return new ReadAheadLogChannel( new PrefetchingLogVersionedStoreChannel( startingChannel, memoryTracker, prefetcher ), bridge,
+                new NativeScopedBuffer( DEFAULT_READ_AHEAD_SIZE, memoryTracker ), raw, memoryTracker, prefetcher );
     }
 
     @Override
@@ -88,6 +114,12 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
     @Override
     protected LogVersionedStoreChannel next( LogVersionedStoreChannel channel ) throws IOException
     {
+        if ( channel instanceof PrefetchingLogVersionedStoreChannel )
+        {
+            LogVersionedStoreChannel current = ((PrefetchingLogVersionedStoreChannel) channel).detach();
+            LogVersionedStoreChannel next = bridge.next( current, raw );
+            return next == current ? channel : new PrefetchingLogVersionedStoreChannel( next, prefetchMemoryTracker, prefetcher );
+        }
         return bridge.next( channel, raw );
     }
 
@@ -24,17 +24,30 @@ import java.io.IOException;
 import org.neo4j.kernel.database.LogEntryWriterFactory;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.SerializedCommands;
+import org.neo4j.kernel.impl.transaction.log.files.SparseTransactionIndex;
 import org.neo4j.util.VisibleForTesting;
 
 public class TransactionLogWriter
 {
     private final FlushablePositionAwareChecksumChannel channel;
     private final LogEntryWriterFactory logEntryWriterFactory;
+    private final boolean compressCommands;
+    private final SparseTransactionIndex transactionIndex;
+    private final LogPositionMarker startPosition = new LogPositionMarker();
 
     public TransactionLogWriter( FlushablePositionAwareChecksumChannel channel, LogEntryWriterFactory logEntryWriterFactory )
+    {
+        this( channel, logEntryWriterFactory, false, null );
+    }
+
+    public TransactionLogWriter( FlushablePositionAwareChecksumChannel channel, LogEntryWriterFactory logEntryWriterFactory, boolean compressCommands,
+            SparseTransactionIndex transactionIndex )
     {
         this.channel = channel;
         this.logEntryWriterFactory = logEntryWriterFactory;
+        this.compressCommands = compressCommands;
+        this.transactionIndex = transactionIndex;
     }
 
     /**
@@ -43,11 +56,50 @@ public class TransactionLogWriter
      */
     public int append( TransactionRepresentation transaction, long transactionId, int previousChecksum ) throws IOException
     {
+        return append( transaction, null, transactionId, previousChecksum );
+    }
+
+    /**
+     * Serialize the commands of a transaction into the given {@link SerializedCommands} ahead of
+     * {@link #append(TransactionRepresentation, SerializedCommands, long, int) appending} it.
+     * This doesn't touch the log channel and can be called concurrently, without holding the lock that appends are made under.
+     */
+    public void serializeCommands( TransactionRepresentation transaction, SerializedCommands commands ) throws IOException
+    {
+        logEntryWriterFactory.createEntryWriter( channel, transaction.version() ).serializeCommands( transaction, compressCommands, commands );
+    }
+
+    /**
+     * Append a transaction, whose commands may already have been serialized, to the transaction log file
+     * @param commands the already serialized commands of the transaction, or empty ones to stream the commands through into the log channel,
+     * or {@code null} to serialize them straight into the log channel.
+     * @return checksum of the transaction
+     */
+    public int append( TransactionRepresentation transaction, SerializedCommands commands, long transactionId, int previousChecksum ) throws IOException
+    {
+        if ( transactionIndex != null )
+        {
+            transactionIndex.transactionAppended( transactionId, channel.getCurrentPosition( startPosition ) );
+        }
         var writer = logEntryWriterFactory.createEntryWriter( channel, transaction.version() );
         writer.writeStartEntry( transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(), previousChecksum, transaction.additionalHeader() );
 
-        // Write all the commands to the log channel
-        writer.serialize( transaction );
+        if ( commands != null && commands.size() > 0 )
+        {
+            // Copy all the already serialized commands to the log channel
+            commands.writeTo( channel );
+        }
+        else if ( commands != null && compressCommands )
+        {
+            // The commands weren't serialized ahead of time, either because the transaction is replicated or because it was too large
+            // to buffer, so compress them on their way into the log channel
+            writer.serializeCompressed( transaction, commands );
+        }
+        else
+        {
+            // Write all the commands to the log channel
+            writer.serialize( transaction );
+        }
 
         // Write commit record
         return writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
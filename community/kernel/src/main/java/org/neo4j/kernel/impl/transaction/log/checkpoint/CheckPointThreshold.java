@@ -78,7 +78,7 @@ public interface CheckPointThreshold
      * Create and configure a {@link CheckPointThreshold} based on the given configurations.
      */
     static CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider )
+            Config config, SystemNanoClock clock, LogPruning logPruning, RecoveryTimeEstimator recoveryTimeEstimator, LogProvider logProvider )
     {
         String policyName = config.get( check_point_policy ).name().toLowerCase();
         CheckPointThresholdPolicy policy;
@@ -93,7 +93,7 @@ public interface CheckPointThreshold
                     "Using default policy instead.", e );
             policy = new PeriodicThresholdPolicy();
         }
-        return policy.createThreshold( config, clock, logPruning, logProvider );
+        return policy.createThreshold( config, clock, logPruning, recoveryTimeEstimator, logProvider );
     }
 
     /**
@@ -36,7 +36,7 @@ import org.neo4j.time.SystemNanoClock;
  *
  * The is determined by the {@link GraphDatabaseSettings#check_point_policy} setting, and
  * based on this, the concrete policies are loaded and used to
- * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, LogProvider) create} the final and fully
+ * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, RecoveryTimeEstimator, LogProvider) create} the final and fully
  * configured check point thresholds.
  */
 @Service
@@ -55,5 +55,6 @@ public interface CheckPointThresholdPolicy extends NamedService
     /**
      * Create a {@link CheckPointThreshold} instance based on this policy and the given configurations.
      */
-    CheckPointThreshold createThreshold( Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider );
+    CheckPointThreshold createThreshold( Config config, SystemNanoClock clock, LogPruning logPruning, RecoveryTimeEstimator recoveryTimeEstimator,
+            LogProvider logProvider );
 }
@@ -43,7 +43,7 @@ public class PeriodicThresholdPolicy implements CheckPointThresholdPolicy
 
     @Override
     public CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider )
+            Config config, SystemNanoClock clock, LogPruning logPruning, RecoveryTimeEstimator recoveryTimeEstimator, LogProvider logProvider )
     {
         int txThreshold = config.get( GraphDatabaseSettings.check_point_interval_tx );
         final CountCommittedTransactionThreshold countCommittedTransactionThreshold =
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.internal.helpers.Format;
+
+class RecoveryTimeCheckPointThreshold extends AbstractCheckPointThreshold
+{
+    private final long targetMillis;
+    private final RecoveryTimeEstimator estimator;
+
+    RecoveryTimeCheckPointThreshold( long targetMillis, RecoveryTimeEstimator estimator )
+    {
+        super( "recovery time threshold" );
+        this.targetMillis = targetMillis;
+        this.estimator = estimator;
+    }
+
+    @Override
+    public void initialize( long transactionId )
+    {
+    }
+
+    @Override
+    protected boolean thresholdReached( long lastCommittedTransactionId, long lastCommittedTransactionLogVersion )
+    {
+        // A check point only moves the start of recovery once it completes, and transactions keep being committed while it runs,
+        // so start check pointing when the estimate reaches half of the target
+        return estimator.estimatedRecoveryTimeMillis() >= targetMillis / 2;
+    }
+
+    @Override
+    protected String createCheckpointThresholdDescription( String description )
+    {
+        return description + " (estimated recovery time " + formatDuration( estimator.estimatedRecoveryTimeMillis() ) + ", target " +
+               formatDuration( targetMillis ) + ")";
+    }
+
+    @Override
+    public void checkPointHappened( long transactionId )
+    {
+    }
+
+    @Override
+    public long checkFrequencyMillis()
+    {
+        // Check often enough to notice the recovery time growing well before it reaches the target
+        return Math.max( 1, Math.min( DEFAULT_CHECKING_FREQUENCY_MILLIS, targetMillis / 10 ) );
+    }
+
+    private static String formatDuration( long millis )
+    {
+        return Format.duration( millis, TimeUnit.DAYS, TimeUnit.MILLISECONDS, unit -> ' ' + unit.name().toLowerCase() );
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+import org.neo4j.logging.Log;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Estimates how long recovery would take if the database crashed now, from the amount of transaction log appended since the last check point
+ * and the rate at which recovery replays the log. That rate is the one observed when the database last recovered enough of the log for the rate
+ * to be meaningful, or {@link GraphDatabaseInternalSettings#check_point_recovery_throughput} if it never has. The observed rate is kept in a
+ * {@link #THROUGHPUT_FILE_NAME file} next to the transaction logs, so that it is still known after the database restarts without recovering.
+ * <p>
+ * The estimator takes part in check pointing as a {@link CheckPointThreshold} that never triggers by itself, only to keep track of where recovery
+ * would start from. It samples the position of the last closed transaction on every check, and on a check point assumes that recovery would
+ * start from the position sampled last, because the check point itself points to a transaction that was closed before it started.
+ * This overestimates rather than underestimates the recovery time.
+ */
+public class RecoveryTimeEstimator implements CheckPointThreshold, RecoveryMonitor
+{
+    public static final String THROUGHPUT_FILE_NAME = "recovery_throughput";
+
+    private static final long NOT_OBSERVED = 0;
+    private static final long MINIMUM_OBSERVED_LOG_BYTES = ByteUnit.mebiBytes( 1 );
+    private static final long MINIMUM_OBSERVED_MILLIS = 100;
+
+    private final Config config;
+    private final FileSystemAbstraction fs;
+    private final Path throughputFile;
+    private final Log log;
+    private volatile TransactionIdStore transactionIdStore;
+    private volatile long observedBytesPerSecond = NOT_OBSERVED;
+    private volatile LogPosition checkPointPosition = LogPosition.UNSPECIFIED;
+    private volatile LogPosition checkedPosition = LogPosition.UNSPECIFIED;
+
+    /**
+     * @param config the config of the database.
+     * @param fs the file system of the transaction logs.
+     * @param transactionLogsDirectory the directory of the transaction logs, where the observed rate is kept.
+     * @param log the log to report failures to keep the observed rate in.
+     */
+    public RecoveryTimeEstimator( Config config, FileSystemAbstraction fs, Path transactionLogsDirectory, Log log )
+    {
+        this.config = config;
+        this.fs = fs;
+        this.throughputFile = transactionLogsDirectory.resolve( THROUGHPUT_FILE_NAME );
+        this.log = log;
+    }
+
+    /**
+     * Start estimating, once the transaction id store of the recovered database is available. A rate observed by the recovery that just happened
+     * replaces the one that was kept, and otherwise the kept rate is used.
+     */
+    public void start( TransactionIdStore transactionIdStore )
+    {
+        long observed = observedBytesPerSecond;
+        if ( observed != NOT_OBSERVED )
+        {
+            writeThroughput( observed );
+        }
+        else
+        {
+            observedBytesPerSecond = readThroughput();
+        }
+        this.transactionIdStore = transactionIdStore;
+    }
+
+    @Override
+    public void logBytesRecovered( long recoveredLogBytes, long replayTimeInMilliseconds )
+    {
+        // The rate of a short recovery is dominated by fixed costs and timer resolution, and says little about the rate of a long one
+        if ( recoveredLogBytes >= MINIMUM_OBSERVED_LOG_BYTES && replayTimeInMilliseconds >= MINIMUM_OBSERVED_MILLIS )
+        {
+            observedBytesPerSecond = Math.max( 1, recoveredLogBytes * TimeUnit.SECONDS.toMillis( 1 ) / replayTimeInMilliseconds );
+        }
+    }
+
+    @Override
+    public void initialize( long transactionId )
+    {
+        checkedPosition = lastClosedTransactionPosition();
+        checkPointPosition = checkedPosition;
+    }
+
+    @Override
+    public boolean isCheckPointingNeeded( long lastCommittedTransactionId, long lastCommittedTransactionLogVersion, Consumer<String> consumer )
+    {
+        checkedPosition = lastClosedTransactionPosition();
+        return false;
+    }
+
+    @Override
+    public void checkPointHappened( long transactionId )
+    {
+        checkPointPosition = checkedPosition;
+        checkedPosition = lastClosedTransactionPosition();
+    }
+
+    @Override
+    public long checkFrequencyMillis()
+    {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the rate at which recovery is expected to replay the transaction log, in bytes per second.
+     */
+    public long bytesPerSecond()
+    {
+        long observed = observedBytesPerSecond;
+        return observed != NOT_OBSERVED ? observed : config.get( GraphDatabaseInternalSettings.check_point_recovery_throughput );
+    }
+
+    /**
+     * @return the amount of transaction log recovery would have to replay if the database crashed now.
+     */
+    public long unrecoveredLogBytes()
+    {
+        LogPosition from = checkPointPosition;
+        LogPosition to = lastClosedTransactionPosition();
+        if ( from == LogPosition.UNSPECIFIED || to == LogPosition.UNSPECIFIED )
+        {
+            return 0;
+        }
+        if ( from.getLogVersion() == to.getLogVersion() )
+        {
+            return Math.max( 0, to.getByteOffset() - from.getByteOffset() );
+        }
+        // Rotated log files are about as large as the rotation threshold
+        long rotationThreshold = config.get( GraphDatabaseSettings.logical_log_rotation_threshold );
+        return Math.max( 0, rotationThreshold - from.getByteOffset() ) + (to.getLogVersion() - from.getLogVersion() - 1) * rotationThreshold +
+               to.getByteOffset();
+    }
+
+    /**
+     * @return the estimated time it would take to recover the database if it crashed now.
+     */
+    public long estimatedRecoveryTimeMillis()
+    {
+        return unrecoveredLogBytes() * TimeUnit.SECONDS.toMillis( 1 ) / bytesPerSecond();
+    }
+
+    private long readThroughput()
+    {
+        try
+        {
+            if ( fs.fileExists( throughputFile ) && fs.getFileSize( throughputFile ) == Long.BYTES )
+            {
+                try ( StoreChannel channel = fs.read( throughputFile ) )
+                {
+                    ByteBuffer buffer = ByteBuffer.allocate( Long.BYTES );
+                    channel.readAll( buffer );
+                    return Math.max( NOT_OBSERVED, buffer.flip().getLong() );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not read the recovery throughput observed before the restart from " + throughputFile + ".", e );
+        }
+        return NOT_OBSERVED;
+    }
+
+    private void writeThroughput( long bytesPerSecond )
+    {
+        Path tempFile = throughputFile.resolveSibling( throughputFile.getFileName() + ".tmp" );
+        try
+        {
+            try ( StoreChannel channel = fs.write( tempFile ) )
+            {
+                channel.truncate( 0 );
+                channel.writeAll( ByteBuffer.allocate( Long.BYTES ).putLong( bytesPerSecond ).flip() );
+                channel.force( false );
+            }
+            fs.renameFile( tempFile, throughputFile, ATOMIC_MOVE, REPLACE_EXISTING );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not keep the observed recovery throughput in " + throughputFile + ".", e );
+        }
+    }
+
+    private LogPosition lastClosedTransactionPosition()
+    {
+        TransactionIdStore store = transactionIdStore;
+        if ( store == null )
+        {
+            return LogPosition.UNSPECIFIED;
+        }
+        long[] lastClosedTransaction = store.getLastClosedTransaction();
+        return new LogPosition( lastClosedTransaction[1], lastClosedTransaction[2] );
+    }
+}
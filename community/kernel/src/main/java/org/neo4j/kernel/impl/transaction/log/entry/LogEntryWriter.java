@@ -40,11 +40,13 @@ public class LogEntryWriter<T extends WritableChecksumChannel>
 {
     private final Visitor<StorageCommand,IOException> serializer;
     protected final T channel;
+    private final KernelVersion version;
     private final byte parserSetVersion;
 
     public LogEntryWriter( T channel, KernelVersion version )
     {
         this.channel = channel;
+        this.version = version;
         this.parserSetVersion = version.version();
         this.serializer = new StorageCommandSerializer( channel, this );
     }
@@ -90,6 +92,48 @@ public class LogEntryWriter<T extends WritableChecksumChannel>
         tx.accept( serializer );
     }
 
+    /**
+     * Serialize the command entries of the given transaction on heap, into the given {@link SerializedCommands} rather than to the channel
+     * of this writer, so that it can be done ahead of appending the transaction. The commands are compressed if asked to and if the version
+     * of this writer supports compressed commands.
+     */
+    public void serializeCommands( TransactionRepresentation tx, boolean compress, SerializedCommands commands ) throws IOException
+    {
+        serializeEntries( tx, commands );
+        if ( compress && version.isAtLeast( KernelVersion.VERSION_IN_WHICH_COMPRESSED_COMMANDS_ARE_INTRODUCED ) )
+        {
+            commands.compress( this );
+        }
+    }
+
+    /**
+     * Serialize the command entries of the given transaction to the channel of this writer, streamed through the given
+     * {@link SerializedCommands} which compresses them in runs no larger than its buffers. Unlike
+     * {@link #serializeCommands(TransactionRepresentation, boolean, SerializedCommands)} this keeps the commands of transactions
+     * of any size compressed, but it has to be done while appending the transaction.
+     */
+    public void serializeCompressed( TransactionRepresentation tx, SerializedCommands commands ) throws IOException
+    {
+        if ( !version.isAtLeast( KernelVersion.VERSION_IN_WHICH_COMPRESSED_COMMANDS_ARE_INTRODUCED ) )
+        {
+            serialize( tx );
+            return;
+        }
+        commands.streamTo( this, channel );
+        serializeEntries( tx, commands );
+        commands.flush();
+    }
+
+    private void serializeEntries( TransactionRepresentation tx, SerializedCommands commands ) throws IOException
+    {
+        StorageCommandSerializer commandSerializer = new StorageCommandSerializer( commands, this );
+        tx.accept( command ->
+        {
+            commands.startEntry();
+            return commandSerializer.visit( command );
+        } );
+    }
+
     public void serialize( CommittedTransactionRepresentation tx ) throws IOException
     {
         writeStartEntry( tx.getStartEntry() );
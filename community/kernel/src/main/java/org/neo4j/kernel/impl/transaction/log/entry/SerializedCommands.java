@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.util.FeatureToggles;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompressedCommands.MAXIMUM_UNCOMPRESSED_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
+
+/**
+ * The command entries of one transaction, serialized on heap ahead of appending the transaction to the log, so that
+ * the encoding of commands, and their compression, can happen concurrently outside of the log append lock.
+ * The entries can be {@link #compress(LogEntryWriter) compressed} into one {@link LogEntryTypeCodes#COMPRESSED_COMMANDS}
+ * entry, which is only done if that makes them smaller.
+ * <p>
+ * Instances are meant to be reused between transactions. The memory of the buffers is charged to the {@link MemoryTracker} given in
+ * {@link #reset(MemoryTracker)}, until the next {@link #release()}, which also lets go of buffers that have grown beyond their initial size.
+ * The buffers never grow beyond a maximum size. Commands that don't fit are not kept at all, which is visible through {@link #overflowed()}.
+ * Those, as well as commands that weren't serialized ahead of time, can instead be {@link LogEntryWriter#serializeCompressed streamed}
+ * through the buffers into the log while appending, compressed in runs no larger than the buffers.
+ * <p>
+ * Instances are not thread safe.
+ */
+public class SerializedCommands implements WritableChannel
+{
+    private static final int COMPRESSION_LEVEL = FeatureToggles.getInteger( SerializedCommands.class, "compressionLevel", 1 );
+    private static final int MINIMUM_COMPRESSION_SIZE = FeatureToggles.getInteger( SerializedCommands.class, "minimumCompressionSize", 512 );
+    private static final int INITIAL_BUFFER_SIZE = FeatureToggles.getInteger( SerializedCommands.class, "initialBufferSize", 1024 );
+    private static final int MAXIMUM_BUFFER_SIZE =
+            FeatureToggles.getInteger( SerializedCommands.class, "maximumBufferSize", (int) ByteUnit.mebiBytes( 1 ) );
+    // The compressed entry header is two bytes for the entry itself and two ints for the lengths
+    private static final int COMPRESSED_HEADER_SIZE = Short.BYTES + Integer.BYTES * 2;
+
+    private final int initialSize;
+    private final int maximumSize;
+    private ByteBuffer plain;
+    private byte[] compressed;
+    /**
+     * The buffer that is written to and that will be written to the log, either {@link #plain} or a wrapped {@link #compressed}.
+     */
+    private ByteBuffer buffer;
+    private boolean overflowed;
+    /**
+     * Where in {@link #plain} the entry currently being serialized starts.
+     */
+    private int entryStart;
+    /**
+     * The log channel that entries are streamed to, and the writer of its entry headers, or {@code null} when not streaming.
+     */
+    private WritableChannel target;
+    private LogEntryWriter<?> targetWriter;
+    private MemoryTracker memoryTracker;
+    private long trackedBytes;
+
+    public SerializedCommands()
+    {
+        this( INITIAL_BUFFER_SIZE, MAXIMUM_BUFFER_SIZE );
+    }
+
+    SerializedCommands( int initialSize, int maximumSize )
+    {
+        // Larger compressed entries would be taken for corrupt ones by the readers of the log
+        this.maximumSize = Math.min( maximumSize, MAXIMUM_UNCOMPRESSED_SIZE );
+        this.initialSize = Math.min( initialSize, this.maximumSize );
+        this.plain = ByteBuffer.allocate( this.initialSize );
+        this.buffer = plain;
+    }
+
+    /**
+     * Prepare for serializing the commands of another transaction, charging the memory of the buffers to the given tracker.
+     */
+    public void reset( MemoryTracker memoryTracker )
+    {
+        release();
+        this.memoryTracker = memoryTracker;
+        track( plain.capacity() + (compressed == null ? 0 : compressed.length) );
+    }
+
+    /**
+     * Forget the serialized commands and release the memory of the buffers from the tracker given in {@link #reset(MemoryTracker)}.
+     * The buffers themselves are kept for the next transaction, unless a large transaction has grown them beyond their initial size.
+     */
+    public void release()
+    {
+        if ( memoryTracker != null )
+        {
+            memoryTracker.releaseHeap( trackedBytes );
+            memoryTracker = null;
+        }
+        trackedBytes = 0;
+        if ( plain.capacity() > initialSize )
+        {
+            plain = ByteBuffer.allocate( initialSize );
+        }
+        if ( compressed != null && compressed.length > compressedSize( initialSize ) )
+        {
+            compressed = null;
+        }
+        plain.clear();
+        buffer = plain;
+        overflowed = false;
+        entryStart = 0;
+        target = null;
+        targetWriter = null;
+    }
+
+    /**
+     * @return {@code true} if the commands didn't fit in the maximum size of the buffers and were not kept.
+     */
+    public boolean overflowed()
+    {
+        return overflowed;
+    }
+
+    /**
+     * Called before serializing each entry, so that entries can be streamed without splitting any of them between compressed entries.
+     */
+    void startEntry()
+    {
+        entryStart = plain.position();
+    }
+
+    /**
+     * Replace the serialized command entries with a single compressed entry, if the commands are large enough
+     * to be worth compressing and the compressed entry is smaller.
+     */
+    void compress( LogEntryWriter<?> writer ) throws IOException
+    {
+        if ( !overflowed )
+        {
+            compress( writer, plain.position() );
+        }
+    }
+
+    /**
+     * Start streaming entries to the given log channel, forgetting any commands that were serialized or overflowed before.
+     * Runs of entries are written to the channel as the buffers fill up, until {@link #flush()}.
+     */
+    void streamTo( LogEntryWriter<?> writer, WritableChannel channel )
+    {
+        plain.clear();
+        buffer = plain;
+        overflowed = false;
+        entryStart = 0;
+        target = channel;
+        targetWriter = writer;
+    }
+
+    /**
+     * Write the entries that are left to the log channel given in {@link #streamTo(LogEntryWriter, WritableChannel)} and stop streaming.
+     */
+    void flush() throws IOException
+    {
+        writeEntries( plain.position() );
+        entryStart = 0;
+        target = null;
+        targetWriter = null;
+    }
+
+    /**
+     * @return the number of bytes the serialized commands will take up in the log.
+     */
+    public int size()
+    {
+        return buffer.position();
+    }
+
+    /**
+     * Write the serialized command entries to the given channel.
+     */
+    public void writeTo( WritableChannel channel ) throws IOException
+    {
+        if ( overflowed )
+        {
+            throw new IllegalStateException( "Commands exceeding " + maximumSize + " bytes were not kept and have to be serialized straight into the log" );
+        }
+        channel.put( buffer.array(), buffer.position() );
+    }
+
+    @Override
+    public SerializedCommands put( byte value ) throws IOException
+    {
+        if ( ensureCapacity( Byte.BYTES ) )
+        {
+            buffer.put( value );
+        }
+        return this;
+    }
+
+    @Override
+    public SerializedCommands putShort( short value ) throws IOException
+    {
+        if ( ensureCapacity( Short.BYTES ) )
+        {
+            buffer.putShort( value );
+        }
+        return this;
+    }
+
+    @Override
+    public SerializedCommands putInt( int value ) throws IOException
+    {
+        if ( ensureCapacity( Integer.BYTES ) )
+        {
+            buffer.putInt( value );
+        }
+        return this;
+    }
+
+    @Override
+    public SerializedCommands putLong( long value ) throws IOException
+    {
+        if ( ensureCapacity( Long.BYTES ) )
+        {
+            buffer.putLong( value );
+        }
+        return this;
+    }
+
+    @Override
+    public SerializedCommands putFloat( float value ) throws IOException
+    {
+        if ( ensureCapacity( Float.BYTES ) )
+        {
+            buffer.putFloat( value );
+        }
+        return this;
+    }
+
+    @Override
+    public SerializedCommands putDouble( double value ) throws IOException
+    {
+        if ( ensureCapacity( Double.BYTES ) )
+        {
+            buffer.putDouble( value );
+        }
+        return this;
+    }
+
+    @Override
+    public SerializedCommands put( byte[] value, int length ) throws IOException
+    {
+        if ( ensureCapacity( length ) )
+        {
+            buffer.put( value, 0, length );
+        }
+        return this;
+    }
+
+    /**
+     * Replace the first given number of bytes of serialized entries with a single compressed entry in {@link #buffer},
+     * if they are large enough to be worth compressing and the compressed entry is smaller.
+     *
+     * @return whether or not the entries were compressed.
+     */
+    private boolean compress( LogEntryWriter<?> writer, int length ) throws IOException
+    {
+        if ( length < MINIMUM_COMPRESSION_SIZE )
+        {
+            return false;
+        }
+        int bound = (int) Zstd.compressBound( length );
+        if ( compressed == null || compressed.length < COMPRESSED_HEADER_SIZE + bound )
+        {
+            int size = compressedSize( Math.max( length, plain.capacity() ) );
+            track( size - (compressed == null ? 0 : compressed.length) );
+            compressed = new byte[size];
+        }
+        long compressedLength = Zstd.compressByteArray( compressed, COMPRESSED_HEADER_SIZE, bound, plain.array(), 0, length, COMPRESSION_LEVEL );
+        if ( Zstd.isError( compressedLength ) )
+        {
+            throw new IOException( "Unable to compress commands: " + Zstd.getErrorName( compressedLength ) );
+        }
+        if ( COMPRESSED_HEADER_SIZE + compressedLength >= length )
+        {
+            return false;
+        }
+        buffer = ByteBuffer.wrap( compressed );
+        writer.writeLogEntryHeader( COMPRESSED_COMMANDS, this );
+        putInt( length ).putInt( (int) compressedLength );
+        buffer.position( COMPRESSED_HEADER_SIZE + (int) compressedLength );
+        return true;
+    }
+
+    /**
+     * Write the first given number of bytes of serialized entries to the log channel that is streamed to, compressed if that makes them smaller,
+     * and move the bytes after them to the start of the buffer.
+     */
+    private void writeEntries( int length ) throws IOException
+    {
+        if ( compress( targetWriter, length ) )
+        {
+            target.put( compressed, buffer.position() );
+            buffer = plain;
+        }
+        else
+        {
+            target.put( plain.array(), length );
+        }
+        int remaining = plain.position() - length;
+        System.arraycopy( plain.array(), length, plain.array(), 0, remaining );
+        plain.position( remaining );
+        entryStart -= length;
+    }
+
+    /**
+     * @return whether or not there's room for the given number of bytes, growing the buffer up to its maximum size if needed.
+     * When streaming, the entries before the one being serialized are written to the log to make room instead.
+     */
+    private boolean ensureCapacity( int bytes ) throws IOException
+    {
+        if ( overflowed )
+        {
+            return false;
+        }
+        if ( target != null && buffer == plain && entryStart > 0 && plain.position() + bytes > maximumSize )
+        {
+            writeEntries( entryStart );
+        }
+        if ( buffer.remaining() >= bytes )
+        {
+            return true;
+        }
+        int required = buffer.position() + bytes;
+        if ( target != null && buffer == plain )
+        {
+            // A single entry larger than the maximum size can still be streamed, as long as a compressed entry can hold it
+            if ( required > MAXIMUM_UNCOMPRESSED_SIZE )
+            {
+                throw new IOException( "Unable to stream a command entry larger than " + MAXIMUM_UNCOMPRESSED_SIZE + " bytes" );
+            }
+            grow( Math.min( Math.max( plain.capacity() * 2, required ), Math.max( required, maximumSize ) ) );
+            return true;
+        }
+        if ( buffer != plain || required > maximumSize )
+        {
+            // Don't grow beyond the maximum size, the commands will be streamed into the log instead
+            overflowed = true;
+            plain.clear();
+            buffer = plain;
+            return false;
+        }
+        grow( Math.min( Math.max( plain.capacity() * 2, required ), maximumSize ) );
+        return true;
+    }
+
+    private void grow( int newCapacity )
+    {
+        track( newCapacity - plain.capacity() );
+        ByteBuffer grown = ByteBuffer.allocate( newCapacity );
+        grown.put( plain.array(), 0, plain.position() );
+        plain = grown;
+        buffer = grown;
+    }
+
+    private static int compressedSize( int length )
+    {
+        return COMPRESSED_HEADER_SIZE + (int) Zstd.compressBound( length );
+    }
+
+    private void track( long bytes )
+    {
+        if ( memoryTracker != null )
+        {
+            memoryTracker.allocateHeap( bytes );
+            trackedBytes += bytes;
+        }
+    }
+}
@@ -49,6 +49,11 @@ public interface LogFile extends RotatableFile
      */
     TransactionLogWriter getTransactionLogWriter();
 
+    /**
+     * @return the {@link SparseTransactionIndex} of the log files, for finding transactions without scanning whole log files.
+     */
+    SparseTransactionIndex getTransactionIndex();
+
     /**
      * Opens a {@link ReadableLogChannel reader} at the desired {@link LogPosition}, capable of reading log entries
      * from that position and onwards, through physical log versions.
@@ -118,5 +123,12 @@ public interface LogFile extends RotatableFile
 
     boolean forceAfterAppend( LogForceEvents logForceEvents ) throws IOException;
 
+    /**
+     * Force what has been written to the channel of the current log file, leaving out whatever is still buffered by the
+     * {@link #getTransactionLogWriter() writer}. Unlike {@link #forceAfterAppend(LogForceEvents)} this doesn't synchronize with
+     * appenders, so it can be called while another thread holds the monitor of this log file, e.g. to rotate it.
+     */
+    void forceChannel() throws IOException;
+
     void flush() throws IOException;
 }
@@ -48,6 +48,9 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.monitoring.PanicEventGenerator;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.KernelVersionRepository;
 import org.neo4j.storageengine.api.LogVersionRepository;
@@ -103,6 +106,7 @@ public class LogFilesBuilder
     private StoreId storeId;
     private NativeAccess nativeAccess;
     private KernelVersionRepository kernelVersionRepository;
+    private JobScheduler jobScheduler;
 
     private LogFilesBuilder()
     {
@@ -234,6 +238,12 @@ public class LogFilesBuilder
         return this;
     }
 
+    public LogFilesBuilder withJobScheduler( JobScheduler jobScheduler )
+    {
+        this.jobScheduler = jobScheduler;
+        return this;
+    }
+
     public LogFilesBuilder withNativeAccess( NativeAccess nativeAccess )
     {
         this.nativeAccess = nativeAccess;
@@ -308,6 +318,7 @@ public class LogFilesBuilder
         var monitors = getMonitors();
         var health = getDatabaseHealth();
         var clock = getClock();
+        var prefetchExecutor = getPrefetchExecutor();
 
         // If no transaction log version provider has been supplied explicitly, we try to use the version from the system database.
         // Or the latest version if we can't find the system db version.
@@ -330,7 +341,27 @@ public class LogFilesBuilder
         return new TransactionLogFilesContext( rotationThreshold, tryPreallocateTransactionLogs, logEntryReader, lastCommittedIdSupplier,
                 committingTransactionIdSupplier, lastClosedTransactionPositionSupplier, logVersionRepositorySupplier,
                 fileSystem, logProvider, databaseTracers, storeIdSupplier, nativeAccess, memoryTracker, monitors, config.get( fail_on_corrupted_log_files ),
-                health, kernelVersionRepository, clock, config );
+                health, kernelVersionRepository, clock, config, prefetchExecutor );
+    }
+
+    /**
+     * Log files without a job scheduler read their logs without reading ahead in the background, rather than starting threads of their own.
+     */
+    private CallableExecutor getPrefetchExecutor()
+    {
+        JobScheduler scheduler = jobScheduler;
+        if ( scheduler == null && dependencies != null )
+        {
+            try
+            {
+                scheduler = dependencies.resolveDependency( JobScheduler.class );
+            }
+            catch ( UnsatisfiedDependencyException e )
+            {
+                return null;
+            }
+        }
+        return scheduler != null ? scheduler.executor( Group.FILE_IO_HELPER ) : null;
     }
 
     private Clock getClock()
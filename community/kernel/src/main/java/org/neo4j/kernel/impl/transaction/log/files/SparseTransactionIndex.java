@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
+import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.logging.Log;
+import org.neo4j.util.FeatureToggles;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A sparse index from transaction id to the position of its start entry, for each transaction log file. A transaction is sampled
+ * whenever it starts at least {@link #SAMPLE_INTERVAL} bytes after the previously sampled one, so that finding any transaction
+ * takes one seek to the closest sample before it and a short scan from there, instead of a scan from the start of its log file.
+ * <p>
+ * Samples of the log file being appended to are kept in memory and are written to an index file next to the log file when it is
+ * rotated. Index files of log files that were not written that way, e.g. the log file that was current when the database was last
+ * shut down, are rebuilt the first time they are needed. An index file records the size and the header of the log file it describes
+ * and is rebuilt if they don't match. The index is only an optimization, failing to read or write an index file falls back to
+ * scanning the log file from its start.
+ */
+public class SparseTransactionIndex
+{
+    static final long SAMPLE_INTERVAL = FeatureToggles.getLong( SparseTransactionIndex.class, "sampleInterval", ByteUnit.kibiBytes( 64 ) );
+    static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final long MAGIC = 0x5458_494e_4445_5831L;
+    // magic, log version, last committed transaction id of the log header, log file size and number of samples
+    private static final int HEADER_SIZE = Long.BYTES * 4 + Integer.BYTES;
+    private static final int SAMPLE_SIZE = Long.BYTES * 2;
+
+    private final FileSystemAbstraction fs;
+    private final LogFile logFile;
+    private final Log log;
+    private final Object rebuildLock = new Object();
+
+    // Samples of the log file currently being appended to, guarded by this
+    private final LongArrayList currentTransactionIds = new LongArrayList();
+    private final LongArrayList currentOffsets = new LongArrayList();
+    private long currentVersion = -1;
+    private boolean currentCoversWholeFile;
+    // Only accessed by the appending thread, which holds the log file monitor
+    private long lastSampledOffset;
+
+    SparseTransactionIndex( FileSystemAbstraction fs, LogFile logFile, Log log )
+    {
+        this.fs = fs;
+        this.logFile = logFile;
+        this.log = log;
+    }
+
+    /**
+     * Start sampling transactions appended to the given log version.
+     * @param coversWholeFile whether all transactions of the log file will be appended after this call, i.e. whether it's still empty.
+     */
+    synchronized void start( long version, long currentOffset, boolean coversWholeFile )
+    {
+        currentVersion = version;
+        currentCoversWholeFile = coversWholeFile;
+        currentTransactionIds.clear();
+        currentOffsets.clear();
+        lastSampledOffset = currentOffset;
+    }
+
+    /**
+     * Called for every transaction appended to the log, with the position of its start entry.
+     */
+    public void transactionAppended( long transactionId, LogPositionMarker startPosition )
+    {
+        long offset = startPosition.getByteOffset();
+        if ( offset - lastSampledOffset >= SAMPLE_INTERVAL )
+        {
+            lastSampledOffset = offset;
+            synchronized ( this )
+            {
+                currentTransactionIds.add( transactionId );
+                currentOffsets.add( offset );
+            }
+        }
+    }
+
+    /**
+     * Called when the log file of the given version has been completed, to write its index file. Sampling continues in the new version.
+     * Failing to write the index file doesn't fail the rotation, it will be rebuilt when needed.
+     */
+    synchronized void logRotated( long version, long logFileSize, long newVersion )
+    {
+        if ( version == currentVersion && currentCoversWholeFile )
+        {
+            try
+            {
+                LogHeader header = logFile.extractHeader( version );
+                if ( header != null )
+                {
+                    write( version, header, logFileSize, currentTransactionIds, currentOffsets );
+                }
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Unable to write the transaction index of log version " + version + ", it will be rebuilt when needed.", e );
+            }
+        }
+        start( newVersion, 0, true );
+    }
+
+    /**
+     * Find the position to start scanning from for the start entry of the given transaction.
+     *
+     * @param transactionId id of the transaction to find.
+     * @param logStart position of the first entry of the log file that contains the transaction.
+     * @param reader reader to use if the index of that log file needs to be rebuilt.
+     * @return the start position of the closest sampled transaction not after the given one, or {@code logStart} if there is none
+     * or the index of that log file could neither be read nor rebuilt.
+     */
+    public LogPosition closestPosition( long transactionId, LogPosition logStart, LogEntryReader reader )
+    {
+        long version = logStart.getLogVersion();
+        synchronized ( this )
+        {
+            if ( version == currentVersion )
+            {
+                return closest( transactionId, logStart, currentTransactionIds, currentOffsets );
+            }
+        }
+
+        LongArrayList transactionIds = new LongArrayList();
+        LongArrayList offsets = new LongArrayList();
+        try
+        {
+            if ( !read( version, transactionIds, offsets ) )
+            {
+                synchronized ( rebuildLock )
+                {
+                    if ( !read( version, transactionIds, offsets ) && !rebuild( version, reader, transactionIds, offsets ) )
+                    {
+                        return logStart;
+                    }
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to use the transaction index of log version " + version + ", scanning the log file from its start instead.", e );
+            return logStart;
+        }
+        return closest( transactionId, logStart, transactionIds, offsets );
+    }
+
+    private static LogPosition closest( long transactionId, LogPosition logStart, LongArrayList transactionIds, LongArrayList offsets )
+    {
+        int low = 0;
+        int high = transactionIds.size() - 1;
+        int found = -1;
+        while ( low <= high )
+        {
+            int mid = (low + high) >>> 1;
+            if ( transactionIds.get( mid ) <= transactionId )
+            {
+                found = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return found == -1 ? logStart : new LogPosition( logStart.getLogVersion(), offsets.get( found ) );
+    }
+
+    private boolean rebuild( long version, LogEntryReader reader, LongArrayList transactionIds, LongArrayList offsets ) throws IOException
+    {
+        LogHeader header = logFile.extractHeader( version );
+        if ( header == null )
+        {
+            return false;
+        }
+        long logFileSize = fs.getFileSize( logFile.getLogFileForVersion( version ) );
+        long lastSampled = 0;
+        long startOffset = -1;
+        try ( ReadableLogChannel channel = logFile.getReader( header.getStartPosition(), LogVersionBridge.NO_MORE_CHANNELS ) )
+        {
+            LogEntry entry;
+            while ( (entry = reader.readLogEntry( channel )) != null )
+            {
+                if ( entry instanceof LogEntryStart )
+                {
+                    startOffset = ((LogEntryStart) entry).getStartPosition().getByteOffset();
+                }
+                else if ( entry instanceof LogEntryCommit && startOffset - lastSampled >= SAMPLE_INTERVAL )
+                {
+                    transactionIds.add( ((LogEntryCommit) entry).getTxId() );
+                    offsets.add( startOffset );
+                    lastSampled = startOffset;
+                }
+            }
+        }
+        try
+        {
+            write( version, header, logFileSize, transactionIds, offsets );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to write the rebuilt transaction index of log version " + version + ", it will be rebuilt again when needed.", e );
+        }
+        return true;
+    }
+
+    private void write( long version, LogHeader header, long logFileSize, LongArrayList transactionIds, LongArrayList offsets ) throws IOException
+    {
+        Path indexFile = TransactionLogFilesHelper.indexFileFor( logFile.getLogFileForVersion( version ) );
+        Path tempFile = indexFile.resolveSibling( indexFile.getFileName() + TEMP_FILE_SUFFIX );
+        ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE + transactionIds.size() * SAMPLE_SIZE );
+        buffer.putLong( MAGIC ).putLong( version ).putLong( header.getLastCommittedTxId() ).putLong( logFileSize ).putInt( transactionIds.size() );
+        for ( int i = 0; i < transactionIds.size(); i++ )
+        {
+            buffer.putLong( transactionIds.get( i ) ).putLong( offsets.get( i ) );
+        }
+        try ( StoreChannel channel = fs.write( tempFile ) )
+        {
+            channel.truncate( 0 );
+            channel.writeAll( buffer.flip() );
+        }
+        fs.renameFile( tempFile, indexFile, ATOMIC_MOVE, REPLACE_EXISTING );
+    }
+
+    private boolean read( long version, LongArrayList transactionIds, LongArrayList offsets ) throws IOException
+    {
+        Path file = logFile.getLogFileForVersion( version );
+        Path indexFile = TransactionLogFilesHelper.indexFileFor( file );
+        if ( !fs.fileExists( indexFile ) || !fs.fileExists( file ) )
+        {
+            return false;
+        }
+        long indexFileSize = fs.getFileSize( indexFile );
+        if ( indexFileSize < HEADER_SIZE || indexFileSize > Integer.MAX_VALUE )
+        {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate( (int) indexFileSize );
+        try ( StoreChannel channel = fs.read( indexFile ) )
+        {
+            channel.readAll( buffer );
+        }
+        buffer.flip();
+        LogHeader header = logFile.extractHeader( version );
+        long magic = buffer.getLong();
+        long storedVersion = buffer.getLong();
+        long lastCommittedTxId = buffer.getLong();
+        long logFileSize = buffer.getLong();
+        int count = buffer.getInt();
+        if ( magic != MAGIC || storedVersion != version || header == null || lastCommittedTxId != header.getLastCommittedTxId() ||
+             logFileSize != fs.getFileSize( file ) || count < 0 || (long) count * SAMPLE_SIZE != buffer.remaining() )
+        {
+            return false;
+        }
+        for ( int i = 0; i < count; i++ )
+        {
+            transactionIds.add( buffer.getLong() );
+            offsets.add( buffer.getLong() );
+        }
+        return true;
+    }
+}
@@ -67,6 +67,7 @@ import org.neo4j.storageengine.api.LogVersionRepository;
 
 import static java.lang.Math.min;
 import static java.lang.Runtime.getRuntime;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_command_compression;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
 /**
@@ -93,6 +94,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
     private final LogHeaderCache logHeaderCache;
     private final FileSystemAbstraction fileSystem;
     private TransactionLogWriter transactionLogWriter;
+    private final SparseTransactionIndex transactionIndex;
 
     TransactionLogFile( LogFiles logFiles, TransactionLogFilesContext context, String name )
     {
@@ -108,6 +110,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         this.readerLogVersionBridge = new ReaderLogVersionBridge( this );
         this.pageCacheTracer = context.getDatabaseTracers().getPageCacheTracer();
         this.memoryTracker = context.getMemoryTracker();
+        this.transactionIndex = new SparseTransactionIndex( fileSystem, this, context.getLogProvider().getLog( SparseTransactionIndex.class ) );
     }
 
     @Override
@@ -119,6 +122,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
     @Override
     public void start() throws IOException
     {
+        deleteIndexFilesWithoutLogFile();
         long currentLogVersion = logVersionRepository.getCurrentLogVersion();
         channel = createLogChannelForVersion( currentLogVersion, context::getLastCommittedTransactionId );
         context.getMonitors().newMonitor( LogRotationMonitor.class ).started( channel.getPath(), currentLogVersion );
@@ -127,7 +131,28 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         seekChannelPosition( currentLogVersion );
 
         writer = new PositionAwarePhysicalFlushableChecksumChannel( channel, new NativeScopedBuffer( calculateLogBufferSize(), memoryTracker ) );
-        transactionLogWriter = new TransactionLogWriter( writer, new DbmsLogEntryWriterFactory( context.getKernelVersionProvider() ) );
+        transactionLogWriter = new TransactionLogWriter( writer, new DbmsLogEntryWriterFactory( context.getKernelVersionProvider() ),
+                context.getConfig().get( tx_log_command_compression ), transactionIndex );
+
+        LogPosition position = writer.getCurrentPosition();
+        LogHeader header = extractHeader( currentLogVersion );
+        transactionIndex.start( currentLogVersion, position.getByteOffset(), header != null && header.getStartPosition().equals( position ) );
+    }
+
+    /**
+     * Log files can be removed by others than this log file, e.g. when they are replaced by a store copy, so the index files of those
+     * must be removed before a log file of the same version can be created again. So are index files that were left half written.
+     */
+    private void deleteIndexFilesWithoutLogFile() throws IOException
+    {
+        for ( Path indexFile : fileHelper.getMatchedIndexFiles() )
+        {
+            if ( indexFile.getFileName().toString().endsWith( SparseTransactionIndex.TEMP_FILE_SUFFIX ) ||
+                 !versionExists( TransactionLogFilesHelper.getLogVersion( indexFile ) ) )
+            {
+                fileSystem.deleteFile( indexFile );
+            }
+        }
     }
 
     // In order to be able to write into a logfile after life.stop during shutdown sequence
@@ -195,6 +220,12 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         return transactionLogWriter;
     }
 
+    @Override
+    public SparseTransactionIndex getTransactionIndex()
+    {
+        return transactionIndex;
+    }
+
     @Override
     public void flush() throws IOException
     {
@@ -223,7 +254,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
     {
         PhysicalLogVersionedStoreChannel logChannel = openForVersion( position.getLogVersion(), raw );
         logChannel.position( position.getByteOffset() );
-        return new ReadAheadLogChannel( logChannel, logVersionBridge, memoryTracker, raw );
+        return ReadAheadLogChannel.prefetching( logChannel, logVersionBridge, memoryTracker, raw, context.getPrefetchExecutor() );
     }
 
     @Override
@@ -432,6 +463,24 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         return attemptedForce;
     }
 
+    @Override
+    public void forceChannel() throws IOException
+    {
+        try
+        {
+            channel.flush();
+        }
+        catch ( ClosedChannelException ignored )
+        {
+            // The log is being rotated, which forces the channel before closing it.
+        }
+        catch ( final Throwable panic )
+        {
+            databaseHealth.panic( panic );
+            throw panic;
+        }
+    }
+
     /**
      * Rotates the current log file, continuing into next (version) log file.
      * This method must be recovery safe, which means a crash at any point should be recoverable.
@@ -490,6 +539,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
          */
         writer.prepareForFlush().flush();
         currentLog.truncate( currentLog.position() );
+        transactionIndex.logRotated( currentLog.getVersion(), currentLog.position(), newLogVersion );
 
         /*
          * The log version is now in the store, flushed and persistent. If we crash
@@ -42,6 +42,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.CallableExecutor;
 import org.neo4j.storageengine.api.StoreId;
 
 import static java.lang.Math.min;
@@ -50,6 +51,7 @@ import static java.lang.String.format;
 import static org.neo4j.internal.helpers.Numbers.safeCastLongToInt;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.fs.FileUtils.getCanonicalFile;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
 import static org.neo4j.kernel.impl.transaction.log.files.RangeLogVersionVisitor.UNKNOWN;
 
 public abstract class AbstractLogTailScanner
@@ -60,17 +62,19 @@ public abstract class AbstractLogTailScanner
     protected final LogTailScannerMonitor monitor;
     protected final Log log;
     protected final MemoryTracker memoryTracker;
+    protected final CallableExecutor prefetcher;
     private LogTailInformation logTailInformation;
 
     AbstractLogTailScanner( LogFiles logFiles,
             LogEntryReader logEntryReader, Monitors monitors,
-            LogProvider log, MemoryTracker memoryTracker )
+            LogProvider log, MemoryTracker memoryTracker, CallableExecutor prefetcher )
     {
         this.logFiles = logFiles;
         this.logEntryReader = logEntryReader;
         this.monitor = monitors.newMonitor( LogTailScannerMonitor.class );
         this.log = log.getLog( getClass() );
         this.memoryTracker = memoryTracker;
+        this.prefetcher = prefetcher;
     }
 
     protected abstract LogTailInformation findLogTail() throws IOException;
@@ -194,7 +198,8 @@ public abstract class AbstractLogTailScanner
                 try ( LogVersionedStoreChannel storeChannel = logFile.openForVersion( logVersion ) )
                 {
                     storeChannel.position( currentPosition.getByteOffset() );
-                    try ( LogEntryCursor cursor = new LogEntryCursor( logEntryReader, new ReadAheadLogChannel( storeChannel, memoryTracker ) ) )
+                    try ( LogEntryCursor cursor = new LogEntryCursor( logEntryReader,
+                            ReadAheadLogChannel.prefetching( storeChannel, NO_MORE_CHANNELS, memoryTracker, false, prefetcher ) ) )
                     {
                         while ( cursor.next() )
                         {
@@ -40,8 +40,10 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.CallableExecutor;
 import org.neo4j.storageengine.api.StoreId;
 
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
 import static org.neo4j.kernel.impl.transaction.log.files.RangeLogVersionVisitor.UNKNOWN;
 import static org.neo4j.storageengine.api.LogVersionRepository.INITIAL_LOG_VERSION;
 
@@ -66,14 +68,20 @@ public class InlinedLogTailScanner extends AbstractLogTailScanner
                            LogEntryReader logEntryReader, Monitors monitors,
                            boolean failOnCorruptedLogFiles, LogProvider log, MemoryTracker memoryTracker )
     {
-        super( logFiles, logEntryReader, monitors, log, memoryTracker );
+        this( logFiles, logEntryReader, monitors, failOnCorruptedLogFiles, log, memoryTracker, null );
+    }
+
+    private InlinedLogTailScanner( LogFiles logFiles, LogEntryReader logEntryReader, Monitors monitors, boolean failOnCorruptedLogFiles, LogProvider log,
+            MemoryTracker memoryTracker, CallableExecutor prefetcher )
+    {
+        super( logFiles, logEntryReader, monitors, log, memoryTracker, prefetcher );
         this.failOnCorruptedLogFiles = failOnCorruptedLogFiles;
     }
 
     InlinedLogTailScanner( LogFiles logFiles, TransactionLogFilesContext context )
     {
         this( logFiles, context.getLogEntryReader(), context.getMonitors(), context.isFailOnCorruptedLogFiles(), context.getLogProvider(),
-                context.getMemoryTracker() );
+                context.getMemoryTracker(), context.getPrefetchExecutor() );
     }
 
     protected LogTailInformation findLogTail() throws IOException
@@ -97,7 +105,7 @@ public class InlinedLogTailScanner extends AbstractLogTailScanner
             CheckpointInfo latestCheckPoint = null;
             StoreId storeId = StoreId.UNKNOWN;
             try ( LogVersionedStoreChannel channel = logFile.openForVersion( version );
-                  var readAheadChannel = new ReadAheadLogChannel( channel, memoryTracker );
+                  var readAheadChannel = ReadAheadLogChannel.prefetching( channel, NO_MORE_CHANNELS, memoryTracker, false, prefetcher );
                   LogEntryCursor cursor = new LogEntryCursor( logEntryReader, readAheadChannel ) )
             {
                 LogHeader logHeader = logFile.extractHeader( version );
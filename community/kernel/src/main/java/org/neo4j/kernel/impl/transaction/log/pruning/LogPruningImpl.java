@@ -29,6 +29,7 @@ import java.util.function.LongConsumer;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.time.SystemNanoClock;
@@ -159,6 +160,7 @@ public class LogPruningImpl implements LogPruning
             try
             {
                 fs.deleteFile( logFile );
+                fs.deleteFile( TransactionLogFilesHelper.indexFileFor( logFile ) );
             }
             catch ( IOException e )
             {
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.internal.event;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListener;
+import org.neo4j.kernel.internal.event.TransactionListenersState.ListenerState;
+import org.neo4j.logging.Log;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Dispatches after-commit events to {@link AsyncTransactionEventListener asynchronous listeners} of a database, in order, on a single thread.
+ * The thread is started on the first event. Events are queued in a bounded queue and dispatching waits for room when it's full.
+ * Once stopped, events are rejected rather than starting a new thread.
+ */
+@SuppressWarnings( {"unchecked", "rawtypes"} )
+class AsyncTransactionEventDispatcher
+{
+    static final int QUEUE_SIZE = FeatureToggles.getInteger( AsyncTransactionEventDispatcher.class, "queueSize", 1024 );
+    private static final long SHUTDOWN_TIMEOUT_MINUTES = 1;
+
+    private final JobScheduler scheduler;
+    private final GraphDatabaseService databaseService;
+    private final Log log;
+    private ThreadPoolExecutor executor;
+    private boolean stopped;
+
+    AsyncTransactionEventDispatcher( JobScheduler scheduler, GraphDatabaseService databaseService, Log log )
+    {
+        this.scheduler = scheduler;
+        this.databaseService = databaseService;
+        this.log = log;
+    }
+
+    /**
+     * @param memoryTracker tracker of the transaction data, which is reset once the listeners have handled the event, or if the event is rejected.
+     */
+    void dispatch( TransactionData txData, List<ListenerState<?>> listenerStates, MemoryTracker memoryTracker )
+    {
+        Runnable event = () ->
+        {
+            try
+            {
+                for ( ListenerState<?> listenerState : listenerStates )
+                {
+                    TransactionEventListener listener = listenerState.getListener();
+                    try
+                    {
+                        listener.afterCommit( txData, listenerState.getState(), databaseService );
+                    }
+                    catch ( Throwable t )
+                    {
+                        log.error( "Transaction event listener " + listener + " failed handling after-commit event of transaction " +
+                                txData.getTransactionId(), t );
+                    }
+                }
+            }
+            finally
+            {
+                memoryTracker.reset();
+            }
+        };
+        try
+        {
+            executor().execute( event );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            memoryTracker.reset();
+            log.warn( "Dropped after-commit event of transaction " + txData.getTransactionId() + " for asynchronous transaction event listeners", e );
+        }
+    }
+
+    private synchronized ThreadPoolExecutor executor()
+    {
+        if ( stopped )
+        {
+            throw new RejectedExecutionException( "Transaction event dispatcher has been stopped" );
+        }
+        if ( executor == null )
+        {
+            executor = new ThreadPoolExecutor( 1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>( QUEUE_SIZE ),
+                    scheduler.threadFactory( Group.TRANSACTION_EVENTS ), AsyncTransactionEventDispatcher::awaitRoom );
+        }
+        return executor;
+    }
+
+    private static void awaitRoom( Runnable event, ThreadPoolExecutor executor )
+    {
+        if ( executor.isShutdown() )
+        {
+            throw new RejectedExecutionException( "Transaction event dispatcher has been shut down" );
+        }
+        try
+        {
+            executor.getQueue().put( event );
+            if ( executor.isShutdown() && executor.getQueue().remove( event ) )
+            {
+                // Shut down while waiting for room, after which the queue may no longer be drained
+                throw new RejectedExecutionException( "Transaction event dispatcher has been shut down" );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException( "Interrupted while waiting to dispatch transaction event", e );
+        }
+    }
+
+    /**
+     * Dispatches the events already queued and stops the dispatching thread. Events dispatched after this are rejected.
+     */
+    synchronized void stop()
+    {
+        stopped = true;
+        if ( executor == null )
+        {
+            return;
+        }
+        executor.shutdown();
+        try
+        {
+            if ( !executor.awaitTermination( SHUTDOWN_TIMEOUT_MINUTES, TimeUnit.MINUTES ) )
+            {
+                log.warn( "Gave up waiting for %d queued transaction events to be dispatched", executor.getQueue().size() );
+                executor.shutdownNow();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
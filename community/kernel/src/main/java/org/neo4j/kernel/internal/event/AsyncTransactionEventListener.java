@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.internal.event;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListener;
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter;
+
+/**
+ * Used as a marker interface for transaction event listeners which want {@link #afterCommit(TransactionData, Object, GraphDatabaseService)}
+ * to be invoked asynchronously, instead of on the committing thread, which then doesn't have to wait for it.
+ * <p>
+ * After-commit events of all asynchronous listeners of a database are dispatched one at a time, on a single thread, in the order
+ * the transactions completed their commit. Transactions changing the same entities hold their locks until after the event has been
+ * dispatched, so their events will be seen in commit order. The number of events waiting to be dispatched is bounded, and
+ * committing transactions will wait for room if listeners can't keep up.
+ * <p>
+ * {@link #beforeCommit(TransactionData, org.neo4j.graphdb.Transaction, GraphDatabaseService)} and
+ * {@link #afterRollback(TransactionData, Object, GraphDatabaseService)} are still invoked on the committing thread.
+ * The {@link TransactionData} handed to {@link #afterCommit(TransactionData, Object, GraphDatabaseService)} is a snapshot which
+ * is detached from the transaction.
+ */
+public interface AsyncTransactionEventListener<T> extends TransactionEventListener<T>
+{
+    class Adapter<T> extends TransactionEventListenerAdapter<T> implements AsyncTransactionEventListener<T>
+    {
+    }
+}
@@ -19,17 +19,26 @@
  */
 package org.neo4j.kernel.internal.event;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.event.TransactionData;
 import org.neo4j.graphdb.event.TransactionEventListener;
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
 import org.neo4j.kernel.internal.event.TransactionListenersState.ListenerState;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryPool;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 
@@ -37,21 +46,53 @@ import static org.neo4j.configuration.GraphDatabaseSettings.SYSTEM_DATABASE_NAME
 
 /**
  * Handle the collection of transaction event listeners, and fire events as needed.
+ * After-commit events of {@link AsyncTransactionEventListener asynchronous listeners} are handed to an {@link AsyncTransactionEventDispatcher}.
+ * The transaction data of those events outlives the transaction, so it is tracked by a memory tracker of its own, from the given pool.
  */
 @SuppressWarnings( {"unchecked", "rawtypes"} )
 public class DatabaseTransactionEventListeners extends LifecycleAdapter
 {
+    /**
+     * Whether listeners of a class may read the transaction data after the transaction has been closed, i.e. in after-commit or after-rollback.
+     * If none do then the parts of the transaction data nobody read before commit never need to be computed.
+     */
+    private static final ClassValue<Boolean> READS_DATA_AFTER_CLOSE = new ClassValue<>()
+    {
+        @Override
+        protected Boolean computeValue( Class<?> type )
+        {
+            return !isNoOp( type, "afterCommit" ) || !isNoOp( type, "afterRollback" );
+        }
+
+        private boolean isNoOp( Class<?> type, String method )
+        {
+            try
+            {
+                return type.getMethod( method, TransactionData.class, Object.class, GraphDatabaseService.class ).getDeclaringClass() ==
+                        TransactionEventListenerAdapter.class;
+            }
+            catch ( NoSuchMethodException e )
+            {
+                return false;
+            }
+        }
+    };
+
     private final GlobalTransactionEventListeners globalTransactionEventListeners;
     private final GraphDatabaseFacade databaseFacade;
     private final String databaseName;
     private final Set<TransactionEventListener<?>> listeners = ConcurrentHashMap.newKeySet();
+    private final AsyncTransactionEventDispatcher asyncDispatcher;
+    private final MemoryPool detachedDataMemoryPool;
 
     public DatabaseTransactionEventListeners( GraphDatabaseFacade databaseFacade, GlobalTransactionEventListeners globalTransactionEventListeners,
-            NamedDatabaseId namedDatabaseId )
+            NamedDatabaseId namedDatabaseId, JobScheduler scheduler, MemoryPool detachedDataMemoryPool, LogProvider logProvider )
     {
         this.databaseFacade = databaseFacade;
         this.globalTransactionEventListeners = globalTransactionEventListeners;
         this.databaseName = namedDatabaseId.name();
+        this.detachedDataMemoryPool = detachedDataMemoryPool;
+        this.asyncDispatcher = new AsyncTransactionEventDispatcher( scheduler, databaseFacade, logProvider.getLog( getClass() ) );
     }
 
     public void registerTransactionEventListener( TransactionEventListener<?> listener )
@@ -66,6 +107,12 @@ public class DatabaseTransactionEventListeners extends LifecycleAdapter
         globalTransactionEventListeners.unregisterTransactionEventListener( databaseName, listener );
     }
 
+    @Override
+    public void stop()
+    {
+        asyncDispatcher.stop();
+    }
+
     @Override
     public void shutdown()
     {
@@ -85,16 +132,28 @@ public class DatabaseTransactionEventListeners extends LifecycleAdapter
             return null;
         }
 
-        TransactionData txData = new TxStateTransactionDataSnapshot( state, storageReader, transaction );
-        TransactionListenersState listenersStates = new TransactionListenersState( txData );
+        boolean notifiesAll = state.hasDataChanges() || SYSTEM_DATABASE_NAME.equals( databaseName );
+        MemoryTracker detachedDataMemoryTracker = null;
+        for ( TransactionEventListener<?> listener : eventListeners )
+        {
+            if ( isNotified( listener, notifiesAll ) && isDispatchedAsync( listener ) )
+            {
+                detachedDataMemoryTracker = new LocalMemoryTracker( detachedDataMemoryPool );
+                break;
+            }
+        }
+
+        MemoryTracker memoryTracker = detachedDataMemoryTracker != null ? detachedDataMemoryTracker : transaction.memoryTracker();
+        TxStateTransactionDataSnapshot txData = new TxStateTransactionDataSnapshot( state, storageReader, transaction, memoryTracker );
+        TransactionListenersState listenersStates = new TransactionListenersState( txData, detachedDataMemoryTracker );
 
-        boolean hasDataChanges = state.hasDataChanges();
-        boolean isSystem = SYSTEM_DATABASE_NAME.equals( databaseName );
+        boolean readsDataAfterClose = false;
         for ( TransactionEventListener<?> listener : eventListeners )
         {
             boolean internal = listener instanceof InternalTransactionEventListener;
-            if ( hasDataChanges || internal || isSystem )
+            if ( isNotified( listener, notifiesAll ) )
             {
+                readsDataAfterClose |= READS_DATA_AFTER_CLOSE.get( listener.getClass() );
                 Object listenerState = null;
                 try
                 {
@@ -108,6 +167,12 @@ public class DatabaseTransactionEventListeners extends LifecycleAdapter
                 listenersStates.addListenerState( listener, listenerState );
             }
         }
+        if ( readsDataAfterClose )
+        {
+            // The committed state will be gone, and the transaction closed, by the time the listeners get to read it. This can't wait
+            // for the dispatcher thread either, since the store is changed as soon as the transaction is applied.
+            txData.snapshotCommittedState();
+        }
 
         return listenersStates;
     }
@@ -122,12 +187,38 @@ public class DatabaseTransactionEventListeners extends LifecycleAdapter
         }
 
         TransactionData txData = listeners.getTxData();
+        MemoryTracker detachedDataMemoryTracker = listeners.getDetachedDataMemoryTracker();
         try
         {
+            List<ListenerState<?>> asyncListenerStates = null;
+            for ( ListenerState listenerState : listeners.getStates() )
+            {
+                if ( isDispatchedAsync( listenerState.getListener() ) )
+                {
+                    if ( asyncListenerStates == null )
+                    {
+                        asyncListenerStates = new ArrayList<>();
+                    }
+                    asyncListenerStates.add( listenerState );
+                }
+            }
+            if ( asyncListenerStates != null && detachedDataMemoryTracker != null )
+            {
+                // The transaction, and its state, will be released and reused after this call. Detaching only copies the ids of the
+                // changed entities, the entities themselves are created as the listeners read them on the dispatcher thread.
+                ((TxStateTransactionDataSnapshot) txData).detach();
+                MemoryTracker dispatchedMemoryTracker = detachedDataMemoryTracker;
+                detachedDataMemoryTracker = null;
+                asyncDispatcher.dispatch( txData, asyncListenerStates, dispatchedMemoryTracker );
+            }
+
             for ( ListenerState listenerState : listeners.getStates() )
             {
                 TransactionEventListener listener = listenerState.getListener();
-                listener.afterCommit( txData, listenerState.getState(), databaseFacade );
+                if ( !(listener instanceof AsyncTransactionEventListener) )
+                {
+                    listener.afterCommit( txData, listenerState.getState(), databaseFacade );
+                }
             }
         }
         finally
@@ -137,6 +228,10 @@ public class DatabaseTransactionEventListeners extends LifecycleAdapter
                 ((TxStateTransactionDataSnapshot) txData).close();
             }
             // else if could be EMPTY_DATA as well, and we don't want the user-facing TransactionData interface to have close() on it
+            if ( detachedDataMemoryTracker != null )
+            {
+                detachedDataMemoryTracker.reset();
+            }
         }
     }
 
@@ -149,13 +244,34 @@ public class DatabaseTransactionEventListeners extends LifecycleAdapter
         }
 
         TransactionData txData = listenersState.getTxData();
-        for ( ListenerState listenerState : listenersState.getStates() )
+        try
         {
-            TransactionEventListener listener = listenerState.getListener();
-            listener.afterRollback( txData, listenerState.getState(), databaseFacade );
+            for ( ListenerState listenerState : listenersState.getStates() )
+            {
+                TransactionEventListener listener = listenerState.getListener();
+                listener.afterRollback( txData, listenerState.getState(), databaseFacade );
+            }
+        }
+        finally
+        {
+            MemoryTracker detachedDataMemoryTracker = listenersState.getDetachedDataMemoryTracker();
+            if ( detachedDataMemoryTracker != null )
+            {
+                detachedDataMemoryTracker.reset();
+            }
         }
     }
 
+    private static boolean isNotified( TransactionEventListener<?> listener, boolean notifiesAll )
+    {
+        return notifiesAll || listener instanceof InternalTransactionEventListener;
+    }
+
+    private static boolean isDispatchedAsync( TransactionEventListener<?> listener )
+    {
+        return listener instanceof AsyncTransactionEventListener && READS_DATA_AFTER_CLOSE.get( listener.getClass() );
+    }
+
     private static boolean canInvokeBeforeCommitListeners( Collection<TransactionEventListener<?>> listeners, ReadableTransactionState state )
     {
         return !listeners.isEmpty() && canInvokeListenersWithTransactionState( state );
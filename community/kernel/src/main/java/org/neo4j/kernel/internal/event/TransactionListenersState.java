@@ -24,16 +24,24 @@ import java.util.List;
 
 import org.neo4j.graphdb.event.TransactionData;
 import org.neo4j.graphdb.event.TransactionEventListener;
+import org.neo4j.memory.MemoryTracker;
 
 public class TransactionListenersState
 {
     private final TransactionData txData;
+    private final MemoryTracker detachedDataMemoryTracker;
     private final List<ListenerState<?>> states = new ArrayList<>();
     private Throwable error;
 
     TransactionListenersState( TransactionData txData )
+    {
+        this( txData, null );
+    }
+
+    TransactionListenersState( TransactionData txData, MemoryTracker detachedDataMemoryTracker )
     {
         this.txData = txData;
+        this.detachedDataMemoryTracker = detachedDataMemoryTracker;
     }
 
     public void failed( Throwable error )
@@ -61,6 +69,14 @@ public class TransactionListenersState
         return txData;
     }
 
+    /**
+     * @return the memory tracker of transaction data that outlives the transaction, or {@code null} if the data is tracked by the transaction.
+     */
+    MemoryTracker getDetachedDataMemoryTracker()
+    {
+        return detachedDataMemoryTracker;
+    }
+
     public List<ListenerState<?>> getStates()
     {
         return states;
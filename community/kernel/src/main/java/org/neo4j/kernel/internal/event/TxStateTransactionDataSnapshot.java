@@ -22,9 +22,13 @@ package org.neo4j.kernel.internal.event;
 import org.eclipse.collections.api.LongIterable;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import org.neo4j.collection.trackable.HeapTrackingArrayList;
 import org.neo4j.graphdb.Node;
@@ -53,165 +57,284 @@ import org.neo4j.storageengine.api.txstate.RelationshipState;
 import org.neo4j.values.storable.Value;
 
 import static java.lang.Math.toIntExact;
+import static java.util.Collections.unmodifiableMap;
 import static org.neo4j.collection.trackable.HeapTrackingCollections.newArrayList;
 import static org.neo4j.collection.trackable.HeapTrackingCollections.newLongObjectMap;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.sizeOfLongArray;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 
 /**
  * Transform for {@link org.neo4j.storageengine.api.txstate.ReadableTransactionState} to make it accessible as {@link TransactionData}.
+ * <p>
+ * The views are computed on first access, so that nothing is computed for the parts listeners don't read. Views that need the
+ * committed state from the store must however be computed before the transaction gets applied, which is what
+ * {@link #snapshotCommittedState()} is for. {@link #detach()} makes the data independent of the transaction state and the
+ * transaction itself, for it to be handed to listeners after the transaction has been released. Data that is to outlive the
+ * transaction like that should be tracked by a memory tracker of its own rather than by that of the transaction.
  */
 public class TxStateTransactionDataSnapshot implements TransactionData, AutoCloseable
 {
-    private final ReadableTransactionState state;
+    private static final int RELATIONSHIP_RECORD_SIZE = 3;
+
+    private ReadableTransactionState state;
     private final StorageReader store;
-    private final KernelTransaction transaction;
+    private KernelTransaction transaction;
 
-    private final HeapTrackingArrayList<PropertyEntry<Node>> assignedNodeProperties;
-    private final HeapTrackingArrayList<PropertyEntry<Relationship>> assignedRelationshipProperties;
-    private final HeapTrackingArrayList<LabelEntry> assignedLabels;
+    private HeapTrackingArrayList<PropertyEntry<Node>> assignedNodeProperties;
+    private HeapTrackingArrayList<PropertyEntry<Relationship>> assignedRelationshipProperties;
+    private HeapTrackingArrayList<LabelEntry> assignedLabels;
 
-    private final HeapTrackingArrayList<PropertyEntry<Node>> removedNodeProperties;
-    private final HeapTrackingArrayList<PropertyEntry<Relationship>> removedRelationshipProperties;
-    private final HeapTrackingArrayList<LabelEntry> removedLabels;
+    private HeapTrackingArrayList<PropertyEntry<Node>> removedNodeProperties;
+    private HeapTrackingArrayList<PropertyEntry<Relationship>> removedRelationshipProperties;
+    private HeapTrackingArrayList<LabelEntry> removedLabels;
     private final MutableLongObjectMap<RelationshipEntity> relationshipsReadFromStore;
+    private boolean nodeChangesTaken;
+    private boolean relationshipChangesTaken;
+    private Detached detached;
     private final StorageRelationshipScanCursor relationship;
     private final InternalTransaction internalTransaction;
     private final MemoryTracker memoryTracker;
 
     TxStateTransactionDataSnapshot( ReadableTransactionState state, StorageReader storageReader, KernelTransaction transaction )
+    {
+        this( state, storageReader, transaction, transaction.memoryTracker() );
+    }
+
+    TxStateTransactionDataSnapshot( ReadableTransactionState state, StorageReader storageReader, KernelTransaction transaction,
+            MemoryTracker memoryTracker )
     {
         this.state = state;
         this.store = storageReader;
         this.transaction = transaction;
         this.internalTransaction = transaction.internalTransaction();
-        this.memoryTracker = transaction.memoryTracker();
+        this.memoryTracker = memoryTracker;
         this.relationship = storageReader.allocateRelationshipScanCursor( transaction.cursorContext() );
         this.relationshipsReadFromStore = newLongObjectMap( memoryTracker );
-        this.removedLabels = newArrayList( memoryTracker );
-        this.removedRelationshipProperties = newArrayList( memoryTracker );
-        this.removedNodeProperties = newArrayList( memoryTracker );
-
-        this.assignedLabels = newArrayList( memoryTracker );
-        this.assignedRelationshipProperties = newArrayList( memoryTracker );
-        this.assignedNodeProperties = newArrayList( memoryTracker );
-
-        // Load changes that require store access eagerly, because we won't have access to the after-state
-        // after the tx has been committed.
-        takeSnapshot( memoryTracker );
     }
 
     @Override
     public Iterable<Node> createdNodes()
     {
-        return map2Nodes( state.addedAndRemovedNodes().getAdded() );
+        return map2Nodes( detached != null ? LongArrayList.newListWith( detached.createdNodeIds ) : state.addedAndRemovedNodes().getAdded() );
     }
 
     @Override
     public Iterable<Node> deletedNodes()
     {
-        return map2Nodes( state.addedAndRemovedNodes().getRemoved() );
+        return map2Nodes( detached != null ? LongArrayList.newListWith( detached.deletedNodeIds ) : state.addedAndRemovedNodes().getRemoved() );
     }
 
     @Override
     public Iterable<Relationship> createdRelationships()
     {
-        return map2Rels( state.addedAndRemovedRelationships().getAdded() );
+        return detached != null ? detachedCreatedRelationships() : map2Rels( state.addedAndRemovedRelationships().getAdded() );
     }
 
     @Override
     public Iterable<Relationship> deletedRelationships()
     {
-        return map2Rels( state.addedAndRemovedRelationships().getRemoved() );
+        // Deleted relationships were all read from the store when the committed state was snapshotted
+        return detached != null ? LongArrayList.newListWith( detached.deletedRelationshipIds ).asLazy().<Relationship>collect( relationshipsReadFromStore::get )
+                                : map2Rels( state.addedAndRemovedRelationships().getRemoved() );
     }
 
     @Override
     public boolean isDeleted( Node node )
     {
-        return state.nodeIsDeletedInThisTx( node.getId() );
+        return detached != null ? Arrays.binarySearch( detached.deletedNodeIds, node.getId() ) >= 0 : state.nodeIsDeletedInThisTx( node.getId() );
     }
 
     @Override
     public boolean isDeleted( Relationship relationship )
     {
-        return state.relationshipIsDeletedInThisTx( relationship.getId() );
+        return detached != null ? Arrays.binarySearch( detached.deletedRelationshipIds, relationship.getId() ) >= 0
+                                : state.relationshipIsDeletedInThisTx( relationship.getId() );
     }
 
     @Override
     public Iterable<PropertyEntry<Node>> assignedNodeProperties()
     {
+        takeNodeChanges();
         return assignedNodeProperties;
     }
 
     @Override
     public Iterable<PropertyEntry<Node>> removedNodeProperties()
     {
+        takeNodeChanges();
         return removedNodeProperties;
     }
 
     @Override
     public Iterable<PropertyEntry<Relationship>> assignedRelationshipProperties()
     {
+        takeRelationshipChanges();
         return assignedRelationshipProperties;
     }
 
     @Override
     public Iterable<PropertyEntry<Relationship>> removedRelationshipProperties()
     {
+        takeRelationshipChanges();
         return removedRelationshipProperties;
     }
 
     @Override
     public String username()
     {
-        return transaction.securityContext().subject().username();
+        return detached != null ? detached.username : transaction.securityContext().subject().username();
     }
 
     @Override
     public Map<String,Object> metaData()
     {
-        return transaction.getMetaData();
+        return detached != null ? detached.metaData : transaction.getMetaData();
     }
 
     @Override
     public Iterable<LabelEntry> removedLabels()
     {
+        takeNodeChanges();
         return removedLabels;
     }
 
     @Override
     public Iterable<LabelEntry> assignedLabels()
     {
+        takeNodeChanges();
         return assignedLabels;
     }
 
     @Override
     public long getTransactionId()
     {
-        return transaction.getTransactionId();
+        return detached != null ? detached.transactionId : transaction.getTransactionId();
     }
 
     @Override
     public long getCommitTime()
     {
-        return transaction.getCommitTime();
+        return detached != null ? detached.commitTime : transaction.getCommitTime();
+    }
+
+    /**
+     * Computes the views that need the committed state from the store, unless already computed. Must be called before the
+     * transaction gets applied if the views are to be read after that.
+     */
+    void snapshotCommittedState()
+    {
+        takeNodeChanges();
+        takeRelationshipChanges();
+    }
+
+    /**
+     * Copies the ids of the created and deleted entities and captures the transaction meta data, so that this instance no longer
+     * depends on the transaction state or the transaction. Must be called after the transaction has committed, but before it gets
+     * released. The entities themselves are only created as the detached views are iterated, so this is cheap on the committing
+     * thread, and the views may be read by several threads at once.
+     */
+    void detach()
+    {
+        if ( detached != null )
+        {
+            return;
+        }
+        snapshotCommittedState();
+        memoryTracker.allocateHeap( Detached.SHALLOW_SIZE );
+        Detached detached = new Detached();
+        detached.createdNodeIds = sortedIds( state.addedAndRemovedNodes().getAdded() );
+        detached.deletedNodeIds = sortedIds( state.addedAndRemovedNodes().getRemoved() );
+        detached.createdRelationshipIds = sortedIds( state.addedAndRemovedRelationships().getAdded() );
+        detached.createdRelationshipRecords = createdRelationshipRecords( detached.createdRelationshipIds );
+        detached.deletedRelationshipIds = sortedIds( state.addedAndRemovedRelationships().getRemoved() );
+        detached.username = username();
+        detached.metaData = unmodifiableMap( new HashMap<>( metaData() ) );
+        detached.transactionId = getTransactionId();
+        detached.commitTime = getCommitTime();
+        this.detached = detached;
+        this.state = null;
+        this.transaction = null;
+    }
+
+    private long[] sortedIds( LongSet ids )
+    {
+        memoryTracker.allocateHeap( sizeOfLongArray( ids.size() ) );
+        return ids.toSortedArray();
+    }
+
+    private long[] createdRelationshipRecords( long[] relationshipIds )
+    {
+        memoryTracker.allocateHeap( sizeOfLongArray( relationshipIds.length * RELATIONSHIP_RECORD_SIZE ) );
+        long[] records = new long[relationshipIds.length * RELATIONSHIP_RECORD_SIZE];
+        for ( int i = 0; i < relationshipIds.length; i++ )
+        {
+            int record = i * RELATIONSHIP_RECORD_SIZE;
+            state.relationshipVisit( relationshipIds[i], ( relId, type, startNode, endNode ) ->
+            {
+                records[record] = type;
+                records[record + 1] = startNode;
+                records[record + 2] = endNode;
+            } );
+        }
+        return records;
+    }
+
+    private Iterable<Relationship> detachedCreatedRelationships()
+    {
+        long[] ids = detached.createdRelationshipIds;
+        long[] records = detached.createdRelationshipRecords;
+        return () -> IntStream.range( 0, ids.length ).<Relationship>mapToObj( i ->
+        {
+            int record = i * RELATIONSHIP_RECORD_SIZE;
+            return internalTransaction.newRelationshipEntity( ids[i], records[record + 1], toIntExact( records[record] ), records[record + 2] );
+        } ).iterator();
     }
 
-    private void takeSnapshot( MemoryTracker memoryTracker )
+    private void takeNodeChanges()
     {
+        if ( nodeChangesTaken )
+        {
+            return;
+        }
+        removedLabels = newArrayList( memoryTracker );
+        removedNodeProperties = newArrayList( memoryTracker );
+        assignedLabels = newArrayList( memoryTracker );
+        assignedNodeProperties = newArrayList( memoryTracker );
         var cursorContext = transaction.cursorContext();
         try ( StorageNodeCursor node = store.allocateNodeCursor( cursorContext );
               StoragePropertyCursor properties = store.allocatePropertyCursor( cursorContext, memoryTracker ) )
         {
             TokenRead tokenRead = transaction.tokenRead();
             snapshotRemovedNodes( memoryTracker, node, properties, tokenRead );
-            snapshotRemovedRelationships( memoryTracker, properties, tokenRead );
             snapshotModifiedNodes( memoryTracker, node, properties, tokenRead );
+        }
+        catch ( PropertyKeyIdNotFoundKernelException e )
+        {
+            throw new IllegalStateException( "An entity that does not exist was modified.", e );
+        }
+        nodeChangesTaken = true;
+    }
+
+    private void takeRelationshipChanges()
+    {
+        if ( relationshipChangesTaken )
+        {
+            return;
+        }
+        removedRelationshipProperties = newArrayList( memoryTracker );
+        assignedRelationshipProperties = newArrayList( memoryTracker );
+        try ( StoragePropertyCursor properties = store.allocatePropertyCursor( transaction.cursorContext(), memoryTracker ) )
+        {
+            TokenRead tokenRead = transaction.tokenRead();
+            snapshotRemovedRelationships( memoryTracker, properties, tokenRead );
             snapshotModifiedRelationships( memoryTracker, properties, tokenRead );
         }
         catch ( PropertyKeyIdNotFoundKernelException e )
         {
             throw new IllegalStateException( "An entity that does not exist was modified.", e );
         }
+        relationshipChangesTaken = true;
     }
 
     private void snapshotModifiedRelationships( MemoryTracker memoryTracker, StoragePropertyCursor properties, TokenRead tokenRead )
@@ -452,6 +575,24 @@ public class TxStateTransactionDataSnapshot implements TransactionData, AutoClos
         return NO_VALUE;
     }
 
+    private static class Detached
+    {
+        static final long SHALLOW_SIZE = shallowSizeOfInstance( Detached.class );
+
+        private long[] createdNodeIds;
+        private long[] deletedNodeIds;
+        private long[] createdRelationshipIds;
+        /**
+         * The type, start node and end node of each of the {@link #createdRelationshipIds}, in that order.
+         */
+        private long[] createdRelationshipRecords;
+        private long[] deletedRelationshipIds;
+        private String username;
+        private Map<String,Object> metaData;
+        private long transactionId;
+        private long commitTime;
+    }
+
     private Value committedValue( RelationshipState relState, int property, StorageRelationshipScanCursor relationship, StoragePropertyCursor properties )
     {
         if ( state.relationshipIsAddedInThisTx( relState.getId() ) )
@@ -103,8 +103,14 @@ public class CorruptedLogsTruncator
             Optional<CheckpointInfo> corruptCheckpoint ) throws IOException
     {
         LogFile transactionLogFile = logFiles.getLogFile();
-        truncateFilesFromVersion( recoveredTransactionLogVersion, recoveredTransactionOffset, transactionLogFile.getHighestLogVersion(),
+        long highestLogVersion = transactionLogFile.getHighestLogVersion();
+        truncateFilesFromVersion( recoveredTransactionLogVersion, recoveredTransactionOffset, highestLogVersion,
                 transactionLogFile::getLogFileForVersion );
+        // transaction indexes of the truncated and removed log files describe content that is gone
+        for ( long version = recoveredTransactionLogVersion; version <= highestLogVersion; version++ )
+        {
+            fs.deleteFile( TransactionLogFilesHelper.indexFileFor( transactionLogFile.getLogFileForVersion( version ) ) );
+        }
 
         if ( corruptCheckpoint.isPresent() )
         {
@@ -19,32 +19,60 @@
  */
 package org.neo4j.kernel.recovery;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
-import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
 import org.neo4j.lock.ReentrantLockService;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.util.FeatureToggles;
 
 import static java.lang.Integer.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
 import static org.neo4j.util.Preconditions.checkState;
 
+/**
+ * Applies recovered transactions using multiple threads. Consecutive transactions are grouped into batches which are
+ * applied through the storage engine's batch path by a single applier each. Batches take turns, in transaction order,
+ * to acquire the locks of all their commands, which makes batches touching the same entities apply in sequence while
+ * unrelated batches apply in parallel.
+ * <p>
+ * The amount of transaction data that has been visited but not yet applied is bounded by a budget, estimated from the
+ * size the transactions have in the log. The visiting thread is held back while the budget is exhausted.
+ */
 final class ParallelRecoveryVisitor implements RecoveryApplier
 {
+    static final int MAX_BATCH_SIZE = FeatureToggles.getInteger( ParallelRecoveryVisitor.class, "maxBatchSize", 64 );
+    static final long MAX_BATCH_BYTES = FeatureToggles.getLong( ParallelRecoveryVisitor.class, "maxBatchBytes", mebiBytes( 4 ) );
+    static final long MAX_IN_FLIGHT_BYTES =
+            FeatureToggles.getLong( ParallelRecoveryVisitor.class, "maxInFlightBytes", Runtime.getRuntime().maxMemory() / 16 );
+    // Size assumed for transactions until the log positions have told us something better
+    private static final long DEFAULT_TRANSACTION_SIZE = kibiBytes( 1 );
+    private static final long FAILURE_CHECK_INTERVAL_NANOS = MILLISECONDS.toNanos( 10 );
+
     private final AtomicLong prevLockedTxId = new AtomicLong( -1 );
+    private final ConcurrentHashMap<Long,Thread> waitingForTurn = new ConcurrentHashMap<>();
     private final StorageEngine storageEngine;
     private final LockService lockService = new ReentrantLockService();
     private final TransactionApplicationMode mode;
@@ -53,13 +81,27 @@ final class ParallelRecoveryVisitor implements RecoveryApplier
     private final ExecutorService appliers;
     private final AtomicReference<Throwable> failure = new AtomicReference<>();
     private final int stride;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long maxInFlightBytes;
+    private final ReentrantLock budgetLock = new ReentrantLock();
+    private final Condition budgetReleased = budgetLock.newCondition();
+    private long inFlightBytes;
+
+    // Only accessed by the visiting thread
+    private Batch pendingBatch;
+    private LogPosition previousStartPosition;
+    private long measuredBytes;
+    private long measuredTransactions;
 
     ParallelRecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, PageCacheTracer cacheTracer, String tracerTag )
     {
-        this( storageEngine, mode, cacheTracer, tracerTag, max( 1, Runtime.getRuntime().availableProcessors() - 1 ) );
+        this( storageEngine, mode, cacheTracer, tracerTag, max( 1, Runtime.getRuntime().availableProcessors() - 1 ), MAX_BATCH_SIZE, MAX_BATCH_BYTES,
+                MAX_IN_FLIGHT_BYTES );
     }
 
-    ParallelRecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, PageCacheTracer cacheTracer, String tracerTag, int numAppliers )
+    ParallelRecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, PageCacheTracer cacheTracer, String tracerTag, int numAppliers,
+            int maxBatchSize, long maxBatchBytes, long maxInFlightBytes )
     {
         this.storageEngine = storageEngine;
         this.mode = mode;
@@ -68,6 +110,9 @@ final class ParallelRecoveryVisitor implements RecoveryApplier
         this.appliers = new ThreadPoolExecutor( numAppliers, numAppliers, 1, TimeUnit.HOURS, new ArrayBlockingQueue<>( numAppliers ),
                 new ThreadPoolExecutor.CallerRunsPolicy() );
         this.stride = mode == TransactionApplicationMode.REVERSE_RECOVERY ? -1 : 1;
+        this.maxBatchSize = max( 1, maxBatchSize );
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxInFlightBytes = maxInFlightBytes;
     }
 
     @Override
@@ -75,32 +120,164 @@ final class ParallelRecoveryVisitor implements RecoveryApplier
     {
         checkFailure();
 
-        // We need to know the starting point for the "is it my turn yet?" check below that each thread needs to do before acquiring the locks
-        prevLockedTxId.compareAndSet( -1, transaction.getCommitEntry().getTxId() - stride );
+        long txId = transaction.getCommitEntry().getTxId();
+        long size = estimateSize( transaction.getStartEntry().getStartPosition() );
+        if ( !tryReserve( size ) )
+        {
+            // Whatever is pending counts towards the budget too, so get it going before waiting for other batches to complete
+            submitPendingBatch();
+            reserve( size );
+        }
 
-        // TODO Also consider the memory usage of all active transaction instances and apply back-pressure if surpassing it
-        appliers.submit( () ->
+        if ( pendingBatch == null )
         {
-            long txId = transaction.getCommitEntry().getTxId();
-            while ( prevLockedTxId.get() != txId - stride )
+            // We need to know the starting point for the "is it my turn yet?" check that each batch needs to do before acquiring the locks
+            prevLockedTxId.compareAndSet( -1, txId - stride );
+            pendingBatch = new Batch( txId );
+        }
+        pendingBatch.add( transaction, txId, size );
+        if ( pendingBatch.transactions.size() >= maxBatchSize || pendingBatch.bytes >= maxBatchBytes )
+        {
+            submitPendingBatch();
+        }
+        return false;
+    }
+
+    /**
+     * Transactions are only estimated by their distance in the log to the previously visited transaction. In forward recovery that is
+     * the size of the previous transaction, which is close enough for keeping memory usage in check.
+     */
+    private long estimateSize( LogPosition startPosition )
+    {
+        if ( startPosition == LogPosition.UNSPECIFIED )
+        {
+            return DEFAULT_TRANSACTION_SIZE;
+        }
+        long size = 0;
+        if ( previousStartPosition != null && previousStartPosition.getLogVersion() == startPosition.getLogVersion() )
+        {
+            size = Math.abs( startPosition.getByteOffset() - previousStartPosition.getByteOffset() );
+        }
+        previousStartPosition = startPosition;
+        if ( size > 0 )
+        {
+            measuredBytes += size;
+            measuredTransactions++;
+            return size;
+        }
+        return measuredTransactions == 0 ? DEFAULT_TRANSACTION_SIZE : measuredBytes / measuredTransactions;
+    }
+
+    private boolean tryReserve( long bytes )
+    {
+        budgetLock.lock();
+        try
+        {
+            // A single transaction larger than the whole budget must still be able to go through on its own
+            if ( inFlightBytes > 0 && inFlightBytes + bytes > maxInFlightBytes )
+            {
+                return false;
+            }
+            inFlightBytes += bytes;
+            return true;
+        }
+        finally
+        {
+            budgetLock.unlock();
+        }
+    }
+
+    private void reserve( long bytes ) throws Exception
+    {
+        budgetLock.lock();
+        try
+        {
+            while ( inFlightBytes > 0 && inFlightBytes + bytes > maxInFlightBytes )
             {
-                Thread.onSpinWait();
+                budgetReleased.awaitNanos( FAILURE_CHECK_INTERVAL_NANOS );
                 checkFailure();
             }
+            inFlightBytes += bytes;
+        }
+        finally
+        {
+            budgetLock.unlock();
+        }
+    }
+
+    private void release( long bytes )
+    {
+        budgetLock.lock();
+        try
+        {
+            inFlightBytes -= bytes;
+            budgetReleased.signalAll();
+        }
+        finally
+        {
+            budgetLock.unlock();
+        }
+    }
+
+    private void submitPendingBatch()
+    {
+        Batch batch = pendingBatch;
+        if ( batch == null )
+        {
+            return;
+        }
+        pendingBatch = null;
+        appliers.submit( () ->
+        {
             try ( LockGroup locks = new LockGroup() )
             {
-                storageEngine.lockRecoveryCommands( transaction.getTransactionRepresentation(), lockService, locks, mode );
-                boolean myTurn = prevLockedTxId.compareAndSet( txId - stride, txId );
-                checkState( myTurn, "Something wrong with the algorithm, I thought it was my turn, but apparently it wasn't %d", txId );
-                apply( transaction );
+                awaitTurn( batch.firstTxId - stride );
+                for ( CommittedTransactionRepresentation transaction : batch.transactions )
+                {
+                    storageEngine.lockRecoveryCommands( transaction.getTransactionRepresentation(), lockService, locks, mode );
+                }
+                boolean myTurn = prevLockedTxId.compareAndSet( batch.firstTxId - stride, batch.lastTxId );
+                checkState( myTurn, "Something wrong with the algorithm, I thought it was my turn, but apparently it wasn't %d", batch.firstTxId );
+                Thread next = waitingForTurn.get( batch.lastTxId );
+                if ( next != null )
+                {
+                    LockSupport.unpark( next );
+                }
+                apply( batch );
             }
             catch ( Throwable e )
             {
                 failure.compareAndSet( null, e );
             }
+            finally
+            {
+                release( batch.bytes );
+            }
             return null;
         } );
-        return false;
+    }
+
+    private void awaitTurn( long previousTxId ) throws Exception
+    {
+        if ( prevLockedTxId.get() == previousTxId )
+        {
+            return;
+        }
+        waitingForTurn.put( previousTxId, Thread.currentThread() );
+        try
+        {
+            // Re-check after registering so that a turn handed over in between isn't missed,
+            // and wake up every now and then to notice if a preceding batch failed and will never hand over its turn
+            while ( prevLockedTxId.get() != previousTxId )
+            {
+                LockSupport.parkNanos( this, FAILURE_CHECK_INTERVAL_NANOS );
+                checkFailure();
+            }
+        }
+        finally
+        {
+            waitingForTurn.remove( previousTxId );
+        }
     }
 
     private void checkFailure() throws Exception
@@ -113,22 +290,39 @@ final class ParallelRecoveryVisitor implements RecoveryApplier
         }
     }
 
-    private void apply( CommittedTransactionRepresentation transaction ) throws Exception
+    private void apply( Batch batch ) throws Exception
     {
         try ( CursorContext cursorContext = new CursorContext( cacheTracer.createPageCursorTracer( tracerTag ) ) )
         {
-            TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
-            long txId = transaction.getCommitEntry().getTxId();
-            TransactionToApply tx = new TransactionToApply( txRepresentation, txId, cursorContext );
-            tx.commitment( NO_COMMITMENT, txId );
-            tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
+            TransactionToApply first = null;
+            TransactionToApply last = null;
+            for ( CommittedTransactionRepresentation transaction : batch.transactions )
+            {
+                long txId = transaction.getCommitEntry().getTxId();
+                TransactionToApply tx = new TransactionToApply( transaction.getTransactionRepresentation(), txId, cursorContext );
+                tx.commitment( NO_COMMITMENT, txId );
+                tx.logPosition( transaction.getStartEntry().getStartPosition() );
+                if ( first == null )
+                {
+                    first = tx;
+                }
+                else
+                {
+                    last.next( tx );
+                }
+                last = tx;
+            }
+            storageEngine.apply( first, mode );
         }
     }
 
     @Override
     public void close() throws Exception
     {
+        if ( failure.get() == null )
+        {
+            submitPendingBatch();
+        }
         appliers.shutdown();
         try
         {
@@ -143,4 +337,24 @@ final class ParallelRecoveryVisitor implements RecoveryApplier
         }
         checkFailure();
     }
+
+    private static class Batch
+    {
+        private final List<CommittedTransactionRepresentation> transactions = new ArrayList<>();
+        private final long firstTxId;
+        private long lastTxId;
+        private long bytes;
+
+        Batch( long firstTxId )
+        {
+            this.firstTxId = firstTxId;
+        }
+
+        void add( CommittedTransactionRepresentation transaction, long txId, long size )
+        {
+            transactions.add( transaction );
+            lastTxId = txId;
+            bytes += size;
+        }
+    }
 }
@@ -344,6 +344,7 @@ public final class Recovery
                 .withConfig( config )
                 .withDependencies( dependencies )
                 .withMemoryTracker( memoryTracker )
+                .withJobScheduler( scheduler )
                 .build();
 
         boolean failOnCorruptedLogFiles = config.get( GraphDatabaseInternalSettings.fail_on_corrupted_log_files );
@@ -39,6 +39,17 @@ public interface RecoveryMonitor
         //noop
     }
 
+    /**
+     * Called when recovery completed, after having replayed all transactions to recover.
+     *
+     * @param recoveredLogBytes the amount of transaction log that was replayed.
+     * @param replayTimeInMilliseconds how long it took to replay the transactions, excluding the reverse recovery and the initialisation of the schema.
+     */
+    default void logBytesRecovered( long recoveredLogBytes, long replayTimeInMilliseconds )
+    {
+        //noop
+    }
+
     default void reverseStoreRecoveryCompleted( long lowestRecoveredTxId )
     {
         //noop
@@ -91,6 +91,8 @@ public class TransactionLogsRecovery extends LifecycleAdapter
 
         LogPosition recoveryToPosition = recoveryStartPosition;
         LogPosition lastTransactionPosition = recoveryStartPosition;
+        long recoveredLogBytes = 0;
+        long replayTimeMillis = 0;
         CommittedTransactionRepresentation lastTransaction = null;
         CommittedTransactionRepresentation lastReversedTransaction = null;
         if ( !recoveryStartInformation.isMissingLogs() )
@@ -123,6 +125,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                 // of the schema life until after we've done the reverse recovery.
                 schemaLife.init();
 
+                Stopwatch replayTime = Stopwatch.start();
                 try ( var transactionsToRecover = recoveryService.getTransactions( recoveryStartPosition );
                         var recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY, pageCacheTracer, RECOVERY_TAG ) )
                 {
@@ -134,12 +137,18 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                         recoveryVisitor.visit( lastTransaction );
                         monitor.transactionRecovered( txId );
                         numberOfRecoveredTransactions++;
-                        lastTransactionPosition = transactionsToRecover.position();
+                        LogPosition position = transactionsToRecover.position();
+                        // Transactions never span log files, so what precedes the first transaction of a new log file is only its header
+                        recoveredLogBytes += position.getLogVersion() == lastTransactionPosition.getLogVersion()
+                                             ? position.getByteOffset() - lastTransactionPosition.getByteOffset()
+                                             : position.getByteOffset();
+                        lastTransactionPosition = position;
                         recoveryToPosition = lastTransactionPosition;
                         reportProgress();
                     }
                     recoveryToPosition = transactionsToRecover.position();
                 }
+                replayTimeMillis = replayTime.elapsed( MILLISECONDS );
             }
             catch ( Error | ClosedByInterruptException | DatabaseStartAbortedException e )
             {
@@ -173,7 +182,12 @@ public class TransactionLogsRecovery extends LifecycleAdapter
             recoveryService.transactionsRecovered( lastTransaction, lastTransactionPosition, recoveryToPosition,
                     recoveryStartInformation.getCheckpointPosition(), missingLogs, cursorContext );
         }
-        monitor.recoveryCompleted( numberOfRecoveredTransactions, recoveryStartTime.elapsed( MILLISECONDS ) );
+        long recoveryTimeMillis = recoveryStartTime.elapsed( MILLISECONDS );
+        if ( recoveredLogBytes > 0 )
+        {
+            monitor.logBytesRecovered( recoveredLogBytes, replayTimeMillis );
+        }
+        monitor.recoveryCompleted( numberOfRecoveredTransactions, recoveryTimeMillis );
     }
 
     private void initProgressReporter( RecoveryStartInformation recoveryStartInformation,
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheQuota;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
@@ -45,13 +46,16 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.io.pagecache.IOController.DISABLED;
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
 
 @TestDirectoryExtension
 class DatabasePageCacheTest
@@ -69,6 +73,7 @@ class DatabasePageCacheTest
         globalPageCache = mock( PageCache.class );
         pagedFileMapper = new PagedFileAnswer();
         when( globalPageCache.map( any( Path.class ), eq( PAGE_SIZE ), any(), any(), any() ) ).then( pagedFileMapper );
+        doCallRealMethod().when( globalPageCache ).flushAndForce( anyList() );
         databasePageCache = new DatabasePageCache( globalPageCache, DISABLED );
     }
 
@@ -91,6 +96,19 @@ class DatabasePageCacheTest
         verify( globalPageCache ).map( mapFile, PAGE_SIZE, DATABASE_NAME, immutable.empty(), DISABLED );
     }
 
+    @Test
+    void mapDatabaseFileWithDatabaseQuota() throws IOException
+    {
+        PageCacheQuota quota = new PageCacheQuota( DATABASE_NAME, 0, 10 );
+        try ( DatabasePageCache quotaDatabaseCache = new DatabasePageCache( globalPageCache, DISABLED, quota ) )
+        {
+            Path mapFile = testDirectory.createFile( "mapFile" );
+            quotaDatabaseCache.map( mapFile, PAGE_SIZE, DATABASE_NAME, immutable.of( ANY_PAGE_SIZE ), DISABLED );
+
+            verify( globalPageCache ).map( mapFile, PAGE_SIZE, DATABASE_NAME, immutable.of( ANY_PAGE_SIZE, quota ), DISABLED );
+        }
+    }
+
     @Test
     void listExistingDatabaseMappings() throws IOException
     {
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TestableTransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.Barrier;
+import org.neo4j.test.OtherThreadExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
+
+class GroupingTransactionCommitProcessTest
+{
+    private final CommitEvent commitEvent = CommitEvent.NULL;
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private final List<List<Long>> appliedBatches = new CopyOnWriteArrayList<>();
+    private final List<OtherThreadExecutor> committers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown()
+    {
+        committers.forEach( OtherThreadExecutor::close );
+    }
+
+    @Test
+    void shouldApplyTransactionsQueuedUpBehindACommitTogether() throws Exception
+    {
+        // given
+        AtomicInteger nextTxId = new AtomicInteger( 10 );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenAnswer( invocation -> (long) nextTxId.getAndIncrement() );
+        Barrier.Control firstApply = new Barrier.Control();
+        recordAppliedBatches( firstApply, null );
+        GroupingTransactionCommitProcess commitProcess = new GroupingTransactionCommitProcess( new TestableTransactionAppender( transactionIdStore ),
+                storageEngine, 2 );
+
+        // when the first commit is busy applying, three more queue up behind it
+        TransactionToApply first = transaction();
+        Future<Long> firstCommit = commitInOtherThread( commitProcess, first );
+        firstApply.await();
+        List<TransactionToApply> queued = new ArrayList<>();
+        List<Future<Long>> queuedCommits = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            TransactionToApply transaction = transaction();
+            queued.add( transaction );
+            queuedCommits.add( commitInOtherThread( commitProcess, transaction ) );
+        }
+        firstApply.release();
+
+        // then the queued ones are applied in groups of no more than two, in the order they queued up
+        assertEquals( 10L, firstCommit.get() );
+        assertEquals( 11L, queuedCommits.get( 0 ).get() );
+        assertEquals( 12L, queuedCommits.get( 1 ).get() );
+        assertEquals( 13L, queuedCommits.get( 2 ).get() );
+        assertThat( appliedBatches ).isEqualTo( List.of( List.of( 10L ), List.of( 11L, 12L ), List.of( 13L ) ) );
+        for ( TransactionToApply transaction : queued )
+        {
+            assertNull( transaction.next() );
+            verify( transactionIdStore ).transactionClosed( eq( transaction.transactionId() ), anyLong(), anyLong(), any() );
+        }
+    }
+
+    @Test
+    void shouldFailAllTransactionsOfAGroupWhenApplyingItFails() throws Exception
+    {
+        // given
+        AtomicInteger nextTxId = new AtomicInteger( 10 );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenAnswer( invocation -> (long) nextTxId.getAndIncrement() );
+        Barrier.Control firstApply = new Barrier.Control();
+        IOException failure = new IOException( "Apply failed" );
+        recordAppliedBatches( firstApply, failure );
+        GroupingTransactionCommitProcess commitProcess = new GroupingTransactionCommitProcess( new TestableTransactionAppender( transactionIdStore ),
+                storageEngine, 10 );
+        Future<Long> firstCommit = commitInOtherThread( commitProcess, transaction() );
+        firstApply.await();
+        Future<Long> secondCommit = commitInOtherThread( commitProcess, transaction() );
+        Future<Long> thirdCommit = commitInOtherThread( commitProcess, transaction() );
+
+        // when
+        firstApply.release();
+
+        // then
+        assertEquals( 10L, firstCommit.get() );
+        TransactionFailureException secondFailure = commitFailure( secondCommit );
+        TransactionFailureException thirdFailure = commitFailure( thirdCommit );
+        assertNotSame( secondFailure, thirdFailure );
+        assertEquals( Status.Transaction.TransactionCommitFailed, secondFailure.status() );
+        assertEquals( Status.Transaction.TransactionCommitFailed, thirdFailure.status() );
+        assertThat( secondFailure ).hasRootCause( failure );
+        assertThat( thirdFailure ).hasRootCause( failure );
+        assertThat( appliedBatches ).isEqualTo( List.of( List.of( 10L ), List.of( 11L, 12L ) ) );
+    }
+
+    @Test
+    void shouldNotGroupTransactionsOfOtherModes() throws Exception
+    {
+        // given
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 10L );
+        recordAppliedBatches( null, null );
+        GroupingTransactionCommitProcess commitProcess = new GroupingTransactionCommitProcess( new TestableTransactionAppender( transactionIdStore ),
+                storageEngine, 10 );
+
+        // when
+        long txId = commitProcess.commit( transaction(), commitEvent, EXTERNAL );
+
+        // then
+        assertEquals( 10L, txId );
+        verify( storageEngine ).apply( any( TransactionToApply.class ), eq( EXTERNAL ) );
+    }
+
+    private void recordAppliedBatches( Barrier.Control firstApply, IOException failure ) throws Exception
+    {
+        AtomicInteger applies = new AtomicInteger();
+        doAnswer( invocation ->
+        {
+            List<Long> batch = new ArrayList<>();
+            for ( TransactionToApply tx = invocation.getArgument( 0 ); tx != null; tx = tx.next() )
+            {
+                batch.add( tx.transactionId() );
+            }
+            appliedBatches.add( batch );
+            if ( applies.getAndIncrement() == 0 )
+            {
+                if ( firstApply != null )
+                {
+                    firstApply.reached();
+                }
+            }
+            else if ( failure != null )
+            {
+                throw failure;
+            }
+            return null;
+        } ).when( storageEngine ).apply( any( TransactionToApply.class ), any( TransactionApplicationMode.class ) );
+    }
+
+    private Future<Long> commitInOtherThread( GroupingTransactionCommitProcess commitProcess, TransactionToApply transaction ) throws Exception
+    {
+        OtherThreadExecutor committer = new OtherThreadExecutor( "committer-" + committers.size() );
+        committers.add( committer );
+        Future<Long> commit = committer.executeDontWait( () -> commitProcess.commit( transaction, commitEvent, INTERNAL ) );
+        committer.waitUntilWaiting( details -> details.isAt( GroupingTransactionCommitProcess.class, "commit" ) );
+        return commit;
+    }
+
+    private static TransactionFailureException commitFailure( Future<Long> commit )
+    {
+        ExecutionException e = assertThrows( ExecutionException.class, commit::get );
+        assertThat( e.getCause() ).isInstanceOf( TransactionFailureException.class );
+        return (TransactionFailureException) e.getCause();
+    }
+
+    private static TransactionToApply transaction()
+    {
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        return new TransactionToApply( transaction, NULL );
+    }
+}
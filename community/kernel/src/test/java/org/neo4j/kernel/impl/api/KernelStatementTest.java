@@ -20,7 +20,6 @@
 package org.neo4j.kernel.impl.api;
 
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
 
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -33,7 +32,6 @@ import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.kernel.api.query.ExecutingQuery;
 import org.neo4j.kernel.database.TestDatabaseIdRepository;
-import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.resources.CpuClock;
 import org.neo4j.time.Clocks;
@@ -107,7 +105,7 @@ class KernelStatementTest
         try ( var statement = createStatement( transaction ) )
         {
             var cursorContext = new CursorContext( new DefaultPageCursorTracer( new DefaultPageCacheTracer(), "test" ) );
-            statement.initialize( Mockito.mock( Locks.Client.class ), cursorContext, 100 );
+            statement.initialize( cursorContext, 100 );
             statement.acquire();
 
             cursorContext.getCursorTracer().beginPin( false, 1, null ).hit();
@@ -129,7 +127,7 @@ class KernelStatementTest
         var queryFactory = new ExecutingQueryFactory( Clocks.nanoClock(), cpuClockRef, Config.defaults() );
         var transaction = mock( KernelTransactionImplementation.class, RETURNS_DEEP_STUBS );
         var statement = createStatement( transaction );
-        statement.initialize( mock( Locks.Client.class ), CursorContext.NULL, 100 );
+        statement.initialize( CursorContext.NULL, 100 );
 
         var query1 = queryFactory.createForStatement( statement, "test1", MapValue.EMPTY );
         var query2 = queryFactory.createForStatement( statement, "test2", MapValue.EMPTY );
@@ -53,7 +53,6 @@ import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.database.TestDatabaseIdRepository;
 import org.neo4j.kernel.impl.api.transaction.trace.TransactionInitializationTrace;
 import org.neo4j.kernel.impl.locking.Locks;
-import org.neo4j.kernel.impl.locking.NoOpClient;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.lock.LockTracer;
@@ -79,6 +78,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -415,7 +415,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         try ( KernelTransactionImplementation transaction = newTransaction( loginContext( isWriteTx ) ) )
         {
             Locks.Client lockClient = mock( Locks.Client.class );
-            transaction.initialize( 5L, BASE_TX_COMMIT_TIMESTAMP, lockClient, KernelTransaction.Type.IMPLICIT,
+            transaction.initialize( 5L, BASE_TX_COMMIT_TIMESTAMP, locksWith( lockClient ), KernelTransaction.Type.IMPLICIT,
                 SecurityContext.AUTH_DISABLED, 0L, 1L, EMBEDDED_CONNECTION );
             transaction.txState().nodeDoCreate( 1L );
             // WHEN committing it at a later point
@@ -482,7 +482,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
 
         // WHEN
         transaction.close();
-        transaction.initialize( 1, BASE_TX_COMMIT_TIMESTAMP, new NoOpClient(), KernelTransaction.Type.IMPLICIT,
+        transaction.initialize( 1, BASE_TX_COMMIT_TIMESTAMP, Locks.NO_LOCKS, KernelTransaction.Type.IMPLICIT,
                 loginContext( isWriteTx ).authorize( LoginContext.IdLookup.EMPTY, GraphDatabaseSettings.DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG ),
                 0L, 1L, EMBEDDED_CONNECTION );
 
@@ -656,9 +656,10 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         initializeAndClose( tx, reuseCount, isWriteTx );
 
         Locks.Client locksClient = mock( Locks.Client.class );
-        tx.initialize( 42, 42, locksClient, KernelTransaction.Type.IMPLICIT,
+        tx.initialize( 42, 42, locksWith( locksClient ), KernelTransaction.Type.IMPLICIT,
                 loginContext( isWriteTx ).authorize( LoginContext.IdLookup.EMPTY, GraphDatabaseSettings.DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG ),
                 0L, 0L, EMBEDDED_CONNECTION );
+        tx.lockClient();
 
         assertTrue( tx.markForTermination( reuseCount, terminationReason ) );
 
@@ -678,7 +679,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         initializeAndClose( tx, reuseCount, isWriteTx );
 
         Locks.Client locksClient = mock( Locks.Client.class );
-        tx.initialize( 42, 42, locksClient, KernelTransaction.Type.IMPLICIT,
+        tx.initialize( 42, 42, locksWith( locksClient ), KernelTransaction.Type.IMPLICIT,
                 loginContext( isWriteTx ).authorize( LoginContext.IdLookup.EMPTY, GraphDatabaseSettings.DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG ),
                 0L, 0L, EMBEDDED_CONNECTION );
 
@@ -688,6 +689,50 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         verify( locksClient, never() ).stop();
     }
 
+    @Test
+    void shouldNotCheckOutLockClientForTransactionNotLocking() throws Exception
+    {
+        Locks locks = mock( Locks.class );
+        KernelTransactionImplementation tx = newNotInitializedTransaction();
+        tx.initialize( 42, 42, locks, KernelTransaction.Type.IMPLICIT, SecurityContext.AUTH_DISABLED, 0L, 1L, EMBEDDED_CONNECTION );
+
+        assertEquals( 0, tx.activeLocks().count() );
+        assertEquals( 0, tx.activeLockCount() );
+        tx.close();
+
+        verify( locks, never() ).newClient();
+    }
+
+    @Test
+    void shouldCheckOutLockClientOnceWhenLockingAndCloseItOnRelease() throws Exception
+    {
+        Locks.Client lockClient = mock( Locks.Client.class );
+        Locks locks = locksWith( lockClient );
+        KernelTransactionImplementation tx = newNotInitializedTransaction();
+        tx.initialize( 42, 42, locks, KernelTransaction.Type.IMPLICIT, SecurityContext.AUTH_DISABLED, 0L, 7L, EMBEDDED_CONNECTION );
+
+        assertSame( lockClient, tx.lockClient() );
+        assertSame( lockClient, tx.lockClient() );
+        verify( locks ).newClient();
+        verify( lockClient ).initialize( any(), eq( 7L ), any(), any() );
+
+        tx.close();
+        verify( lockClient ).close();
+    }
+
+    @Test
+    void shouldStopLockClientCheckedOutAfterTermination()
+    {
+        Locks.Client lockClient = mock( Locks.Client.class );
+        KernelTransactionImplementation tx = newNotInitializedTransaction();
+        tx.initialize( 42, 42, locksWith( lockClient ), KernelTransaction.Type.IMPLICIT, SecurityContext.AUTH_DISABLED, 0L, 1L, EMBEDDED_CONNECTION );
+
+        tx.markForTermination( Status.Transaction.Terminated );
+        tx.freezeLocks();
+
+        verify( lockClient ).stop();
+    }
+
     @Test
     void resetTransactionStatisticsOnRelease() throws TransactionFailureException
     {
@@ -753,7 +798,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
             }
         } );
         KernelTransactionImplementation transaction = newNotInitializedTransaction( leaseClient );
-        transaction.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, mock( Locks.Client.class ), KernelTransaction.Type.IMPLICIT,
+        transaction.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, Locks.NO_LOCKS, KernelTransaction.Type.IMPLICIT,
                 mock( SecurityContext.class ), 0, 1L, EMBEDDED_CONNECTION );
         assertEquals( "KernelTransaction[lease:" + leaseId + "]", transaction.toString() );
     }
@@ -778,7 +823,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
             }
         } );
         var transaction = newNotInitializedTransaction( leaseService );
-        transaction.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, mock( Locks.Client.class ), KernelTransaction.Type.IMPLICIT,
+        transaction.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, Locks.NO_LOCKS, KernelTransaction.Type.IMPLICIT,
                                 mock( SecurityContext.class ), 0, 1L, EMBEDDED_CONNECTION );
 
         // when / then
@@ -796,7 +841,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         var config = Config.defaults( configValues );
 
         var transaction = newNotInitializedTransaction( config, fooDb );
-        transaction.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, mock( Locks.Client.class ), KernelTransaction.Type.IMPLICIT,
+        transaction.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, Locks.NO_LOCKS, KernelTransaction.Type.IMPLICIT,
                                 mock( SecurityContext.class ), 0, 1L, EMBEDDED_CONNECTION );
 
         // when / then
@@ -816,7 +861,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
 
             // Increase limit and try again
             config.setDynamic( memory_transaction_max_size, mebiBytes( 4 ), "test" );
-            transaction.initialize( 5L, BASE_TX_COMMIT_TIMESTAMP, new NoOpClient(), KernelTransaction.Type.IMPLICIT,
+            transaction.initialize( 5L, BASE_TX_COMMIT_TIMESTAMP, Locks.NO_LOCKS, KernelTransaction.Type.IMPLICIT,
                     SecurityContext.AUTH_DISABLED, 0L, 1L, EMBEDDED_CONNECTION );
 
             transaction.memoryTracker().allocateHeap( mebiBytes( 3 ) );
@@ -832,7 +877,7 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
     {
         for ( int i = 0; i < times; i++ )
         {
-            tx.initialize( i + 10, i + 10, new NoOpClient(), KernelTransaction.Type.IMPLICIT,
+            tx.initialize( i + 10, i + 10, Locks.NO_LOCKS, KernelTransaction.Type.IMPLICIT,
                 loginContext( isWriteTx ).authorize( LoginContext.IdLookup.EMPTY, GraphDatabaseSettings.DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG ),
                 0L, 0L, EMBEDDED_CONNECTION );
             tx.close();
@@ -164,11 +164,20 @@ class KernelTransactionTestBase
     {
         KernelTransactionImplementation tx = newNotInitializedTransaction();
         SecurityContext securityContext = loginContext.authorize( LoginContext.IdLookup.EMPTY, DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG );
-        tx.initialize( lastTransactionIdWhenStarted, BASE_TX_COMMIT_TIMESTAMP, locks, KernelTransaction.Type.EXPLICIT,
+        tx.initialize( lastTransactionIdWhenStarted, BASE_TX_COMMIT_TIMESTAMP, locksWith( locks ), KernelTransaction.Type.EXPLICIT,
                 securityContext, transactionTimeout, 1L, EMBEDDED_CONNECTION );
+        // The lock client is checked out lazily, so check it out here like a transaction that has locked something would have
+        tx.lockClient();
         return tx;
     }
 
+    static Locks locksWith( Locks.Client client )
+    {
+        Locks locks = mock( Locks.class );
+        when( locks.newClient() ).thenReturn( client );
+        return locks;
+    }
+
     KernelTransactionImplementation newNotInitializedTransaction()
     {
         return newNotInitializedTransaction( LeaseService.NO_LEASES, config, new TestDatabaseIdRepository().defaultDatabase() );
@@ -21,7 +21,10 @@ package org.neo4j.kernel.impl.factory;
 
 import org.junit.jupiter.api.Test;
 
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.kernel.impl.api.DatabaseTransactionCommitProcess;
+import org.neo4j.kernel.impl.api.GroupingTransactionCommitProcess;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.storageengine.api.StorageEngine;
 
@@ -58,4 +61,18 @@ class CommunityCommitProcessFactoryTest
 
         assertThat( commitProcess ).isInstanceOf( DatabaseTransactionCommitProcess.class );
     }
+
+    @Test
+    void createGroupingCommitProcessWhenConfigured()
+    {
+        var factory = new CommunityCommitProcessFactory( Config.defaults( GraphDatabaseInternalSettings.tx_grouped_apply_max_transactions, 16 ) );
+
+        var commitProcess = factory.create( mock( TransactionAppender.class ),
+                                            mock( StorageEngine.class ),
+                                            randomNamedDatabaseId(),
+                                            writable() );
+
+        assertThat( commitProcess ).isInstanceOf( DatabaseTransactionCommitProcess.class );
+        assertThat( commitProcess ).extracting( "commitProcess" ).isInstanceOf( GroupingTransactionCommitProcess.class );
+    }
 }
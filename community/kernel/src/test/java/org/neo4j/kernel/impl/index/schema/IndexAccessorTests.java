@@ -25,14 +25,25 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.GBPTreeBuilder;
 import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageMapFiles;
+import org.neo4j.io.pagecache.impl.CompressingPageSwapperFactory;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.PageCacheRule;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -60,6 +71,13 @@ abstract class IndexAccessorTests<KEY,VALUE,LAYOUT extends Layout<KEY,VALUE>> ex
 
     abstract IndexAccessor createAccessor( PageCache pageCache ) throws IOException;
 
+    abstract IndexEntryUpdate<IndexDescriptor> simpleUpdate();
+
+    private PageCache compressingPageCache()
+    {
+        return new PageCacheRule().getPageCache( new CompressingPageSwapperFactory( fs, new SingleFilePageSwapperFactory( fs ), file -> true ) );
+    }
+
     @Test
     void shouldHandleCloseWithoutCallsToProcess() throws Exception
     {
@@ -131,6 +149,71 @@ abstract class IndexAccessorTests<KEY,VALUE,LAYOUT extends Layout<KEY,VALUE>> ex
         assertFalse( files.hasNext() );
     }
 
+    @Test
+    void snapshotFilesOfCompressedIndexShouldOpenAsTheSameIndex() throws Exception
+    {
+        // given
+        accessor.close();
+        indexFiles.clear();
+        indexFiles.ensureDirectoryExist();
+        Path storeFile = indexFiles.getStoreFile();
+        List<Path> copies = new ArrayList<>();
+        try ( PageCache compressingPageCache = compressingPageCache() )
+        {
+            accessor = createAccessor( compressingPageCache );
+            try ( IndexUpdater updater = accessor.newUpdater( ONLINE, NULL ) )
+            {
+                updater.process( simpleUpdate() );
+            }
+            accessor.force( NULL );
+
+            // when
+            Path copyDirectory = directory.directory( "copy" );
+            try ( ResourceIterator<Path> files = accessor.snapshotFiles() )
+            {
+                while ( files.hasNext() )
+                {
+                    Path file = files.next();
+                    Path copy = copyDirectory.resolve( file.getFileName() );
+                    fs.copyFile( file, copy );
+                    copies.add( copy );
+                }
+            }
+            accessor.close();
+        }
+
+        // then
+        assertThat( copies ).extracting( Path::getFileName )
+                .containsExactly( storeFile.getFileName(), PageMapFiles.pageMapFile( storeFile ).getFileName() );
+        fs.deleteRecursively( indexFiles.getBase() );
+        indexFiles.ensureDirectoryExist();
+        for ( Path copy : copies )
+        {
+            fs.copyFile( copy, storeFile.resolveSibling( copy.getFileName() ) );
+        }
+        // A page cache that wouldn't compress new files, to tell the copy apart from an uncompressed file by its page map only
+        try ( PageCache pageCache = new PageCacheRule().getPageCache( new CompressingPageSwapperFactory( fs, new SingleFilePageSwapperFactory( fs ),
+                file -> false ) );
+              GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, storeFile, layout ).build() )
+        {
+            KEY low = layout.newKey();
+            KEY high = layout.newKey();
+            layout.initializeAsLowest( low );
+            layout.initializeAsHighest( high );
+            int entries = 0;
+            try ( Seeker<KEY,VALUE> seeker = tree.seek( low, high, NULL ) )
+            {
+                while ( seeker.next() )
+                {
+                    entries++;
+                }
+            }
+            assertEquals( 1, entries );
+            assertTrue( tree.consistencyCheck( false, NULL ) );
+        }
+        accessor = createAccessor( pageCache );
+    }
+
     @Test
     void writingAfterDropShouldThrow()
     {
@@ -1024,7 +1024,8 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
         }
     }
 
-    private ValueIndexEntryUpdate<IndexDescriptor> simpleUpdate()
+    @Override
+    ValueIndexEntryUpdate<IndexDescriptor> simpleUpdate()
     {
         return ValueIndexEntryUpdate.add( 0, indexDescriptor, of( 0 ) );
     }
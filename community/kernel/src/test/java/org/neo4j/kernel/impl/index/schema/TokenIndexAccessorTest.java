@@ -452,7 +452,8 @@ public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,Toke
         accessor.close();
     }
 
-    private TokenIndexEntryUpdate<IndexDescriptor> simpleUpdate()
+    @Override
+    TokenIndexEntryUpdate<IndexDescriptor> simpleUpdate()
     {
         return TokenIndexEntryUpdate.change( 0, indexDescriptor, EMPTY_LONG_ARRAY, new long[]{0} );
     }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.lock.ResourceTypes.NODE;
+
+class LockContentionJmxTest
+{
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Test
+    void mustExposeContentionWhileStarted() throws Exception
+    {
+        var profile = new LockContentionProfile( 10 );
+        profile.record( NODE, 7, 3_000, 2 );
+        var locks = mock( Locks.class );
+        when( locks.contentionProfile() ).thenReturn( profile );
+
+        var jmx = new LockContentionJmx( "db", locks, mBeanServer );
+        jmx.start();
+        var name = jmx.name();
+        try
+        {
+            assertEquals( "db", ObjectName.unquote( name.getKeyProperty( "database" ) ) );
+            var resources = (CompositeData[]) mBeanServer.getAttribute( name, "ContendedResources" );
+            assertThat( resources ).hasSize( 1 );
+            assertEquals( "NODE", resources[0].get( "resourceType" ) );
+            assertEquals( 7L, resources[0].get( "resourceId" ) );
+            assertEquals( 2, resources[0].get( "maxHolders" ) );
+            assertEquals( 1L, mBeanServer.getAttribute( name, "Waits" ) );
+            assertEquals( 3.0, (double) mBeanServer.getAttribute( name, "TotalWaitMicros" ) );
+
+            mBeanServer.invoke( name, "clear", new Object[0], new String[0] );
+            assertEquals( 0L, mBeanServer.getAttribute( name, "Waits" ) );
+        }
+        finally
+        {
+            jmx.stop();
+        }
+        assertFalse( mBeanServer.isRegistered( name ) );
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.lock.ResourceTypes.NODE;
+import static org.neo4j.lock.ResourceTypes.RELATIONSHIP;
+
+class LockContentionProfileTest
+{
+    @Test
+    void shouldListResourcesByTotalWaitTime()
+    {
+        LockContentionProfile profile = new LockContentionProfile( 10 );
+        profile.record( NODE, 1, 1_000, 1 );
+        profile.record( NODE, 2, 5_000, 3 );
+        profile.record( NODE, 1, 2_000, 2 );
+        profile.record( RELATIONSHIP, 1, 4_000, 1 );
+
+        List<ContendedResource> resources = profile.contendedResources();
+        assertThat( resources ).hasSize( 3 );
+        assertResource( resources.get( 0 ), "NODE", 2, 1, 5.0, 5.0, 3 );
+        assertResource( resources.get( 1 ), "RELATIONSHIP", 1, 1, 4.0, 4.0, 1 );
+        assertResource( resources.get( 2 ), "NODE", 1, 2, 3.0, 2.0, 2 );
+        assertEquals( 4, profile.waits() );
+        assertEquals( 12_000, profile.waitNanos() );
+    }
+
+    @Test
+    void shouldReplaceLeastWaitedForResourceWhenFull()
+    {
+        LockContentionProfile profile = new LockContentionProfile( 2 );
+        profile.record( NODE, 1, 10_000, 1 );
+        profile.record( NODE, 2, 1_000, 1 );
+        profile.record( NODE, 3, 3_000, 1 );
+
+        List<ContendedResource> resources = profile.contendedResources();
+        assertThat( resources ).hasSize( 2 );
+        assertEquals( 1, resources.get( 0 ).getResourceId() );
+        ContendedResource replacement = resources.get( 1 );
+        assertEquals( 3, replacement.getResourceId() );
+        assertEquals( 4.0, replacement.getTotalWaitMicros() );
+        assertEquals( 1.0, replacement.getOverestimateMicros() );
+    }
+
+    @Test
+    void shouldKeepHeavyHitterAmongManyRarelyContendedResources()
+    {
+        LockContentionProfile profile = new LockContentionProfile( 8 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            profile.record( NODE, 1_000 + i, 1_000, 1 );
+            if ( i % 5 == 0 )
+            {
+                profile.record( NODE, 42, 1_000, 5 );
+            }
+        }
+
+        ContendedResource hottest = profile.contendedResources().get( 0 );
+        assertEquals( 42, hottest.getResourceId() );
+        assertEquals( 5, hottest.getMaxHolders() );
+    }
+
+    @Test
+    void shouldNotRecordAnythingWithoutCapacity()
+    {
+        LockContentionProfile.NONE.record( NODE, 1, 1_000, 1 );
+
+        assertThat( LockContentionProfile.NONE.contendedResources() ).isEmpty();
+        assertEquals( 0, LockContentionProfile.NONE.waits() );
+    }
+
+    @Test
+    void shouldForgetEverythingOnClear()
+    {
+        LockContentionProfile profile = new LockContentionProfile( 10 );
+        profile.record( NODE, 1, 1_000, 1 );
+
+        profile.clear();
+
+        assertThat( profile.contendedResources() ).isEmpty();
+        assertEquals( 0, profile.waits() );
+        assertEquals( 0, profile.waitNanos() );
+    }
+
+    private static void assertResource( ContendedResource resource, String type, long id, long waits, double totalWaitMicros,
+            double maxWaitMicros, int maxHolders )
+    {
+        assertEquals( type, resource.getResourceType() );
+        assertEquals( id, resource.getResourceId() );
+        assertEquals( waits, resource.getWaits() );
+        assertEquals( totalWaitMicros, resource.getTotalWaitMicros() );
+        assertEquals( maxWaitMicros, resource.getMaxWaitMicros() );
+        assertEquals( maxHolders, resource.getMaxHolders() );
+    }
+}
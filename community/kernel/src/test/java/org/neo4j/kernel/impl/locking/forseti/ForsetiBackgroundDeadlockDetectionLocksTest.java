@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.time.Duration;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.ResourceTypes;
+import org.neo4j.time.SystemNanoClock;
+
+import static org.neo4j.kernel.impl.locking.forseti.LockingInternalSettings.forseti_background_deadlock_detection_interval;
+
+class ForsetiBackgroundDeadlockDetectionLocksTest extends ForsetiLocksTest
+{
+    @Override
+    protected Locks createLockManager( Config config, SystemNanoClock clock )
+    {
+        Config backgroundDetection = Config.newBuilder().fromConfig( config )
+                .set( forseti_background_deadlock_detection_interval, Duration.ofMillis( 10 ) ).build();
+        return new ForsetiLockManager( backgroundDetection, clock, ResourceTypes.values() );
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Future;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceTypes;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.time.Clocks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.kernel.impl.locking.forseti.LockingInternalSettings.forseti_background_deadlock_detection_interval;
+import static org.neo4j.lock.ResourceTypes.NODE;
+import static org.neo4j.test.OtherThreadExecutor.command;
+
+class ForsetiDeadlockDetectorTest
+{
+    private Config config;
+    private ForsetiLockManager lockManager;
+    private OtherThreadExecutor executor;
+
+    @BeforeEach
+    void setUp()
+    {
+        config = Config.defaults( forseti_background_deadlock_detection_interval, Duration.ofMillis( 10 ) );
+        lockManager = new ForsetiLockManager( config, Clocks.nanoClock(), ResourceTypes.values() );
+        executor = new OtherThreadExecutor( "deadlock" );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.close();
+        lockManager.close();
+    }
+
+    @Test
+    void shouldAbortTheWaitOfTheClientHoldingFewestLocks() throws Exception
+    {
+        try ( Locks.Client senior = newClient();
+              Locks.Client junior = newClient() )
+        {
+            senior.acquireExclusive( LockTracer.NONE, NODE, 1, 2, 3 );
+            junior.acquireExclusive( LockTracer.NONE, NODE, 10 );
+
+            Future<Object> seniorWait = executor.executeDontWait( command( () -> senior.acquireExclusive( LockTracer.NONE, NODE, 10 ) ) );
+            executor.waitUntilWaiting( details -> details.isAt( ForsetiClient.class, "waitFor" ) );
+
+            DeadlockDetectedException e = assertThrows( DeadlockDetectedException.class, () -> junior.acquireExclusive( LockTracer.NONE, NODE, 1 ) );
+            assertThat( e.getMessage() ).contains( junior.toString(), senior.toString() );
+
+            junior.releaseExclusive( NODE, 10 );
+            seniorWait.get();
+            assertThat( senior.activeLockCount() ).isEqualTo( 4 );
+        }
+    }
+
+    @Test
+    void shouldNotAbortWaitWithoutDeadlock() throws Exception
+    {
+        try ( Locks.Client holder = newClient();
+              Locks.Client waiter = newClient() )
+        {
+            holder.acquireExclusive( LockTracer.NONE, NODE, 1 );
+
+            Future<Object> wait = executor.executeDontWait( command( () -> waiter.acquireExclusive( LockTracer.NONE, NODE, 1 ) ) );
+            executor.waitUntilWaiting( details -> details.isAt( ForsetiClient.class, "waitFor" ) );
+            // Give the detector a few rounds to look at the waiting client
+            Thread.sleep( 100 );
+            assertThat( wait.isDone() ).isFalse();
+
+            holder.releaseExclusive( NODE, 1 );
+            wait.get();
+            assertThat( waiter.activeLockCount() ).isEqualTo( 1 );
+        }
+    }
+
+    @Test
+    void shouldParkWaitersUntilTheLockIsReleased() throws Exception
+    {
+        try ( Locks.Client holder = newClient();
+              Locks.Client upgrader = newClient();
+              Locks.Client waiter = newClient();
+              OtherThreadExecutor otherExecutor = new OtherThreadExecutor( "deadlock-2" ) )
+        {
+            holder.acquireShared( LockTracer.NONE, NODE, 1 );
+            upgrader.acquireShared( LockTracer.NONE, NODE, 1 );
+
+            Future<Object> upgrade = executor.executeDontWait( command( () -> upgrader.acquireExclusive( LockTracer.NONE, NODE, 1 ) ) );
+            executor.waitUntilWaiting( details -> details.isAt( LockWaiters.class, "park" ) );
+            holder.releaseShared( NODE, 1 );
+            upgrade.get();
+
+            Future<Object> wait = otherExecutor.executeDontWait( command( () -> waiter.acquireShared( LockTracer.NONE, NODE, 1 ) ) );
+            otherExecutor.waitUntilWaiting( details -> details.isAt( LockWaiters.class, "park" ) );
+            upgrader.releaseExclusive( NODE, 1 );
+            upgrader.releaseShared( NODE, 1 );
+            wait.get();
+            assertThat( waiter.activeLockCount() ).isEqualTo( 1 );
+        }
+    }
+
+    @Test
+    void shouldResolveDeadlockAmongMoreThanTwoClients() throws Exception
+    {
+        try ( Locks.Client first = newClient();
+              Locks.Client second = newClient();
+              Locks.Client third = newClient();
+              OtherThreadExecutor otherExecutor = new OtherThreadExecutor( "deadlock-2" ) )
+        {
+            first.acquireExclusive( LockTracer.NONE, NODE, 1, 2 );
+            second.acquireExclusive( LockTracer.NONE, NODE, 3, 4, 5 );
+            third.acquireExclusive( LockTracer.NONE, NODE, 6 );
+
+            Future<Object> firstWait = executor.executeDontWait( command( () -> first.acquireExclusive( LockTracer.NONE, NODE, 3 ) ) );
+            executor.waitUntilWaiting( details -> details.isAt( ForsetiClient.class, "waitFor" ) );
+            Future<Object> secondWait = otherExecutor.executeDontWait( command( () -> second.acquireExclusive( LockTracer.NONE, NODE, 6 ) ) );
+            otherExecutor.waitUntilWaiting( details -> details.isAt( ForsetiClient.class, "waitFor" ) );
+
+            assertThrows( DeadlockDetectedException.class, () -> third.acquireShared( LockTracer.NONE, NODE, 1 ) );
+            assertThat( firstWait.isDone() ).isFalse();
+            assertThat( secondWait.isDone() ).isFalse();
+
+            third.releaseExclusive( NODE, 6 );
+            secondWait.get();
+            second.releaseExclusive( NODE, 3 );
+            firstWait.get();
+        }
+    }
+
+    @Test
+    void shouldNotAcceptNegativeInterval()
+    {
+        assertThrows( IllegalArgumentException.class, () -> Config.defaults( forseti_background_deadlock_detection_interval, Duration.ofMillis( -1 ) ) );
+    }
+
+    private Locks.Client newClient()
+    {
+        Locks.Client client = lockManager.newClient();
+        client.initialize( LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, config );
+        return client;
+    }
+}
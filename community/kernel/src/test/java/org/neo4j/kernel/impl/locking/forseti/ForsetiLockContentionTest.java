@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.ContendedResource;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceTypes;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.time.Clocks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.kernel.impl.locking.forseti.LockingInternalSettings.lock_contention_profile_size;
+import static org.neo4j.lock.ResourceTypes.NODE;
+import static org.neo4j.test.OtherThreadExecutor.command;
+
+class ForsetiLockContentionTest
+{
+    private final OtherThreadExecutor executor = new OtherThreadExecutor( "waiter" );
+    private ForsetiLockManager lockManager = new ForsetiLockManager( Config.defaults(), Clocks.nanoClock(), ResourceTypes.values() );
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.close();
+        lockManager.close();
+    }
+
+    @Test
+    void shouldNotRecordLocksAcquiredWithoutWaiting()
+    {
+        try ( Locks.Client first = newClient();
+              Locks.Client second = newClient() )
+        {
+            first.acquireShared( LockTracer.NONE, NODE, 1 );
+            second.acquireShared( LockTracer.NONE, NODE, 1 );
+            first.acquireExclusive( LockTracer.NONE, NODE, 2 );
+        }
+
+        assertThat( lockManager.contentionProfile().contendedResources() ).isEmpty();
+        assertEquals( 0, lockManager.contentionProfile().waits() );
+    }
+
+    @Test
+    void shouldRecordWaitForExclusiveLockHeldBySharedHolders() throws Exception
+    {
+        try ( Locks.Client first = newClient();
+              Locks.Client second = newClient();
+              Locks.Client waiter = newClient() )
+        {
+            first.acquireShared( LockTracer.NONE, NODE, 1 );
+            second.acquireShared( LockTracer.NONE, NODE, 1 );
+
+            Future<Object> wait = executor.executeDontWait( command( () -> waiter.acquireExclusive( LockTracer.NONE, NODE, 1 ) ) );
+            executor.waitUntilWaiting( details -> details.isAt( ForsetiClient.class, "waitFor" ) );
+            first.releaseShared( NODE, 1 );
+            second.releaseShared( NODE, 1 );
+            wait.get();
+        }
+
+        List<ContendedResource> resources = lockManager.contentionProfile().contendedResources();
+        assertThat( resources ).hasSize( 1 );
+        ContendedResource resource = resources.get( 0 );
+        assertEquals( "NODE", resource.getResourceType() );
+        assertEquals( 1, resource.getResourceId() );
+        assertEquals( 1, resource.getWaits() );
+        assertEquals( 2, resource.getMaxHolders() );
+        assertThat( resource.getTotalWaitMicros() ).isGreaterThan( 0 );
+    }
+
+    @Test
+    void shouldNotRecordWaitsWhenDisabled() throws Exception
+    {
+        lockManager.close();
+        lockManager = new ForsetiLockManager( Config.defaults( lock_contention_profile_size, 0 ), Clocks.nanoClock(), ResourceTypes.values() );
+        try ( Locks.Client holder = newClient();
+              Locks.Client waiter = newClient() )
+        {
+            holder.acquireExclusive( LockTracer.NONE, NODE, 1 );
+
+            Future<Object> wait = executor.executeDontWait( command( () -> waiter.acquireExclusive( LockTracer.NONE, NODE, 1 ) ) );
+            executor.waitUntilWaiting( details -> details.isAt( ForsetiClient.class, "waitFor" ) );
+            holder.releaseExclusive( NODE, 1 );
+            wait.get();
+        }
+
+        assertThat( lockManager.contentionProfile().contendedResources() ).isEmpty();
+    }
+
+    private Locks.Client newClient()
+    {
+        Locks.Client client = lockManager.newClient();
+        client.initialize( LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, Config.defaults() );
+        return client;
+    }
+}
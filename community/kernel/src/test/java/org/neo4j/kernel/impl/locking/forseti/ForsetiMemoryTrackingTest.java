@@ -47,7 +47,7 @@ import static org.neo4j.lock.ResourceTypes.NODE;
 
 class ForsetiMemoryTrackingTest
 {
-    private static final int ONE_LOCK_SIZE_ESTIMATE = 56;
+    private static final long ONE_LOCK_SIZE_ESTIMATE = LockTable.ENTRY_SIZE;
     private GlobalMemoryGroupTracker memoryPool;
     private MemoryTracker memoryTracker;
     private ForsetiLockManager forsetiLockManager;
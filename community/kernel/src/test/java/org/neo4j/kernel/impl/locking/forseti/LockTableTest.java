@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.rule.RandomRule;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith( RandomExtension.class )
+class LockTableTest
+{
+    @Inject
+    private RandomRule random;
+
+    @Test
+    void shouldOnlyInstallLockIfAbsent()
+    {
+        LockTable table = new LockTable();
+        ForsetiLockManager.Lock first = lock();
+        ForsetiLockManager.Lock second = lock();
+
+        assertNull( table.putIfAbsent( 42, first ) );
+        assertSame( first, table.putIfAbsent( 42, second ) );
+        assertSame( first, table.get( 42 ) );
+
+        table.put( 42, second );
+        assertSame( second, table.get( 42 ) );
+
+        table.remove( 42 );
+        assertNull( table.get( 42 ) );
+        assertNull( table.putIfAbsent( 42, first ) );
+        assertSame( first, table.get( 42 ) );
+    }
+
+    @Test
+    void shouldBehaveLikeAMapWhenGrowingAndShrinking()
+    {
+        // Few stripes and a narrow key range, so that probe sequences get long and entries move around on removal
+        LockTable table = new LockTable( 2 );
+        Map<Long,ForsetiLockManager.Lock> expected = new HashMap<>();
+        for ( int round = 0; round < 3; round++ )
+        {
+            for ( int i = 0; i < 20_000; i++ )
+            {
+                long resourceId = random.nextLong( 5_000 ) - 1_000;
+                if ( random.nextBoolean() )
+                {
+                    ForsetiLockManager.Lock lock = lock();
+                    assertSame( expected.putIfAbsent( resourceId, lock ), table.putIfAbsent( resourceId, lock ) );
+                }
+                else
+                {
+                    expected.remove( resourceId );
+                    table.remove( resourceId );
+                }
+                assertSame( expected.get( resourceId ), table.get( resourceId ) );
+            }
+            assertThat( contents( table ) ).isEqualTo( expected );
+
+            // Empty it, which shrinks the stripes
+            for ( long resourceId : expected.keySet() )
+            {
+                table.remove( resourceId );
+            }
+            expected.clear();
+            assertThat( contents( table ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldSeeOwnChangesWhileOthersResizeTheSameStripes() throws Throwable
+    {
+        LockTable table = new LockTable( 4 );
+        int writers = 4;
+        Race race = new Race().withMaxDuration( 2, SECONDS );
+        race.addContestants( writers, writer -> () ->
+        {
+            // Each writer owns its own resource ids, and keeps growing and shrinking the table with them
+            ForsetiLockManager.Lock lock = lock();
+            for ( long i = 0; i < 1_000; i++ )
+            {
+                long resourceId = i * writers + writer;
+                assertNull( table.putIfAbsent( resourceId, lock ) );
+                assertSame( lock, table.get( resourceId ) );
+            }
+            for ( long i = 0; i < 1_000; i++ )
+            {
+                long resourceId = i * writers + writer;
+                table.remove( resourceId );
+                assertNull( table.get( resourceId ) );
+            }
+        } );
+        race.addContestants( 2, () ->
+        {
+            // Resource ids nobody writes, which must never be found
+            for ( long resourceId = -1; resourceId > -1_000; resourceId-- )
+            {
+                assertNull( table.get( resourceId ) );
+            }
+        } );
+        race.go();
+
+        assertThat( contents( table ) ).isEmpty();
+    }
+
+    private static Map<Long,ForsetiLockManager.Lock> contents( LockTable table )
+    {
+        Map<Long,ForsetiLockManager.Lock> contents = new HashMap<>();
+        table.forEach( contents::put );
+        return contents;
+    }
+
+    private static ForsetiLockManager.Lock lock()
+    {
+        return mock( ForsetiLockManager.Lock.class );
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Flushable;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.time.FakeClock;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.io_controller_adaptive;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.io_controller_adaptive_target_fault_latency;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+
+class CommunityIOControllerTest
+{
+    private final FakeClock clock = new FakeClock();
+    private final DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+    private final Flushable flushable = () -> {};
+
+    @Test
+    void mustNotLimitIOWhenLimitIsDisabled()
+    {
+        CommunityIOController controller = new CommunityIOController( Config.defaults( check_point_iops_limit, -1 ), clock, tracer );
+        MajorFlushEvent flushEvent = mock( MajorFlushEvent.class );
+
+        controller.maybeLimitIO( 100_000, flushable, flushEvent );
+
+        assertThat( controller.isEnabled() ).isFalse();
+        verify( flushEvent ).reportIO( 100_000 );
+        verify( flushEvent, never() ).throttle( anyLong() );
+    }
+
+    @Test
+    void mustThrottleFlushesThatExceedTheLimitUntilTheBucketIsRefilled()
+    {
+        CommunityIOController controller = new CommunityIOController( Config.defaults( check_point_iops_limit, 1000 ), clock, tracer );
+        MajorFlushEvent flushEvent = mock( MajorFlushEvent.class );
+
+        controller.maybeLimitIO( 1000, flushable, flushEvent );
+        verify( flushEvent, never() ).throttle( anyLong() );
+
+        controller.maybeLimitIO( 10, flushable, flushEvent );
+        verify( flushEvent ).throttle( 10 );
+
+        clock.forward( 1, SECONDS );
+        flushEvent = mock( MajorFlushEvent.class );
+        controller.maybeLimitIO( 900, flushable, flushEvent );
+        verify( flushEvent, never() ).throttle( anyLong() );
+    }
+
+    @Test
+    void mustNotLimitIOWhileDisabled()
+    {
+        CommunityIOController controller = new CommunityIOController( Config.defaults( check_point_iops_limit, 1 ), clock, tracer );
+        assertThat( controller.isEnabled() ).isTrue();
+
+        controller.disable();
+        controller.disable();
+        controller.enable();
+        assertThat( controller.isEnabled() ).isFalse();
+        MajorFlushEvent flushEvent = mock( MajorFlushEvent.class );
+        controller.maybeLimitIO( 1000, flushable, flushEvent );
+        verify( flushEvent, never() ).throttle( anyLong() );
+
+        controller.enable();
+        assertThat( controller.isEnabled() ).isTrue();
+    }
+
+    @Test
+    void mustApplyChangedLimitAtRuntime()
+    {
+        Config config = Config.defaults( check_point_iops_limit, 1000 );
+        CommunityIOController controller = new CommunityIOController( config, clock, tracer );
+        assertThat( controller.currentRate() ).isEqualTo( 1000 );
+
+        config.setDynamic( check_point_iops_limit, 200, "test" );
+        assertThat( controller.currentRate() ).isEqualTo( 200 );
+
+        config.setDynamic( check_point_iops_limit, -1, "test" );
+        assertThat( controller.isEnabled() ).isFalse();
+    }
+
+    @Test
+    void adaptiveModeMustLowerRateWhileFaultLatencyIsAboveTarget()
+    {
+        Config config = Config.newBuilder()
+                .set( check_point_iops_limit, 1000 )
+                .set( io_controller_adaptive, true )
+                .set( io_controller_adaptive_target_fault_latency, ofMillis( 5 ) )
+                .build();
+        CommunityIOController controller = new CommunityIOController( config, clock, tracer );
+        MajorFlushEvent flushEvent = mock( MajorFlushEvent.class );
+
+        clock.forward( 100, MILLISECONDS );
+        tracer.faults( 10 );
+        tracer.faultNanos( MILLISECONDS.toNanos( 200 ) );
+        controller.maybeLimitIO( 1, flushable, flushEvent );
+        assertThat( controller.currentRate() ).isEqualTo( 500 );
+
+        clock.forward( 100, MILLISECONDS );
+        tracer.faults( 10 );
+        tracer.faultNanos( MILLISECONDS.toNanos( 200 ) );
+        controller.maybeLimitIO( 1, flushable, flushEvent );
+        assertThat( controller.currentRate() ).isEqualTo( 250 );
+
+        clock.forward( 100, MILLISECONDS );
+        tracer.faults( 10 );
+        tracer.faultNanos( MILLISECONDS.toNanos( 10 ) );
+        controller.maybeLimitIO( 1, flushable, flushEvent );
+        assertThat( controller.currentRate() ).isCloseTo( 350, within( 0.001 ) );
+
+        config.setDynamic( io_controller_adaptive, false, "test" );
+        controller.maybeLimitIO( 1, flushable, flushEvent );
+        assertThat( controller.currentRate() ).isEqualTo( 1000 );
+    }
+}
@@ -26,10 +26,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Set;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.Neo4jLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
@@ -46,15 +49,23 @@ import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
 import org.neo4j.time.Clocks;
 
+import static java.nio.file.StandardOpenOption.CREATE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_compressed_index_databases;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.configuration.GraphDatabaseSettings.neo4j_home;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PageMapFiles.pageMapFile;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.baseSchemaIndexFolder;
 
 @EphemeralTestDirectoryExtension
 class ConfiguringPageCacheFactoryTest
@@ -117,4 +128,69 @@ class ConfiguringPageCacheFactoryTest
             assertEquals( bigPageToExpand, file.getLastPageId() );
         }
     }
+
+    @Test
+    void shouldKeepReadingCompressedIndexFilesWhenTheirDatabaseIsNoLongerSelected() throws IOException
+    {
+        Path home = testDirectory.homePath();
+        Config compressingConfig = Config.newBuilder()
+                .set( neo4j_home, home )
+                .set( pagecache_compressed_index_databases, Set.of( DEFAULT_DATABASE_NAME ) )
+                .build();
+        Path indexFile = baseSchemaIndexFolder( Neo4jLayout.of( compressingConfig ).databaseLayout( DEFAULT_DATABASE_NAME ).databaseDirectory() )
+                .resolve( "index" );
+        fs.mkdirs( indexFile.getParent() );
+        try ( var cache = newPageCacheFactory( compressingConfig ).getOrCreatePageCache();
+              var file = cache.map( indexFile, PAGE_SIZE, DEFAULT_DATABASE_NAME, immutable.of( CREATE ) );
+              var io = file.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( long pageId = 0; pageId < 10; pageId++ )
+            {
+                assertTrue( io.next( pageId ) );
+                io.putLong( 0, pageId );
+            }
+        }
+        assertTrue( fs.fileExists( pageMapFile( indexFile ) ) );
+
+        Config config = Config.defaults( neo4j_home, home );
+        try ( var cache = newPageCacheFactory( config ).getOrCreatePageCache();
+              var file = cache.map( indexFile, PAGE_SIZE, DEFAULT_DATABASE_NAME );
+              var io = file.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            assertEquals( 9, file.getLastPageId() );
+            for ( long pageId = 0; pageId < 10; pageId++ )
+            {
+                assertTrue( io.next( pageId ) );
+                assertEquals( pageId, io.getLong( 0 ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldOnlyLookForPageMapsOfIndexFiles() throws IOException
+    {
+        Path home = testDirectory.homePath();
+        Config config = Config.defaults( neo4j_home, home );
+        Path storeFile = Neo4jLayout.of( config ).databaseLayout( DEFAULT_DATABASE_NAME ).nodeStore();
+        fs.mkdirs( storeFile.getParent() );
+        try ( var channel = fs.write( pageMapFile( storeFile ) ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{1, 2, 3} ) );
+        }
+
+        try ( var cache = newPageCacheFactory( config ).getOrCreatePageCache();
+              var file = cache.map( storeFile, PAGE_SIZE, DEFAULT_DATABASE_NAME, immutable.of( CREATE ) );
+              var io = file.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            assertTrue( io.next( 0 ) );
+            io.putLong( 0, 42 );
+        }
+        assertEquals( PAGE_SIZE, fs.getFileSize( storeFile ) );
+        assertTrue( fs.fileExists( pageMapFile( storeFile ) ) );
+    }
+
+    private ConfiguringPageCacheFactory newPageCacheFactory( Config config )
+    {
+        return new ConfiguringPageCacheFactory( fs, config, PageCacheTracer.NULL, NullLog.getInstance(), jobScheduler, Clocks.nanoClock(), new MemoryPools() );
+    }
 }
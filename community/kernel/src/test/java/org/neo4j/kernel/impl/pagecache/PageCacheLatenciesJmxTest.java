@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PageCacheLatenciesJmxTest
+{
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Test
+    void mustExposeLatenciesWhileStarted() throws Exception
+    {
+        var tracer = new DefaultPageCacheTracer();
+        var pagedFile = mock( PagedFile.class );
+        when( pagedFile.path() ).thenReturn( Path.of( "a" ) );
+        when( pagedFile.getDatabaseName() ).thenReturn( "db" );
+        tracer.mappedFile( 1, pagedFile );
+        tracer.latencies().recordFault( 1, 2_000 );
+
+        var jmx = new PageCacheLatenciesJmx( tracer, Path.of( "home" ), mBeanServer );
+        jmx.start();
+        var name = jmx.name();
+        try
+        {
+            var files = (CompositeData[]) mBeanServer.getAttribute( name, "FileLatencies" );
+            assertThat( files ).hasSize( 3 );
+            assertEquals( "a", files[0].get( "file" ) );
+            assertEquals( PageCacheLatencySummary.FAULT, files[0].get( "operation" ) );
+            assertEquals( 1L, files[0].get( "count" ) );
+
+            var databases = (CompositeData[]) mBeanServer.getAttribute( name, "DatabaseLatencies" );
+            assertThat( databases ).hasSize( 3 );
+            assertEquals( "db", databases[0].get( "database" ) );
+            assertEquals( 2.0, (double) databases[0].get( "maxMicros" ), 0.3 );
+        }
+        finally
+        {
+            jmx.stop();
+        }
+        assertFalse( mBeanServer.isRegistered( name ) );
+    }
+
+    @Test
+    void mustRegisterUnderTheSameNameWhenRestarted() throws Exception
+    {
+        var jmx = new PageCacheLatenciesJmx( new DefaultPageCacheTracer(), Path.of( "home" ), mBeanServer );
+        jmx.start();
+        var name = jmx.name();
+        jmx.stop();
+        jmx.start();
+        try
+        {
+            assertEquals( name, jmx.name() );
+            assertEquals( Path.of( "home" ).toString(), ObjectName.unquote( name.getKeyProperty( "home" ) ) );
+        }
+        finally
+        {
+            jmx.stop();
+        }
+    }
+
+    @Test
+    void mustTolerateAnotherDbmsWithTheSameHome() throws Exception
+    {
+        var first = new PageCacheLatenciesJmx( new DefaultPageCacheTracer(), Path.of( "home" ), mBeanServer );
+        var second = new PageCacheLatenciesJmx( new DefaultPageCacheTracer(), Path.of( "home" ), mBeanServer );
+        first.start();
+        try
+        {
+            second.start();
+            assertNull( second.name() );
+            second.stop();
+            assertThat( mBeanServer.isRegistered( first.name() ) ).isTrue();
+        }
+        finally
+        {
+            first.stop();
+        }
+    }
+}
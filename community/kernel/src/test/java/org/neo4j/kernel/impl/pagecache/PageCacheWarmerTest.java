@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.DelegatingPageCache;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.time.Clocks;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.configuration.helpers.DatabaseReadOnlyChecker.readOnly;
+import static org.neo4j.configuration.helpers.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+@EphemeralTestDirectoryExtension
+class PageCacheWarmerTest
+{
+    private static final int PAGES = 100;
+    private static final PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension();
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private JobScheduler scheduler;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        file = testDirectory.homePath().resolve( "store" );
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME, Sets.immutable.of( CREATE ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, CursorContext.NULL ) )
+        {
+            for ( int i = 0; i < PAGES; i++ )
+            {
+                assertThat( cursor.next() ).isTrue();
+                cursor.putLong( i );
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        scheduler.close();
+    }
+
+    @Test
+    void reheatPagesFromProfile() throws IOException
+    {
+        long[] hotPages = {2, 3, 4, 10, 11, 50, 99};
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            for ( long pageId : hotPages )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK, CursorContext.NULL ) )
+                {
+                    assertThat( cursor.next() ).isTrue();
+                }
+            }
+            assertThat( warmer( pageCache, Config.defaults(), PageCacheTracer.NULL, writable() ).profile() ).isEqualTo( hotPages.length );
+        }
+        assertThat( fs.fileExists( testDirectory.homePath().resolve( PageCacheWarmer.PROFILES_DIRECTORY ).resolve(
+                "store" + PageCacheWarmer.PROFILE_SUFFIX ) ) ).isTrue();
+
+        var tracer = new DefaultPageCacheTracer();
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs, PageCacheConfig.config().withTracer( tracer ) );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            assertThat( warmer( pageCache, Config.defaults(), tracer, writable() ).reheat() ).isEqualTo( hotPages.length );
+            assertThat( tracer.faults() ).isEqualTo( hotPages.length );
+            assertThat( residentPages( pagedFile ) ).isEqualTo( hotPages.length );
+            for ( long pageId : hotPages )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT, CursorContext.NULL ) )
+                {
+                    assertThat( cursor.next() ).isTrue();
+                    assertThat( cursor.getCurrentPageId() ).isEqualTo( pageId );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong();
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertThat( value ).isEqualTo( pageId );
+                }
+            }
+        }
+    }
+
+    @Test
+    void skipFilesUnmappedDuringReheat() throws IOException
+    {
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, CursorContext.NULL ) )
+        {
+            assertThat( cursor.next() ).isTrue();
+            assertThat( warmer( pageCache, Config.defaults(), PageCacheTracer.NULL, writable() ).profile() ).isOne();
+        }
+
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs ) )
+        {
+            PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME );
+            List<PagedFile> mappings = pageCache.listExistingMappings();
+            pagedFile.close();
+            PageCache unmappingPageCache = new DelegatingPageCache( pageCache )
+            {
+                @Override
+                public List<PagedFile> listExistingMappings()
+                {
+                    return mappings;
+                }
+            };
+
+            assertThat( warmer( unmappingPageCache, Config.defaults(), PageCacheTracer.NULL, writable() ).reheat() ).isZero();
+        }
+    }
+
+    @Test
+    void preloadWholeFilesWhenPrefetchIsEnabled() throws IOException
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_prefetch, true );
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            assertThat( warmer( pageCache, config, PageCacheTracer.NULL, writable() ).reheat() ).isEqualTo( PAGES );
+            assertThat( residentPages( pagedFile ) ).isEqualTo( PAGES );
+        }
+    }
+
+    @Test
+    void doNotPreloadFilesOutsideOfAllowlist() throws IOException
+    {
+        Config config = Config.newBuilder()
+                .set( GraphDatabaseSettings.pagecache_warmup_prefetch, true )
+                .set( GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist, ".*\\.db" )
+                .build();
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            assertThat( warmer( pageCache, config, PageCacheTracer.NULL, writable() ).reheat() ).isZero();
+            assertThat( residentPages( pagedFile ) ).isZero();
+        }
+    }
+
+    @Test
+    void doNotProfileReadOnlyDatabase() throws IOException
+    {
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile ignored = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            warmer( pageCache, Config.defaults(), PageCacheTracer.NULL, readOnly() ).profile();
+        }
+        assertThat( fs.fileExists( testDirectory.homePath().resolve( PageCacheWarmer.PROFILES_DIRECTORY ) ) ).isFalse();
+    }
+
+    @Test
+    void startDespiteDamagedProfileWhenWarmupIsBlocking() throws Exception
+    {
+        Path profiles = testDirectory.homePath().resolve( PageCacheWarmer.PROFILES_DIRECTORY );
+        fs.mkdirs( profiles );
+        try ( OutputStream out = fs.openAsOutputStream( profiles.resolve( "store" + PageCacheWarmer.PROFILE_SUFFIX ), false ) )
+        {
+            out.write( new byte[]{1, 2, 3, 4} );
+        }
+
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_blocking, true );
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, PageCacheTracer.NULL, writable() );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).isZero();
+        }
+        // The profile was never used, so it must not have been overwritten
+        assertThat( fs.getFileSize( profiles.resolve( "store" + PageCacheWarmer.PROFILE_SUFFIX ) ) ).isEqualTo( 4 );
+    }
+
+    @Test
+    void writeProfileOnStopOnceWarmupCompleted() throws Exception
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_blocking, true );
+        try ( PageCache pageCache = pageCacheExtension.getPageCache( fs );
+              PagedFile ignored = pageCache.map( file, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, PageCacheTracer.NULL, writable() );
+            warmer.start();
+            warmer.stop();
+        }
+        assertThat( fs.fileExists( testDirectory.homePath().resolve( PageCacheWarmer.PROFILES_DIRECTORY ).resolve(
+                "store" + PageCacheWarmer.PROFILE_SUFFIX ) ) ).isTrue();
+    }
+
+    private PageCacheWarmer warmer( PageCache pageCache, Config config, PageCacheTracer tracer, DatabaseReadOnlyChecker readOnlyChecker )
+    {
+        return new PageCacheWarmer( pageCache, fs, scheduler, testDirectory.homePath(), DEFAULT_DATABASE_NAME, config, readOnlyChecker, tracer,
+                Clocks.nanoClock(), PageCacheWarmer.Monitor.NO_MONITOR, NullLog.getInstance() );
+    }
+
+    private static long residentPages( PagedFile pagedFile ) throws IOException
+    {
+        long resident = 0;
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, CursorContext.NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    resident++;
+                }
+            }
+        }
+        return resident;
+    }
+}
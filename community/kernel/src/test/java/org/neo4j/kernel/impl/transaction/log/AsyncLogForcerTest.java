@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.transaction.log.files.LogFile;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.FakeClockJobScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncLogForcerTest
+{
+    private final LogFile logFile = mock( LogFile.class );
+    private final FakeClockJobScheduler scheduler = new FakeClockJobScheduler();
+    private final AsyncLogForcer forcer = new AsyncLogForcer( logFile, scheduler, Duration.ofMillis( 100 ), 1_000, scheduler, NullLog.getInstance() );
+
+    @Test
+    void shouldNotForceWhenAppendingLessThanMaxUnforcedBytes() throws IOException
+    {
+        // when
+        boolean forced = forcer.appended( 600, LogAppendEvent.NULL );
+        scheduler.forward( 10, TimeUnit.MILLISECONDS );
+
+        // then
+        assertThat( forced ).isFalse();
+        verify( logFile, never() ).forceAfterAppend( any() );
+        assertThat( forcer.unforcedBytes() ).isEqualTo( 600 );
+        assertThat( forcer.unforcedMillis() ).isEqualTo( 10 );
+    }
+
+    @Test
+    void shouldForceWhenAppendingMoreThanMaxUnforcedBytes() throws IOException
+    {
+        // given
+        when( logFile.forceAfterAppend( any() ) ).thenReturn( true );
+        forcer.appended( 600, LogAppendEvent.NULL );
+
+        // when
+        boolean forced = forcer.appended( 600, LogAppendEvent.NULL );
+
+        // then
+        assertThat( forced ).isTrue();
+        verify( logFile ).forceAfterAppend( any() );
+        assertThat( forcer.unforcedBytes() ).isZero();
+        assertThat( forcer.unforcedMillis() ).isZero();
+    }
+
+    @Test
+    void shouldForceInBackgroundOnlyWhenThereIsSomethingToForce() throws IOException
+    {
+        // given
+        forcer.start();
+
+        // when
+        scheduler.forward( 100, TimeUnit.MILLISECONDS );
+
+        // then
+        verify( logFile, never() ).forceAfterAppend( any() );
+
+        // when
+        forcer.appended( 10, LogAppendEvent.NULL );
+        scheduler.forward( 100, TimeUnit.MILLISECONDS );
+
+        // then
+        verify( logFile ).forceAfterAppend( any() );
+        assertThat( forcer.unforcedBytes() ).isZero();
+    }
+
+    @Test
+    void shouldForceChannelBeforePagesWrittenOnlyWhenThereIsSomethingToForce() throws IOException
+    {
+        // when
+        forcer.forceBeforePagesWritten();
+
+        // then
+        verify( logFile, never() ).forceChannel();
+
+        // when
+        forcer.appended( 10, LogAppendEvent.NULL );
+        forcer.forceBeforePagesWritten();
+        forcer.forceBeforePagesWritten();
+
+        // then
+        verify( logFile, times( 1 ) ).forceChannel();
+        verify( logFile, never() ).forceAfterAppend( any() );
+        assertThat( forcer.unforcedBytes() ).isZero();
+        assertThat( forcer.unforcedMillis() ).isZero();
+    }
+
+    @Test
+    void shouldForceChannelBeforePagesWrittenWhenAppendedDuringForce() throws IOException
+    {
+        // given
+        forcer.appended( 10, LogAppendEvent.NULL );
+        when( logFile.forceAfterAppend( any() ) ).then( invocation ->
+        {
+            // appended after the force emptied the buffer, so not covered by it
+            forcer.appended( 20, LogAppendEvent.NULL );
+            return true;
+        } );
+
+        // when
+        forcer.force( LogAppendEvent.NULL );
+
+        // then
+        assertThat( forcer.unforcedBytes() ).isEqualTo( 20 );
+
+        // when
+        forcer.forceBeforePagesWritten();
+
+        // then
+        verify( logFile ).forceChannel();
+        assertThat( forcer.unforcedBytes() ).isZero();
+    }
+
+    @Test
+    void shouldForceOnStop() throws IOException
+    {
+        // given
+        forcer.start();
+        forcer.appended( 10, LogAppendEvent.NULL );
+
+        // when
+        forcer.stop();
+        scheduler.forward( 1, TimeUnit.SECONDS );
+
+        // then
+        verify( logFile, times( 1 ) ).forceAfterAppend( any() );
+    }
+}
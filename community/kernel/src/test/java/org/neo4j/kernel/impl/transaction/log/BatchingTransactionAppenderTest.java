@@ -26,6 +26,7 @@ import org.mockito.Mockito;
 
 import java.io.Flushable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -44,13 +45,17 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.NullLog;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Health;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.TransactionId;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
+import org.neo4j.time.Clocks;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -58,10 +63,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -281,6 +289,80 @@ class BatchingTransactionAppenderTest
         verify( transactionIdStore, never() ).transactionClosed( eq( txId ), anyLong(), anyLong(), any( CursorContext.class ) );
     }
 
+    @Test
+    void shouldChargeSerializedCommandsToTransactionMemoryTrackerUntilAppended() throws Exception
+    {
+        // GIVEN
+        when( logFile.getTransactionLogWriter() ).thenReturn( new TransactionLogWriter( channel, new DbmsLogEntryWriterFactory( () -> LATEST ) ) );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
+        // WHEN
+        TransactionRepresentation transaction = transaction( singleTestCommand(), new byte[0], 0, 1, 0 );
+        appender.append( new TransactionToApply( transaction, NULL, memoryTracker ), logAppendEvent );
+
+        // THEN
+        assertThat( memoryTracker.heapHighWaterMark() ).isPositive();
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+        try ( PhysicalTransactionCursor reader = new PhysicalTransactionCursor( channel, logEntryReader() ) )
+        {
+            assertTrue( reader.next() );
+            assertEquals( 2L, reader.get().getCommitEntry().getTxId() );
+        }
+    }
+
+    @Test
+    void shouldReleaseSerializedCommandsWhenAppendFails() throws Exception
+    {
+        // GIVEN
+        when( logFile.getTransactionLogWriter() ).thenReturn( new TransactionLogWriter( channel, new DbmsLogEntryWriterFactory( () -> LATEST ) ) );
+        IOException failure = new IOException( "Unhealthy" );
+        doThrow( failure ).when( databaseHealth ).assertHealthy( IOException.class );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
+        // WHEN
+        TransactionRepresentation transaction = transaction( singleTestCommand(), new byte[0], 0, 1, 0 );
+        var e = assertThrows( IOException.class, () -> appender.append( new TransactionToApply( transaction, NULL, memoryTracker ), logAppendEvent ) );
+
+        // THEN
+        assertSame( failure, e );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+    }
+
+    @Test
+    void shouldLeaveForcingToAsyncLogForcerWhenGiven() throws Exception
+    {
+        // GIVEN
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        when( logFile.getTransactionLogWriter() ).thenReturn( new TransactionLogWriter( channel, new DbmsLogEntryWriterFactory( () -> LATEST ) ) );
+        long txId = 15;
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( txId );
+        when( transactionIdStore.getLastCommittedTransaction() ).thenReturn( new TransactionId( txId, BASE_TX_CHECKSUM, BASE_TX_COMMIT_TIMESTAMP ) );
+        AsyncLogForcer forcer = new AsyncLogForcer( logFile, mock( JobScheduler.class ), Duration.ofSeconds( 1 ), Long.MAX_VALUE, Clocks.nanoClock(),
+                NullLog.getInstance() );
+        TransactionAppender appender =
+                life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore, databaseHealth, forcer ) );
+
+        // WHEN
+        TransactionRepresentation transaction = transaction( singleTestCommand(), new byte[]{1, 2, 5}, 12345, 4545, 12345 + 10 );
+        appender.append( new TransactionToApply( transaction, NULL ), logAppendEvent );
+
+        // THEN
+        verify( logFile, never() ).forceAfterAppend( any() );
+        verify( transactionIdStore ).transactionCommitted( eq( txId ), anyInt(), anyLong(), any( CursorContext.class ) );
+        assertThat( forcer.unforcedBytes() ).isEqualTo( channel.writerPosition() ).isPositive();
+
+        // WHEN
+        forcer.force( logAppendEvent );
+
+        // THEN
+        verify( logFile ).forceAfterAppend( any() );
+        assertThat( forcer.unforcedBytes() ).isZero();
+    }
+
     @Test
     void shouldKernelPanicIfTransactionIdsMismatch()
     {
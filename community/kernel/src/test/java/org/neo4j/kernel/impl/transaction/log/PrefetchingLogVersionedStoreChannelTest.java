@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.kernel.impl.transaction.log.files.LogFileChannelNativeAccessor;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.CallableExecutorService;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@TestDirectoryExtension
+class PrefetchingLogVersionedStoreChannelTest
+{
+    private static final int LONGS_PER_FILE = (int) (PrefetchingLogVersionedStoreChannel.PREFETCH_AFTER +
+                                                     3L * PrefetchingLogVersionedStoreChannel.BUFFER_SIZE) / Long.BYTES + 17;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private TestDirectory directory;
+    private final LogFileChannelNativeAccessor nativeChannelAccessor = mock( LogFileChannelNativeAccessor.class );
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final AtomicInteger fills = new AtomicInteger();
+    private final CallableExecutor prefetcher = new CallableExecutorService( executorService )
+    {
+        @Override
+        public <T> Future<T> submit( Callable<T> callable )
+        {
+            fills.incrementAndGet();
+            return super.submit( callable );
+        }
+    };
+
+    @AfterEach
+    void tearDown()
+    {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void shouldReadLogSpanningMultipleFiles() throws IOException
+    {
+        // given
+        writeLongs( file( 0 ), 0, LONGS_PER_FILE );
+        writeLongs( file( 1 ), LONGS_PER_FILE, LONGS_PER_FILE );
+        LogVersionBridge bridge = ( channel, raw ) ->
+        {
+            if ( channel.getVersion() == 0 )
+            {
+                channel.close();
+                return open( 1 );
+            }
+            return channel;
+        };
+
+        // when
+        try ( ReadAheadLogChannel channel = ReadAheadLogChannel.prefetching( open( 0 ), bridge, INSTANCE, false, prefetcher ) )
+        {
+            // then
+            for ( long i = 0; i < 2L * LONGS_PER_FILE; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+            assertThat( channel.getCurrentPosition() ).isEqualTo( new LogPosition( 1, (long) LONGS_PER_FILE * Long.BYTES ) );
+            assertThrows( ReadPastEndException.class, channel::getLong );
+        }
+    }
+
+    @Test
+    void shouldRepositionWhilePrefetching() throws IOException
+    {
+        // given
+        writeLongs( file( 0 ), 0, LONGS_PER_FILE );
+
+        try ( ReadAheadLogChannel channel = ReadAheadLogChannel.prefetching( open( 0 ), NO_MORE_CHANNELS, INSTANCE, false, prefetcher ) )
+        {
+            int halfWay = LONGS_PER_FILE / 2;
+            for ( long i = 0; i < halfWay; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+
+            // when
+            channel.setCurrentPosition( 10L * Long.BYTES );
+
+            // then
+            assertThat( channel.position() ).isEqualTo( 10L * Long.BYTES );
+            for ( long i = 10; i < LONGS_PER_FILE; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+        }
+    }
+
+    @Test
+    void shouldSeeLogAppendedAfterReachingItsEnd() throws IOException
+    {
+        // given
+        writeLongs( file( 0 ), 0, LONGS_PER_FILE );
+
+        try ( ReadAheadLogChannel channel = ReadAheadLogChannel.prefetching( open( 0 ), NO_MORE_CHANNELS, INSTANCE, false, prefetcher ) )
+        {
+            for ( long i = 0; i < LONGS_PER_FILE; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+            assertThrows( ReadPastEndException.class, channel::getLong );
+
+            // when
+            appendLongs( file( 0 ), LONGS_PER_FILE, 10 );
+
+            // then
+            for ( long i = LONGS_PER_FILE; i < LONGS_PER_FILE + 10; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+        }
+    }
+
+    @Test
+    void shouldReadAheadWithTheGivenExecutor() throws IOException
+    {
+        // given
+        writeLongs( file( 0 ), 0, LONGS_PER_FILE );
+
+        // when
+        try ( ReadAheadLogChannel channel = ReadAheadLogChannel.prefetching( open( 0 ), NO_MORE_CHANNELS, INSTANCE, false, prefetcher ) )
+        {
+            for ( long i = 0; i < LONGS_PER_FILE; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+        }
+
+        // then
+        assertThat( fills.get() ).isGreaterThan( 0 );
+    }
+
+    @Test
+    void shouldReadWithoutReadingAheadWhenThereIsNoExecutor() throws IOException
+    {
+        // given
+        writeLongs( file( 0 ), 0, LONGS_PER_FILE );
+
+        // when
+        try ( ReadAheadLogChannel channel = ReadAheadLogChannel.prefetching( open( 0 ), NO_MORE_CHANNELS, INSTANCE, false, null ) )
+        {
+            // then
+            for ( long i = 0; i < LONGS_PER_FILE; i++ )
+            {
+                assertEquals( i, channel.getLong() );
+            }
+            assertThrows( ReadPastEndException.class, channel::getLong );
+        }
+    }
+
+    private PhysicalLogVersionedStoreChannel open( int version ) throws IOException
+    {
+        return new PhysicalLogVersionedStoreChannel( fileSystem.read( file( version ) ), version, (byte) -1, file( version ), nativeChannelAccessor );
+    }
+
+    private void writeLongs( Path file, long first, int count ) throws IOException
+    {
+        try ( StoreChannel channel = fileSystem.write( file ) )
+        {
+            writeLongs( channel, first, count );
+        }
+    }
+
+    private void appendLongs( Path file, long first, int count ) throws IOException
+    {
+        try ( StoreChannel channel = fileSystem.write( file ) )
+        {
+            channel.position( channel.size() );
+            writeLongs( channel, first, count );
+        }
+    }
+
+    private static void writeLongs( StoreChannel channel, long first, int count ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffers.allocate( count * Long.BYTES, INSTANCE );
+        for ( long i = first; i < first + count; i++ )
+        {
+            buffer.putLong( i );
+        }
+        buffer.flip();
+        channel.writeAll( buffer );
+    }
+
+    private Path file( int version )
+    {
+        return directory.homePath().resolve( "log." + version );
+    }
+}
@@ -19,9 +19,12 @@
  */
 package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -30,8 +33,10 @@ import java.util.function.Consumer;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.SettingImpl;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.logging.NullLog;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.time.Clocks;
 import org.neo4j.time.FakeClock;
@@ -43,9 +48,11 @@ public class CheckPointThresholdTestSupport
 {
     public static final long ARBITRARY_LOG_VERSION = 5;
 
+    protected final EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
     protected Config config;
     protected FakeClock clock;
     protected LogPruning logPruning;
+    protected RecoveryTimeEstimator recoveryTimeEstimator;
     protected LogProvider logProvider;
     protected Integer intervalTx;
     protected Duration intervalTime;
@@ -59,6 +66,7 @@ public class CheckPointThresholdTestSupport
         config = Config.defaults();
         clock = Clocks.fakeClock();
         logPruning = LogPruning.NO_PRUNING;
+        recoveryTimeEstimator = new RecoveryTimeEstimator( config, fs, Path.of( "logs" ), NullLog.getInstance() );
         logProvider = NullLogProvider.getInstance();
         intervalTx = config.get( GraphDatabaseSettings.check_point_interval_tx );
         intervalTime = config.get( GraphDatabaseSettings.check_point_interval_time );
@@ -67,6 +75,12 @@ public class CheckPointThresholdTestSupport
         notTriggered = s -> Assertions.fail( "Should not have triggered: " + s );
     }
 
+    @AfterEach
+    public void tearDown() throws IOException
+    {
+        fs.close();
+    }
+
     protected void withPolicy( String policy )
     {
         config.set( GraphDatabaseSettings.check_point_policy,
@@ -86,7 +100,7 @@ public class CheckPointThresholdTestSupport
 
     protected CheckPointThreshold createThreshold()
     {
-        return CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider );
+        return CheckPointThreshold.createThreshold( config, clock, logPruning, recoveryTimeEstimator, logProvider );
     }
 
     protected void verifyTriggered( String... reason )
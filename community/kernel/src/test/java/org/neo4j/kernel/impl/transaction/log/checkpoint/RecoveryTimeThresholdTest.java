@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.logging.NullLog;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+class RecoveryTimeThresholdTest extends CheckPointThresholdTestSupport
+{
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+
+    @BeforeEach
+    void startEstimator()
+    {
+        withPolicy( "recovery_time" );
+        lastClosedTransactionAt( 0, 1000 );
+        recoveryTimeEstimator.start( transactionIdStore );
+    }
+
+    @Test
+    void shouldUseDefaultThroughputUntilRecoveryIsObserved()
+    {
+        assertThat( recoveryTimeEstimator.bytesPerSecond() ).isEqualTo( mebiBytes( 32 ) );
+
+        recoveryTimeEstimator.logBytesRecovered( mebiBytes( 20 ), 2000 );
+
+        assertThat( recoveryTimeEstimator.bytesPerSecond() ).isEqualTo( mebiBytes( 10 ) );
+    }
+
+    @Test
+    void shouldIgnoreThroughputOfRecoveringLittleLog()
+    {
+        recoveryTimeEstimator.logBytesRecovered( kibiBytes( 4 ), 500 );
+
+        assertThat( recoveryTimeEstimator.bytesPerSecond() ).isEqualTo( mebiBytes( 32 ) );
+    }
+
+    @Test
+    void shouldIgnoreThroughputOfRecoveringInstantly()
+    {
+        recoveryTimeEstimator.logBytesRecovered( mebiBytes( 20 ), 0 );
+        recoveryTimeEstimator.logBytesRecovered( mebiBytes( 20 ), 1 );
+
+        assertThat( recoveryTimeEstimator.bytesPerSecond() ).isEqualTo( mebiBytes( 32 ) );
+    }
+
+    @Test
+    void shouldKeepObservedThroughputOverRestart() throws IOException
+    {
+        fs.mkdirs( Path.of( "logs" ) );
+        RecoveryTimeEstimator recovered = newEstimator();
+        recovered.logBytesRecovered( mebiBytes( 20 ), 2000 );
+        recovered.start( transactionIdStore );
+
+        RecoveryTimeEstimator restarted = newEstimator();
+        restarted.start( transactionIdStore );
+
+        assertThat( restarted.bytesPerSecond() ).isEqualTo( mebiBytes( 10 ) );
+    }
+
+    @Test
+    void shouldReplaceKeptThroughputWithThatOfLatestRecovery() throws IOException
+    {
+        fs.mkdirs( Path.of( "logs" ) );
+        RecoveryTimeEstimator recovered = newEstimator();
+        recovered.logBytesRecovered( mebiBytes( 20 ), 2000 );
+        recovered.start( transactionIdStore );
+
+        RecoveryTimeEstimator recoveredAgain = newEstimator();
+        recoveredAgain.logBytesRecovered( mebiBytes( 40 ), 2000 );
+        recoveredAgain.start( transactionIdStore );
+        RecoveryTimeEstimator restarted = newEstimator();
+        restarted.start( transactionIdStore );
+
+        assertThat( recoveredAgain.bytesPerSecond() ).isEqualTo( mebiBytes( 20 ) );
+        assertThat( restarted.bytesPerSecond() ).isEqualTo( mebiBytes( 20 ) );
+    }
+
+    @Test
+    void shouldUseDefaultThroughputWhenKeptThroughputCannotBeWritten()
+    {
+        RecoveryTimeEstimator recovered = newEstimator();
+        recovered.logBytesRecovered( mebiBytes( 20 ), 2000 );
+        recovered.start( transactionIdStore );
+
+        RecoveryTimeEstimator restarted = newEstimator();
+        restarted.start( transactionIdStore );
+
+        assertThat( recovered.bytesPerSecond() ).isEqualTo( mebiBytes( 10 ) );
+        assertThat( restarted.bytesPerSecond() ).isEqualTo( mebiBytes( 32 ) );
+    }
+
+    @Test
+    void shouldTriggerWhenEstimatedRecoveryTimeReachesHalfOfTarget()
+    {
+        // given a target of one minute, and recovery replaying one MiB per second
+        recoveryTimeEstimator.logBytesRecovered( mebiBytes( 1 ), 1000 );
+        CheckPointThreshold threshold = CheckPointThreshold.or( recoveryTimeEstimator, createThreshold() );
+        threshold.initialize( 1 );
+
+        // when
+        lastClosedTransactionAt( 0, 1000 + mebiBytes( 20 ) );
+
+        // then
+        assertFalse( threshold.isCheckPointingNeeded( 2, 0, notTriggered ) );
+        assertThat( recoveryTimeEstimator.estimatedRecoveryTimeMillis() ).isEqualTo( 20_000 );
+
+        // when
+        lastClosedTransactionAt( 0, 1000 + mebiBytes( 30 ) );
+
+        // then
+        assertTrue( threshold.isCheckPointingNeeded( 3, 0, triggered ) );
+        verifyTriggered( "recovery time threshold" );
+        verifyNoMoreTriggers();
+
+        // when
+        threshold.checkPointHappened( 3 );
+
+        // then
+        assertThat( recoveryTimeEstimator.unrecoveredLogBytes() ).isZero();
+        assertFalse( threshold.isCheckPointingNeeded( 3, 0, notTriggered ) );
+    }
+
+    @Test
+    void shouldNotAssumeCheckPointCoversTransactionsClosedAfterLastCheck()
+    {
+        // given
+        recoveryTimeEstimator.initialize( 1 );
+        lastClosedTransactionAt( 0, 2000 );
+        recoveryTimeEstimator.isCheckPointingNeeded( 2, 0, notTriggered );
+
+        // when transactions are closed while check pointing
+        lastClosedTransactionAt( 0, 5000 );
+        recoveryTimeEstimator.checkPointHappened( 2 );
+
+        // then
+        assertThat( recoveryTimeEstimator.unrecoveredLogBytes() ).isEqualTo( 3000 );
+    }
+
+    @Test
+    void shouldEstimateRotatedLogFilesAsLargeAsRotationThreshold()
+    {
+        // given
+        long rotationThreshold = config.get( GraphDatabaseSettings.logical_log_rotation_threshold );
+        lastClosedTransactionAt( 3, 100 );
+        recoveryTimeEstimator.initialize( 1 );
+
+        // when
+        lastClosedTransactionAt( 5, 200 );
+
+        // then
+        assertThat( recoveryTimeEstimator.unrecoveredLogBytes() ).isEqualTo( rotationThreshold - 100 + rotationThreshold + 200 );
+    }
+
+    @Test
+    void shouldCheckOftenEnoughToNoticeRecoveryTimeGrowing()
+    {
+        assertThat( createThreshold().checkFrequencyMillis() ).isEqualTo( 6_000 );
+    }
+
+    private RecoveryTimeEstimator newEstimator()
+    {
+        return new RecoveryTimeEstimator( config, fs, Path.of( "logs" ), NullLog.getInstance() );
+    }
+
+    private void lastClosedTransactionAt( long logVersion, long byteOffset )
+    {
+        when( transactionIdStore.getLastClosedTransaction() ).thenReturn( new long[]{1, logVersion, byteOffset} );
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.database.DbmsLogEntryWriterFactory;
+import org.neo4j.kernel.impl.api.TestCommand;
+import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
+import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionCursor;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.kernel.api.security.AuthSubject.ANONYMOUS;
+import static org.neo4j.kernel.KernelVersion.LATEST;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+
+class SerializedCommandsTest
+{
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
+    @Test
+    void shouldChargeGrowingBuffersToMemoryTrackerUntilReleased() throws IOException
+    {
+        SerializedCommands commands = new SerializedCommands( 16, 1024 );
+        commands.reset( memoryTracker );
+        assertEquals( 16, memoryTracker.estimatedHeapMemory() );
+
+        commands.put( new byte[100], 100 );
+        assertEquals( 100, commands.size() );
+        assertEquals( 100, memoryTracker.estimatedHeapMemory() );
+
+        commands.release();
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+        assertEquals( 0, commands.size() );
+    }
+
+    @Test
+    void shouldNotChargeBuffersGrownByPreviousTransactionToTheNextTracker() throws IOException
+    {
+        SerializedCommands commands = new SerializedCommands( 16, 1024 );
+        commands.reset( memoryTracker );
+        commands.put( new byte[100], 100 );
+        commands.release();
+
+        LocalMemoryTracker nextMemoryTracker = new LocalMemoryTracker();
+        commands.reset( nextMemoryTracker );
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+        assertEquals( 16, nextMemoryTracker.estimatedHeapMemory() );
+    }
+
+    @Test
+    void shouldNotGrowBeyondMaximumSize() throws IOException
+    {
+        SerializedCommands commands = new SerializedCommands( 16, 64 );
+        commands.reset( memoryTracker );
+
+        commands.put( new byte[60], 60 );
+        assertFalse( commands.overflowed() );
+        commands.putLong( 1 );
+        assertTrue( commands.overflowed() );
+        commands.putLong( 2 );
+
+        assertThat( memoryTracker.estimatedHeapMemory() ).isLessThanOrEqualTo( 64 );
+        assertThrows( IllegalStateException.class, () -> commands.writeTo( new InMemoryClosableChannel() ) );
+        commands.release();
+        assertFalse( commands.overflowed() );
+    }
+
+    @Test
+    void shouldSerializeCommandsThatOverflowStraightIntoTheLog() throws IOException
+    {
+        // given
+        List<StorageCommand> storageCommands = List.of( new TestCommand( new byte[100] ), new TestCommand( new byte[100] ) );
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( storageCommands );
+        transaction.setHeader( new byte[0], 1, 2, 3, 4, ANONYMOUS );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 10_000, true );
+        TransactionLogWriter writer = new TransactionLogWriter( channel, new DbmsLogEntryWriterFactory( () -> LATEST ) );
+        SerializedCommands commands = new SerializedCommands( 16, 64 );
+        commands.reset( memoryTracker );
+
+        // when
+        writer.serializeCommands( transaction, commands );
+        writer.append( transaction, commands, 5, BASE_TX_CHECKSUM );
+
+        // then
+        assertTrue( commands.overflowed() );
+        try ( PhysicalTransactionCursor cursor = new PhysicalTransactionCursor( channel, new VersionAwareLogEntryReader( new TestCommandReaderFactory() ) ) )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( 5, cursor.get().getCommitEntry().getTxId() );
+            List<StorageCommand> readCommands = new ArrayList<>();
+            cursor.get().getTransactionRepresentation().accept( command ->
+            {
+                readCommands.add( command );
+                return false;
+            } );
+            assertEquals( storageCommands, readCommands );
+        }
+    }
+
+    @Test
+    void shouldCompressCommandsThatOverflowOnTheirWayIntoTheLog() throws IOException
+    {
+        shouldStreamCompressedCommandsIntoTheLog( true );
+    }
+
+    @Test
+    void shouldCompressCommandsThatWereNotSerializedAheadOfTimeOnTheirWayIntoTheLog() throws IOException
+    {
+        shouldStreamCompressedCommandsIntoTheLog( false );
+    }
+
+    private void shouldStreamCompressedCommandsIntoTheLog( boolean serializeAheadOfTime ) throws IOException
+    {
+        // given
+        List<StorageCommand> storageCommands = new ArrayList<>();
+        for ( int i = 0; i < 20; i++ )
+        {
+            storageCommands.add( new TestCommand( new byte[200] ) );
+        }
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( storageCommands );
+        transaction.setHeader( new byte[0], 1, 2, 3, 4, ANONYMOUS );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 10_000, true );
+        TransactionLogWriter writer = new TransactionLogWriter( channel, new DbmsLogEntryWriterFactory( () -> LATEST ), true, null );
+        SerializedCommands commands = new SerializedCommands( 16, 1024 );
+        commands.reset( memoryTracker );
+
+        // when
+        if ( serializeAheadOfTime )
+        {
+            writer.serializeCommands( transaction, commands );
+            assertTrue( commands.overflowed() );
+        }
+        writer.append( transaction, commands, 5, BASE_TX_CHECKSUM );
+
+        // then the commands, which are larger than the buffers, are compressed in runs no larger than the buffers
+        assertThat( channel.writerPosition() ).isLessThan( 20 * 200 );
+        assertThat( memoryTracker.heapHighWaterMark() ).isLessThan( 4 * 1024 );
+        try ( PhysicalTransactionCursor cursor = new PhysicalTransactionCursor( channel, new VersionAwareLogEntryReader( new TestCommandReaderFactory() ) ) )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( 5, cursor.get().getCommitEntry().getTxId() );
+            List<StorageCommand> readCommands = new ArrayList<>();
+            cursor.get().getTransactionRepresentation().accept( command ->
+            {
+                readCommands.add( command );
+                return false;
+            } );
+            assertEquals( storageCommands, readCommands );
+        }
+    }
+}
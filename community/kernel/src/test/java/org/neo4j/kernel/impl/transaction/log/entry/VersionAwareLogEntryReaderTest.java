@@ -19,18 +19,25 @@
  */
 package org.neo4j.kernel.impl.transaction.log.entry;
 
+import com.github.luben.zstd.Zstd;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.api.TestCommand;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
 import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.storageengine.api.StorageCommand;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -62,7 +69,7 @@ class VersionAwareLogEntryReaderTest
     void shouldReadACommitLogEntry() throws IOException
     {
         // given
-        final LogEntryCommit commit = new LogEntryCommit( 42, 21, 1734331568 );
+        final LogEntryCommit commit = new LogEntryCommit( 42, 21, 1262535265 );
         final InMemoryClosableChannel channel = new InMemoryClosableChannel( true );
 
         writeCommitEntry( channel, commit );
@@ -185,6 +192,144 @@ class VersionAwareLogEntryReaderTest
         assertTrue( e.getMessage().contains( "The checksum chain is broken" ) );
     }
 
+    @Test
+    void shouldReadCompressedCommandsAsIndividualCommandEntries() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ )
+        {
+            commands.add( new TestCommand( new byte[]{1, 2, 3, 4, 5, 6, 7, (byte) i} ) );
+        }
+        InMemoryClosableChannel compressedChannel = new InMemoryClosableChannel( 10_000, true );
+        InMemoryClosableChannel plainChannel = new InMemoryClosableChannel( 10_000, true );
+
+        // when
+        writeTransaction( compressedChannel, LATEST, commands, true );
+        writeTransaction( plainChannel, LATEST, commands, false );
+
+        // then
+        assertThat( compressedChannel.writerPosition() ).isLessThan( plainChannel.writerPosition() );
+        assertTransaction( compressedChannel, LATEST, commands );
+    }
+
+    @Test
+    void shouldNotCompressCommandsOfVersionsBeforeCompressedCommandsWereIntroduced() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ )
+        {
+            commands.add( new TestCommand( new byte[]{1, 2, 3, 4, 5, 6, 7, (byte) i} ) );
+        }
+        InMemoryClosableChannel compressedChannel = new InMemoryClosableChannel( 10_000, true );
+        InMemoryClosableChannel plainChannel = new InMemoryClosableChannel( 10_000, true );
+
+        // when
+        writeTransaction( compressedChannel, KernelVersion.V4_3_D4, commands, true );
+        writeTransaction( plainChannel, KernelVersion.V4_3_D4, commands, false );
+
+        // then
+        assertEquals( plainChannel.writerPosition(), compressedChannel.writerPosition() );
+        assertTransaction( compressedChannel, KernelVersion.V4_3_D4, commands );
+    }
+
+    @Test
+    void shouldOnlyParseCompressedCommandsFromTheVersionTheyWereIntroducedIn()
+    {
+        for ( KernelVersion version : KernelVersion.values() )
+        {
+            LogEntryParserSet parserSet = LogEntryParserSets.parserSet( version );
+            if ( version.isAtLeast( KernelVersion.VERSION_IN_WHICH_COMPRESSED_COMMANDS_ARE_INTRODUCED ) )
+            {
+                assertEquals( LogEntryTypeCodes.COMPRESSED_COMMANDS, parserSet.select( LogEntryTypeCodes.COMPRESSED_COMMANDS ).type() );
+            }
+            else
+            {
+                assertThrows( IllegalArgumentException.class, () -> parserSet.select( LogEntryTypeCodes.COMPRESSED_COMMANDS ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldWriteCommandsThatAreTooSmallToCompressAsPlainCommandEntries() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = List.of( new TestCommand( new byte[]{1, 2, 3} ), new TestCommand( new byte[]{4, 5, 6} ) );
+        InMemoryClosableChannel compressedChannel = new InMemoryClosableChannel( 10_000, true );
+        InMemoryClosableChannel plainChannel = new InMemoryClosableChannel( 10_000, true );
+
+        // when
+        writeTransaction( compressedChannel, LATEST, commands, true );
+        writeTransaction( plainChannel, LATEST, commands, false );
+
+        // then
+        assertEquals( plainChannel.writerPosition(), compressedChannel.writerPosition() );
+        assertTransaction( compressedChannel, LATEST, commands );
+    }
+
+    @Test
+    void shouldRejectCompressedCommandsLongerThanWritersProduce()
+    {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( true );
+        channel.put( LATEST.version() );
+        channel.put( LogEntryTypeCodes.COMPRESSED_COMMANDS );
+        channel.putInt( Integer.MAX_VALUE );
+        channel.putInt( Integer.MAX_VALUE - 1 );
+
+        // when
+        IOException e = assertThrows( IOException.class, () -> logEntryReader.readLogEntry( channel ) );
+
+        // then
+        assertThat( e ).hasMessageContaining( "Invalid compressed commands entry lengths" );
+    }
+
+    @Test
+    void shouldFailOnCompressedCommandsThatEndWithinACommand()
+    {
+        // given a command that claims to be longer than the commands that were compressed
+        ByteBuffer uncompressed = ByteBuffer.allocate( 1000 );
+        uncompressed.put( LATEST.version() ).put( LogEntryTypeCodes.COMMAND ).putInt( 2000 );
+        byte[] compressed = Zstd.compress( uncompressed.array() );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( true );
+        channel.put( LATEST.version() );
+        channel.put( LogEntryTypeCodes.COMPRESSED_COMMANDS );
+        channel.putInt( uncompressed.capacity() );
+        channel.putInt( compressed.length );
+        channel.put( compressed, compressed.length );
+
+        // when
+        IOException e = assertThrows( IOException.class, () -> logEntryReader.readLogEntry( channel ) );
+
+        // then
+        assertThat( e ).hasMessageContaining( "Compressed commands end within a command" );
+    }
+
+    private static void writeTransaction( InMemoryClosableChannel channel, KernelVersion version, List<StorageCommand> commands, boolean compress )
+            throws IOException
+    {
+        LogEntryWriter<InMemoryClosableChannel> writer = new LogEntryWriter<>( channel, version );
+        writer.writeStartEntry( 1, 2, BASE_TX_CHECKSUM, new byte[0] );
+        SerializedCommands serializedCommands = new SerializedCommands();
+        writer.serializeCommands( new PhysicalTransactionRepresentation( commands ), compress, serializedCommands );
+        serializedCommands.writeTo( channel );
+        writer.writeCommitEntry( 3, 4 );
+    }
+
+    private void assertTransaction( InMemoryClosableChannel channel, KernelVersion version, List<StorageCommand> commands ) throws IOException
+    {
+        assertThat( logEntryReader.readLogEntry( channel ) ).isInstanceOf( LogEntryStart.class );
+        for ( StorageCommand command : commands )
+        {
+            assertEquals( new LogEntryCommand( version, command ), logEntryReader.readLogEntry( channel ) );
+        }
+        LogEntry commit = logEntryReader.readLogEntry( channel );
+        assertThat( commit ).isInstanceOf( LogEntryCommit.class );
+        assertEquals( 3, ((LogEntryCommit) commit).getTxId() );
+        assertNull( logEntryReader.readLogEntry( channel ) );
+    }
+
     private static void writeStartEntry( InMemoryClosableChannel channel, LogEntryStart start )
     {
         channel.beginChecksum();
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.impl.api.TestCommand;
+import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.storageengine.api.StoreId;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.LifeExtension;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.internal.kernel.api.security.AuthSubject.ANONYMOUS;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
+
+@Neo4jLayoutExtension
+@ExtendWith( LifeExtension.class )
+class SparseTransactionIndexTest
+{
+    private static final int TRANSACTIONS = 500;
+    private static final long FIRST_TX_ID = 3;
+
+    @Inject
+    private DatabaseLayout databaseLayout;
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private LifeSupport life;
+
+    private LogFile logFile;
+    private LogPosition logStart;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        LogFiles logFiles = buildLogFiles();
+        life.add( logFiles );
+        life.start();
+        logFile = logFiles.getLogFile();
+        logStart = logFile.extractHeader( 0 ).getStartPosition();
+
+        TransactionLogWriter writer = logFile.getTransactionLogWriter();
+        int checksum = BASE_TX_CHECKSUM;
+        for ( int i = 0; i < TRANSACTIONS; i++ )
+        {
+            checksum = writer.append( transaction(), FIRST_TX_ID + i, checksum );
+        }
+        logFile.flush();
+    }
+
+    @Test
+    void shouldFindClosestSampledTransactionOfCurrentLogFile() throws IOException
+    {
+        assertClosestPositions();
+        assertFalse( fileSystem.fileExists( indexFile() ) );
+    }
+
+    @Test
+    void shouldWriteIndexFileOnRotation() throws IOException
+    {
+        logFile.rotate();
+
+        assertTrue( fileSystem.fileExists( indexFile() ) );
+        assertClosestPositions();
+    }
+
+    @Test
+    void shouldRebuildMissingIndexFile() throws IOException
+    {
+        logFile.rotate();
+        fileSystem.deleteFile( indexFile() );
+
+        assertClosestPositions();
+        assertTrue( fileSystem.fileExists( indexFile() ) );
+    }
+
+    @Test
+    void shouldRebuildIndexFileNotMatchingItsLogFile() throws IOException
+    {
+        logFile.rotate();
+        try ( StoreChannel channel = fileSystem.write( indexFile() ) )
+        {
+            channel.truncate( 20 );
+        }
+
+        assertClosestPositions();
+        assertThat( fileSystem.getFileSize( indexFile() ) ).isGreaterThan( 20 );
+    }
+
+    @Test
+    void shouldNameIndexFilesSoTheyAreNotMistakenForLogFiles() throws IOException
+    {
+        logFile.rotate();
+
+        assertEquals( List.of( logFile.getLogFileForVersion( 0 ), logFile.getLogFileForVersion( 1 ) ),
+                Stream.of( logFile.getMatchedFiles() ).sorted().collect( toList() ) );
+        assertEquals( logFile.getLogFileForVersion( 0 ).resolveSibling( "neostore.transaction.db-index.0" ), indexFile() );
+    }
+
+    @Test
+    void shouldUseRebuiltSamplesWhenIndexFileCannotBeWritten() throws IOException
+    {
+        logFile.rotate();
+        fileSystem.deleteFile( indexFile() );
+        // a directory in place of the temporary file makes writing the index file fail
+        fileSystem.mkdirs( indexFile().resolveSibling( indexFile().getFileName() + SparseTransactionIndex.TEMP_FILE_SUFFIX ) );
+
+        assertClosestPositions();
+        assertFalse( fileSystem.fileExists( indexFile() ) );
+    }
+
+    @Test
+    void shouldScanFromLogStartWhenIndexCannotBeRebuilt() throws IOException
+    {
+        logFile.rotate();
+        fileSystem.deleteFile( indexFile() );
+        LogEntryReader failingReader = mock( LogEntryReader.class );
+        when( failingReader.readLogEntry( any() ) ).thenThrow( new IOException( "Unreadable" ) );
+
+        assertEquals( logStart, logFile.getTransactionIndex().closestPosition( FIRST_TX_ID + TRANSACTIONS - 1, logStart, failingReader ) );
+        assertFalse( fileSystem.fileExists( indexFile() ) );
+    }
+
+    @Test
+    void shouldDeleteIndexFilesWithoutLogFileOnStart() throws IOException
+    {
+        logFile.rotate();
+        Path orphan = TransactionLogFilesHelper.indexFileFor( logFile.getLogFileForVersion( 7 ) );
+        Path halfWritten = indexFile().resolveSibling( indexFile().getFileName() + SparseTransactionIndex.TEMP_FILE_SUFFIX );
+        fileSystem.write( orphan ).close();
+        fileSystem.write( halfWritten ).close();
+        life.shutdown();
+
+        LifeSupport restarted = new LifeSupport();
+        restarted.add( buildLogFiles() );
+        restarted.start();
+        try
+        {
+            assertTrue( fileSystem.fileExists( indexFile() ) );
+            assertFalse( fileSystem.fileExists( orphan ) );
+            assertFalse( fileSystem.fileExists( halfWritten ) );
+        }
+        finally
+        {
+            restarted.shutdown();
+        }
+    }
+
+    private void assertClosestPositions() throws IOException
+    {
+        LogEntryReader reader = logEntryReader();
+        SparseTransactionIndex index = logFile.getTransactionIndex();
+        assertEquals( logStart, index.closestPosition( FIRST_TX_ID, logStart, reader ) );
+
+        long lastTransaction = FIRST_TX_ID + TRANSACTIONS - 1;
+        LogPosition position = index.closestPosition( lastTransaction, logStart, reader );
+        assertThat( position.getByteOffset() ).isGreaterThan( logStart.getByteOffset() );
+        long sampledTransaction = transactionAt( position );
+        assertThat( sampledTransaction ).isLessThanOrEqualTo( lastTransaction );
+        // Samples are at most a sample interval, and a transaction, apart
+        assertThat( lastTransaction - sampledTransaction ).isLessThan( SparseTransactionIndex.SAMPLE_INTERVAL / 1000 + 1 );
+    }
+
+    private long transactionAt( LogPosition position ) throws IOException
+    {
+        LogEntryReader reader = logEntryReader();
+        try ( ReadableLogChannel channel = logFile.getReader( position, NO_MORE_CHANNELS ) )
+        {
+            LogEntry entry = reader.readLogEntry( channel );
+            assertThat( entry ).isInstanceOf( LogEntryStart.class );
+            while ( !(entry instanceof LogEntryCommit) )
+            {
+                entry = reader.readLogEntry( channel );
+            }
+            return ((LogEntryCommit) entry).getTxId();
+        }
+    }
+
+    private LogFiles buildLogFiles() throws IOException
+    {
+        return LogFilesBuilder.builder( databaseLayout, fileSystem )
+                .withTransactionIdStore( new SimpleTransactionIdStore( FIRST_TX_ID - 1, 0, BASE_TX_COMMIT_TIMESTAMP, 0, 0 ) )
+                .withLogVersionRepository( new SimpleLogVersionRepository() )
+                .withLogEntryReader( logEntryReader() )
+                .withStoreId( StoreId.UNKNOWN )
+                .build();
+    }
+
+    private Path indexFile()
+    {
+        return TransactionLogFilesHelper.indexFileFor( logFile.getLogFileForVersion( 0 ) );
+    }
+
+    private static PhysicalTransactionRepresentation transaction()
+    {
+        PhysicalTransactionRepresentation tx = new PhysicalTransactionRepresentation( List.of( new TestCommand( new byte[1000] ) ) );
+        tx.setHeader( new byte[0], 0, 0, 0, 0, ANONYMOUS );
+        return tx;
+    }
+}
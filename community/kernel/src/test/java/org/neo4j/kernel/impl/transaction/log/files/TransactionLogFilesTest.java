@@ -227,6 +227,7 @@ class TransactionLogFilesTest
         assertFalse( logFiles.isLogFile( Path.of( "aaa.tx.log" ) ) );
         assertTrue( logFiles.isLogFile( Path.of( DEFAULT_NAME + ".0" ) ) );
         assertTrue( logFiles.isLogFile( Path.of( DEFAULT_NAME + ".17" ) ) );
+        assertTrue( logFiles.isLogFile( Path.of( DEFAULT_NAME + "-index.17" ) ) );
         assertTrue( logFiles.isLogFile( Path.of( "checkpoint.17" ) ) );
         assertFalse( logFiles.isLogFile( Path.of( "thecheckpoint.17" ) ) );
     }
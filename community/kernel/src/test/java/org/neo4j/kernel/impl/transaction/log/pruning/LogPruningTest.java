@@ -33,6 +33,7 @@ import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.CheckpointFile;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.LogAssertions;
@@ -87,7 +88,9 @@ class LogPruningTest
         pruning.pruneLogs( 5 );
         InOrder order = inOrder( fs );
         order.verify( fs ).deleteFile( Path.of( "3" ) );
+        order.verify( fs ).deleteFile( TransactionLogFilesHelper.indexFileFor( Path.of( "3" ) ) );
         order.verify( fs ).deleteFile( Path.of( "4" ) );
+        order.verify( fs ).deleteFile( TransactionLogFilesHelper.indexFileFor( Path.of( "4" ) ) );
         // Log file 5 is not deleted; it's the lowest version expected to remain after pruning.
         verifyNoMoreInteractions( fs );
     }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.internal.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.kernel.internal.event.TransactionListenersState.ListenerState;
+import org.neo4j.logging.NullLog;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryGroup;
+import org.neo4j.memory.MemoryPool;
+import org.neo4j.memory.MemoryPools;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncTransactionEventDispatcherTest
+{
+    private final JobScheduler scheduler = mock( JobScheduler.class );
+    private final MemoryPool memoryPool = new MemoryPools().pool( MemoryGroup.OTHER, 0L, null );
+    private final List<Long> handledTransactions = new CopyOnWriteArrayList<>();
+    private final AsyncTransactionEventListener<Object> listener = new AsyncTransactionEventListener.Adapter<>()
+    {
+        @Override
+        public void afterCommit( TransactionData data, Object state, GraphDatabaseService databaseService )
+        {
+            handledTransactions.add( data.getTransactionId() );
+        }
+    };
+    private final AsyncTransactionEventDispatcher dispatcher;
+
+    AsyncTransactionEventDispatcherTest()
+    {
+        when( scheduler.threadFactory( Group.TRANSACTION_EVENTS ) ).thenReturn( Executors.defaultThreadFactory() );
+        dispatcher = new AsyncTransactionEventDispatcher( scheduler, mock( GraphDatabaseService.class ), NullLog.getInstance() );
+    }
+
+    @AfterEach
+    void stopDispatcher()
+    {
+        dispatcher.stop();
+    }
+
+    @Test
+    void shouldDispatchEventsInOrderAndReleaseTheirMemory()
+    {
+        // when
+        dispatch( 1 );
+        dispatch( 2 );
+        dispatch( 3 );
+        dispatcher.stop();
+
+        // then
+        assertThat( handledTransactions ).containsExactly( 1L, 2L, 3L );
+        assertThat( memoryPool.usedHeap() ).isZero();
+    }
+
+    @Test
+    void shouldRejectEventsAfterStop()
+    {
+        // given
+        dispatch( 1 );
+        dispatcher.stop();
+
+        // when
+        dispatch( 2 );
+
+        // then
+        assertThat( handledTransactions ).containsExactly( 1L );
+        assertThat( memoryPool.usedHeap() ).isZero();
+        verify( scheduler ).threadFactory( Group.TRANSACTION_EVENTS );
+    }
+
+    @Test
+    void shouldNotStartThreadForEventsDispatchedAfterStopWithoutAnyBefore()
+    {
+        // given
+        dispatcher.stop();
+
+        // when
+        dispatch( 1 );
+
+        // then
+        assertThat( handledTransactions ).isEmpty();
+        assertThat( memoryPool.usedHeap() ).isZero();
+        verify( scheduler, never() ).threadFactory( Group.TRANSACTION_EVENTS );
+    }
+
+    private void dispatch( long transactionId )
+    {
+        TransactionData txData = mock( TransactionData.class );
+        when( txData.getTransactionId() ).thenReturn( transactionId );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker( memoryPool );
+        memoryTracker.allocateHeap( 100 );
+        dispatcher.dispatch( txData, List.of( new ListenerState<>( listener, null ) ), memoryTracker );
+    }
+}
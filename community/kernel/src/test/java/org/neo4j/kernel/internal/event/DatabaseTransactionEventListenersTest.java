@@ -27,6 +27,9 @@ import org.neo4j.graphdb.event.TransactionEventListener;
 import org.neo4j.kernel.database.DatabaseIdFactory;
 import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.MemoryPools;
+import org.neo4j.scheduler.JobScheduler;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -40,7 +43,8 @@ class DatabaseTransactionEventListenersTest
         //Given
         GlobalTransactionEventListeners globalListeners = mock( GlobalTransactionEventListeners.class );
         NamedDatabaseId databaseId = DatabaseIdFactory.from( "foo", UUID.randomUUID() );
-        DatabaseTransactionEventListeners listeners = new DatabaseTransactionEventListeners( mock( GraphDatabaseFacade.class ), globalListeners, databaseId );
+        DatabaseTransactionEventListeners listeners = new DatabaseTransactionEventListeners( mock( GraphDatabaseFacade.class ), globalListeners, databaseId,
+                mock( JobScheduler.class ), MemoryPools.NO_TRACKING, NullLogProvider.getInstance() );
         TransactionEventListener<?> firstListener = mock( TransactionEventListener.class );
         TransactionEventListener<?> secondListener = mock( TransactionEventListener.class );
 
@@ -24,12 +24,14 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.graphdb.Entity;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.event.LabelEntry;
 import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.kernel.api.TokenRead;
 import org.neo4j.internal.kernel.api.exceptions.PropertyKeyIdNotFoundKernelException;
 import org.neo4j.internal.kernel.api.security.AccessMode;
@@ -46,6 +48,8 @@ import org.neo4j.kernel.impl.core.NodeEntity;
 import org.neo4j.kernel.impl.core.RelationshipEntity;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.StubStorageCursors;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
@@ -53,6 +57,7 @@ import org.neo4j.values.storable.Values;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
@@ -338,6 +343,79 @@ class TxStateTransactionDataViewTest
                 genericMap( "username", "Igor" ) );
     }
 
+    @Test
+    void detachedSnapshotShouldNotSeeLaterChangesToTransaction()
+    {
+        // Given
+        state.nodeDoCreate( 1 );
+        state.nodeDoDelete( 2 );
+        ops.withNode( 2 );
+        AuthSubject authSubject = mock( AuthSubject.class );
+        when( authSubject.username() ).thenReturn( "Christof" );
+        when( transaction.securityContext() )
+                .thenReturn( new SecurityContext( authSubject, AccessMode.Static.FULL, EMBEDDED_CONNECTION, null ) );
+        when( transaction.getMetaData() ).thenReturn( genericMap( "username", "Igor" ) );
+        when( transaction.getTransactionId() ).thenReturn( 42L );
+        when( transaction.getCommitTime() ).thenReturn( 4242L );
+        TxStateTransactionDataSnapshot snapshot = snapshot();
+
+        // When
+        snapshot.detach();
+        state.nodeDoCreate( 3 );
+        when( authSubject.username() ).thenReturn( "Igor" );
+        when( transaction.getMetaData() ).thenReturn( Map.of() );
+        when( transaction.getTransactionId() ).thenReturn( 43L );
+
+        // Then
+        assertThat( idList( snapshot.createdNodes() ) ).isEqualTo( List.of( 1L ) );
+        assertThat( idList( snapshot.deletedNodes() ) ).isEqualTo( List.of( 2L ) );
+        assertTrue( snapshot.isDeleted( new NodeEntity( internalTransaction, 2 ) ) );
+        assertEquals( "Christof", snapshot.username() );
+        assertEquals( genericMap( "username", "Igor" ), snapshot.metaData() );
+        assertEquals( 42L, snapshot.getTransactionId() );
+        assertEquals( 4242L, snapshot.getCommitTime() );
+    }
+
+    @Test
+    void detachedSnapshotShouldSeeRelationshipsOfTransaction()
+    {
+        // Given
+        state.relationshipDoCreate( 1, 1, 1L, 2L );
+        state.relationshipDoCreate( 2, 3, 4L, 4L );
+        state.relationshipDoDelete( 5L, 1, 1L, 2L );
+        ops.withRelationship( 5, 1, 1, 2 );
+        TxStateTransactionDataSnapshot snapshot = snapshot();
+
+        // When
+        snapshot.detach();
+
+        // Then
+        assertThat( idList( snapshot.createdRelationships() ) ).isEqualTo( List.of( 1L, 2L ) );
+        Relationship loop = Iterables.last( snapshot.createdRelationships() );
+        assertEquals( 4L, loop.getStartNodeId() );
+        assertEquals( 4L, loop.getEndNodeId() );
+        assertThat( idList( snapshot.deletedRelationships() ) ).isEqualTo( List.of( 5L ) );
+        assertEquals( 2L, single( snapshot.deletedRelationships() ).getEndNodeId() );
+        assertTrue( snapshot.isDeleted( new RelationshipEntity( internalTransaction, 5 ) ) );
+    }
+
+    @Test
+    void detachedSnapshotShouldTrackItsDataWithGivenMemoryTracker()
+    {
+        // Given
+        state.nodeDoCreate( 1 );
+        state.nodeDoCreate( 2 );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        TxStateTransactionDataSnapshot snapshot = snapshot( memoryTracker );
+        long beforeDetach = memoryTracker.estimatedHeapMemory();
+
+        // When
+        snapshot.detach();
+
+        // Then
+        assertThat( memoryTracker.estimatedHeapMemory() ).isGreaterThan( beforeDetach );
+    }
+
     private static List<Long> idList( Iterable<? extends Entity> entities )
     {
         List<Long> out = new ArrayList<>();
@@ -349,6 +427,11 @@ class TxStateTransactionDataViewTest
     }
 
     private TxStateTransactionDataSnapshot snapshot()
+    {
+        return snapshot( transaction.memoryTracker() );
+    }
+
+    private TxStateTransactionDataSnapshot snapshot( MemoryTracker memoryTracker )
     {
         when( internalTransaction.newNodeEntity( anyLong() ) )
                 .thenAnswer( invocation -> new NodeEntity( internalTransaction, invocation.getArgument( 0 ) ) );
@@ -358,6 +441,6 @@ class TxStateTransactionDataViewTest
                 .thenAnswer( invocation -> new RelationshipEntity( internalTransaction,
                         invocation.getArgument( 0 ), invocation.getArgument( 1 ),
                         invocation.getArgument( 2 ), invocation.getArgument( 3 ) ) );
-        return new TxStateTransactionDataSnapshot( state, ops, transaction );
+        return new TxStateTransactionDataSnapshot( state, ops, transaction, memoryTracker );
     }
 }
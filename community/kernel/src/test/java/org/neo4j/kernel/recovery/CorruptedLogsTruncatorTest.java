@@ -301,6 +301,29 @@ class CorruptedLogsTruncatorTest
         }
     }
 
+    @Test
+    void removeTransactionIndexFilesOfTruncatedAndRemovedLogs() throws IOException
+    {
+        life.start();
+        generateTransactionLogFiles( logFiles );
+
+        long highestCorrectLogFileIndex = 5;
+        var logFile = logFiles.getLogFile();
+        Path highestCorrectLogFile = logFile.getLogFileForVersion( highestCorrectLogFileIndex );
+        assertTrue( fs.fileExists( TransactionLogFilesHelper.indexFileFor( highestCorrectLogFile ) ) );
+        long byteOffset = Files.size( highestCorrectLogFile ) - 7;
+
+        life.shutdown();
+
+        logPruner.truncate( new LogPosition( highestCorrectLogFileIndex, byteOffset ) );
+
+        for ( long version = 0; version < TOTAL_NUMBER_OF_TRANSACTION_LOG_FILES; version++ )
+        {
+            Path indexFile = TransactionLogFilesHelper.indexFileFor( logFile.getLogFileForVersion( version ) );
+            assertEquals( version < highestCorrectLogFileIndex, fs.fileExists( indexFile ), indexFile.toString() );
+        }
+    }
+
     private static void checkEntryNameAndSize( ZipFile zipFile, String entryName, long expectedSize ) throws IOException
     {
         ZipEntry entry = zipFile.getEntry( entryName );
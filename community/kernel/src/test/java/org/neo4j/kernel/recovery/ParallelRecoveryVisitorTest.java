@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.counts.CountsAccessor;
@@ -54,6 +56,7 @@ import org.neo4j.storageengine.api.CommandCreationContext;
 import org.neo4j.storageengine.api.CommandStream;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.IndexUpdateListener;
+import org.neo4j.storageengine.api.LogicalChangeVisitor;
 import org.neo4j.storageengine.api.MetadataProvider;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageEngine;
@@ -64,6 +67,7 @@ import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.test.Barrier;
+import org.neo4j.test.OtherThreadExecutor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -100,7 +104,7 @@ class ParallelRecoveryVisitorTest
         };
 
         // when
-        try ( ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2 ) )
+        try ( ParallelRecoveryVisitor visitor = visitor( storageEngine ) )
         {
             visitor.visit( tx( 2, commandsRelatedToNode( 99 ) ) );
             visitor.visit( tx( 3, commandsRelatedToNode( 999 ) ) );
@@ -131,7 +135,7 @@ class ParallelRecoveryVisitorTest
         };
 
         // when
-        try ( ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2 ) )
+        try ( ParallelRecoveryVisitor visitor = visitor( storageEngine ) )
         {
             visitor.visit( tx( 2, commandsRelatedToNode( 99 ) ) );
             visitor.visit( tx( 3, commandsRelatedToNode( 99 ) ) );
@@ -176,7 +180,7 @@ class ParallelRecoveryVisitorTest
         };
 
         // when
-        try ( ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2 ) )
+        try ( ParallelRecoveryVisitor visitor = visitor( storageEngine ) )
         {
             visitor.visit( tx( 2, commandsRelatedToNode( 99 ) ) );
             visitor.visit( tx( 3, commandsRelatedToNode( 999 ) ) );
@@ -207,7 +211,7 @@ class ParallelRecoveryVisitorTest
         };
 
         // when
-        try ( ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2 ) )
+        try ( ParallelRecoveryVisitor visitor = visitor( storageEngine ) )
         {
             assertThatThrownBy( () ->
             {
@@ -240,11 +244,88 @@ class ParallelRecoveryVisitorTest
         };
 
         // when
-        ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2 );
+        ParallelRecoveryVisitor visitor = visitor( storageEngine );
         visitor.visit( tx( 2, commandsRelatedToNode( 99 ) ) );
         assertThatThrownBy( visitor::close ).getCause().hasMessageContaining( failure );
     }
 
+    @Test
+    void shouldApplyConsecutiveTransactionsInBatches() throws Exception
+    {
+        // given
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine()
+        {
+            @Override
+            public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+            {
+                int size = 0;
+                for ( CommandsToApply tx = batch; tx != null; tx = tx.next() )
+                {
+                    size++;
+                }
+                batchSizes.add( size );
+                super.apply( batch, mode );
+            }
+        };
+
+        // when
+        try ( ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2, 3, Long.MAX_VALUE,
+                Long.MAX_VALUE ) )
+        {
+            for ( long txId = 2; txId <= 8; txId++ )
+            {
+                visitor.visit( tx( txId, commandsRelatedToNode( 99 ) ) );
+            }
+        }
+
+        // then
+        assertThat( batchSizes ).containsExactly( 3, 3, 1 );
+        assertThat( storageEngine.lockOrder() ).isEqualTo( new long[]{2, 3, 4, 5, 6, 7, 8} );
+        assertThat( storageEngine.applyOrder() ).isEqualTo( new long[]{2, 3, 4, 5, 6, 7, 8} );
+    }
+
+    @Test
+    void shouldHoldBackVisitWhenInFlightTransactionsExceedMemoryBudget() throws Exception
+    {
+        // given
+        Barrier.Control barrier = new Barrier.Control();
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine()
+        {
+            @Override
+            public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+            {
+                if ( idOf( batch ) == 2 )
+                {
+                    barrier.reached();
+                }
+                super.apply( batch, mode );
+            }
+        };
+
+        // when
+        try ( ParallelRecoveryVisitor visitor = new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2, 1, Long.MAX_VALUE,
+                1 );
+              OtherThreadExecutor visitingThread = new OtherThreadExecutor( "visitor" ) )
+        {
+            visitor.visit( tx( 2, commandsRelatedToNode( 99 ) ) );
+            barrier.await();
+            Future<Object> visit = visitingThread.executeDontWait( () -> visitor.visit( tx( 3, commandsRelatedToNode( 999 ) ) ) );
+            visitingThread.waitUntilWaiting( details -> details.isAt( ParallelRecoveryVisitor.class, "reserve" ) );
+
+            // then
+            assertThat( storageEngine.lockOrder() ).isEqualTo( new long[]{2} );
+            barrier.release();
+            visit.get();
+        }
+        assertThat( storageEngine.applyOrder() ).isEqualTo( new long[]{2, 3} );
+    }
+
+    private static ParallelRecoveryVisitor visitor( StorageEngine storageEngine )
+    {
+        return new ParallelRecoveryVisitor( storageEngine, RECOVERY, PageCacheTracer.NULL, "test", 2, 1, Long.MAX_VALUE, Long.MAX_VALUE );
+    }
+
     private CommittedTransactionRepresentation tx( long txId, List<StorageCommand> commands )
     {
         commands.forEach( cmd -> ((RecoveryTestBaseCommand) cmd).txId = txId );
@@ -324,7 +405,10 @@ class ParallelRecoveryVisitorTest
         @Override
         public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
         {
-            applyOrder[applyOrderCursor.getAndIncrement()] = idOf( batch );
+            for ( CommandsToApply tx = batch; tx != null; tx = tx.next() )
+            {
+                applyOrder[applyOrderCursor.getAndIncrement()] = idOf( tx );
+            }
         }
 
         long[] lockOrder()
@@ -339,6 +423,12 @@ class ParallelRecoveryVisitorTest
 
         // vvv these methods are not used by the recovery visitor vvv
 
+        @Override
+        public void decodeChanges( CommandStream commands, LogicalChangeVisitor visitor, CursorContext cursorContext )
+        {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public CommandCreationContext newCommandCreationContext( MemoryTracker memoryTracker )
         {
@@ -65,6 +65,7 @@ class RecoveryProgressIndicatorTest
         when( transactionCursor.next() ).thenAnswer( new NextTransactionAnswer( transactionsToRecover ) );
         when( reverseTransactionCursor.get() ).thenReturn( transactionRepresentation );
         when( transactionCursor.get() ).thenReturn( transactionRepresentation );
+        when( transactionCursor.position() ).thenReturn( transactionLogPosition );
         when( transactionRepresentation.getCommitEntry() ).thenReturn( new LogEntryCommit( lastCommittedTransactionId, 1L, BASE_TX_CHECKSUM ) );
 
         when( recoveryService.getRecoveryStartInformation() ).thenReturn( startInformation );
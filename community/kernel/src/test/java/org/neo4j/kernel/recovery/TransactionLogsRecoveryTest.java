@@ -21,6 +21,7 @@ package org.neo4j.kernel.recovery;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableLong;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -129,6 +130,7 @@ class TransactionLogsRecoveryTest
     private LogEntry lastCommittedTxCommitEntry;
     private LogEntry expectedStartEntry;
     private LogEntry expectedCommitEntry;
+    private long expectedRecoveredLogBytes;
     private final Monitors monitors = new Monitors();
     private final SimpleLogVersionRepository versionRepository = new SimpleLogVersionRepository();
     private LogFiles logFiles;
@@ -192,6 +194,8 @@ class TransactionLogsRecoveryTest
 
             previousChecksum = writer.writeCommitEntry( 5L, 7L );
             expectedCommitEntry = new LogEntryCommit( 5L, 7L, previousChecksum );
+            consumer.accept( marker );
+            expectedRecoveredLogBytes = marker.getByteOffset() - lastCommittedTxPosition.getByteOffset();
 
             return true;
         } );
@@ -199,6 +203,7 @@ class TransactionLogsRecoveryTest
         LifeSupport life = new LifeSupport();
         var recoveryRequired = new AtomicBoolean();
         var recoveredTransactions = new MutableInt();
+        var recoveredLogBytes = new MutableLong();
         RecoveryMonitor monitor = new RecoveryMonitor()
         {
             @Override
@@ -207,6 +212,12 @@ class TransactionLogsRecoveryTest
                 recoveryRequired.set( true );
             }
 
+            @Override
+            public void logBytesRecovered( long bytes, long recoveryTimeInMilliseconds )
+            {
+                recoveredLogBytes.setValue( bytes );
+            }
+
             @Override
             public void recoveryCompleted( int numberOfRecoveredTransactions, long recoveryTimeInMilliseconds )
             {
@@ -272,6 +283,7 @@ class TransactionLogsRecoveryTest
 
             assertTrue( recoveryRequired.get() );
             assertEquals( 2, recoveredTransactions.getValue() );
+            assertEquals( expectedRecoveredLogBytes, recoveredLogBytes.getValue() );
         }
         finally
         {
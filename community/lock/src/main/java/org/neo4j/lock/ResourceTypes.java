@@ -32,7 +32,7 @@ import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
  *
  *     <dt>{@link #SCHEMA_NAME} - Schema name (XXH64 hashed)</dt>
  *     <dd>
- *         Lock a schema name to avoid duplicates. Note, collisions are possible since we hash the string, but this only affect concurrency and not correctness.
+ *         Lock a schema name to avoid duplicates. Note, collisions are possible since we hash the string, but this only affects concurrency and not correctness.
  *     </dd>
  *
  *     <dt>{@link #NODE_RELATIONSHIP_GROUP_DELETE} - Node id</dt>
@@ -61,6 +61,13 @@ import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
  *         Lock the full relationship group chain for a given node(dense). This will not lock the node in contrast to {@link #NODE_RELATIONSHIP_GROUP_DELETE}.
  *     </dd>
  *
+ *     <dt>{@link #RELATIONSHIP_GROUP_TYPE} - Node id and relationship type id</dt>
+ *     <dd>
+ *         Lock the relationship group of one relationship type for a given node(dense), while holding a shared {@link #RELATIONSHIP_GROUP} lock.
+ *         This lets transactions changing relationships of different types on the same dense node proceed concurrently.
+ *         Note, ids of very large nodes may collide, but this only affects concurrency and not correctness.
+ *     </dd>
+ *
  *     <dt>{@link #RELATIONSHIP} - Relationship id</dt>
  *     <dd>Lock on a relationship, or more specifically a relationship record, to prevent concurrent updates.</dd>
  * </dl>
@@ -79,7 +86,8 @@ public enum ResourceTypes implements ResourceType
     RELATIONSHIP_GROUP( 9, LockWaitStrategies.INCREMENTAL_BACKOFF ),
     RELATIONSHIP_DELETE( 10, LockWaitStrategies.INCREMENTAL_BACKOFF ),
     NODE_RELATIONSHIP_GROUP_DELETE( 11, LockWaitStrategies.INCREMENTAL_BACKOFF ),
-    DEGREES( 12, LockWaitStrategies.INCREMENTAL_BACKOFF );
+    DEGREES( 12, LockWaitStrategies.INCREMENTAL_BACKOFF ),
+    RELATIONSHIP_GROUP_TYPE( 13, LockWaitStrategies.INCREMENTAL_BACKOFF );
 
     private static final MutableIntObjectMap<ResourceType> idToType = new IntObjectHashMap<>();
 
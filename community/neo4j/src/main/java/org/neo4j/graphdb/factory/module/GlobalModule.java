@@ -58,6 +58,7 @@ import org.neo4j.kernel.impl.cache.VmPauseMonitorComponent;
 import org.neo4j.kernel.impl.factory.DbmsInfo;
 import org.neo4j.kernel.impl.pagecache.ConfiguringPageCacheFactory;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
+import org.neo4j.kernel.impl.pagecache.PageCacheLatenciesJmx;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
 import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.impl.security.URLAccessRules;
@@ -233,6 +234,7 @@ public class GlobalModule
                 () -> createPageCache( fileSystem, globalConfig, logService, tracers, jobScheduler, globalClock, memoryPools ) );
 
         globalLife.add( new PageCacheLifecycle( pageCache ) );
+        globalLife.add( new PageCacheLatenciesJmx( tracers.getPageCacheTracer(), globalConfig.get( GraphDatabaseSettings.neo4j_home ) ) );
 
         dbmsDiagnosticsManager = new DbmsDiagnosticsManager( globalDependencies, logService );
         globalDependencies.satisfyDependency( dbmsDiagnosticsManager );
@@ -377,6 +379,7 @@ public class GlobalModule
         jobScheduler.setParallelism( Group.INDEX_SAMPLING, globalConfig.get( GraphDatabaseInternalSettings.index_sampling_parallelism ) );
         jobScheduler.setParallelism( Group.INDEX_POPULATION, globalConfig.get( GraphDatabaseInternalSettings.index_population_parallelism ) );
         jobScheduler.setParallelism( Group.PAGE_CACHE_PRE_FETCHER, globalConfig.get( GraphDatabaseSettings.pagecache_scan_prefetch ) );
+        jobScheduler.setParallelism( Group.PAGE_CACHE_FLUSH, globalConfig.get( GraphDatabaseInternalSettings.pagecache_flush_parallelism ) );
         return jobScheduler;
     }
 
@@ -130,7 +130,7 @@ public class CommunityEditionModule extends StandaloneEditionModule
 
         tokenHoldersProvider = createTokenHolderProvider( globalModule );
 
-        commitProcessFactory = new CommunityCommitProcessFactory();
+        commitProcessFactory = new CommunityCommitProcessFactory( globalConfig );
 
         constraintSemantics = createSchemaRuleVerifier();
 
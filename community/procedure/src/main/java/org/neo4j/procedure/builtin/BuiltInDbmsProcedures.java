@@ -56,6 +56,8 @@ import org.neo4j.internal.kernel.api.security.AdminActionOnResource;
 import org.neo4j.internal.kernel.api.security.AdminActionOnResource.DatabaseScope;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.internal.kernel.api.security.UserSegment;
+import org.neo4j.io.pagecache.monitoring.PageCacheLatencies;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.KernelTransactionHandle;
 import org.neo4j.kernel.api.exceptions.InvalidArgumentsException;
@@ -70,6 +72,7 @@ import org.neo4j.kernel.database.DatabaseIdRepository;
 import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.api.KernelTransactions;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.pagecache.PageCacheLatencySummary;
 import org.neo4j.kernel.impl.query.FunctionInformation;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -604,6 +607,19 @@ public class BuiltInDbmsProcedures
         return capabilities.stream().filter( c -> !c.internal() ).map( c -> new CapabilityResult( c, service.get( c.name() ) ) );
     }
 
+    @Admin
+    @SystemProcedure
+    @Description( "List the latencies of page faults, evictions and flushes in the page cache, per database and per mapped file. " +
+                  "Rows with a null file summarize all the files of a database." )
+    @Procedure( name = "dbms.listPageCacheLatencies", mode = DBMS )
+    public Stream<PageCacheLatencyResult> listPageCacheLatencies()
+    {
+        PageCacheLatencies latencies = resolver.resolveDependency( PageCacheTracer.class ).latencies();
+        List<PageCacheLatencySummary> summaries = new ArrayList<>( PageCacheLatencySummary.summarize( latencies.databases() ) );
+        summaries.addAll( PageCacheLatencySummary.summarize( latencies.files() ) );
+        return summaries.stream().map( PageCacheLatencyResult::new );
+    }
+
     private NetworkConnectionTracker getConnectionTracker()
     {
         return resolver.resolveDependency( NetworkConnectionTracker.class );
@@ -58,6 +58,7 @@ import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.api.procedure.SystemProcedure;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.procedure.Admin;
@@ -405,6 +406,16 @@ public class BuiltInProcedures
                 .clearQueryCaches();
     }
 
+    @Admin
+    @SystemProcedure
+    @Description( "List the resources that transactions have had to wait the longest to lock, most contended first. " +
+                  "Only lock waits are recorded, and only for a bounded number of resources." )
+    @Procedure( name = "db.listLockContention", mode = READ )
+    public Stream<LockContentionResult> listLockContention()
+    {
+        return resolver.resolveDependency( Locks.class ).contentionProfile().contendedResources().stream().map( LockContentionResult::new );
+    }
+
     @SystemProcedure
     @Procedure( name = "db.schema.nodeTypeProperties", mode = Mode.READ )
     @Description( "Show the derived property schema of the nodes in tabular form." )
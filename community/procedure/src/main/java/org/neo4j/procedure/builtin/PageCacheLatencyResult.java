@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import org.neo4j.kernel.impl.pagecache.PageCacheLatencySummary;
+
+public class PageCacheLatencyResult
+{
+    public final String database;
+    public final String file;
+    public final String operation;
+    public final long count;
+    public final double meanMicros;
+    public final double p50Micros;
+    public final double p99Micros;
+    public final double p999Micros;
+    public final double maxMicros;
+
+    PageCacheLatencyResult( PageCacheLatencySummary summary )
+    {
+        this.database = summary.getDatabase();
+        this.file = summary.getFile();
+        this.operation = summary.getOperation();
+        this.count = summary.getCount();
+        this.meanMicros = summary.getMeanMicros();
+        this.p50Micros = summary.getP50Micros();
+        this.p99Micros = summary.getP99Micros();
+        this.p999Micros = summary.getP999Micros();
+        this.maxMicros = summary.getMaxMicros();
+    }
+}
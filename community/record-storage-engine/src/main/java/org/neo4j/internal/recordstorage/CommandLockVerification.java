@@ -40,7 +40,6 @@ import static org.neo4j.lock.LockType.EXCLUSIVE;
 import static org.neo4j.lock.ResourceTypes.NODE;
 import static org.neo4j.lock.ResourceTypes.NODE_RELATIONSHIP_GROUP_DELETE;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP;
-import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP;
 
 /**
  * Merely a helper during development to ensure that commands generated are sufficiently locked, now that we're experimenting with
@@ -155,7 +154,7 @@ public interface CommandLockVerification
             long node = command.after.getOwningNode();
             if ( !txState.nodeIsAddedInThisTx( node ) )
             {
-                assertLocked( node, RELATIONSHIP_GROUP, EXCLUSIVE, command.after );
+                LockVerificationMonitor.assertRelationshipGroupLocked( locks, node, command.after );
             }
 
             boolean deleted = !command.after.inUse();
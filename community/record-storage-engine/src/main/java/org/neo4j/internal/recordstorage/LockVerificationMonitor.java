@@ -52,6 +52,7 @@ import static org.neo4j.lock.ResourceTypes.NODE;
 import static org.neo4j.lock.ResourceTypes.NODE_RELATIONSHIP_GROUP_DELETE;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP;
+import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP_TYPE;
 import static org.neo4j.lock.ResourceTypes.SCHEMA_NAME;
 import static org.neo4j.util.Preconditions.checkState;
 
@@ -165,7 +166,7 @@ public class LockVerificationMonitor implements LoadMonitor
         long node = before.getOwningNode();
         if ( !txState.nodeIsAddedInThisTx( node ) )
         {
-            assertLocked( node, RELATIONSHIP_GROUP, before );
+            assertRelationshipGroupLocked( locks, node, before );
         }
     }
 
@@ -216,6 +217,16 @@ public class LockVerificationMonitor implements LoadMonitor
         checkState( hasLock( locks, id, resource, type ), "%s [%s,%s] modified without %s lock, record:%s.", locks, resource, id, type, record );
     }
 
+    static void assertRelationshipGroupLocked( ResourceLocker locks, long nodeId, RelationshipGroupRecord record )
+    {
+        // Either the whole group chain is locked, or the group of this type is while the chain is prevented from changing
+        long groupTypeId = RelationshipLockHelper.groupTypeResourceId( nodeId, record.getType() );
+        checkState( hasLock( locks, nodeId, RELATIONSHIP_GROUP, EXCLUSIVE ) ||
+                hasLock( locks, nodeId, RELATIONSHIP_GROUP, SHARED ) && hasLock( locks, groupTypeId, RELATIONSHIP_GROUP_TYPE, EXCLUSIVE ),
+                "%s [%s,%s] modified w/ neither [%s,%s] nor [%s,%s] and [%s,%s], record:%s.", locks, RELATIONSHIP_GROUP, nodeId, RELATIONSHIP_GROUP, EXCLUSIVE,
+                RELATIONSHIP_GROUP, SHARED, RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, record );
+    }
+
     static void assertSchemaLocked( ResourceLocker locks, SchemaRule schemaRule, AbstractBaseRecord record )
     {
         if ( schemaRule instanceof IndexDescriptor && ((IndexDescriptor) schemaRule).isUnique() )
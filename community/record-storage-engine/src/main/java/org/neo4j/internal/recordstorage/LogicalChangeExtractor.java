@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import org.neo4j.common.EntityType;
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.PropertyCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.LogicalChangeVisitor;
+
+import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
+
+/**
+ * Derives logical changes from {@link NodeCommand node commands}, {@link RelationshipCommand relationship commands} and
+ * {@link PropertyCommand property commands} of a transaction. Commands are gathered per entity like for
+ * {@link IndexUpdatesExtractor index updates} and the changes are then handed to a {@link LogicalChangeVisitor} in {@link #visitChanges(LogicalChangeVisitor)}.
+ * <p>
+ * Labels and property values are decoded only from the records of the commands, including the dynamic records they carry, and never from
+ * the store, which may have changed since the transaction was committed. Those which can't be decoded from them are reported as unavailable.
+ */
+class LogicalChangeExtractor extends CommandVisitor.Adapter
+{
+    private final PropertyPhysicalToLogicalConverter converter;
+    private final EntityCommandGrouper<NodeCommand> nodeCommands = new EntityCommandGrouper<>( NodeCommand.class, 16 );
+    private final EntityCommandGrouper<RelationshipCommand> relationshipCommands = new EntityCommandGrouper<>( RelationshipCommand.class, 16 );
+
+    LogicalChangeExtractor( CursorContext cursorContext )
+    {
+        this.converter = PropertyPhysicalToLogicalConverter.fromCommandsOnly( cursorContext );
+    }
+
+    @Override
+    public boolean visitNodeCommand( NodeCommand command )
+    {
+        nodeCommands.add( command );
+        return false;
+    }
+
+    @Override
+    public boolean visitRelationshipCommand( RelationshipCommand command )
+    {
+        relationshipCommands.add( command );
+        return false;
+    }
+
+    @Override
+    public boolean visitPropertyCommand( PropertyCommand command )
+    {
+        if ( command.getAfter().isNodeSet() )
+        {
+            nodeCommands.add( command );
+        }
+        else if ( command.getAfter().isRelSet() )
+        {
+            relationshipCommands.add( command );
+        }
+        return false;
+    }
+
+    void visitChanges( LogicalChangeVisitor visitor )
+    {
+        EntityCommandGrouper<NodeCommand>.Cursor nodes = nodeCommands.sortAndAccessGroups();
+        while ( nodes.nextEntity() )
+        {
+            visitNodeChanges( nodes.currentEntityId(), nodes.currentEntityCommand(), nodes, visitor );
+        }
+        EntityCommandGrouper<RelationshipCommand>.Cursor relationships = relationshipCommands.sortAndAccessGroups();
+        while ( relationships.nextEntity() )
+        {
+            visitRelationshipChanges( relationships.currentEntityId(), relationships.currentEntityCommand(), relationships, visitor );
+        }
+        nodeCommands.clear();
+        relationshipCommands.clear();
+    }
+
+    private void visitNodeChanges( long nodeId, NodeCommand command, EntityCommandGrouper<NodeCommand>.Cursor properties, LogicalChangeVisitor visitor )
+    {
+        boolean created = false;
+        boolean deleted = false;
+        if ( command != null )
+        {
+            NodeRecord before = command.getBefore();
+            NodeRecord after = command.getAfter();
+            created = !before.inUse() && after.inUse();
+            deleted = before.inUse() && !after.inUse();
+            if ( created )
+            {
+                visitor.visitNodeCreated( nodeId );
+            }
+            long[] labelsBefore = labelsOf( before );
+            long[] labelsAfter = labelsOf( after );
+            if ( labelsBefore == null || labelsAfter == null )
+            {
+                // Dynamic label records are only in the command if the labels changed, or the node was created or deleted
+                if ( !before.inUse() || !after.inUse() || before.getLabelField() != after.getLabelField() )
+                {
+                    visitor.visitNodeLabelsChanged( nodeId, null, null );
+                }
+            }
+            else
+            {
+                long[] added = minus( labelsAfter, labelsBefore );
+                long[] removed = minus( labelsBefore, labelsAfter );
+                if ( added.length > 0 || removed.length > 0 )
+                {
+                    visitor.visitNodeLabelsChanged( nodeId, added, removed );
+                }
+            }
+        }
+        converter.convertPropertyRecord( properties, EntityType.NODE, nodeId, visitor );
+        if ( deleted )
+        {
+            visitor.visitNodeDeleted( nodeId );
+        }
+    }
+
+    private void visitRelationshipChanges( long relationshipId, RelationshipCommand command, EntityCommandGrouper<RelationshipCommand>.Cursor properties,
+            LogicalChangeVisitor visitor )
+    {
+        RelationshipRecord before = command != null ? command.getBefore() : null;
+        RelationshipRecord after = command != null ? command.getAfter() : null;
+        if ( command != null && !before.inUse() && after.inUse() )
+        {
+            visitor.visitRelationshipCreated( relationshipId, after.getType(), after.getFirstNode(), after.getSecondNode() );
+        }
+        converter.convertPropertyRecord( properties, EntityType.RELATIONSHIP, relationshipId, visitor );
+        if ( command != null && before.inUse() && !after.inUse() )
+        {
+            visitor.visitRelationshipDeleted( relationshipId, before.getType(), before.getFirstNode(), before.getSecondNode() );
+        }
+    }
+
+    /**
+     * @return the labels of the node record, or {@code null} if they are in dynamic records that are not part of the record.
+     */
+    private static long[] labelsOf( NodeRecord node )
+    {
+        return node.inUse() ? parseLabelsField( node ).getIfLoaded() : ArrayUtils.EMPTY_LONG_ARRAY;
+    }
+
+    private static long[] minus( long[] from, long[] toRemove )
+    {
+        long[] result = from;
+        for ( long value : toRemove )
+        {
+            result = ArrayUtils.removeElement( result, value );
+        }
+        return result;
+    }
+}
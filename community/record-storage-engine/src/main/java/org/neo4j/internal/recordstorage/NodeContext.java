@@ -19,6 +19,8 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.eclipse.collections.api.block.procedure.primitive.IntProcedure;
+import org.eclipse.collections.api.block.procedure.primitive.ObjectIntProcedure;
 import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 
 import org.neo4j.collection.trackable.HeapTrackingCollections;
@@ -27,6 +29,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.lock.LockType;
 import org.neo4j.memory.MemoryTracker;
 
 import static org.neo4j.internal.recordstorage.RelationshipGroupGetter.RelationshipGroupMonitor.EMPTY;
@@ -110,6 +113,49 @@ class NodeContext
         return hasExclusiveGroupLock;
     }
 
+    /**
+     * @return whether or not the group of any type has been locked exclusively, i.e. whether this transaction may change group records
+     * while only holding a shared lock on the whole group chain.
+     */
+    boolean hasExclusiveGroupTypeLock()
+    {
+        return denseContexts != null && denseContexts.anySatisfy( ctx -> ctx.groupLock == LockType.EXCLUSIVE );
+    }
+
+    void forEachSharedGroupTypeLock( IntProcedure procedure )
+    {
+        if ( denseContexts != null )
+        {
+            denseContexts.forEachKeyValue( ( type, ctx ) ->
+            {
+                if ( ctx.groupLock == LockType.SHARED )
+                {
+                    procedure.value( type );
+                }
+            } );
+        }
+    }
+
+    /**
+     * Forgets the locks taken on the groups of each type, along with the groups read while holding them.
+     * @param procedure called with the lock type and the type of the group, for each group that was locked.
+     */
+    void clearGroupTypeLocks( ObjectIntProcedure<LockType> procedure )
+    {
+        if ( denseContexts != null )
+        {
+            denseContexts.forEachKeyValue( ( type, ctx ) ->
+            {
+                if ( ctx.groupLock != null )
+                {
+                    procedure.value( ctx.groupLock, type );
+                    ctx.groupLock = null;
+                    ctx.group = null;
+                }
+            } );
+        }
+    }
+
     RecordProxy<NodeRecord,Void> node()
     {
         return node;
@@ -182,6 +228,10 @@ class NodeContext
         private final RecordProxy<RelationshipRecord,Void>[] insertionPoints = new RecordProxy[NUM_INSERTION_POINTS];
         private long groupId = NULL_REFERENCE.longValue();
         private RecordProxy<RelationshipGroupRecord,Integer> group;
+        /**
+         * How the group of this type is locked, if only the group chain as a whole is shared locked, otherwise {@code null}.
+         */
+        private LockType groupLock;
 
         DenseContext( MemoryTracker memoryTracker )
         {
@@ -216,6 +266,26 @@ class NodeContext
             return group;
         }
 
+        /**
+         * Forget the group read so far, since it was read before the lock on it was upgraded. Its id is kept though, since groups can't move
+         * while the group chain is locked. Group records only end up in the record changes of the transaction once changed, which requires
+         * an exclusive lock on them, so loading it again reads it from the store.
+         */
+        void reloadGroup()
+        {
+            group = null;
+        }
+
+        LockType groupLock()
+        {
+            return groupLock;
+        }
+
+        void setGroupLock( LockType groupLock )
+        {
+            this.groupLock = groupLock;
+        }
+
         RecordProxy<RelationshipRecord,Void> insertionPoint( int directionIndex )
         {
             return insertionPoints[directionIndex];
@@ -21,12 +21,21 @@ package org.neo4j.internal.recordstorage;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 
+import org.neo4j.common.EntityType;
+import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.AbstractDynamicStore;
+import org.neo4j.kernel.impl.store.DynamicArrayStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.storageengine.api.EntityUpdates;
+import org.neo4j.storageengine.api.LogicalChangeVisitor;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 public class PropertyPhysicalToLogicalConverter
 {
@@ -45,10 +54,70 @@ public class PropertyPhysicalToLogicalConverter
         this.cursorContext = cursorContext;
     }
 
+    /**
+     * Creates a converter that decodes values only from the property records of the commands, including the dynamic records they carry,
+     * and never from the store. Values which can't be decoded from them are converted to {@code null}.
+     */
+    static PropertyPhysicalToLogicalConverter fromCommandsOnly( CursorContext cursorContext )
+    {
+        return new PropertyPhysicalToLogicalConverter( null, cursorContext );
+    }
+
     /**
      * Converts physical changes to PropertyRecords for a entity into logical updates
      */
     public void convertPropertyRecord( EntityCommandGrouper<?>.Cursor changes, EntityUpdates.Builder properties )
+    {
+        convert( changes, new PropertyChanges()
+        {
+            @Override
+            public void added( int key, Value value )
+            {
+                properties.added( key, value );
+            }
+
+            @Override
+            public void changed( int key, Value before, Value after )
+            {
+                properties.changed( key, before, after );
+            }
+
+            @Override
+            public void removed( int key, Value before )
+            {
+                properties.removed( key, before );
+            }
+        } );
+    }
+
+    /**
+     * Converts physical changes to PropertyRecords for a entity into logical changes, handed to the given visitor
+     */
+    public void convertPropertyRecord( EntityCommandGrouper<?>.Cursor changes, EntityType entityType, long entityId, LogicalChangeVisitor visitor )
+    {
+        convert( changes, new PropertyChanges()
+        {
+            @Override
+            public void added( int key, Value value )
+            {
+                visitor.visitPropertyAdded( entityType, entityId, key, value );
+            }
+
+            @Override
+            public void changed( int key, Value before, Value after )
+            {
+                visitor.visitPropertyChanged( entityType, entityId, key, before, after );
+            }
+
+            @Override
+            public void removed( int key, Value before )
+            {
+                visitor.visitPropertyRemoved( entityType, entityId, key, before );
+            }
+        } );
+    }
+
+    private void convert( EntityCommandGrouper<?>.Cursor changes, PropertyChanges properties )
     {
         mapBlocks( changes );
 
@@ -157,6 +226,37 @@ public class PropertyPhysicalToLogicalConverter
         {
             return null;
         }
+        if ( propertyStore == null )
+        {
+            return valueFromCommand( block );
+        }
         return block.getType().value( block, propertyStore, cursorContext );
     }
+
+    private static Value valueFromCommand( PropertyBlock block )
+    {
+        PropertyType type = block.getType();
+        if ( type != PropertyType.STRING && type != PropertyType.ARRAY )
+        {
+            // all other types are stored in the block itself
+            return type.value( block, null, CursorContext.NULL );
+        }
+        List<DynamicRecord> records = block.getValueRecords();
+        if ( records.isEmpty() || records.stream().anyMatch( record -> record.getData().length == 0 ) )
+        {
+            return null;
+        }
+        Pair<byte[],byte[]> data = AbstractDynamicStore.readFullByteArrayFromHeavyRecords( records, type );
+        // a string doesn't have a header in the data array
+        return type == PropertyType.STRING ? Values.utf8Value( data.other() ) : DynamicArrayStore.getRightArray( data );
+    }
+
+    private interface PropertyChanges
+    {
+        void added( int key, Value value );
+
+        void changed( int key, Value before, Value after );
+
+        void removed( int key, Value before );
+    }
 }
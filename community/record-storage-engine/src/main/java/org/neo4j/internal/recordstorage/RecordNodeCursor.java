@@ -52,6 +52,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
     private PageCursor pageCursor;
+    private boolean scanningPageCursor;
     private long next;
     private long highMark;
     private long nextStoreReference;
@@ -81,10 +82,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         {
             resetState();
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = nodePage( 0 );
-        }
+        openPageCursor( 0, true );
         this.next = 0;
         this.highMark = nodeHighMark();
         this.nextStoreReference = NO_ID;
@@ -99,10 +97,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         {
             resetState();
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = nodePage( reference );
-        }
+        openPageCursor( reference, false );
         this.next = reference >= 0 ? reference : NO_ID;
         //This marks the cursor as a "single cursor"
         this.highMark = NO_ID;
@@ -138,10 +133,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             reset();
             return true;
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = nodePage( start );
-        }
+        openPageCursor( start, true );
         next = start;
         highMark = min( stop, max );
         return true;
@@ -476,9 +468,22 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
     }
 
-    private PageCursor nodePage( long reference )
+    /**
+     * Scans and single record reads share the page cursor, but scans access the pages with low priority, so the page cursor is reopened
+     * when switching between the two.
+     */
+    private void openPageCursor( long reference, boolean scanning )
     {
-        return read.openPageCursorForReading( reference, cursorContext );
+        if ( pageCursor != null && scanningPageCursor != scanning )
+        {
+            pageCursor.close();
+            pageCursor = null;
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = scanning ? read.openPageCursorForScanning( reference, cursorContext ) : read.openPageCursorForReading( reference, cursorContext );
+            scanningPageCursor = scanning;
+        }
     }
 
     private long nodeHighMark()
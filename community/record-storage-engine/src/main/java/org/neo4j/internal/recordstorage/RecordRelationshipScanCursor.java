@@ -35,6 +35,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     private long highMark;
     private long nextStoreReference;
     private PageCursor pageCursor;
+    private boolean scanningPageCursor;
     private boolean open;
     private boolean batched;
 
@@ -50,10 +51,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         {
             resetState();
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = relationshipPage( 0 );
-        }
+        openPageCursor( 0, true );
         this.next = 0;
         this.highMark = relationshipHighMark();
         this.nextStoreReference = NO_ID;
@@ -67,10 +65,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         {
             resetState();
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = relationshipPage( reference );
-        }
+        openPageCursor( reference, false );
         this.next = reference >= 0 ? reference : NO_ID;
         this.highMark = NO_ID;
         this.nextStoreReference = NO_ID;
@@ -104,10 +99,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
             reset();
             return true;
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = relationshipPage( start );
-        }
+        openPageCursor( start, true );
         next = start;
         highMark = min( stop, max );
         return true;
@@ -208,6 +200,24 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         }
     }
 
+    /**
+     * Scans and single record reads share the page cursor, but scans access the pages with low priority, so the page cursor is reopened
+     * when switching between the two.
+     */
+    private void openPageCursor( long reference, boolean scanning )
+    {
+        if ( pageCursor != null && scanningPageCursor != scanning )
+        {
+            pageCursor.close();
+            pageCursor = null;
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = scanning ? relationshipScanPage( reference ) : relationshipPage( reference );
+            scanningPageCursor = scanning;
+        }
+    }
+
     private void relationshipAdvance( RelationshipRecord record, PageCursor pageCursor )
     {
         // When scanning, we inspect RelationshipRecord.inUse(), so using RecordLoad.CHECK is fine
@@ -92,6 +92,7 @@ import org.neo4j.storageengine.api.CommandStream;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.ConstraintRuleAccessor;
 import org.neo4j.storageengine.api.IndexUpdateListener;
+import org.neo4j.storageengine.api.LogicalChangeVisitor;
 import org.neo4j.storageengine.api.MetadataProvider;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageEngine;
@@ -465,6 +466,14 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    @Override
+    public void decodeChanges( CommandStream commands, LogicalChangeVisitor visitor, CursorContext cursorContext ) throws IOException
+    {
+        LogicalChangeExtractor extractor = new LogicalChangeExtractor( cursorContext );
+        commands.accept( element -> ((Command) element).handle( extractor ) );
+        extractor.visitChanges( visitor );
+    }
+
     @Override
     public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
     {
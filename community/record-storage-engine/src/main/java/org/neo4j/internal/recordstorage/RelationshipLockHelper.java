@@ -33,6 +33,7 @@ import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.lock.ResourceLocker;
+import org.neo4j.lock.ResourceTypes;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.txstate.RelationshipModifications;
 import org.neo4j.util.VisibleForTesting;
@@ -53,10 +54,21 @@ import static org.neo4j.memory.HeapEstimator.sizeOfLongArray;
  */
 final class RelationshipLockHelper
 {
+    private static final int GROUP_TYPE_BITS = 24;
+
     private RelationshipLockHelper()
     {
     }
 
+    /**
+     * The id of the {@link ResourceTypes#RELATIONSHIP_GROUP_TYPE} lock of the relationship group of the given type on the given node.
+     * Locks of the same node are ordered by type. Ids of nodes beyond 2^40 alias, which only affects concurrency.
+     */
+    static long groupTypeResourceId( long nodeId, int type )
+    {
+        return nodeId << GROUP_TYPE_BITS | type;
+    }
+
     /**
      * Lock all the {@code idsToLock} exclusively, including neighbours, in order.
      *
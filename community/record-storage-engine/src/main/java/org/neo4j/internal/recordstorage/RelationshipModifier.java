@@ -21,6 +21,8 @@ package org.neo4j.internal.recordstorage;
 
 import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
 import org.eclipse.collections.impl.factory.primitive.LongLists;
 
 import java.util.function.Predicate;
@@ -33,6 +35,7 @@ import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.LockType;
 import org.neo4j.lock.ResourceLocker;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.txstate.RelationshipModifications;
@@ -43,7 +46,9 @@ import static org.neo4j.internal.recordstorage.RelationshipCreator.NodeDataLooku
 import static org.neo4j.internal.recordstorage.RelationshipCreator.NodeDataLookup.DIR_LOOP;
 import static org.neo4j.internal.recordstorage.RelationshipCreator.NodeDataLookup.DIR_OUT;
 import static org.neo4j.internal.recordstorage.RelationshipCreator.relCount;
+import static org.neo4j.internal.recordstorage.RelationshipGroupGetter.RelationshipGroupMonitor.EMPTY;
 import static org.neo4j.internal.recordstorage.RelationshipLockHelper.findAndLockInsertionPoint;
+import static org.neo4j.internal.recordstorage.RelationshipLockHelper.groupTypeResourceId;
 import static org.neo4j.internal.recordstorage.RelationshipLockHelper.lockRelationshipsInOrder;
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
 import static org.neo4j.kernel.impl.store.record.Record.isNull;
@@ -52,6 +57,7 @@ import static org.neo4j.lock.ResourceTypes.NODE;
 import static org.neo4j.lock.ResourceTypes.NODE_RELATIONSHIP_GROUP_DELETE;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP;
+import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP_TYPE;
 
 /**
  * Manages locking and creation/delete of relationships. Will call on {@link RelationshipCreator} and {@link RelationshipDeleter} for actual
@@ -148,6 +154,8 @@ public class RelationshipModifier
                 // Creations
                 NodeContext nodeContext = NodeContext.createNodeContext( nodeProxy, memoryTracker );
                 contexts.put( nodeId, nodeContext );
+                // Lock the groups of the types we're changing before reading them, unless the whole group chain needs to be locked exclusively
+                lockGroupsByType( byNode, nodeContext, recordChanges, locks, lockTracer );
                 if ( byNode.hasCreations() )
                 {
                     //We have some creations on a dense node. If the group exists we can use that, otherwise we create it
@@ -191,71 +199,6 @@ public class RelationshipModifier
                         nodeContext.denseContext( byType.type() ).setGroup( groupProxy );
                     } );
 
-                    if ( !nodeContext.hasExclusiveGroupLock() )
-                    {
-                        //No other path has given us the exclusive lock yet
-                        byNode.forEachCreationSplitInterruptible( byType ->
-                        {
-                            //But if we are creating relationships to a chain that does not exist on the group
-                            //or we might need to flip the external degrees flag
-                            RelationshipGroupRecord group = nodeContext.denseContext( byType.type() ).group().forReadingLinkage();
-                            if ( byType.hasOut() && (!group.hasExternalDegreesOut() || isNull( group.getFirstOut() ) )
-                                    || byType.hasIn() && (!group.hasExternalDegreesIn() || isNull( group.getFirstIn() ) )
-                                    || byType.hasLoop() && (!group.hasExternalDegreesLoop() || isNull( group.getFirstLoop() ) ) )
-                            {
-                                //Then we need the exclusive lock to change it
-                                locks.releaseShared( RELATIONSHIP_GROUP, nodeId );
-                                //Note the small window here where we dont hold any group lock, things might change so we can not trust previous group reads
-                                locks.acquireExclusive( lockTracer, RELATIONSHIP_GROUP, nodeId );
-                                nodeContext.markExclusiveGroupLock();
-                                return true; //And we can abort the iteration as the group lock is protecting all relationship group records of the node
-                            }
-                            return false;
-                        } );
-                    }
-                }
-
-                // Deletions
-                if ( byNode.hasDeletions() )
-                {
-                    if ( !nodeContext.hasExclusiveGroupLock() ) //no need to do anything if it is already locked by additions
-                    {
-                        byNode.forEachDeletionSplitInterruptible( byType ->
-                        {
-                            NodeContext.DenseContext denseContext = nodeContext.denseContext( byType.type() );
-                            RelationshipGroupRecord group = denseContext.getOrLoadGroup( relGroupGetter, nodeContext.node().forReadingLinkage(), byType.type(),
-                                    recordChanges.getRelGroupRecords(), cursorContext );
-                            //here we have the shared lock, so we can trust the read
-                            if ( byType.hasOut() && !group.hasExternalDegreesOut()
-                                    || byType.hasIn() && !group.hasExternalDegreesIn()
-                                    || byType.hasLoop() && !group.hasExternalDegreesLoop() )
-                            {
-                                //We have deletions but without external degrees, we might need to flip that so we lock it
-                                locks.releaseShared( RELATIONSHIP_GROUP, nodeId );
-                                //Note the small window here where we dont hold any group lock, things might change so we can not trust previous group reads
-                                locks.acquireExclusive( lockTracer, RELATIONSHIP_GROUP, nodeId );
-                                nodeContext.markExclusiveGroupLock();
-                                return true;
-                            }
-                            else
-                            {
-                                //We have deletions and only external degrees
-                                boolean hasAnyFirst = batchContains( byType.out(), group.getFirstOut() )
-                                        || batchContains( byType.in(), group.getFirstIn() )
-                                        || batchContains( byType.loop(), group.getFirstLoop() );
-                                if ( hasAnyFirst )
-                                {
-                                    // But we're deleting the first in the chain so the group needs to be updated
-                                    locks.releaseShared( RELATIONSHIP_GROUP, nodeId );
-                                    //Note the small window here where we dont hold any group lock, things might change so we can not trust previous group reads
-                                    locks.acquireExclusive( lockTracer, RELATIONSHIP_GROUP, nodeId );
-                                    nodeContext.markExclusiveGroupLock();
-                                    return true;
-                                }
-                            }
-                            return false;
-                        } );
-                    }
                 }
 
                 // Look for an opportunity to delete empty groups that we noticed while looking for groups above
@@ -284,6 +227,89 @@ public class RelationshipModifier
         } );
     }
 
+    /**
+     * Locks the groups of the types that this transaction changes on a dense node, given that the group chain as a whole is only shared locked.
+     * A group is shared locked if this transaction only inserts into, or deletes from the middle of, its existing chains. It's exclusively locked
+     * if a chain needs to be created, the first in a chain is deleted or the degrees need to be moved out of the first in chain, all of which
+     * change the group record. This way transactions changing different types of a dense node don't block each other.
+     * <p>
+     * Each type is locked before its group is read, so that the group can be trusted. If the group of a type doesn't exist it needs to be
+     * created, which requires the whole group chain to be locked exclusively. The type locks are then released again, to not hold them while
+     * waiting for the exclusive group chain lock, and the groups are read again once that lock is held.
+     */
+    private void lockGroupsByType( RelationshipModifications.NodeRelationshipIds byNode, NodeContext nodeContext, RecordAccessSet recordChanges,
+            ResourceLocker locks, LockTracer lockTracer )
+    {
+        long nodeId = byNode.nodeId();
+        MutableIntSet types = IntSets.mutable.empty();
+        byNode.forEachCreationSplit( byType -> types.add( byType.type() ) );
+        byNode.forEachDeletionSplit( byType -> types.add( byType.type() ) );
+        // Lock the types in order to not deadlock with other transactions doing the same
+        for ( int type : types.toSortedArray() )
+        {
+            long resourceId = groupTypeResourceId( nodeId, type );
+            NodeContext.DenseContext denseContext = nodeContext.denseContext( type );
+            locks.acquireShared( lockTracer, RELATIONSHIP_GROUP_TYPE, resourceId );
+            denseContext.setGroupLock( LockType.SHARED );
+            RecordProxy<RelationshipGroupRecord,Integer> groupProxy = relGroupGetter.getRelationshipGroup( nodeContext.node().forReadingLinkage(), type,
+                    recordChanges.getRelGroupRecords(), EMPTY ).group();
+            if ( groupProxy == null )
+            {
+                // Groups can't be created while we hold the shared lock on the group chain, so this transaction must create it itself
+                nodeContext.clearGroupTypeLocks( ( lockType, lockedType ) ->
+                {
+                    long lockedResourceId = groupTypeResourceId( nodeId, lockedType );
+                    if ( lockType == LockType.EXCLUSIVE )
+                    {
+                        locks.releaseExclusive( RELATIONSHIP_GROUP_TYPE, lockedResourceId );
+                    }
+                    else
+                    {
+                        locks.releaseShared( RELATIONSHIP_GROUP_TYPE, lockedResourceId );
+                    }
+                } );
+                return;
+            }
+            denseContext.setGroup( groupProxy );
+            if ( groupNeedsChange( byNode, type, groupProxy.forReadingLinkage() ) )
+            {
+                locks.releaseShared( RELATIONSHIP_GROUP_TYPE, resourceId );
+                //Note the small window here where we dont hold the type lock, things might change so we can not trust previous group reads
+                locks.acquireExclusive( lockTracer, RELATIONSHIP_GROUP_TYPE, resourceId );
+                denseContext.setGroupLock( LockType.EXCLUSIVE );
+                denseContext.reloadGroup();
+            }
+        }
+    }
+
+    private static boolean groupNeedsChange( RelationshipModifications.NodeRelationshipIds byNode, int type, RelationshipGroupRecord group )
+    {
+        boolean[] needsChange = new boolean[1];
+        byNode.forEachCreationSplitInterruptible( byType ->
+        {
+            //If we are creating relationships to a chain that does not exist on the group or we might need to flip the external degrees flag
+            needsChange[0] = byType.type() == type && (
+                    byType.hasOut() && (!group.hasExternalDegreesOut() || isNull( group.getFirstOut() ))
+                    || byType.hasIn() && (!group.hasExternalDegreesIn() || isNull( group.getFirstIn() ))
+                    || byType.hasLoop() && (!group.hasExternalDegreesLoop() || isNull( group.getFirstLoop() )) );
+            return needsChange[0];
+        } );
+        if ( !needsChange[0] )
+        {
+            byNode.forEachDeletionSplitInterruptible( byType ->
+            {
+                //If we have deletions but without external degrees we might need to flip that, and if we're deleting the first in the chain
+                //the group needs to be updated
+                needsChange[0] = byType.type() == type && (
+                        byType.hasOut() && (!group.hasExternalDegreesOut() || batchContains( byType.out(), group.getFirstOut() ))
+                        || byType.hasIn() && (!group.hasExternalDegreesIn() || batchContains( byType.in(), group.getFirstIn() ))
+                        || byType.hasLoop() && (!group.hasExternalDegreesLoop() || batchContains( byType.loop(), group.getFirstLoop() )) );
+                return needsChange[0];
+            } );
+        }
+        return needsChange[0];
+    }
+
     /**
      * Traverses a relationship group chain and while doing that it will notice empty groups and mark that in the context.
      * This information can later be used to attempt to delete empty groups at a place where they will be locked.
@@ -392,8 +418,13 @@ public class RelationshipModifier
 
                 if ( !nodeContext.hasExclusiveGroupLock() )
                 {
-                    // we no longer need the read lock, as all we either locked the first in chains, or have exclusive lock
-                    locks.releaseShared( RELATIONSHIP_GROUP, byNode.nodeId() );
+                    // we no longer need the read locks, as we either locked the first in chains, or have exclusive lock
+                    nodeContext.forEachSharedGroupTypeLock( type -> locks.releaseShared( RELATIONSHIP_GROUP_TYPE, groupTypeResourceId( nodeId, type ) ) );
+                    if ( !nodeContext.hasExclusiveGroupTypeLock() )
+                    {
+                        // we're not changing any group, otherwise those locking the whole group chain must wait for us to commit
+                        locks.releaseShared( RELATIONSHIP_GROUP, nodeId );
+                    }
                 }
             }
         } );
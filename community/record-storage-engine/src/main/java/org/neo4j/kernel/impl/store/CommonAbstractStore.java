@@ -65,6 +65,7 @@ import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.LENIENT_CHECK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
@@ -422,7 +423,19 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
     @Override
     public PageCursor openPageCursorForReadingWithPrefetching( long id, CursorContext cursorContext )
     {
-        return openPageCursorForReading( 0, PF_READ_AHEAD, cursorContext );
+        return openPageCursorForReading( 0, PF_READ_AHEAD | PF_TRANSIENT, cursorContext );
+    }
+
+    /**
+     * DANGER: make sure to always close this cursor.
+     *
+     * The opened cursor will make use of the {@link PagedFile#PF_TRANSIENT} flag, so the scanned pages are not promoted in the page cache,
+     * and of the {@link PagedFile#PF_READ_AHEAD} flag, so the pages of a long scan are read ahead of it with large sequential reads.
+     */
+    @Override
+    public PageCursor openPageCursorForScanning( long id, CursorContext cursorContext )
+    {
+        return openPageCursorForReading( id, PF_READ_AHEAD | PF_TRANSIENT, cursorContext );
     }
 
     /**
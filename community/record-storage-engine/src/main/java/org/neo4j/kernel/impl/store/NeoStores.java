@@ -51,6 +51,7 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.storageengine.api.format.CapabilityType;
 
 import static org.apache.commons.lang3.ArrayUtils.contains;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.PINNED;
 import static org.neo4j.kernel.impl.store.MetaDataStore.Position.STORE_VERSION;
 import static org.neo4j.kernel.impl.store.MetaDataStore.versionLongToString;
 
@@ -84,6 +85,8 @@ public class NeoStores implements AutoCloseable
     private final CommonAbstractStore[] stores;
     private final PageCacheTracer pageCacheTracer;
     private final ImmutableSet<OpenOption> openOptions;
+    // Open options for the small and frequently accessed stores, that we pin in the page cache if so configured.
+    private final ImmutableSet<OpenOption> smallStoreOpenOptions;
     private final DatabaseReadOnlyChecker readOnlyChecker;
 
     NeoStores(
@@ -111,6 +114,7 @@ public class NeoStores implements AutoCloseable
         this.pageCacheTracer = pageCacheTracer;
         this.readOnlyChecker = readOnlyChecker;
         this.openOptions = openOptions;
+        this.smallStoreOpenOptions = config.get( GraphDatabaseInternalSettings.pagecache_pin_small_stores ) ? openOptions.newWith( PINNED ) : openOptions;
 
         stores = new CommonAbstractStore[StoreType.values().length];
         // First open the meta data store so that we can verify the record format. We know that this store is of the type MetaDataStore
@@ -453,13 +457,13 @@ public class NeoStores implements AutoCloseable
     {
         return initialize( new PropertyKeyTokenStore( layout.propertyKeyTokenStore(), layout.idPropertyKeyTokenStore(), config,
                 idGeneratorFactory, pageCache, logProvider, (DynamicStringStore) getOrOpenStore( StoreType.PROPERTY_KEY_TOKEN_NAME, cursorContext ),
-                recordFormats, readOnlyChecker, layout.getDatabaseName(), openOptions ), cursorContext );
+                recordFormats, readOnlyChecker, layout.getDatabaseName(), smallStoreOpenOptions ), cursorContext );
     }
 
     CommonAbstractStore createPropertyKeyTokenNamesStore( CursorContext cursorContext )
     {
         return createDynamicStringStore( layout.propertyKeyTokenNamesStore(), layout.idPropertyKeyTokenNamesStore(),
-                IdType.PROPERTY_KEY_TOKEN_NAME, TokenStore.NAME_STORE_BLOCK_SIZE, cursorContext );
+                IdType.PROPERTY_KEY_TOKEN_NAME, TokenStore.NAME_STORE_BLOCK_SIZE, smallStoreOpenOptions, cursorContext );
     }
 
     CommonAbstractStore createPropertyStore( CursorContext cursorContext )
@@ -495,20 +499,20 @@ public class NeoStores implements AutoCloseable
                 new RelationshipTypeTokenStore( layout.relationshipTypeTokenStore(), layout.idRelationshipTypeTokenStore(), config,
                         idGeneratorFactory,
                         pageCache, logProvider, (DynamicStringStore) getOrOpenStore( StoreType.RELATIONSHIP_TYPE_TOKEN_NAME, cursorContext ),
-                        recordFormats, readOnlyChecker, layout.getDatabaseName(), openOptions ), cursorContext );
+                        recordFormats, readOnlyChecker, layout.getDatabaseName(), smallStoreOpenOptions ), cursorContext );
     }
 
     CommonAbstractStore createRelationshipTypeTokenNamesStore( CursorContext cursorContext )
     {
         return createDynamicStringStore( layout.relationshipTypeTokenNamesStore(), layout.idRelationshipTypeTokenNamesStore(),
-                IdType.RELATIONSHIP_TYPE_TOKEN_NAME, TokenStore.NAME_STORE_BLOCK_SIZE, cursorContext );
+                IdType.RELATIONSHIP_TYPE_TOKEN_NAME, TokenStore.NAME_STORE_BLOCK_SIZE, smallStoreOpenOptions, cursorContext );
     }
 
     CommonAbstractStore createLabelTokenStore( CursorContext cursorContext )
     {
         return initialize( new LabelTokenStore( layout.labelTokenStore(), layout.idLabelTokenStore(), config, idGeneratorFactory, pageCache, logProvider,
                 (DynamicStringStore) getOrOpenStore( StoreType.LABEL_TOKEN_NAME, cursorContext ), recordFormats, readOnlyChecker, layout.getDatabaseName(),
-                openOptions ), cursorContext );
+                smallStoreOpenOptions ), cursorContext );
     }
 
     CommonAbstractStore createSchemaStore( CursorContext cursorContext )
@@ -517,7 +521,7 @@ public class NeoStores implements AutoCloseable
                 new SchemaStore( layout.schemaStore(), layout.idSchemaStore(), config, IdType.SCHEMA, idGeneratorFactory, pageCache,
                         logProvider,
                         (PropertyStore) getOrOpenStore( StoreType.PROPERTY, cursorContext ),
-                        recordFormats, readOnlyChecker, layout.getDatabaseName(), openOptions ), cursorContext );
+                        recordFormats, readOnlyChecker, layout.getDatabaseName(), smallStoreOpenOptions ), cursorContext );
     }
 
     CommonAbstractStore createRelationshipGroupStore( CursorContext cursorContext )
@@ -529,26 +533,29 @@ public class NeoStores implements AutoCloseable
     CommonAbstractStore createLabelTokenNamesStore( CursorContext cursorContext )
     {
         return createDynamicStringStore( layout.labelTokenNamesStore(), layout.idLabelTokenNamesStore(), IdType.LABEL_TOKEN_NAME,
-                TokenStore.NAME_STORE_BLOCK_SIZE, cursorContext );
+                TokenStore.NAME_STORE_BLOCK_SIZE, smallStoreOpenOptions, cursorContext );
     }
 
     CommonAbstractStore createMetadataStore( CursorContext cursorContext )
     {
         return initialize( new MetaDataStore( layout.metadataStore(), config, pageCache, logProvider,
-                        recordFormats.metaData(), recordFormats.storeVersion(), pageCacheTracer, readOnlyChecker, layout.getDatabaseName(), openOptions ),
+                        recordFormats.metaData(), recordFormats.storeVersion(), pageCacheTracer, readOnlyChecker, layout.getDatabaseName(),
+                        smallStoreOpenOptions ),
                 cursorContext );
     }
 
     private CommonAbstractStore createDynamicStringStore( Path storeFile, Path idFile, CursorContext cursorContext )
     {
-        return createDynamicStringStore( storeFile, idFile, IdType.STRING_BLOCK, config.get( GraphDatabaseInternalSettings.string_block_size ), cursorContext );
+        return createDynamicStringStore( storeFile, idFile, IdType.STRING_BLOCK, config.get( GraphDatabaseInternalSettings.string_block_size ), openOptions,
+                cursorContext );
     }
 
-    private CommonAbstractStore createDynamicStringStore( Path storeFile, Path idFile, IdType idType, int blockSize, CursorContext cursorContext )
+    private CommonAbstractStore createDynamicStringStore( Path storeFile, Path idFile, IdType idType, int blockSize, ImmutableSet<OpenOption> storeOpenOptions,
+            CursorContext cursorContext )
     {
         return initialize( new DynamicStringStore( storeFile, idFile, config, idType, idGeneratorFactory,
                 pageCache, logProvider, blockSize, recordFormats.dynamic(), recordFormats.storeVersion(), readOnlyChecker, layout.getDatabaseName(),
-                openOptions ), cursorContext );
+                storeOpenOptions ), cursorContext );
     }
 
     private CommonAbstractStore createDynamicArrayStore( Path storeFile, Path idFile, IdType idType, Setting<Integer> blockSizeProperty,
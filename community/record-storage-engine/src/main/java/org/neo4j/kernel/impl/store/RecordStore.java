@@ -120,7 +120,8 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      * Opens a {@link PageCursor} on this store, capable of reading records using
      * {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor)}.
      * The caller is responsible for closing it when done with it.
-     * The opened cursor will make use of pre-fetching for optimal scanning performance.
+     * The opened cursor will make use of pre-fetching for optimal scanning performance, and, like
+     * {@link #openPageCursorForScanning(long, CursorContext)}, accesses the pages with low priority.
      *
      * @param id cursor will initially be placed at the page containing this record id.
      * @param cursorContext underlying page cursor context.
@@ -128,6 +129,19 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     PageCursor openPageCursorForReadingWithPrefetching( long id, CursorContext cursorContext );
 
+    /**
+     * Opens a {@link PageCursor} on this store, capable of reading records using
+     * {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor)}.
+     * The caller is responsible for closing it when done with it.
+     * The opened cursor is meant for sequential scans. It reads pages ahead of the scan, and accesses the pages with low priority,
+     * such that the scan does not push the working set out of the page cache.
+     *
+     * @param id cursor will initially be placed at the page containing this record id.
+     * @param cursorContext underlying page cursor context.
+     * @return PageCursor for reading records.
+     */
+    PageCursor openPageCursorForScanning( long id, CursorContext cursorContext );
+
     /**
      * Opens a {@link PageCursor} on this store, capable of writing records using
      * {@link #updateRecord(AbstractBaseRecord, IdUpdateListener, PageCursor, CursorContext)}.
@@ -23,6 +23,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.internal.id.DefaultIdGeneratorFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -37,6 +41,7 @@ import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.storageengine.api.EntityUpdates;
+import org.neo4j.storageengine.api.LogicalChangeVisitor;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
@@ -209,6 +214,40 @@ class PropertyPhysicalToLogicalConverterTest
         assertEquals( expected, update );
     }
 
+    @Test
+    void shouldDecodeDynamicValuesFromCommandRecordsOnly()
+    {
+        // GIVEN
+        int key = 10;
+        int arrayKey = 11;
+        Value longArray = Values.of( new long[]{1, Long.MAX_VALUE, 3, Long.MIN_VALUE, 5, 6, 7, 8, 9, 10} );
+        PropertyRecord before = propertyRecord( property( key, longString ) );
+        PropertyRecord after = propertyRecord( property( key, longerString ), property( arrayKey, longArray ) );
+
+        // WHEN
+        List<String> changes = convertFromCommandsOnly( change( before, after ) );
+
+        // THEN
+        assertThat( changes ).containsExactly( "changed " + key + " " + longString + " -> " + longerString, "added " + arrayKey + " " + longArray );
+    }
+
+    @Test
+    void shouldReportDynamicValueNotInCommandAsUnavailable()
+    {
+        // GIVEN
+        int key = 10;
+        PropertyBlock light = new PropertyBlock();
+        light.setValueBlocks( property( key, longString ).getValueBlocks() );
+        PropertyRecord before = propertyRecord( light );
+        PropertyRecord after = propertyRecord();
+
+        // WHEN
+        List<String> changes = convertFromCommandsOnly( change( before, after ) );
+
+        // THEN
+        assertThat( changes ).containsExactly( "removed " + key + " null" );
+    }
+
     private static PropertyRecord propertyRecord( PropertyBlock... propertyBlocks )
     {
         PropertyRecord record = new PropertyRecord( 0 );
@@ -248,6 +287,39 @@ class PropertyPhysicalToLogicalConverterTest
         return updates.build();
     }
 
+    private static List<String> convertFromCommandsOnly( Command.PropertyCommand... changes )
+    {
+        EntityCommandGrouper<Command.NodeCommand> grouper = new EntityCommandGrouper<>( Command.NodeCommand.class, 8 );
+        for ( Command.PropertyCommand change : changes )
+        {
+            grouper.add( change );
+        }
+        EntityCommandGrouper<Command.NodeCommand>.Cursor cursor = grouper.sortAndAccessGroups();
+        assertTrue( cursor.nextEntity() );
+        List<String> result = new ArrayList<>();
+        PropertyPhysicalToLogicalConverter.fromCommandsOnly( NULL ).convertPropertyRecord( cursor, EntityType.NODE, 0, new LogicalChangeVisitor.Adapter()
+        {
+            @Override
+            public void visitPropertyAdded( EntityType entityType, long entityId, int propertyKeyId, Value value )
+            {
+                result.add( "added " + propertyKeyId + " " + value );
+            }
+
+            @Override
+            public void visitPropertyChanged( EntityType entityType, long entityId, int propertyKeyId, Value before, Value after )
+            {
+                result.add( "changed " + propertyKeyId + " " + before + " -> " + after );
+            }
+
+            @Override
+            public void visitPropertyRemoved( EntityType entityType, long entityId, int propertyKeyId, Value before )
+            {
+                result.add( "removed " + propertyKeyId + " " + before );
+            }
+        } );
+        return result;
+    }
+
     private static Command.PropertyCommand change( final PropertyRecord before, final PropertyRecord after )
     {
         return new Command.PropertyCommand( before, after );
@@ -84,15 +84,18 @@ import static org.neo4j.internal.recordstorage.FlatRelationshipModifications.sin
 import static org.neo4j.internal.recordstorage.FlatRelationshipModifications.singleDelete;
 import static org.neo4j.internal.recordstorage.RecordAccess.LoadMonitor.NULL_MONITOR;
 import static org.neo4j.internal.recordstorage.RelationshipChainVisitor.relationshipCollector;
+import static org.neo4j.internal.recordstorage.RelationshipLockHelper.groupTypeResourceId;
 import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
 import static org.neo4j.kernel.impl.store.record.Record.isNull;
 import static org.neo4j.lock.LockTracer.NONE;
 import static org.neo4j.lock.LockType.EXCLUSIVE;
+import static org.neo4j.lock.LockType.SHARED;
 import static org.neo4j.lock.ResourceLocker.IGNORE;
 import static org.neo4j.lock.ResourceTypes.NODE;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_DELETE;
 import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP;
+import static org.neo4j.lock.ResourceTypes.RELATIONSHIP_GROUP_TYPE;
 import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
 import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
 import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
@@ -261,7 +264,9 @@ class RelationshipModifierTest
 
         // then
         locks.assertNoLock( NODE, EXCLUSIVE, node );
-        locks.assertHasLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertHasLock( RELATIONSHIP_GROUP, SHARED, node );
+        locks.assertHasLock( RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, groupTypeResourceId( node, 1 ) );
     }
 
     @Test
@@ -277,7 +282,9 @@ class RelationshipModifierTest
 
         // then
         locks.assertNoLock( NODE, EXCLUSIVE, node );
-        locks.assertHasLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertHasLock( RELATIONSHIP_GROUP, SHARED, node );
+        locks.assertHasLock( RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, groupTypeResourceId( node, 1 ) );
     }
 
     @Test
@@ -296,6 +303,30 @@ class RelationshipModifierTest
         assertThat( groupUpdater.degree( node, 1, OUTGOING ) ).isEqualTo( numRelationships + 1 );
         locks.assertNoLock( NODE, EXCLUSIVE, node );
         locks.assertNoLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP, SHARED, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, groupTypeResourceId( node, 1 ) );
+        locks.assertNoLock( RELATIONSHIP_GROUP_TYPE, SHARED, groupTypeResourceId( node, 1 ) );
+    }
+
+    @Test
+    void denseMultipleTypesOneEmptyChainCreate()
+    {
+        // given
+        long node = createEmptyNode();
+        createRelationships( generateRelationshipData( DENSE_THRESHOLD * 4, node, alternatingTypes( 0, 1 ), this::createEmptyNode, OUT ) );
+
+        // when
+        modify( creations(
+                relationship( nextRelationshipId(), 0, node, createEmptyNode() ),
+                relationship( nextRelationshipId(), 1, createEmptyNode(), node ) ) );
+
+        // then only the group of the type getting a new chain is exclusively locked
+        locks.assertNoLock( NODE, EXCLUSIVE, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertHasLock( RELATIONSHIP_GROUP, SHARED, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, groupTypeResourceId( node, 0 ) );
+        locks.assertNoLock( RELATIONSHIP_GROUP_TYPE, SHARED, groupTypeResourceId( node, 0 ) );
+        locks.assertHasLock( RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, groupTypeResourceId( node, 1 ) );
     }
 
     @Test
@@ -331,7 +362,8 @@ class RelationshipModifierTest
         // then
         assertThat( groupUpdater.degree( node, 1, OUTGOING ) ).isEqualTo( initialRelationships.size() - 1 );
         locks.assertNoLock( NODE, EXCLUSIVE, node );
-        locks.assertHasLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertNoLock( RELATIONSHIP_GROUP, EXCLUSIVE, node );
+        locks.assertHasLock( RELATIONSHIP_GROUP_TYPE, EXCLUSIVE, groupTypeResourceId( node, 1 ) );
     }
 
     // ... other known cases ...
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import org.neo4j.common.EntityType;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Receives the logical changes of a committed transaction, as decoded from its {@link StorageCommand commands} by
+ * {@link StorageEngine#decodeChanges(CommandStream, LogicalChangeVisitor, org.neo4j.io.pagecache.context.CursorContext)}.
+ * <p>
+ * Changes are visited grouped by entity, nodes before relationships, and not in the order they were made in the transaction.
+ * A created entity is visited before its labels and properties, a deleted entity after its labels and properties have been removed.
+ * Tokens are referred to by id.
+ * <p>
+ * Labels and property values are decoded from the commands alone. One that isn't contained in them is unavailable and passed as {@code null},
+ * i.e. both {@code added} and {@code removed} labels of a node whose labels can't be decoded, or the value of a property.
+ */
+public interface LogicalChangeVisitor
+{
+    void visitNodeCreated( long nodeId );
+
+    void visitNodeDeleted( long nodeId );
+
+    void visitNodeLabelsChanged( long nodeId, long[] added, long[] removed );
+
+    void visitRelationshipCreated( long relationshipId, int type, long startNodeId, long endNodeId );
+
+    void visitRelationshipDeleted( long relationshipId, int type, long startNodeId, long endNodeId );
+
+    void visitPropertyAdded( EntityType entityType, long entityId, int propertyKeyId, Value value );
+
+    void visitPropertyChanged( EntityType entityType, long entityId, int propertyKeyId, Value before, Value after );
+
+    void visitPropertyRemoved( EntityType entityType, long entityId, int propertyKeyId, Value before );
+
+    class Adapter implements LogicalChangeVisitor
+    {
+        @Override
+        public void visitNodeCreated( long nodeId )
+        {
+        }
+
+        @Override
+        public void visitNodeDeleted( long nodeId )
+        {
+        }
+
+        @Override
+        public void visitNodeLabelsChanged( long nodeId, long[] added, long[] removed )
+        {
+        }
+
+        @Override
+        public void visitRelationshipCreated( long relationshipId, int type, long startNodeId, long endNodeId )
+        {
+        }
+
+        @Override
+        public void visitRelationshipDeleted( long relationshipId, int type, long startNodeId, long endNodeId )
+        {
+        }
+
+        @Override
+        public void visitPropertyAdded( EntityType entityType, long entityId, int propertyKeyId, Value value )
+        {
+        }
+
+        @Override
+        public void visitPropertyChanged( EntityType entityType, long entityId, int propertyKeyId, Value before, Value after )
+        {
+        }
+
+        @Override
+        public void visitPropertyRemoved( EntityType entityType, long entityId, int propertyKeyId, Value before )
+        {
+        }
+    }
+}
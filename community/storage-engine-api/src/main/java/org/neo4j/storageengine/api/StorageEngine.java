@@ -117,6 +117,18 @@ public interface StorageEngine extends Lifecycle
      */
     void lockRecoveryCommands( CommandStream commands, LockService lockService, LockGroup lockGroup, TransactionApplicationMode mode );
 
+    /**
+     * Decodes the logical changes that the given commands make, e.g. for streaming changes of committed transactions
+     * read back from the transaction log. Nothing is read from the store, which may have changed since, so any state not contained in the
+     * commands themselves is reported as unavailable, see {@link LogicalChangeVisitor}.
+     *
+     * @param commands of a single committed transaction.
+     * @param visitor receiving the logical changes.
+     * @param cursorContext underlying page cursor context.
+     * @throws IOException on error reading commands or store.
+     */
+    void decodeChanges( CommandStream commands, LogicalChangeVisitor visitor, CursorContext cursorContext ) throws IOException;
+
     /**
      * Apply a batch of groups of commands to this storage.
      *
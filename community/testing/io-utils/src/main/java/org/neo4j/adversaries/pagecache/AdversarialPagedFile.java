@@ -93,6 +93,13 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        adversary.injectFailure( NoSuchFileException.class, IOException.class, SecurityException.class, IllegalStateException.class );
+        return delegate.touch( pageId, count, context );
+    }
+
     @Override
     public void close()
     {
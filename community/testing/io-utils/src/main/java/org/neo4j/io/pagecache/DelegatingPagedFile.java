@@ -51,6 +51,12 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        return delegate.touch( pageId, count, context );
+    }
+
     @Override
     public int pageSize()
     {
@@ -81,6 +81,16 @@ public class StubPagedFile implements PagedFile
         return lastPageId;
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context )
+    {
+        if ( pageId < 0 || pageId > lastPageId || count <= 0 )
+        {
+            return 0;
+        }
+        return (int) Math.min( count, lastPageId - pageId + 1 );
+    }
+
     @Override
     public void close()
     {
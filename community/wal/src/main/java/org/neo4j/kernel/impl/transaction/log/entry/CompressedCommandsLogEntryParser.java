@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.fs.ReadableChannel;
+import org.neo4j.io.fs.ReadableChecksumChannel;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompressedCommands.MAXIMUM_UNCOMPRESSED_SIZE;
+
+/**
+ * Parses a {@link LogEntryTypeCodes#COMPRESSED_COMMANDS} entry, which has the format:
+ * <pre>
+ *     [VERSION][TYPE][UNCOMPRESSED_LENGTH][COMPRESSED_LENGTH][COMPRESSED_DATA]
+ * </pre>
+ * where the uncompressed data is a sequence of ordinary {@link LogEntryTypeCodes#COMMAND} entries, byte for byte what would have
+ * been written to the log had the commands not been compressed.
+ */
+class CompressedCommandsLogEntryParser extends LogEntryParser
+{
+    CompressedCommandsLogEntryParser()
+    {
+        super( LogEntryTypeCodes.COMPRESSED_COMMANDS );
+    }
+
+    @Override
+    LogEntry parse( KernelVersion version, ReadableChecksumChannel channel, LogPositionMarker marker, CommandReaderFactory commandReaderFactory )
+            throws IOException
+    {
+        int uncompressedLength = channel.getInt();
+        int compressedLength = channel.getInt();
+        // Commands are only written compressed when that makes them smaller
+        if ( uncompressedLength < 0 || uncompressedLength > MAXIMUM_UNCOMPRESSED_SIZE || compressedLength < 0 || compressedLength >= uncompressedLength )
+        {
+            throw new IOException( format( "Invalid compressed commands entry lengths, uncompressed:%d compressed:%d", uncompressedLength,
+                    compressedLength ) );
+        }
+        byte[] compressed = new byte[compressedLength];
+        channel.get( compressed, compressedLength );
+
+        byte[] uncompressed = new byte[uncompressedLength];
+        long result = Zstd.decompressByteArray( uncompressed, 0, uncompressedLength, compressed, 0, compressedLength );
+        if ( Zstd.isError( result ) )
+        {
+            throw new IOException( "Unable to decompress commands: " + Zstd.getErrorName( result ) );
+        }
+        if ( result != uncompressedLength )
+        {
+            throw new IOException( format( "Decompressed commands to %d bytes, expected %d", result, uncompressedLength ) );
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap( uncompressed );
+        ReadableChannel commandChannel = new ByteBufferReadableChannel( buffer );
+        CommandReader commandReader = commandReaderFactory.get( version );
+        List<LogEntryCommand> commands = new ArrayList<>();
+        while ( buffer.hasRemaining() )
+        {
+            byte commandVersion = commandChannel.get();
+            byte commandType = commandChannel.get();
+            if ( commandVersion != version.version() || commandType != LogEntryTypeCodes.COMMAND )
+            {
+                throw new IOException( format( "Unexpected entry version:%d type:%d inside compressed commands of version %s", commandVersion,
+                        commandType, version ) );
+            }
+            commands.add( new LogEntryCommand( version, commandReader.read( commandChannel ) ) );
+        }
+        return new LogEntryCompressedCommands( version, commands );
+    }
+
+    private static class ByteBufferReadableChannel implements ReadableChannel
+    {
+        private final ByteBuffer buffer;
+
+        ByteBufferReadableChannel( ByteBuffer buffer )
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public byte get() throws IOException
+        {
+            ensureRemaining( Byte.BYTES );
+            return buffer.get();
+        }
+
+        @Override
+        public short getShort() throws IOException
+        {
+            ensureRemaining( Short.BYTES );
+            return buffer.getShort();
+        }
+
+        @Override
+        public int getInt() throws IOException
+        {
+            ensureRemaining( Integer.BYTES );
+            return buffer.getInt();
+        }
+
+        @Override
+        public long getLong() throws IOException
+        {
+            ensureRemaining( Long.BYTES );
+            return buffer.getLong();
+        }
+
+        @Override
+        public float getFloat() throws IOException
+        {
+            ensureRemaining( Float.BYTES );
+            return buffer.getFloat();
+        }
+
+        @Override
+        public double getDouble() throws IOException
+        {
+            ensureRemaining( Double.BYTES );
+            return buffer.getDouble();
+        }
+
+        @Override
+        public void get( byte[] bytes, int length ) throws IOException
+        {
+            ensureRemaining( length );
+            buffer.get( bytes, 0, length );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        private void ensureRemaining( int bytes ) throws IOException
+        {
+            // The entry was decompressed whole, so a command that is cut short means that the entry is corrupt
+            if ( buffer.remaining() < bytes )
+            {
+                throw new IOException( format( "Compressed commands end within a command, which needed %d more bytes but only %d were left", bytes,
+                        buffer.remaining() ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.util.List;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.KernelVersion;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
+
+/**
+ * A run of {@link LogEntryCommand command entries} which were written compressed, as a single entry.
+ * {@link VersionAwareLogEntryReader} unpacks it so that readers of the log only ever see the individual commands.
+ */
+public class LogEntryCompressedCommands extends AbstractLogEntry
+{
+    /**
+     * The largest number of bytes that the commands of one compressed entry may take up uncompressed. Writers never compress more than this,
+     * so that readers can tell a corrupt entry from one that is merely large.
+     */
+    public static final int MAXIMUM_UNCOMPRESSED_SIZE = (int) ByteUnit.mebiBytes( 64 );
+
+    private final List<LogEntryCommand> commands;
+
+    public LogEntryCompressedCommands( KernelVersion version, List<LogEntryCommand> commands )
+    {
+        super( version, COMPRESSED_COMMANDS );
+        this.commands = commands;
+    }
+
+    public List<LogEntryCommand> getCommands()
+    {
+        return commands;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CompressedCommands[" + commands.size() + " commands]";
+    }
+}
@@ -25,6 +25,11 @@ public class LogEntryParserSetV4_3 extends LogEntryParserSetV4_2
 {
     LogEntryParserSetV4_3()
     {
-        super( KernelVersion.V4_3_D4 );
+        this( KernelVersion.V4_3_D4 );
+    }
+
+    LogEntryParserSetV4_3( KernelVersion version )
+    {
+        super( version );
     }
 }
@@ -32,4 +32,6 @@ public class LogEntryTypeCodes
     public static final byte LEGACY_CHECK_POINT = (byte) 7;
     // Detached check point log entries lives in a separate file
     public static final byte DETACHED_CHECK_POINT = (byte) 8;
+    // A zstd compressed run of command entries, understood from the 4.3 parser set and onwards
+    public static final byte COMPRESSED_COMMANDS = (byte) 9;
 }
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.entry;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 
 import org.neo4j.io.fs.PositionableChannel;
 import org.neo4j.io.fs.ReadPastEndException;
@@ -36,6 +37,7 @@ import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 
 /**
  * Reads {@link LogEntry log entries} off of a channel. Supported versions can be read intermixed.
+ * {@link LogEntryCompressedCommands Compressed commands} are unpacked and handed out one {@link LogEntryCommand} at a time.
  */
 public class VersionAwareLogEntryReader implements LogEntryReader
 {
@@ -43,6 +45,8 @@ public class VersionAwareLogEntryReader implements LogEntryReader
     private final CommandReaderFactory commandReaderFactory;
     private final LogPositionMarker positionMarker;
     private final boolean verifyChecksumChain;
+    private final ArrayDeque<LogEntryCommand> pendingCommands = new ArrayDeque<>();
+    private ReadableClosablePositionAwareChecksumChannel pendingCommandsChannel;
     private LogEntryParserSet parserSet;
     private int lastTxChecksum = BASE_TX_CHECKSUM;
 
@@ -61,6 +65,14 @@ public class VersionAwareLogEntryReader implements LogEntryReader
     @Override
     public LogEntry readLogEntry( ReadableClosablePositionAwareChecksumChannel channel ) throws IOException
     {
+        if ( !pendingCommands.isEmpty() )
+        {
+            if ( pendingCommandsChannel == channel )
+            {
+                return pendingCommands.poll();
+            }
+            pendingCommands.clear();
+        }
         try
         {
             while ( true )
@@ -128,6 +140,17 @@ public class VersionAwareLogEntryReader implements LogEntryReader
                     throw new IOException( e );
                 }
 
+                if ( entry instanceof LogEntryCompressedCommands )
+                {
+                    pendingCommands.addAll( ((LogEntryCompressedCommands) entry).getCommands() );
+                    pendingCommandsChannel = channel;
+                    if ( pendingCommands.isEmpty() )
+                    {
+                        continue;
+                    }
+                    return pendingCommands.poll();
+                }
+
                 verifyChecksumChain( entry );
                 return entry;
             }
@@ -36,7 +36,9 @@ public class TransactionLogFilesHelper
 {
     public static final String DEFAULT_NAME = "neostore.transaction.db";
     public static final String CHECKPOINT_FILE_PREFIX = "checkpoint";
-    static final DirectoryStream.Filter<Path> DEFAULT_FILENAME_FILTER = new LogicalLogFilenameFilter( quote( DEFAULT_NAME ), quote( CHECKPOINT_FILE_PREFIX ) );
+    public static final String INDEX_FILE_SUFFIX = "-index";
+    static final DirectoryStream.Filter<Path> DEFAULT_FILENAME_FILTER =
+            new LogicalLogFilenameFilter( quote( DEFAULT_NAME ), quote( DEFAULT_NAME + INDEX_FILE_SUFFIX ), quote( CHECKPOINT_FILE_PREFIX ) );
     public static final Predicate<String> DEFAULT_FILENAME_PREDICATE = file -> file.startsWith( DEFAULT_NAME ) || file.startsWith( CHECKPOINT_FILE_PREFIX );
 
     private static final String VERSION_SUFFIX = ".";
@@ -46,6 +48,7 @@ public class TransactionLogFilesHelper
     private final Path logBaseName;
     private final FileSystemAbstraction fileSystem;
     private final DirectoryStream.Filter<Path> filenameFilter;
+    private final DirectoryStream.Filter<Path> indexFilenameFilter;
 
     public TransactionLogFilesHelper( FileSystemAbstraction fileSystem, Path directory )
     {
@@ -57,6 +60,7 @@ public class TransactionLogFilesHelper
         this.fileSystem = fileSystem;
         this.logBaseName = directory.resolve( name );
         this.filenameFilter = new LogicalLogFilenameFilter( quote( name ) );
+        this.indexFilenameFilter = new LogicalLogFilenameFilter( quote( name + INDEX_FILE_SUFFIX ) );
     }
 
     public Path getLogFileForVersion( long version )
@@ -64,6 +68,17 @@ public class TransactionLogFilesHelper
         return Path.of( logBaseName.toAbsolutePath() + VERSION_SUFFIX + version );
     }
 
+    /**
+     * @return the file of the transaction index that is kept next to the given log file, which must be removed together with the log file.
+     */
+    public static Path indexFileFor( Path logFile )
+    {
+        String name = logFile.getFileName().toString();
+        int index = name.lastIndexOf( VERSION_SUFFIX );
+        String indexName = index == -1 ? name + INDEX_FILE_SUFFIX : name.substring( 0, index ) + INDEX_FILE_SUFFIX + name.substring( index );
+        return logFile.resolveSibling( indexName );
+    }
+
     public static long getLogVersion( Path historyLogFile )
     {
         String historyLogFilename = historyLogFile.getFileName().toString();
@@ -90,6 +105,19 @@ public class TransactionLogFilesHelper
         return files;
     }
 
+    /**
+     * @return the transaction index files next to the log files, including those whose log file doesn't exist anymore.
+     */
+    public Path[] getMatchedIndexFiles() throws IOException
+    {
+        Path[] files = fileSystem.listFiles( logBaseName.getParent(), indexFilenameFilter );
+        if ( files.length == 0 )
+        {
+            return EMPTY_FILES_ARRAY;
+        }
+        return files;
+    }
+
     public void accept( LogVersionVisitor visitor ) throws IOException
     {
         for ( Path file : getMatchedFiles() )